@@ -0,0 +1,87 @@
+/**
+ *    Copyright 2009-2019 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.benchmark;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+import javax.sql.DataSource;
+
+import org.apache.ibatis.datasource.pooled.PooledDataSource;
+import org.apache.ibatis.mapping.Environment;
+import org.apache.ibatis.session.Configuration;
+import org.apache.ibatis.session.LocalCacheScope;
+import org.apache.ibatis.session.SqlSessionFactory;
+import org.apache.ibatis.session.SqlSessionFactoryBuilder;
+import org.apache.ibatis.transaction.jdbc.JdbcTransactionFactory;
+
+/**
+ * In-memory HSQLDB database shared by the benchmarks, with a fixed content so that runs can be compared.
+ */
+final class BenchmarkDatabase {
+
+  static final int AUTHORS = 100;
+  static final int POSTS_PER_AUTHOR = 10;
+
+  private BenchmarkDatabase() {
+    // Prevent Instantiation of Static Class
+  }
+
+  static PooledDataSource createDataSource(String name) {
+    return new PooledDataSource("org.hsqldb.jdbcDriver", "jdbc:hsqldb:mem:" + name, "sa", "");
+  }
+
+  static SqlSessionFactory createSqlSessionFactory(String name, LocalCacheScope localCacheScope) throws SQLException {
+    final PooledDataSource dataSource = createDataSource(name);
+    populate(dataSource);
+    final Configuration configuration = new Configuration(new Environment("benchmark", new JdbcTransactionFactory(), dataSource));
+    configuration.setLocalCacheScope(localCacheScope);
+    configuration.addMapper(BlogMapper.class);
+    return new SqlSessionFactoryBuilder().build(configuration);
+  }
+
+  private static void populate(DataSource dataSource) throws SQLException {
+    try (Connection conn = dataSource.getConnection()) {
+      conn.setAutoCommit(false);
+      try (Statement stmt = conn.createStatement()) {
+        stmt.execute("drop table post if exists");
+        stmt.execute("drop table author if exists");
+        stmt.execute("create table author (id int primary key, name varchar(50))");
+        stmt.execute("create table post (id int primary key, author_id int, title varchar(100))");
+      }
+      try (PreparedStatement authors = conn.prepareStatement("insert into author (id, name) values (?, ?)");
+           PreparedStatement posts = conn.prepareStatement("insert into post (id, author_id, title) values (?, ?, ?)")) {
+        for (int i = 1; i <= AUTHORS; i++) {
+          authors.setInt(1, i);
+          authors.setString(2, "author" + i);
+          authors.addBatch();
+          for (int j = 1; j <= POSTS_PER_AUTHOR; j++) {
+            posts.setInt(1, i * POSTS_PER_AUTHOR + j);
+            posts.setInt(2, i);
+            posts.setString(3, "post" + j + " of author" + i);
+            posts.addBatch();
+          }
+        }
+        authors.executeBatch();
+        posts.executeBatch();
+      }
+      conn.commit();
+    }
+  }
+
+}
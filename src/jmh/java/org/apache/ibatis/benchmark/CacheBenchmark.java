@@ -0,0 +1,99 @@
+/**
+ *    Copyright 2009-2019 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.benchmark;
+
+import java.sql.SQLException;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.ibatis.cache.CacheKey;
+import org.apache.ibatis.executor.Executor;
+import org.apache.ibatis.executor.SimpleExecutor;
+import org.apache.ibatis.mapping.BoundSql;
+import org.apache.ibatis.mapping.MappedStatement;
+import org.apache.ibatis.session.LocalCacheScope;
+import org.apache.ibatis.session.RowBounds;
+import org.apache.ibatis.session.SqlSession;
+import org.apache.ibatis.session.SqlSessionFactory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Hits of the first level (session) cache and of the second level (mapper) cache, and creation of the cache key.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CacheBenchmark {
+
+  private static final int AUTHOR_ID = 1;
+
+  private SqlSessionFactory sqlSessionFactory;
+  private SqlSession sqlSession;
+  private BlogMapper mapper;
+  private Executor executor;
+  private MappedStatement selectAuthor;
+  private BoundSql boundSql;
+
+  @Setup
+  public void setUp() throws SQLException {
+    sqlSessionFactory = BenchmarkDatabase.createSqlSessionFactory("cache", LocalCacheScope.SESSION);
+    sqlSession = sqlSessionFactory.openSession();
+    mapper = sqlSession.getMapper(BlogMapper.class);
+    mapper.selectAuthor(AUTHOR_ID);
+    try (SqlSession session = sqlSessionFactory.openSession()) {
+      session.getMapper(BlogMapper.class).selectCachedAuthor(AUTHOR_ID);
+      session.commit();
+    }
+    executor = new SimpleExecutor(sqlSessionFactory.getConfiguration(), null);
+    selectAuthor = sqlSessionFactory.getConfiguration().getMappedStatement("org.apache.ibatis.benchmark.BlogMapper.selectAuthor");
+    boundSql = selectAuthor.getBoundSql(AUTHOR_ID);
+  }
+
+  @TearDown
+  public void tearDown() {
+    sqlSession.close();
+  }
+
+  @Benchmark
+  public Author firstLevelCacheHit() {
+    return mapper.selectAuthor(AUTHOR_ID);
+  }
+
+  @Benchmark
+  public Author secondLevelCacheHit() {
+    try (SqlSession session = sqlSessionFactory.openSession()) {
+      return session.getMapper(BlogMapper.class).selectCachedAuthor(AUTHOR_ID);
+    }
+  }
+
+  @Benchmark
+  public CacheKey createCacheKey() {
+    return executor.createCacheKey(selectAuthor, AUTHOR_ID, RowBounds.DEFAULT, boundSql);
+  }
+
+}
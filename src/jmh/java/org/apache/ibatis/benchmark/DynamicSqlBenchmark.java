@@ -0,0 +1,80 @@
+/**
+ *    Copyright 2009-2019 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.benchmark;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.ibatis.mapping.BoundSql;
+import org.apache.ibatis.mapping.MappedStatement;
+import org.apache.ibatis.session.LocalCacheScope;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Generation of the SQL of a dynamic statement (where, if and foreach), without running it.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DynamicSqlBenchmark {
+
+  private MappedStatement findAuthors;
+  private Map<String, Object> byName;
+  private Map<String, Object> byNameAndIds;
+
+  @Setup
+  public void setUp() throws SQLException {
+    findAuthors = BenchmarkDatabase.createSqlSessionFactory("dynamic", LocalCacheScope.STATEMENT).getConfiguration()
+        .getMappedStatement("org.apache.ibatis.benchmark.BlogMapper.findAuthors");
+    List<Integer> ids = new ArrayList<>();
+    for (int i = 1; i <= 10; i++) {
+      ids.add(i);
+    }
+    byName = new HashMap<>();
+    byName.put("name", "author%");
+    byName.put("ids", null);
+    byNameAndIds = new HashMap<>();
+    byNameAndIds.put("name", "author%");
+    byNameAndIds.put("ids", ids);
+  }
+
+  @Benchmark
+  public BoundSql ifTest() {
+    return findAuthors.getBoundSql(byName);
+  }
+
+  @Benchmark
+  public BoundSql ifTestAndForeach() {
+    return findAuthors.getBoundSql(byNameAndIds);
+  }
+
+}
@@ -0,0 +1,88 @@
+/**
+ *    Copyright 2009-2019 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.benchmark;
+
+import java.sql.SQLException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.ibatis.session.LocalCacheScope;
+import org.apache.ibatis.session.SqlSession;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Mapper invocation overhead, and mapping of simple and nested (joined) result maps.
+ * The local cache is scoped to the statement, so every call runs the query.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MapperBenchmark {
+
+  private SqlSession sqlSession;
+  private BlogMapper mapper;
+  private int id;
+
+  @Setup
+  public void setUp() throws SQLException {
+    sqlSession = BenchmarkDatabase.createSqlSessionFactory("mapper", LocalCacheScope.STATEMENT).openSession();
+    mapper = sqlSession.getMapper(BlogMapper.class);
+  }
+
+  @TearDown
+  public void tearDown() {
+    sqlSession.close();
+  }
+
+  private int nextId() {
+    id = id % BenchmarkDatabase.AUTHORS + 1;
+    return id;
+  }
+
+  @Benchmark
+  public Author selectOneWithMapper() {
+    return mapper.selectAuthor(nextId());
+  }
+
+  @Benchmark
+  public Author selectOneWithSqlSession() {
+    return sqlSession.selectOne("org.apache.ibatis.benchmark.BlogMapper.selectAuthor", nextId());
+  }
+
+  @Benchmark
+  public List<Author> simpleResultMap() {
+    return mapper.selectAuthors();
+  }
+
+  @Benchmark
+  public List<Author> nestedResultMap() {
+    return mapper.selectAuthorsWithPosts();
+  }
+
+}
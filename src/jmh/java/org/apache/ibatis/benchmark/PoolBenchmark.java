@@ -0,0 +1,86 @@
+/**
+ *    Copyright 2009-2019 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.benchmark;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.Properties;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.ibatis.datasource.pooled.PooledDataSource;
+import org.apache.ibatis.datasource.pooled.PooledDataSourceFactory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Checkout and return of pooled connections by more threads than the pool has connections.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(8)
+public class PoolBenchmark {
+
+  @Param({ "SYNCHRONIZED", "CONCURRENT" })
+  private String poolEngine;
+
+  @Param({ "4" })
+  private int poolMaximumActiveConnections;
+
+  private PooledDataSource dataSource;
+
+  @Setup
+  public void setUp() {
+    PooledDataSourceFactory factory = new PooledDataSourceFactory();
+    Properties properties = new Properties();
+    properties.setProperty("driver", "org.hsqldb.jdbcDriver");
+    properties.setProperty("url", "jdbc:hsqldb:mem:pool");
+    properties.setProperty("username", "sa");
+    properties.setProperty("password", "");
+    properties.setProperty("poolEngine", poolEngine);
+    properties.setProperty("poolMaximumActiveConnections", String.valueOf(poolMaximumActiveConnections));
+    properties.setProperty("poolMaximumIdleConnections", String.valueOf(poolMaximumActiveConnections));
+    factory.setProperties(properties);
+    dataSource = (PooledDataSource) factory.getDataSource();
+  }
+
+  @TearDown
+  public void tearDown() {
+    dataSource.forceCloseAll();
+  }
+
+  @Benchmark
+  public boolean checkout() throws SQLException {
+    try (Connection connection = dataSource.getConnection()) {
+      return connection.getAutoCommit();
+    }
+  }
+
+}
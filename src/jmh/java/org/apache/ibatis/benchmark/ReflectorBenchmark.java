@@ -0,0 +1,80 @@
+/**
+ *    Copyright 2009-2019 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.apache.ibatis.reflection.AccessorStrategy;
+import org.apache.ibatis.reflection.DefaultReflectorFactory;
+import org.apache.ibatis.reflection.MetaObject;
+import org.apache.ibatis.reflection.Reflector;
+import org.apache.ibatis.reflection.factory.DefaultObjectFactory;
+import org.apache.ibatis.reflection.wrapper.DefaultObjectWrapperFactory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Property access through {@link MetaObject} with each accessor strategy, and the cost of a new {@link Reflector}.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ReflectorBenchmark {
+
+  @Param({ "REFLECTION", "LAMBDA" })
+  private AccessorStrategy accessorStrategy;
+
+  private MetaObject metaObject;
+
+  @Setup
+  public void setUp() {
+    DefaultReflectorFactory reflectorFactory = new DefaultReflectorFactory();
+    reflectorFactory.setAccessorStrategy(accessorStrategy);
+    Author author = new Author();
+    author.setId(1);
+    author.setName("author1");
+    metaObject = MetaObject.forObject(author, new DefaultObjectFactory(), new DefaultObjectWrapperFactory(), reflectorFactory);
+  }
+
+  @Benchmark
+  public Object getProperty() {
+    return metaObject.getValue("name");
+  }
+
+  @Benchmark
+  public MetaObject setProperty() {
+    metaObject.setValue("name", "author1");
+    return metaObject;
+  }
+
+  @Benchmark
+  public Reflector createReflector() {
+    return new Reflector(Author.class, accessorStrategy);
+  }
+
+}
@@ -22,6 +22,8 @@ import java.lang.annotation.RetentionPolicy;
 import java.lang.annotation.Target;
 
 import org.apache.ibatis.cache.Cache;
+import org.apache.ibatis.cache.CacheValueCopier;
+import org.apache.ibatis.cache.copier.SerializingCopier;
 import org.apache.ibatis.cache.decorators.LruCache;
 import org.apache.ibatis.cache.impl.PerpetualCache;
 
@@ -43,6 +45,12 @@ public @interface CacheNamespace {
 
   boolean readWrite() default true;
 
+  /**
+   * The copier of a read-write cache.
+   * @since 3.5.3
+   */
+  Class<? extends CacheValueCopier> copier() default SerializingCopier.class;
+
   boolean blocking() default false;
 
   /**
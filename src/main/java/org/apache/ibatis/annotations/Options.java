@@ -63,4 +63,12 @@ public @interface Options {
   String keyColumn() default "";
 
   String resultSets() default "";
+
+  /**
+   * Maps the rows on the fork-join pool while the following rows are fetched, see
+   * {@link org.apache.ibatis.mapping.MappedStatement#isParallelMapping()}.
+   *
+   * @since 3.5.3
+   */
+  boolean parallelMapping() default false;
 }
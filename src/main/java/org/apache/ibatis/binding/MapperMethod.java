@@ -23,20 +23,24 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
 
 import org.apache.ibatis.annotations.Flush;
 import org.apache.ibatis.annotations.MapKey;
 import org.apache.ibatis.cursor.Cursor;
+import org.apache.ibatis.cursor.CursorPublisher;
 import org.apache.ibatis.mapping.MappedStatement;
 import org.apache.ibatis.mapping.SqlCommandType;
 import org.apache.ibatis.mapping.StatementType;
 import org.apache.ibatis.reflection.MetaObject;
 import org.apache.ibatis.reflection.ParamNameResolver;
 import org.apache.ibatis.reflection.TypeParameterResolver;
+import org.apache.ibatis.session.AsyncSqlSession;
 import org.apache.ibatis.session.Configuration;
 import org.apache.ibatis.session.ResultHandler;
 import org.apache.ibatis.session.RowBounds;
 import org.apache.ibatis.session.SqlSession;
+import org.apache.ibatis.session.defaults.DefaultSqlSessionFactory;
 
 /**
  * @author Clinton Begin
@@ -52,9 +56,32 @@ public class MapperMethod {
   public MapperMethod(Class<?> mapperInterface, Method method, Configuration config) {
     this.command = new SqlCommand(config, mapperInterface, method);
     this.method = new MethodSignature(config, mapperInterface, method);
+    if (this.method.returnsPublisher() && command.getType() != SqlCommandType.SELECT) {
+      throw new BindingException("Mapper method '" + command.getName() + "' returns a publisher of rows but is not a select.");
+    }
   }
 
   public Object execute(SqlSession sqlSession, Object[] args) {
+    if (method.returnsFuture()) {
+      // runs in a session of its own, see AsyncSqlSession
+      return getAsyncSqlSession(sqlSession).execute(asyncSession -> executeCommand(asyncSession, args));
+    }
+    if (method.returnsPublisher()) {
+      // every subscription runs the query in a session of its own, see CursorPublisher
+      CursorPublisher<Object> publisher = getAsyncSqlSession(sqlSession).publish(asyncSession -> executeForCursor(asyncSession, args));
+      return CursorPublisher.isFlowPublisherType(method.getReturnType()) ? publisher.toFlowPublisher() : publisher;
+    }
+    return executeCommand(sqlSession, args);
+  }
+
+  private AsyncSqlSession getAsyncSqlSession(SqlSession sqlSession) {
+    final Configuration configuration = sqlSession.getConfiguration();
+    final AsyncSqlSession asyncSqlSession = configuration.getAsyncSqlSession();
+    // without a registered session, the sessions are opened the way the default factory opens them
+    return asyncSqlSession != null ? asyncSqlSession : new AsyncSqlSession(new DefaultSqlSessionFactory(configuration));
+  }
+
+  private Object executeCommand(SqlSession sqlSession, Object[] args) {
     Object result;
     switch (command.getType()) {
       case INSERT: {
@@ -282,6 +309,8 @@ public class MapperMethod {
     private final boolean returnsVoid;
     private final boolean returnsCursor;
     private final boolean returnsOptional;
+    private final boolean returnsFuture;
+    private final boolean returnsPublisher;
     private final Class<?> returnType;
     private final String mapKey;
     private final Integer resultHandlerIndex;
@@ -290,17 +319,33 @@ public class MapperMethod {
 
     public MethodSignature(Configuration configuration, Class<?> mapperInterface, Method method) {
       Type resolvedReturnType = TypeParameterResolver.resolveReturnType(method, mapperInterface);
+      if (resolvedReturnType instanceof ParameterizedType
+          && CompletableFuture.class.equals(((ParameterizedType) resolvedReturnType).getRawType())) {
+        // the statement is described by the result type of the future
+        this.returnsFuture = true;
+        resolvedReturnType = ((ParameterizedType) resolvedReturnType).getActualTypeArguments()[0];
+      } else if (CompletableFuture.class.equals(resolvedReturnType)) {
+        this.returnsFuture = true;
+        resolvedReturnType = Object.class;
+      } else {
+        this.returnsFuture = false;
+      }
       if (resolvedReturnType instanceof Class<?>) {
         this.returnType = (Class<?>) resolvedReturnType;
       } else if (resolvedReturnType instanceof ParameterizedType) {
         this.returnType = (Class<?>) ((ParameterizedType) resolvedReturnType).getRawType();
       } else {
-        this.returnType = method.getReturnType();
+        this.returnType = this.returnsFuture ? Object.class : method.getReturnType();
       }
-      this.returnsVoid = void.class.equals(this.returnType);
+      this.returnsVoid = void.class.equals(this.returnType) || (this.returnsFuture && Void.class.equals(this.returnType));
       this.returnsMany = configuration.getObjectFactory().isCollection(this.returnType) || this.returnType.isArray();
       this.returnsCursor = Cursor.class.equals(this.returnType);
       this.returnsOptional = Optional.class.equals(this.returnType);
+      this.returnsPublisher = CursorPublisher.isPublisherType(this.returnType);
+      if (this.returnsFuture && (this.returnsCursor || this.returnsPublisher)) {
+        throw new BindingException("Mapper method '" + method.getName() + "' cannot return a future of a Cursor,"
+            + " the cursor would be closed with the session of the asynchronous statement.");
+      }
       this.mapKey = getMapKey(method);
       this.returnsMap = this.mapKey != null;
       this.rowBoundsIndex = getUniqueParamIndex(method, RowBounds.class);
@@ -361,6 +406,25 @@ public class MapperMethod {
       return returnsOptional;
     }
 
+    /**
+     * return whether return type is {@code java.util.concurrent.CompletableFuture}.
+     * The other methods then describe the result type of the future.
+     * @return return {@code true}, if return type is {@code java.util.concurrent.CompletableFuture}
+     * @since 3.5.3
+     */
+    public boolean returnsFuture() {
+      return returnsFuture;
+    }
+
+    /**
+     * return whether return type is {@link CursorPublisher} or {@code java.util.concurrent.Flow.Publisher}.
+     * @return return {@code true}, if the method publishes the rows of a cursor
+     * @since 3.5.3
+     */
+    public boolean returnsPublisher() {
+      return returnsPublisher;
+    }
+
     private Integer getUniqueParamIndex(Method method, Class<?> paramType) {
       Integer index = null;
       final Class<?>[] argTypes = method.getParameterTypes();
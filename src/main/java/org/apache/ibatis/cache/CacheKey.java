@@ -15,8 +15,13 @@
  */
 package org.apache.ibatis.cache;
 
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.ObjectStreamField;
 import java.io.Serializable;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 import java.util.StringJoiner;
 
@@ -29,6 +34,15 @@ public class CacheKey implements Cloneable, Serializable {
 
   private static final long serialVersionUID = 1146682552656046210L;
 
+  // keeps the serialized form of the list based implementation
+  private static final ObjectStreamField[] serialPersistentFields = {
+      new ObjectStreamField("multiplier", int.class),
+      new ObjectStreamField("hashcode", int.class),
+      new ObjectStreamField("checksum", long.class),
+      new ObjectStreamField("count", int.class),
+      new ObjectStreamField("updateList", List.class)
+  };
+
   public static final CacheKey NULL_CACHE_KEY = new CacheKey(){
     @Override
     public void update(Object object) {
@@ -42,28 +56,55 @@ public class CacheKey implements Cloneable, Serializable {
 
   private static final int DEFAULT_MULTIPLIER = 37;
   private static final int DEFAULT_HASHCODE = 17;
+  private static final int DEFAULT_CAPACITY = 8;
+  private static final long DEFAULT_FINGERPRINT = 0xcbf29ce484222325L;
+  private static final Object[] EMPTY_UPDATE_LIST = {};
 
-  private final int multiplier;
   private int hashcode;
   private long checksum;
   private int count;
-  // 8/21/2017 - Sonarlint flags this as needing to be marked transient.  While true if content is not serializable, this is not always true and thus should not be marked transient.
-  private List<Object> updateList;
+  // 64 bit hash of all updates, compared first by equals() and folded into hashCode()
+  private transient long fingerprint;
+  private transient Object[] updateList;
+  // the entries shared with the prefix this key has been created from, see CacheKey(CacheKey, int)
+  private transient Object[] prefixList;
+  private transient int prefixCount;
 
   public CacheKey() {
     this.hashcode = DEFAULT_HASHCODE;
-    this.multiplier = DEFAULT_MULTIPLIER;
+    this.fingerprint = DEFAULT_FINGERPRINT;
     this.count = 0;
-    this.updateList = new ArrayList<>();
+    this.updateList = EMPTY_UPDATE_LIST;
   }
 
   public CacheKey(Object[] objects) {
     this();
+    this.updateList = new Object[objects.length];
     updateAll(objects);
   }
 
+  /**
+   * Creates a key that starts with all updates of the given prefix key.
+   * <p>
+   * Keys created from the same prefix instance do not compare the shared updates again in {@link #equals(Object)}.
+   * The prefix key must not be updated afterwards.
+   *
+   * @param prefix the key holding the leading updates
+   * @param expectedUpdates the number of updates that will follow
+   * @since 3.5.3
+   */
+  public CacheKey(CacheKey prefix, int expectedUpdates) {
+    this.hashcode = prefix.hashcode;
+    this.checksum = prefix.checksum;
+    this.fingerprint = prefix.fingerprint;
+    this.count = prefix.count;
+    this.updateList = Arrays.copyOf(prefix.updateList, prefix.count + Math.max(expectedUpdates, 0));
+    this.prefixList = prefix.updateList;
+    this.prefixCount = prefix.count;
+  }
+
   public int getUpdateCount() {
-    return updateList.size();
+    return count;
   }
 
   public void update(Object object) {
@@ -72,11 +113,15 @@ public class CacheKey implements Cloneable, Serializable {
     count++;
     //特征值的hashcode之和
     checksum += baseHashCode;
+    fingerprint = mix(fingerprint, baseHashCode);
     baseHashCode *= count;
     //hashcode = 扩展因子（37）* 原来的hashcode  + 新特征值的hashcode
-    hashcode = multiplier * hashcode + baseHashCode;
+    hashcode = DEFAULT_MULTIPLIER * hashcode + baseHashCode;
 
-    updateList.add(object);
+    if (count > updateList.length) {
+      updateList = Arrays.copyOf(updateList, Math.max(DEFAULT_CAPACITY, updateList.length * 2));
+    }
+    updateList[count - 1] = object;
   }
 
   public void updateAll(Object[] objects) {
@@ -85,6 +130,11 @@ public class CacheKey implements Cloneable, Serializable {
     }
   }
 
+  private static long mix(long fingerprint, int baseHashCode) {
+    long h = (fingerprint ^ baseHashCode) * 0x9e3779b97f4a7c15L;
+    return h ^ (h >>> 31);
+  }
+
   @Override
   public boolean equals(Object object) {
     if (this == object) {
@@ -96,6 +146,9 @@ public class CacheKey implements Cloneable, Serializable {
     //将特征值对象强转为CacheKey
     final CacheKey cacheKey = (CacheKey) object;
 
+    if (fingerprint != cacheKey.fingerprint) {
+      return false;
+    }
     if (hashcode != cacheKey.hashcode) {
       return false;
     }
@@ -106,9 +159,10 @@ public class CacheKey implements Cloneable, Serializable {
       return false;
     }
     //使用特征值对象进行比较
-    for (int i = 0; i < updateList.size(); i++) {
-      Object thisObject = updateList.get(i);
-      Object thatObject = cacheKey.updateList.get(i);
+    int start = prefixList != null && prefixList == cacheKey.prefixList ? Math.min(prefixCount, cacheKey.prefixCount) : 0;
+    for (int i = start; i < count; i++) {
+      Object thisObject = updateList[i];
+      Object thatObject = cacheKey.updateList[i];
       if (!ArrayUtil.equals(thisObject, thatObject)) {
         return false;
       }
@@ -118,7 +172,7 @@ public class CacheKey implements Cloneable, Serializable {
 
   @Override
   public int hashCode() {
-    return hashcode;
+    return (int) (fingerprint ^ (fingerprint >>> 32));
   }
 
   @Override
@@ -126,15 +180,40 @@ public class CacheKey implements Cloneable, Serializable {
     StringJoiner returnValue = new StringJoiner(":");
     returnValue.add(String.valueOf(hashcode));
     returnValue.add(String.valueOf(checksum));
-    updateList.stream().map(ArrayUtil::toString).forEach(returnValue::add);
+    for (int i = 0; i < count; i++) {
+      returnValue.add(ArrayUtil.toString(updateList[i]));
+    }
     return returnValue.toString();
   }
 
   @Override
   public CacheKey clone() throws CloneNotSupportedException {
     CacheKey clonedCacheKey = (CacheKey) super.clone();
-    clonedCacheKey.updateList = new ArrayList<>(updateList);
+    clonedCacheKey.updateList = updateList.clone();
     return clonedCacheKey;
   }
 
+  private void writeObject(ObjectOutputStream out) throws IOException {
+    ObjectOutputStream.PutField fields = out.putFields();
+    fields.put("multiplier", DEFAULT_MULTIPLIER);
+    fields.put("hashcode", hashcode);
+    fields.put("checksum", checksum);
+    fields.put("count", count);
+    fields.put("updateList", new ArrayList<>(Arrays.asList(updateList).subList(0, count)));
+    out.writeFields();
+  }
+
+  private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+    ObjectInputStream.GetField fields = in.readFields();
+    List<?> list = (List<?>) fields.get("updateList", null);
+    hashcode = fields.get("hashcode", DEFAULT_HASHCODE);
+    checksum = fields.get("checksum", 0L);
+    updateList = list == null ? EMPTY_UPDATE_LIST : list.toArray();
+    count = updateList.length;
+    fingerprint = DEFAULT_FINGERPRINT;
+    for (Object object : updateList) {
+      fingerprint = mix(fingerprint, object == null ? 1 : ArrayUtil.hashCode(object));
+    }
+  }
+
 }
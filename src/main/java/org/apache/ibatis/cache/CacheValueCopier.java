@@ -0,0 +1,46 @@
+/**
+ *    Copyright 2009-2019 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.cache;
+
+/**
+ * SPI for the copies made by read-write caches, so that neither the caller that puts a value nor the callers that get
+ * it can modify the value held by the cache.
+ * <p>
+ * Implementations must be thread safe and have a public no-argument constructor when they are selected with the
+ * {@code copier} attribute of a cache.
+ *
+ * @since 3.5.3
+ * @see org.apache.ibatis.cache.decorators.SerializedCache
+ */
+public interface CacheValueCopier {
+
+  /**
+   * Converts a value put into the cache to the form held by the cache.
+   *
+   * @param value the value, can be null
+   * @return the value to hold
+   */
+  Object store(Object value);
+
+  /**
+   * Converts a value held by the cache to the value returned to a caller.
+   *
+   * @param stored a value returned by {@link #store(Object)}, never null
+   * @return the value for the caller
+   */
+  Object load(Object stored);
+
+}
@@ -0,0 +1,246 @@
+/**
+ *    Copyright 2009-2019 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.cache.copier;
+
+import java.lang.reflect.Array;
+import java.lang.reflect.Modifier;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.net.URI;
+import java.net.URL;
+import java.util.Collection;
+import java.util.Currency;
+import java.util.Date;
+import java.util.IdentityHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.SortedSet;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import org.apache.ibatis.cache.CacheException;
+import org.apache.ibatis.cache.CacheValueCopier;
+import org.apache.ibatis.reflection.DefaultReflectorFactory;
+import org.apache.ibatis.reflection.Reflector;
+import org.apache.ibatis.reflection.ReflectorFactory;
+
+/**
+ * Holds deep copies of the values and returns a deep copy to each caller, copying the properties found by the
+ * {@link Reflector} of each class instead of serializing the values.
+ * <p>
+ * Immutable values (strings, numbers, enums, java.time values...) are shared, arrays, dates, collections and maps are
+ * copied element by element, and objects with a no-argument constructor property by property. Objects that cannot be
+ * copied that way, e.g. without a no-argument constructor or with a {@code writeReplace()} method like the proxies of
+ * lazy loaded objects, are copied by serialization.
+ *
+ * @since 3.5.3
+ */
+public class CloningCopier implements CacheValueCopier {
+
+  private enum CopyKind {
+    SHARED, ARRAY, DATE, COLLECTION, MAP, BEAN, SERIALIZED
+  }
+
+  private final ReflectorFactory reflectorFactory = new DefaultReflectorFactory();
+  private final SerializingCopier serializingCopier = new SerializingCopier();
+  private final ConcurrentMap<Class<?>, CopyKind> copyKinds = new ConcurrentHashMap<>();
+
+  @Override
+  public Object store(Object value) {
+    return copy(value);
+  }
+
+  @Override
+  public Object load(Object stored) {
+    return copy(stored);
+  }
+
+  /**
+   * Makes a deep copy of a value.
+   */
+  public Object copy(Object value) {
+    try {
+      return copy(value, new IdentityHashMap<>());
+    } catch (CacheException e) {
+      throw e;
+    } catch (Exception e) {
+      throw new CacheException("Error copying object.  Cause: " + e, e);
+    }
+  }
+
+  private Object copy(Object value, Map<Object, Object> copies) throws Exception {
+    if (value == null) {
+      return null;
+    }
+    final CopyKind kind = copyKinds.computeIfAbsent(value.getClass(), this::copyKindOf);
+    if (kind == CopyKind.SHARED) {
+      return value;
+    }
+    Object copy = copies.get(value);
+    if (copy != null) {
+      return copy;
+    }
+    switch (kind) {
+      case ARRAY:
+        copy = copyArray(value, copies);
+        break;
+      case DATE:
+        copy = ((Date) value).clone();
+        copies.put(value, copy);
+        break;
+      case COLLECTION:
+        copy = copyCollection((Collection<?>) value, copies);
+        break;
+      case MAP:
+        copy = copyMap((Map<?, ?>) value, copies);
+        break;
+      case BEAN:
+        copy = copyBean(value, copies);
+        break;
+      default:
+        copy = serializingCopier.copy(value);
+        copies.put(value, copy);
+        break;
+    }
+    return copy;
+  }
+
+  private Object copyArray(Object array, Map<Object, Object> copies) throws Exception {
+    final Class<?> componentType = array.getClass().getComponentType();
+    final int length = Array.getLength(array);
+    if (componentType.isPrimitive()) {
+      final Object copy = Array.newInstance(componentType, length);
+      System.arraycopy(array, 0, copy, 0, length);
+      copies.put(array, copy);
+      return copy;
+    }
+    final Object[] source = (Object[]) array;
+    final Object[] copy = (Object[]) Array.newInstance(componentType, length);
+    copies.put(array, copy);
+    for (int i = 0; i < length; i++) {
+      copy[i] = copy(source[i], copies);
+    }
+    return copy;
+  }
+
+  @SuppressWarnings("unchecked")
+  private Object copyCollection(Collection<?> collection, Map<Object, Object> copies) throws Exception {
+    final Collection<Object> copy = (Collection<Object>) newInstance(collection.getClass());
+    copies.put(collection, copy);
+    for (Object element : collection) {
+      copy.add(copy(element, copies));
+    }
+    return copy;
+  }
+
+  @SuppressWarnings("unchecked")
+  private Object copyMap(Map<?, ?> map, Map<Object, Object> copies) throws Exception {
+    final Map<Object, Object> copy = (Map<Object, Object>) newInstance(map.getClass());
+    copies.put(map, copy);
+    for (Map.Entry<?, ?> entry : map.entrySet()) {
+      copy.put(copy(entry.getKey(), copies), copy(entry.getValue(), copies));
+    }
+    return copy;
+  }
+
+  private Object copyBean(Object bean, Map<Object, Object> copies) throws Exception {
+    final Reflector reflector = reflectorFactory.findForClass(bean.getClass());
+    final Object copy = reflector.getDefaultConstructor().newInstance();
+    copies.put(bean, copy);
+    for (String property : reflector.getSetablePropertyNames()) {
+      if (reflector.hasGetter(property)) {
+        final Object value = reflector.getGetInvoker(property).invoke(bean, null);
+        reflector.getSetInvoker(property).invoke(copy, new Object[] { copy(value, copies) });
+      }
+    }
+    return copy;
+  }
+
+  private Object newInstance(Class<?> type) throws Exception {
+    return reflectorFactory.findForClass(type).getDefaultConstructor().newInstance();
+  }
+
+  private CopyKind copyKindOf(Class<?> type) {
+    if (isImmutable(type)) {
+      return CopyKind.SHARED;
+    } else if (type.isArray()) {
+      return CopyKind.ARRAY;
+    } else if (Date.class.isAssignableFrom(type)) {
+      return CopyKind.DATE;
+    } else if (hasWriteReplace(type) || !hasPublicDefaultConstructor(type)) {
+      return CopyKind.SERIALIZED;
+    } else if (Collection.class.isAssignableFrom(type)) {
+      // a sorted collection could have a comparator that the no-argument constructor would not set
+      return SortedSet.class.isAssignableFrom(type) ? CopyKind.SERIALIZED : CopyKind.COLLECTION;
+    } else if (Map.class.isAssignableFrom(type)) {
+      return SortedMap.class.isAssignableFrom(type) ? CopyKind.SERIALIZED : CopyKind.MAP;
+    } else if (type.getName().startsWith("java.")) {
+      // the properties of JDK classes do not describe their state
+      return CopyKind.SERIALIZED;
+    }
+    return CopyKind.BEAN;
+  }
+
+  private static boolean isImmutable(Class<?> type) {
+    return type.isPrimitive()
+        || type == String.class
+        || type == Boolean.class
+        || type == Character.class
+        || type == Byte.class
+        || type == Short.class
+        || type == Integer.class
+        || type == Long.class
+        || type == Float.class
+        || type == Double.class
+        || type == BigInteger.class
+        || type == BigDecimal.class
+        || type == UUID.class
+        || type == Locale.class
+        || type == Currency.class
+        || type == URI.class
+        || type == URL.class
+        || type == Class.class
+        || type.isEnum()
+        || (type.getSuperclass() != null && type.getSuperclass().isEnum())
+        || type.getName().startsWith("java.time.");
+  }
+
+  private static boolean hasWriteReplace(Class<?> type) {
+    for (Class<?> current = type; current != null; current = current.getSuperclass()) {
+      try {
+        current.getDeclaredMethod("writeReplace");
+        return true;
+      } catch (NoSuchMethodException e) {
+        // check the super class
+      }
+    }
+    return false;
+  }
+
+  private static boolean hasPublicDefaultConstructor(Class<?> type) {
+    if (!Modifier.isPublic(type.getModifiers()) || Modifier.isAbstract(type.getModifiers())) {
+      return false;
+    }
+    try {
+      return Modifier.isPublic(type.getDeclaredConstructor().getModifiers());
+    } catch (NoSuchMethodException e) {
+      return false;
+    }
+  }
+
+}
@@ -0,0 +1,31 @@
+/**
+ *    Copyright 2009-2019 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.cache.copier;
+
+/**
+ * Holds a deep copy of each value put into the cache and returns that same copy to every caller, so only the values
+ * put into the cache are copied. The callers must treat the values they get as immutable.
+ *
+ * @since 3.5.3
+ */
+public class CopyOnWriteCopier extends CloningCopier {
+
+  @Override
+  public Object load(Object stored) {
+    return stored;
+  }
+
+}
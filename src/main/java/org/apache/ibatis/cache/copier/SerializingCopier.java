@@ -0,0 +1,79 @@
+/**
+ *    Copyright 2009-2019 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.cache.copier;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
+
+import org.apache.ibatis.cache.CacheException;
+import org.apache.ibatis.cache.CacheValueCopier;
+import org.apache.ibatis.cache.decorators.SerializedCache.CustomObjectInputStream;
+
+/**
+ * Holds values serialized to bytes and deserializes them for each caller. The values must be serializable.
+ * This is the default copier of read-write caches.
+ *
+ * @since 3.5.3
+ */
+public class SerializingCopier implements CacheValueCopier {
+
+  @Override
+  public Object store(Object value) {
+    if (value == null || value instanceof Serializable) {
+      return serialize((Serializable) value);
+    } else {
+      throw new CacheException("SharedCache failed to make a copy of a non-serializable object: " + value);
+    }
+  }
+
+  @Override
+  public Object load(Object stored) {
+    return deserialize((byte[]) stored);
+  }
+
+  /**
+   * Copies a serializable value by serializing and deserializing it.
+   */
+  public Object copy(Object value) {
+    return load(store(value));
+  }
+
+  private byte[] serialize(Serializable value) {
+    try (ByteArrayOutputStream bos = new ByteArrayOutputStream();
+         ObjectOutputStream oos = new ObjectOutputStream(bos)) {
+      oos.writeObject(value);
+      oos.flush();
+      return bos.toByteArray();
+    } catch (Exception e) {
+      throw new CacheException("Error serializing object.  Cause: " + e, e);
+    }
+  }
+
+  private Serializable deserialize(byte[] value) {
+    Serializable result;
+    try (ByteArrayInputStream bis = new ByteArrayInputStream(value);
+         ObjectInputStream ois = new CustomObjectInputStream(bis)) {
+      result = (Serializable) ois.readObject();
+    } catch (Exception e) {
+      throw new CacheException("Error deserializing object.  Cause: " + e, e);
+    }
+    return result;
+  }
+
+}
@@ -18,15 +18,20 @@ package org.apache.ibatis.cache.decorators;
 import org.apache.ibatis.cache.Cache;
 
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongFieldUpdater;
 
 /**
  * @author Clinton Begin
  */
 public class ScheduledCache implements Cache {
 
+  private static final AtomicLongFieldUpdater<ScheduledCache> LAST_CLEAR =
+      AtomicLongFieldUpdater.newUpdater(ScheduledCache.class, "lastClear");
+
   private final Cache delegate;
   protected long clearInterval;
-  protected long lastClear;
+  // updated atomically, the cache may be used without SynchronizedCache
+  protected volatile long lastClear;
 
   public ScheduledCache(Cache delegate) {
     this.delegate = delegate;
@@ -83,8 +88,13 @@ public class ScheduledCache implements Cache {
   }
 
   private boolean clearWhenStale() {
-    if (System.currentTimeMillis() - lastClear > clearInterval) {
-      clear();
+    final long last = lastClear;
+    final long now = System.currentTimeMillis();
+    if (now - last > clearInterval) {
+      // only the thread that moves lastClear clears the cache, the others just miss
+      if (LAST_CLEAR.compareAndSet(this, last, now)) {
+        delegate.clear();
+      }
       return true;
     }
     return false;
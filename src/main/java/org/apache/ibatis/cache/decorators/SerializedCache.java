@@ -15,28 +15,36 @@
  */
 package org.apache.ibatis.cache.decorators;
 
-import java.io.ByteArrayInputStream;
-import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.ObjectInputStream;
-import java.io.ObjectOutputStream;
 import java.io.ObjectStreamClass;
-import java.io.Serializable;
 
 import org.apache.ibatis.cache.Cache;
-import org.apache.ibatis.cache.CacheException;
+import org.apache.ibatis.cache.CacheValueCopier;
+import org.apache.ibatis.cache.copier.SerializingCopier;
 import org.apache.ibatis.io.Resources;
 
 /**
+ * Copies the values put into and got from the delegate cache, by serialization unless another copier is given.
+ *
  * @author Clinton Begin
  */
 public class SerializedCache implements Cache {
 
   private final Cache delegate;
+  private final CacheValueCopier copier;
 
   public SerializedCache(Cache delegate) {
+    this(delegate, new SerializingCopier());
+  }
+
+  /**
+   * @since 3.5.3
+   */
+  public SerializedCache(Cache delegate, CacheValueCopier copier) {
     this.delegate = delegate;
+    this.copier = copier;
   }
 
   @Override
@@ -51,17 +59,13 @@ public class SerializedCache implements Cache {
 
   @Override
   public void putObject(Object key, Object object) {
-    if (object == null || object instanceof Serializable) {
-      delegate.putObject(key, serialize((Serializable) object));
-    } else {
-      throw new CacheException("SharedCache failed to make a copy of a non-serializable object: " + object);
-    }
+    delegate.putObject(key, copier.store(object));
   }
 
   @Override
   public Object getObject(Object key) {
     Object object = delegate.getObject(key);
-    return object == null ? null : deserialize((byte[]) object);
+    return object == null ? null : copier.load(object);
   }
 
   @Override
@@ -84,28 +88,6 @@ public class SerializedCache implements Cache {
     return delegate.equals(obj);
   }
 
-  private byte[] serialize(Serializable value) {
-    try (ByteArrayOutputStream bos = new ByteArrayOutputStream();
-         ObjectOutputStream oos = new ObjectOutputStream(bos)) {
-      oos.writeObject(value);
-      oos.flush();
-      return bos.toByteArray();
-    } catch (Exception e) {
-      throw new CacheException("Error serializing object.  Cause: " + e, e);
-    }
-  }
-
-  private Serializable deserialize(byte[] value) {
-    Serializable result;
-    try (ByteArrayInputStream bis = new ByteArrayInputStream(value);
-         ObjectInputStream ois = new CustomObjectInputStream(bis)) {
-      result = (Serializable) ois.readObject();
-    } catch (Exception e) {
-      throw new CacheException("Error deserializing object.  Cause: " + e, e);
-    }
-    return result;
-  }
-
   public static class CustomObjectInputStream extends ObjectInputStream {
 
     public CustomObjectInputStream(InputStream in) throws IOException {
@@ -19,6 +19,7 @@ import java.lang.ref.ReferenceQueue;
 import java.lang.ref.SoftReference;
 import java.util.Deque;
 import java.util.LinkedList;
+import java.util.concurrent.locks.ReentrantLock;
 
 import org.apache.ibatis.cache.Cache;
 
@@ -32,6 +33,7 @@ public class SoftCache implements Cache {
   private final Deque<Object> hardLinksToAvoidGarbageCollection;
   private final ReferenceQueue<Object> queueOfGarbageCollectedEntries;
   private final Cache delegate;
+  private final ReentrantLock hardLinksLock = new ReentrantLock();
   private int numberOfHardLinks;
 
   public SoftCache(Cache delegate) {
@@ -74,11 +76,14 @@ public class SoftCache implements Cache {
         delegate.removeObject(key);
       } else {
         // See #586 (and #335) modifications need more than a read lock
-        synchronized (hardLinksToAvoidGarbageCollection) {
+        hardLinksLock.lock();
+        try {
           hardLinksToAvoidGarbageCollection.addFirst(result);
           if (hardLinksToAvoidGarbageCollection.size() > numberOfHardLinks) {
             hardLinksToAvoidGarbageCollection.removeLast();
           }
+        } finally {
+          hardLinksLock.unlock();
         }
       }
     }
@@ -93,8 +98,11 @@ public class SoftCache implements Cache {
 
   @Override
   public void clear() {
-    synchronized (hardLinksToAvoidGarbageCollection) {
+    hardLinksLock.lock();
+    try {
       hardLinksToAvoidGarbageCollection.clear();
+    } finally {
+      hardLinksLock.unlock();
     }
     removeGarbageCollectedItems();
     delegate.clear();
@@ -0,0 +1,151 @@
+/**
+ *    Copyright 2009-2019 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.cache.impl;
+
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.apache.ibatis.cache.Cache;
+import org.apache.ibatis.cache.CacheException;
+
+/**
+ * Thread safe cache with an approximated LRU (least recently used) eviction.
+ * <p>
+ * Reads never lock: a hit only records its access time on the entry. When the cache grows beyond its size,
+ * a few entries are sampled with a cursor that sweeps the whole cache and the least recently used one is evicted.
+ * <p>
+ * This cache does not need the {@link org.apache.ibatis.cache.decorators.SynchronizedCache} decorator.
+ * It is selected with {@code <cache type="CONCURRENT_LRU"/>}, the {@code eviction} attribute does not apply to it.
+ *
+ * @since 3.5.3
+ */
+public class ConcurrentLruCache implements Cache {
+
+  private static final int SAMPLE_SIZE = 8;
+
+  private final String id;
+  private final Map<Object, Entry> cache = new ConcurrentHashMap<>();
+  private final ReentrantLock evictionLock = new ReentrantLock();
+  private Iterator<Map.Entry<Object, Entry>> evictionCursor;
+  private volatile int size = 1024;
+
+  public ConcurrentLruCache(String id) {
+    this.id = id;
+  }
+
+  @Override
+  public String getId() {
+    return id;
+  }
+
+  @Override
+  public int getSize() {
+    return cache.size();
+  }
+
+  public void setSize(int size) {
+    this.size = size;
+  }
+
+  @Override
+  public void putObject(Object key, Object value) {
+    if (cache.put(key, new Entry(value)) == null && cache.size() > size) {
+      evict();
+    }
+  }
+
+  @Override
+  public Object getObject(Object key) {
+    Entry entry = cache.get(key);
+    if (entry == null) {
+      return null;
+    }
+    entry.accessTime = System.nanoTime();
+    return entry.value;
+  }
+
+  @Override
+  public Object removeObject(Object key) {
+    Entry entry = cache.remove(key);
+    return entry == null ? null : entry.value;
+  }
+
+  @Override
+  public void clear() {
+    cache.clear();
+  }
+
+  private void evict() {
+    evictionLock.lock();
+    try {
+      while (cache.size() > size) {
+        Map.Entry<Object, Entry> victim = null;
+        for (int i = 0; i < SAMPLE_SIZE; i++) {
+          if (evictionCursor == null || !evictionCursor.hasNext()) {
+            evictionCursor = cache.entrySet().iterator();
+            if (!evictionCursor.hasNext()) {
+              return;
+            }
+          }
+          Map.Entry<Object, Entry> candidate = evictionCursor.next();
+          if (victim == null || candidate.getValue().accessTime - victim.getValue().accessTime < 0) {
+            victim = candidate;
+          }
+        }
+        cache.remove(victim.getKey(), victim.getValue());
+      }
+    } finally {
+      evictionLock.unlock();
+    }
+  }
+
+  @Override
+  public boolean equals(Object o) {
+    if (getId() == null) {
+      throw new CacheException("Cache instances require an ID.");
+    }
+    if (this == o) {
+      return true;
+    }
+    if (!(o instanceof Cache)) {
+      return false;
+    }
+
+    Cache otherCache = (Cache) o;
+    return getId().equals(otherCache.getId());
+  }
+
+  @Override
+  public int hashCode() {
+    if (getId() == null) {
+      throw new CacheException("Cache instances require an ID.");
+    }
+    return getId().hashCode();
+  }
+
+  private static final class Entry {
+
+    private final Object value;
+    private volatile long accessTime = System.nanoTime();
+
+    Entry(Object value) {
+      this.value = value;
+    }
+  }
+
+}
@@ -0,0 +1,523 @@
+/**
+ *    Copyright 2009-2019 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.cache.impl;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import org.apache.ibatis.builder.InitializingObject;
+import org.apache.ibatis.cache.Cache;
+import org.apache.ibatis.cache.CacheException;
+import org.apache.ibatis.cache.copier.SerializingCopier;
+
+/**
+ * Thread safe cache that holds the serialized keys and values out of the Java heap, in direct byte buffers or in a
+ * memory-mapped file, so that very large caches do not add to the garbage collection pauses.
+ * <p>
+ * The capacity is split in slabs that are filled one after the other. When all the slabs are full the oldest slab is
+ * emptied, evicting its entries (FIFO). Only an index from the hash codes of the keys to the entry positions is kept
+ * on the heap. When a file is set the entries survive restarts and the index is rebuilt from the file on start.
+ * <p>
+ * The keys and values must be serializable and the keys are matched with {@code equals()}. The cache is
+ * read-write by nature: every get returns a new copy. Clearing the cache releases its memory at once, the slabs are
+ * allocated again on the next put.
+ * It is selected with {@code <cache type="OFF_HEAP">}, the {@code capacity} (in bytes), {@code slabSize} and
+ * {@code file} properties are set with {@code <property>} elements.
+ *
+ * @since 3.5.3
+ */
+public class OffHeapCache implements Cache, InitializingObject {
+
+  private static final int FILE_MAGIC = 0x4D424F48;
+  private static final int FILE_HEADER_SIZE = 12;
+  // slab header: sequence (long), end of the records (int)
+  private static final int SLAB_HEADER_SIZE = 12;
+  // record header: key hash code, key length, value length (-1 for a removal)
+  private static final int RECORD_HEADER_SIZE = 12;
+  private static final int REMOVED = -1;
+
+  // frees a direct or mapped buffer: Unsafe.invokeCleaner since Java 9, the cleaner of the buffer on Java 8
+  private static final Object UNSAFE;
+  private static final Method INVOKE_CLEANER;
+
+  static {
+    Object unsafe = null;
+    Method invokeCleaner = null;
+    try {
+      final Class<?> unsafeClass = Class.forName("sun.misc.Unsafe");
+      invokeCleaner = unsafeClass.getMethod("invokeCleaner", ByteBuffer.class);
+      final Field theUnsafe = unsafeClass.getDeclaredField("theUnsafe");
+      theUnsafe.setAccessible(true);
+      unsafe = theUnsafe.get(null);
+    } catch (Exception e) {
+      invokeCleaner = null;
+    }
+    UNSAFE = unsafe;
+    INVOKE_CLEANER = invokeCleaner;
+  }
+
+  private final String id;
+  private final SerializingCopier serializer = new SerializingCopier();
+  private final ReadWriteLock lock = new ReentrantReadWriteLock();
+  private final Map<Integer, long[]> index = new HashMap<>();
+  private long capacity = 64L * 1024 * 1024;
+  private int slabSize = 4 * 1024 * 1024;
+  private String file;
+  private ByteBuffer[] slabs;
+  private int currentSlab;
+  private long sequence;
+  private int size;
+
+  public OffHeapCache(String id) {
+    this.id = id;
+  }
+
+  public void setCapacity(long capacity) {
+    this.capacity = capacity;
+  }
+
+  public void setSlabSize(int slabSize) {
+    this.slabSize = slabSize;
+  }
+
+  public void setFile(String file) {
+    this.file = file;
+  }
+
+  @Override
+  public void initialize() throws Exception {
+    if (slabSize <= SLAB_HEADER_SIZE + RECORD_HEADER_SIZE || capacity < slabSize) {
+      throw new CacheException("The off-heap cache '" + id + "' needs a capacity of at least one slab and a slab size"
+          + " greater than " + (SLAB_HEADER_SIZE + RECORD_HEADER_SIZE) + " bytes.");
+    }
+    final long slabCount = capacity / slabSize;
+    if (slabCount > Integer.MAX_VALUE) {
+      throw new CacheException("The off-heap cache '" + id + "' has too many slabs, increase the slab size.");
+    }
+    slabs = new ByteBuffer[(int) slabCount];
+    lock.writeLock().lock();
+    try {
+      if (file == null) {
+        for (int i = 0; i < slabs.length; i++) {
+          slabs[i] = ByteBuffer.allocateDirect(slabSize);
+        }
+        reset();
+      } else {
+        mapFile();
+      }
+    } finally {
+      lock.writeLock().unlock();
+    }
+  }
+
+  @Override
+  public String getId() {
+    return id;
+  }
+
+  @Override
+  public int getSize() {
+    lock.readLock().lock();
+    try {
+      return size;
+    } finally {
+      lock.readLock().unlock();
+    }
+  }
+
+  @Override
+  public void putObject(Object key, Object value) {
+    final byte[] keyBytes = (byte[]) serializer.store(key);
+    final byte[] valueBytes = (byte[]) serializer.store(value);
+    final int hash = hash(key);
+    lock.writeLock().lock();
+    try {
+      ensureInitialized();
+      final long position = find(hash, key, keyBytes);
+      if (position >= 0) {
+        removeFromIndex(hash, position);
+      }
+      if (RECORD_HEADER_SIZE + keyBytes.length + valueBytes.length > slabSize - SLAB_HEADER_SIZE) {
+        // too large to be cached, make sure the previous value is not returned after a restart
+        if (position >= 0 && file != null) {
+          append(hash, keyBytes, null);
+        }
+        return;
+      }
+      addToIndex(hash, append(hash, keyBytes, valueBytes));
+    } finally {
+      lock.writeLock().unlock();
+    }
+  }
+
+  @Override
+  public Object getObject(Object key) {
+    final byte[] keyBytes = (byte[]) serializer.store(key);
+    final byte[] valueBytes;
+    lock.readLock().lock();
+    try {
+      if (slabs == null || size == 0) {
+        return null;
+      }
+      final long position = find(hash(key), key, keyBytes);
+      if (position < 0) {
+        return null;
+      }
+      final ByteBuffer slab = slabs[slabOf(position)].duplicate();
+      final int offset = offsetOf(position);
+      final int keyLength = slab.getInt(offset + 4);
+      valueBytes = new byte[slab.getInt(offset + 8)];
+      // the cast keeps the Java 8 signature of position()
+      ((Buffer) slab).position(offset + RECORD_HEADER_SIZE + keyLength);
+      slab.get(valueBytes);
+    } finally {
+      lock.readLock().unlock();
+    }
+    return serializer.load(valueBytes);
+  }
+
+  @Override
+  public Object removeObject(Object key) {
+    final byte[] keyBytes = (byte[]) serializer.store(key);
+    final int hash = hash(key);
+    lock.writeLock().lock();
+    try {
+      if (slabs == null) {
+        return null;
+      }
+      final long position = find(hash, key, keyBytes);
+      if (position >= 0) {
+        removeFromIndex(hash, position);
+        if (file != null) {
+          append(hash, keyBytes, null);
+        }
+      }
+      return null;
+    } finally {
+      lock.writeLock().unlock();
+    }
+  }
+
+  @Override
+  public void clear() {
+    lock.writeLock().lock();
+    try {
+      if (slabs != null) {
+        // the emptied slab headers are what a restart reads back from the file
+        reset();
+        for (ByteBuffer slab : slabs) {
+          release(slab);
+        }
+        slabs = null;
+      }
+    } finally {
+      lock.writeLock().unlock();
+    }
+  }
+
+  private void ensureInitialized() {
+    if (slabs == null) {
+      try {
+        initialize();
+      } catch (CacheException e) {
+        throw e;
+      } catch (Exception e) {
+        throw new CacheException("Error initializing the off-heap cache '" + id + "'.  Cause: " + e, e);
+      }
+    }
+  }
+
+  private void reset() {
+    index.clear();
+    size = 0;
+    for (ByteBuffer slab : slabs) {
+      slab.putLong(0, 0L);
+      slab.putInt(8, SLAB_HEADER_SIZE);
+    }
+    currentSlab = 0;
+    sequence = 1;
+    slabs[0].putLong(0, sequence);
+  }
+
+  private long append(int hash, byte[] keyBytes, byte[] valueBytes) {
+    final int recordSize = RECORD_HEADER_SIZE + keyBytes.length + (valueBytes == null ? 0 : valueBytes.length);
+    ByteBuffer slab = slabs[currentSlab];
+    int end = slab.getInt(8);
+    if (end + recordSize > slabSize) {
+      currentSlab = (currentSlab + 1) % slabs.length;
+      evict(currentSlab);
+      slab = slabs[currentSlab];
+      slab.putLong(0, ++sequence);
+      end = SLAB_HEADER_SIZE;
+    }
+    final ByteBuffer record = slab.duplicate();
+    ((Buffer) record).position(end);
+    record.putInt(hash);
+    record.putInt(keyBytes.length);
+    record.putInt(valueBytes == null ? REMOVED : valueBytes.length);
+    record.put(keyBytes);
+    if (valueBytes != null) {
+      record.put(valueBytes);
+    }
+    slab.putInt(8, end + recordSize);
+    return position(currentSlab, end);
+  }
+
+  private void evict(int slabIndex) {
+    final ByteBuffer slab = slabs[slabIndex];
+    final int end = slab.getInt(8);
+    int offset = SLAB_HEADER_SIZE;
+    while (offset < end) {
+      final int valueLength = slab.getInt(offset + 8);
+      removeFromIndex(slab.getInt(offset), position(slabIndex, offset));
+      offset += RECORD_HEADER_SIZE + slab.getInt(offset + 4) + Math.max(valueLength, 0);
+    }
+    slab.putInt(8, SLAB_HEADER_SIZE);
+    if (file != null) {
+      // maps the slab again so that the pages of the evicted entries leave the memory of the process now
+      slabs[slabIndex] = mapSlab(slabIndex);
+      release(slab);
+    }
+  }
+
+  private long find(int hash, Object key, byte[] keyBytes) {
+    final long[] positions = index.get(hash);
+    if (positions == null) {
+      return -1;
+    }
+    for (long position : positions) {
+      if (sameKeyBytes(position, keyBytes)) {
+        return position;
+      }
+    }
+    // equal keys do not always serialize to the same bytes (e.g. the order of a HashMap), compare the stored keys
+    for (long position : positions) {
+      if (Objects.equals(key, serializer.load(readKey(position)))) {
+        return position;
+      }
+    }
+    return -1;
+  }
+
+  private boolean sameKeyBytes(long position, byte[] keyBytes) {
+    final ByteBuffer slab = slabs[slabOf(position)];
+    final int offset = offsetOf(position);
+    if (slab.getInt(offset + 4) != keyBytes.length) {
+      return false;
+    }
+    final int keyOffset = offset + RECORD_HEADER_SIZE;
+    for (int i = 0; i < keyBytes.length; i++) {
+      if (slab.get(keyOffset + i) != keyBytes[i]) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private byte[] readKey(long position) {
+    final ByteBuffer slab = slabs[slabOf(position)].duplicate();
+    final int offset = offsetOf(position);
+    final byte[] keyBytes = new byte[slab.getInt(offset + 4)];
+    ((Buffer) slab).position(offset + RECORD_HEADER_SIZE);
+    slab.get(keyBytes);
+    return keyBytes;
+  }
+
+  private void addToIndex(int hash, long position) {
+    final long[] positions = index.get(hash);
+    if (positions == null) {
+      index.put(hash, new long[] { position });
+    } else {
+      final long[] newPositions = Arrays.copyOf(positions, positions.length + 1);
+      newPositions[positions.length] = position;
+      index.put(hash, newPositions);
+    }
+    size++;
+  }
+
+  private void removeFromIndex(int hash, long position) {
+    final long[] positions = index.get(hash);
+    if (positions == null) {
+      return;
+    }
+    for (int i = 0; i < positions.length; i++) {
+      if (positions[i] == position) {
+        if (positions.length == 1) {
+          index.remove(hash);
+        } else {
+          final long[] newPositions = new long[positions.length - 1];
+          System.arraycopy(positions, 0, newPositions, 0, i);
+          System.arraycopy(positions, i + 1, newPositions, i, positions.length - i - 1);
+          index.put(hash, newPositions);
+        }
+        size--;
+        return;
+      }
+    }
+  }
+
+  private void mapFile() throws IOException {
+    final File mappedFile = new File(file);
+    final boolean existing = mappedFile.length() > 0;
+    try (RandomAccessFile randomAccessFile = new RandomAccessFile(mappedFile, "rw");
+         FileChannel channel = randomAccessFile.getChannel()) {
+      final ByteBuffer header = channel.map(FileChannel.MapMode.READ_WRITE, 0, FILE_HEADER_SIZE);
+      final boolean compatible = existing && header.getInt(0) == FILE_MAGIC
+          && header.getInt(4) == slabSize && header.getInt(8) == slabs.length;
+      for (int i = 0; i < slabs.length; i++) {
+        slabs[i] = channel.map(FileChannel.MapMode.READ_WRITE, FILE_HEADER_SIZE + (long) i * slabSize, slabSize);
+      }
+      header.putInt(0, FILE_MAGIC);
+      header.putInt(4, slabSize);
+      header.putInt(8, slabs.length);
+      if (compatible) {
+        try {
+          rebuildIndex();
+          return;
+        } catch (RuntimeException e) {
+          // entries of classes that cannot be read any more, start empty
+        }
+      }
+      reset();
+    }
+  }
+
+  private void rebuildIndex() {
+    final Integer[] order = new Integer[slabs.length];
+    for (int i = 0; i < order.length; i++) {
+      order[i] = i;
+    }
+    Arrays.sort(order, (a, b) -> Long.compare(slabs[a].getLong(0), slabs[b].getLong(0)));
+    index.clear();
+    size = 0;
+    currentSlab = order[order.length - 1];
+    sequence = slabs[currentSlab].getLong(0);
+    if (sequence == 0) {
+      throw new CacheException("The off-heap cache file '" + file + "' is empty.");
+    }
+    for (int slabIndex : order) {
+      final ByteBuffer slab = slabs[slabIndex];
+      if (slab.getLong(0) == 0) {
+        continue;
+      }
+      final int end = slab.getInt(8);
+      int offset = SLAB_HEADER_SIZE;
+      while (offset < end) {
+        final long position = position(slabIndex, offset);
+        final byte[] keyBytes = readKey(position);
+        final Object key = serializer.load(keyBytes);
+        // the hash codes of the keys are not guaranteed to be the same after a restart
+        final int hash = hash(key);
+        slab.putInt(offset, hash);
+        final long previous = find(hash, key, keyBytes);
+        if (previous >= 0) {
+          removeFromIndex(hash, previous);
+        }
+        final int valueLength = slab.getInt(offset + 8);
+        if (valueLength != REMOVED) {
+          addToIndex(hash, position);
+        }
+        offset += RECORD_HEADER_SIZE + keyBytes.length + Math.max(valueLength, 0);
+      }
+    }
+  }
+
+  private ByteBuffer mapSlab(int slabIndex) {
+    try (RandomAccessFile randomAccessFile = new RandomAccessFile(file, "rw");
+         FileChannel channel = randomAccessFile.getChannel()) {
+      return channel.map(FileChannel.MapMode.READ_WRITE, FILE_HEADER_SIZE + (long) slabIndex * slabSize, slabSize);
+    } catch (IOException e) {
+      throw new CacheException("Error mapping the off-heap cache file '" + file + "'.  Cause: " + e, e);
+    }
+  }
+
+  /**
+   * Frees the memory of a direct or mapped buffer now instead of when the buffer is garbage collected.
+   * The buffer must not be used any more. The memory is left to the garbage collector when the JDK does not allow it.
+   */
+  private static void release(ByteBuffer buffer) {
+    if (!buffer.isDirect()) {
+      return;
+    }
+    try {
+      if (INVOKE_CLEANER != null) {
+        INVOKE_CLEANER.invoke(UNSAFE, buffer);
+      } else {
+        final Method cleanerMethod = buffer.getClass().getMethod("cleaner");
+        cleanerMethod.setAccessible(true);
+        final Object cleaner = cleanerMethod.invoke(buffer);
+        if (cleaner != null) {
+          cleaner.getClass().getMethod("clean").invoke(cleaner);
+        }
+      }
+    } catch (Exception e) {
+      // left to the garbage collector
+    }
+  }
+
+  private long position(int slabIndex, int offset) {
+    return (long) slabIndex * slabSize + offset;
+  }
+
+  private int slabOf(long position) {
+    return (int) (position / slabSize);
+  }
+
+  private int offsetOf(long position) {
+    return (int) (position % slabSize);
+  }
+
+  private static int hash(Object key) {
+    return key == null ? 0 : key.hashCode();
+  }
+
+  @Override
+  public boolean equals(Object o) {
+    if (getId() == null) {
+      throw new CacheException("Cache instances require an ID.");
+    }
+    if (this == o) {
+      return true;
+    }
+    if (!(o instanceof Cache)) {
+      return false;
+    }
+
+    Cache otherCache = (Cache) o;
+    return getId().equals(otherCache.getId());
+  }
+
+  @Override
+  public int hashCode() {
+    if (getId() == null) {
+      throw new CacheException("Cache instances require an ID.");
+    }
+    return getId().hashCode();
+  }
+
+}
@@ -0,0 +1,376 @@
+/**
+ *    Copyright 2009-2019 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.cursor;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.Iterator;
+import java.util.Objects;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+
+import org.apache.ibatis.cursor.defaults.DefaultCursor;
+import org.apache.ibatis.logging.Log;
+import org.apache.ibatis.logging.LogFactory;
+import org.apache.ibatis.reflection.ExceptionUtil;
+import org.apache.ibatis.session.SqlSession;
+import org.apache.ibatis.session.SqlSessionFactory;
+
+/**
+ * Publishes the rows of a {@link Cursor} to a subscriber, following the Reactive Streams protocol: rows are only
+ * fetched and mapped once the subscriber has requested them.
+ * <p>
+ * Every subscription opens its own {@link SqlSession} and runs the query, fetching and mapping rows on a thread of
+ * the executor, which is also the thread calling the subscriber. The JDBC fetch size follows the outstanding demand
+ * (up to {@link #MAX_FETCH_SIZE}) so that no more rows than requested are buffered. The session, and so the
+ * statement and the connection, is closed when the cursor is consumed, when the subscription is cancelled and on
+ * error, before the subscriber is signalled.
+ * <p>
+ * The JDK 9 {@code java.util.concurrent.Flow} interfaces are available through {@link #toFlowPublisher()}.
+ *
+ * @since 3.5.3
+ */
+public class CursorPublisher<T> {
+
+  /**
+   * Largest fetch size set for an outstanding demand.
+   */
+  public static final int MAX_FETCH_SIZE = 1000;
+
+  private static final Log log = LogFactory.getLog(CursorPublisher.class);
+
+  private static final String FLOW_PUBLISHER = "java.util.concurrent.Flow$Publisher";
+  private static final String FLOW_SUBSCRIBER = "java.util.concurrent.Flow$Subscriber";
+  private static final String FLOW_SUBSCRIPTION = "java.util.concurrent.Flow$Subscription";
+
+  private final SqlSessionFactory sqlSessionFactory;
+  private final Function<SqlSession, Cursor<T>> query;
+  private final Executor executor;
+
+  /**
+   * @param sqlSessionFactory the factory of the session of every subscription
+   * @param query opens the cursor in the session of a subscription
+   * @param executor runs the subscriptions, each one occupies a thread until it ends
+   */
+  public CursorPublisher(SqlSessionFactory sqlSessionFactory, Function<SqlSession, Cursor<T>> query, Executor executor) {
+    this.sqlSessionFactory = sqlSessionFactory;
+    this.query = query;
+    this.executor = executor;
+  }
+
+  /**
+   * Runs the query for a new subscriber. Nothing is read from the database until rows are requested.
+   */
+  public void subscribe(Subscriber<? super T> subscriber) {
+    Objects.requireNonNull(subscriber, "subscriber");
+    CursorSubscription subscription = new CursorSubscription(subscriber);
+    subscriber.onSubscribe(subscription);
+    try {
+      executor.execute(subscription);
+    } catch (RejectedExecutionException e) {
+      subscription.cancel();
+      subscriber.onError(e);
+    }
+  }
+
+  /**
+   * Adapts this publisher to a {@code java.util.concurrent.Flow.Publisher}.
+   *
+   * @return a {@code Flow.Publisher<T>}
+   * @throws UnsupportedOperationException on JDK 8
+   */
+  @SuppressWarnings("unchecked")
+  public <P> P toFlowPublisher() {
+    ClassLoader classLoader = CursorPublisher.class.getClassLoader();
+    try {
+      Class<?> publisherType = Class.forName(FLOW_PUBLISHER);
+      Class<?> subscriberType = Class.forName(FLOW_SUBSCRIBER);
+      Class<?> subscriptionType = Class.forName(FLOW_SUBSCRIPTION);
+      Method subscribeMethod = publisherType.getMethod("subscribe", subscriberType);
+      return (P) Proxy.newProxyInstance(classLoader, new Class<?>[] { publisherType }, (proxy, method, args) -> {
+        if (subscribeMethod.equals(method)) {
+          subscribe(new FlowSubscriberAdapter<>(args[0], subscriberType, subscriptionType));
+          return null;
+        }
+        return invokeObjectMethod(proxy, method, args);
+      });
+    } catch (ReflectiveOperationException e) {
+      throw new UnsupportedOperationException("java.util.concurrent.Flow requires JDK 9 or later.", e);
+    }
+  }
+
+  /**
+   * Tells whether a mapper method returning the type publishes a cursor.
+   */
+  public static boolean isPublisherType(Class<?> type) {
+    return CursorPublisher.class.equals(type) || FLOW_PUBLISHER.equals(type.getName());
+  }
+
+  /**
+   * Tells whether the type is {@code java.util.concurrent.Flow.Publisher}.
+   */
+  public static boolean isFlowPublisherType(Class<?> type) {
+    return FLOW_PUBLISHER.equals(type.getName());
+  }
+
+  private static Object invokeObjectMethod(Object proxy, Method method, Object[] args) {
+    switch (method.getName()) {
+      case "equals":
+        return proxy == args[0];
+      case "hashCode":
+        return System.identityHashCode(proxy);
+      case "toString":
+        return proxy.getClass().getName() + "@" + Integer.toHexString(System.identityHashCode(proxy));
+      default:
+        throw new UnsupportedOperationException(method.toString());
+    }
+  }
+
+  /**
+   * Receives the rows of a {@link CursorPublisher}, same contract as a Reactive Streams {@code Subscriber}.
+   */
+  public interface Subscriber<T> {
+
+    void onSubscribe(Subscription subscription);
+
+    void onNext(T item);
+
+    void onError(Throwable throwable);
+
+    void onComplete();
+  }
+
+  /**
+   * Links a {@link Subscriber} to a {@link CursorPublisher}, same contract as a Reactive Streams
+   * {@code Subscription}.
+   */
+  public interface Subscription {
+
+    void request(long n);
+
+    void cancel();
+  }
+
+  private class CursorSubscription implements Subscription, Runnable {
+
+    private final Subscriber<? super T> subscriber;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition demandChanged = lock.newCondition();
+    private long demand;
+    private boolean cancelled;
+    private IllegalArgumentException invalidRequest;
+
+    CursorSubscription(Subscriber<? super T> subscriber) {
+      this.subscriber = subscriber;
+    }
+
+    @Override
+    public void request(long n) {
+      lock.lock();
+      try {
+        if (n <= 0) {
+          invalidRequest = new IllegalArgumentException("Rule 3.9: the number of requested rows must be positive but was " + n);
+        } else {
+          demand = demand + n < 0 ? Long.MAX_VALUE : demand + n;
+        }
+        demandChanged.signalAll();
+      } finally {
+        lock.unlock();
+      }
+    }
+
+    @Override
+    public void cancel() {
+      lock.lock();
+      try {
+        cancelled = true;
+        demandChanged.signalAll();
+      } finally {
+        lock.unlock();
+      }
+    }
+
+    @Override
+    public void run() {
+      Throwable failure = null;
+      boolean completed = false;
+      SqlSession sqlSession = null;
+      try {
+        long requested = awaitDemand(0);
+        if (requested > 0) {
+          sqlSession = sqlSessionFactory.openSession();
+          Cursor<T> cursor = query.apply(sqlSession);
+          Iterator<T> rows = cursor.iterator();
+          int fetchSize = 0;
+          while (requested > 0) {
+            fetchSize = adjustFetchSize(cursor, requested, fetchSize);
+            // only reads ahead once the row has been requested
+            if (!rows.hasNext()) {
+              completed = true;
+              break;
+            }
+            if (!deliver(rows.next())) {
+              break;
+            }
+            requested = awaitDemand(1);
+          }
+        }
+      } catch (Throwable t) {
+        failure = t;
+      } finally {
+        if (sqlSession != null) {
+          sqlSession.close();
+        }
+      }
+      if (failure != null) {
+        if (!isCancelled()) {
+          subscriber.onError(failure);
+        }
+      } else if (completed) {
+        subscriber.onComplete();
+      }
+    }
+
+    /**
+     * Passes a row to the subscriber. Rule 2.13: a subscriber that throws is not signalled any more, the subscription
+     * is cancelled and the failure is logged.
+     *
+     * @return false if the subscriber has thrown
+     */
+    private boolean deliver(T row) {
+      try {
+        subscriber.onNext(row);
+        return true;
+      } catch (RuntimeException | Error e) {
+        cancel();
+        log.error("Cancelled the subscription of " + subscriber + " whose onNext() failed.", e);
+        return false;
+      }
+    }
+
+    /**
+     * @return the outstanding demand, or 0 when cancelled
+     */
+    private long awaitDemand(long delivered) throws InterruptedException {
+      lock.lock();
+      try {
+        if (demand != Long.MAX_VALUE) {
+          demand -= delivered;
+        }
+        while (demand == 0 && !cancelled && invalidRequest == null) {
+          demandChanged.await();
+        }
+        if (invalidRequest != null && !cancelled) {
+          cancelled = true;
+          // reported as a failure although the subscription is now cancelled
+          throw invalidRequest;
+        }
+        return cancelled ? 0 : demand;
+      } finally {
+        lock.unlock();
+      }
+    }
+
+    private boolean isCancelled() {
+      lock.lock();
+      try {
+        return cancelled && invalidRequest == null;
+      } finally {
+        lock.unlock();
+      }
+    }
+
+    private int adjustFetchSize(Cursor<T> cursor, long requested, int fetchSize) {
+      int wanted = (int) Math.min(requested, MAX_FETCH_SIZE);
+      if (wanted != fetchSize && cursor instanceof DefaultCursor) {
+        ((DefaultCursor<T>) cursor).setFetchSize(wanted);
+      }
+      return wanted;
+    }
+  }
+
+  private static class FlowSubscriberAdapter<T> implements Subscriber<T> {
+
+    private final Object flowSubscriber;
+    private final Class<?> subscriptionType;
+    private final Method onSubscribe;
+    private final Method onNext;
+    private final Method onError;
+    private final Method onComplete;
+
+    FlowSubscriberAdapter(Object flowSubscriber, Class<?> subscriberType, Class<?> subscriptionType)
+        throws NoSuchMethodException {
+      this.flowSubscriber = Objects.requireNonNull(flowSubscriber, "subscriber");
+      this.subscriptionType = subscriptionType;
+      this.onSubscribe = subscriberType.getMethod("onSubscribe", subscriptionType);
+      this.onNext = subscriberType.getMethod("onNext", Object.class);
+      this.onError = subscriberType.getMethod("onError", Throwable.class);
+      this.onComplete = subscriberType.getMethod("onComplete");
+    }
+
+    @Override
+    public void onSubscribe(Subscription subscription) {
+      Object flowSubscription = Proxy.newProxyInstance(CursorPublisher.class.getClassLoader(),
+          new Class<?>[] { subscriptionType }, (proxy, method, args) -> {
+            if ("request".equals(method.getName()) && args != null && args.length == 1) {
+              subscription.request((Long) args[0]);
+              return null;
+            } else if ("cancel".equals(method.getName()) && args == null) {
+              subscription.cancel();
+              return null;
+            }
+            return invokeObjectMethod(proxy, method, args);
+          });
+      invoke(onSubscribe, flowSubscription);
+    }
+
+    @Override
+    public void onNext(T item) {
+      invoke(onNext, item);
+    }
+
+    @Override
+    public void onError(Throwable throwable) {
+      invoke(onError, throwable);
+    }
+
+    @Override
+    public void onComplete() {
+      invoke(onComplete);
+    }
+
+    private void invoke(Method method, Object... args) {
+      try {
+        method.invoke(flowSubscriber, args);
+      } catch (IllegalAccessException e) {
+        throw new IllegalStateException(e);
+      } catch (InvocationTargetException e) {
+        Throwable cause = ExceptionUtil.unwrapThrowable(e);
+        if (cause instanceof RuntimeException) {
+          throw (RuntimeException) cause;
+        } else if (cause instanceof Error) {
+          throw (Error) cause;
+        }
+        throw new IllegalStateException(cause);
+      }
+    }
+  }
+
+}
@@ -121,6 +121,26 @@ public class DefaultCursor<T> implements Cursor<T> {
     }
   }
 
+  /**
+   * Gives the driver a hint about the number of rows to fetch the next time more rows are needed.
+   *
+   * @param fetchSize the number of rows, 0 lets the driver decide
+   * @since 3.5.3
+   */
+  public void setFetchSize(int fetchSize) {
+    if (isClosed()) {
+      return;
+    }
+    ResultSet rs = rsw.getResultSet();
+    try {
+      if (rs != null && !rs.isClosed()) {
+        rs.setFetchSize(fetchSize);
+      }
+    } catch (SQLException e) {
+      // ignore, only a hint
+    }
+  }
+
   protected T fetchNextUsingRowBound() {
     T result = fetchNextObjectFromDatabase();
     while (objectWrapperResultHandler.fetched && indexWithRowBound < rowBounds.getOffset()) {
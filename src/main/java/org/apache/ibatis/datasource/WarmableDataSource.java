@@ -0,0 +1,32 @@
+/**
+ *    Copyright 2009-2019 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.datasource;
+
+/**
+ * A data source that can open its connections before the first request, for instance a connection pool.
+ *
+ * @since 3.5.3
+ * @see org.apache.ibatis.mapping.Environment#warmUp()
+ */
+public interface WarmableDataSource {
+
+  /**
+   * Prepares the data source so that the first requests do not wait for new connections. Failures must not prevent
+   * the data source from opening connections on demand.
+   */
+  void warmUp();
+
+}
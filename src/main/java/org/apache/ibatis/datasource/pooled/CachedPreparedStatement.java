@@ -0,0 +1,162 @@
+/**
+ *    Copyright 2009-2019 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.datasource.pooled;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+
+import org.apache.ibatis.reflection.ExceptionUtil;
+
+/**
+ * A prepared statement borrowed from a {@link PreparedStatementCache}: closing it returns it to the cache.
+ * <p>
+ * The timeout, fetch size and max rows set by the borrower are reset on return. A statement whose other
+ * settings were changed is closed instead of being returned.
+ *
+ * @since 3.5.3
+ */
+class CachedPreparedStatement implements InvocationHandler {
+
+  private static final Class<?>[] IFACES = new Class<?>[] { PreparedStatement.class };
+
+  private final PreparedStatement statement;
+  private final PreparedStatementCache cache;
+  private final PreparedStatementCache.Key key;
+  private boolean returned;
+  private boolean reusable = true;
+  private boolean batched;
+  private Integer queryTimeout;
+  private Integer fetchSize;
+  private Integer maxRows;
+
+  private CachedPreparedStatement(PreparedStatement statement, PreparedStatementCache cache, PreparedStatementCache.Key key) {
+    this.statement = statement;
+    this.cache = cache;
+    this.key = key;
+  }
+
+  static PreparedStatement newInstance(PreparedStatement statement, PreparedStatementCache cache, PreparedStatementCache.Key key) {
+    InvocationHandler handler = new CachedPreparedStatement(statement, cache, key);
+    return (PreparedStatement) Proxy.newProxyInstance(PreparedStatement.class.getClassLoader(), IFACES, handler);
+  }
+
+  @Override
+  public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+    if (Object.class.equals(method.getDeclaringClass())) {
+      return method.invoke(statement, args);
+    }
+    String methodName = method.getName();
+    switch (methodName) {
+      case "close":
+        returnToCache();
+        return null;
+      case "isClosed":
+        return returned || statement.isClosed();
+      default:
+        break;
+    }
+    if (returned) {
+      throw new SQLException("Error accessing PreparedStatement. Statement is closed.");
+    }
+    switch (methodName) {
+      case "setQueryTimeout":
+        if (queryTimeout == null) {
+          queryTimeout = statement.getQueryTimeout();
+        }
+        break;
+      case "setFetchSize":
+        if (fetchSize == null) {
+          fetchSize = statement.getFetchSize();
+        }
+        break;
+      case "setMaxRows":
+        if (maxRows == null) {
+          maxRows = statement.getMaxRows();
+        }
+        break;
+      case "addBatch":
+        batched = true;
+        break;
+      case "executeBatch":
+      case "clearBatch":
+        batched = false;
+        break;
+      default:
+        if (isStatementSetting(methodName)) {
+          reusable = false;
+        }
+        break;
+    }
+    try {
+      return method.invoke(statement, args);
+    } catch (Throwable t) {
+      throw ExceptionUtil.unwrapThrowable(t);
+    }
+  }
+
+  private static boolean isStatementSetting(String methodName) {
+    switch (methodName) {
+      case "setCursorName":
+      case "setEscapeProcessing":
+      case "setFetchDirection":
+      case "setLargeMaxRows":
+      case "setMaxFieldSize":
+      case "setPoolable":
+      case "closeOnCompletion":
+        return true;
+      default:
+        return false;
+    }
+  }
+
+  private void returnToCache() throws SQLException {
+    if (returned) {
+      return;
+    }
+    returned = true;
+    if (reusable && !statement.isClosed()) {
+      try {
+        reset();
+        if (cache.giveBack(key, statement)) {
+          return;
+        }
+      } catch (SQLException e) {
+        // cannot be reused, closed below
+      }
+    }
+    statement.close();
+  }
+
+  private void reset() throws SQLException {
+    statement.clearParameters();
+    if (batched) {
+      statement.clearBatch();
+    }
+    if (queryTimeout != null) {
+      statement.setQueryTimeout(queryTimeout);
+    }
+    if (fetchSize != null) {
+      statement.setFetchSize(fetchSize);
+    }
+    if (maxRows != null) {
+      statement.setMaxRows(maxRows);
+    }
+  }
+
+}
@@ -0,0 +1,123 @@
+/**
+ *    Copyright 2009-2019 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.datasource.pooled;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Pool statistics for the {@link ConcurrentPooledDataSource}.
+ * <p>
+ * Counters are kept in {@link LongAdder}s so that recording them never requires the monitor of this object.
+ *
+ * @since 3.5.3
+ */
+public class ConcurrentPoolState extends PoolState {
+
+  private final LongAdder requests = new LongAdder();
+  private final LongAdder requestTime = new LongAdder();
+  private final LongAdder checkoutTime = new LongAdder();
+  private final LongAdder claimedOverdueConnections = new LongAdder();
+  private final LongAdder checkoutTimeOfOverdueConnections = new LongAdder();
+  private final LongAdder waitTime = new LongAdder();
+  private final LongAdder hadToWait = new LongAdder();
+  private final LongAdder badConnections = new LongAdder();
+
+  public ConcurrentPoolState(ConcurrentPooledDataSource dataSource) {
+    super(dataSource);
+  }
+
+  void recordRequest(long elapsed) {
+    requests.increment();
+    requestTime.add(elapsed);
+  }
+
+  void recordCheckout(long elapsed) {
+    checkoutTime.add(elapsed);
+  }
+
+  void recordClaimedOverdue(long elapsed) {
+    claimedOverdueConnections.increment();
+    checkoutTimeOfOverdueConnections.add(elapsed);
+    checkoutTime.add(elapsed);
+  }
+
+  void recordHadToWait() {
+    hadToWait.increment();
+  }
+
+  void recordWait(long elapsed) {
+    waitTime.add(elapsed);
+  }
+
+  void recordBadConnection() {
+    badConnections.increment();
+  }
+
+  @Override
+  public long getRequestCount() {
+    return requests.sum();
+  }
+
+  @Override
+  public long getAverageRequestTime() {
+    long count = requests.sum();
+    return count == 0 ? 0 : requestTime.sum() / count;
+  }
+
+  @Override
+  public long getAverageWaitTime() {
+    long count = hadToWait.sum();
+    return count == 0 ? 0 : waitTime.sum() / count;
+  }
+
+  @Override
+  public long getHadToWaitCount() {
+    return hadToWait.sum();
+  }
+
+  @Override
+  public long getBadConnectionCount() {
+    return badConnections.sum();
+  }
+
+  @Override
+  public long getClaimedOverdueConnectionCount() {
+    return claimedOverdueConnections.sum();
+  }
+
+  @Override
+  public long getAverageOverdueCheckoutTime() {
+    long count = claimedOverdueConnections.sum();
+    return count == 0 ? 0 : checkoutTimeOfOverdueConnections.sum() / count;
+  }
+
+  @Override
+  public long getAverageCheckoutTime() {
+    long count = requests.sum();
+    return count == 0 ? 0 : checkoutTime.sum() / count;
+  }
+
+  @Override
+  public int getIdleConnectionCount() {
+    return ((ConcurrentPooledDataSource) dataSource).getIdleCount();
+  }
+
+  @Override
+  public int getActiveConnectionCount() {
+    return ((ConcurrentPooledDataSource) dataSource).getActiveCount();
+  }
+
+}
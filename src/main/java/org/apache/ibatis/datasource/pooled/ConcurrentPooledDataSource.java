@@ -0,0 +1,460 @@
+/**
+ *    Copyright 2009-2019 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.datasource.pooled;
+
+import java.lang.ref.WeakReference;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.Properties;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.LockSupport;
+
+import org.apache.ibatis.datasource.unpooled.UnpooledDataSource;
+import org.apache.ibatis.logging.Log;
+import org.apache.ibatis.logging.LogFactory;
+
+/**
+ * A connection pool that accepts the same configuration as {@link PooledDataSource} but never serializes
+ * checkouts and returns behind a shared monitor.
+ * <p>
+ * Every physical connection is tracked by an entry whose state is changed with compare-and-set. A thread first
+ * tries the entry it returned last, then scans all entries, then opens a new connection if the pool is not full.
+ * When the pool is exhausted the thread waits on a fair hand-off queue, so waiters are served in FIFO order and
+ * a returned connection is passed directly to the longest waiting thread. Validation, ping and rollback are
+ * performed by the thread that owns the connection, outside of any shared lock.
+ *
+ * @since 3.5.3
+ */
+public class ConcurrentPooledDataSource extends PooledDataSource {
+
+  private static final Log log = LogFactory.getLog(ConcurrentPooledDataSource.class);
+
+  private static final int STATE_REMOVED = -1;
+  private static final int STATE_NOT_IN_USE = 0;
+  private static final int STATE_IN_USE = 1;
+
+  private final CopyOnWriteArrayList<PoolEntry> entries = new CopyOnWriteArrayList<>();
+  private final ThreadLocal<WeakReference<PoolEntry>> lastUsedEntry = new ThreadLocal<>();
+  private final SynchronousQueue<PoolEntry> handoffQueue = new SynchronousQueue<>(true);
+  private final AtomicInteger waiters = new AtomicInteger();
+  private final AtomicInteger totalConnections = new AtomicInteger();
+  private final AtomicInteger idleConnections = new AtomicInteger();
+
+  public ConcurrentPooledDataSource() {
+    super();
+  }
+
+  public ConcurrentPooledDataSource(UnpooledDataSource dataSource) {
+    super(dataSource);
+  }
+
+  public ConcurrentPooledDataSource(String driver, String url, String username, String password) {
+    super(driver, url, username, password);
+  }
+
+  public ConcurrentPooledDataSource(String driver, String url, Properties driverProperties) {
+    super(driver, url, driverProperties);
+  }
+
+  public ConcurrentPooledDataSource(ClassLoader driverClassLoader, String driver, String url, String username, String password) {
+    super(driverClassLoader, driver, url, username, password);
+  }
+
+  public ConcurrentPooledDataSource(ClassLoader driverClassLoader, String driver, String url, Properties driverProperties) {
+    super(driverClassLoader, driver, url, driverProperties);
+  }
+
+  @Override
+  protected PooledConnection takeConnection(String username, String password) throws SQLException {
+    return borrowConnection(username, password);
+  }
+
+  /**
+   * Closes all active and idle connections in the pool.
+   */
+  @Override
+  public void forceCloseAll() {
+    for (PoolEntry entry : entries) {
+      if (removeEntry(entry)) {
+        try {
+          Connection realConn = entry.realConnection;
+          if (!realConn.getAutoCommit()) {
+            realConn.rollback();
+          }
+          realConn.close();
+        } catch (Exception e) {
+          // ignore
+        }
+      }
+    }
+    super.forceCloseAll();
+  }
+
+  @Override
+  protected PoolState createPoolState() {
+    return new ConcurrentPoolState(this);
+  }
+
+  @Override
+  protected void pushConnection(PooledConnection conn) throws SQLException {
+    ConcurrentPoolState state = getConcurrentPoolState();
+    PoolEntry entry = ((EntryConnection) conn).entry;
+    PooledConnection newConn = entry.newConnection(conn);
+    if (!entry.connection.compareAndSet(conn, newConn)) {
+      // the connection has been claimed as overdue by another thread
+      if (log.isDebugEnabled()) {
+        log.debug("A bad connection (" + conn.getRealHashCode() + ") attempted to return to the pool, discarding connection.");
+      }
+      state.recordBadConnection();
+      return;
+    }
+    conn.invalidate();
+    if (entry.state.get() == STATE_REMOVED || !newConn.isValid()) {
+      if (log.isDebugEnabled()) {
+        log.debug("A bad connection (" + conn.getRealHashCode() + ") attempted to return to the pool, discarding connection.");
+      }
+      state.recordBadConnection();
+      closeEntry(entry);
+      return;
+    }
+    state.recordCheckout(conn.getCheckoutTime());
+    Connection realConn = entry.realConnection;
+    try {
+      if (!realConn.getAutoCommit()) {
+        realConn.rollback();
+      }
+    } catch (SQLException e) {
+      closeEntry(entry);
+      throw e;
+    }
+    if (idleConnections.get() < poolMaximumIdleConnections && conn.getConnectionTypeCode() == expectedConnectionTypeCode
+        && !isExpired(conn)) {
+      releaseEntry(entry);
+      if (log.isDebugEnabled()) {
+        log.debug("Returned connection " + newConn.getRealHashCode() + " to pool.");
+      }
+    } else {
+      closeEntry(entry);
+      if (log.isDebugEnabled()) {
+        log.debug("Closed connection " + conn.getRealHashCode() + ".");
+      }
+    }
+  }
+
+  @Override
+  protected void housekeep() throws SQLException {
+    for (PoolEntry entry : entries) {
+      if (!entry.acquire()) {
+        continue;
+      }
+      PooledConnection conn = entry.connection.get();
+      if (isExpired(conn) || isIdleTimedOut(conn, idleConnections.get() + 1)) {
+        closeEntry(entry);
+        if (log.isDebugEnabled()) {
+          log.debug("Retired connection " + conn.getRealHashCode() + ".");
+        }
+      } else if (needsKeepalive(conn) && !keepAlive(conn)) {
+        closeEntry(entry);
+      } else {
+        releaseEntry(entry);
+      }
+    }
+    fillPool();
+  }
+
+  @Override
+  protected void fillPool() throws SQLException {
+    while (totalConnections.get() < poolMinimumIdleConnections) {
+      PoolEntry entry = createEntry();
+      if (entry == null) {
+        return;
+      }
+      entry.connection.get().setConnectionTypeCode(expectedConnectionTypeCode);
+      releaseEntry(entry);
+    }
+  }
+
+  int getIdleCount() {
+    return idleConnections.get();
+  }
+
+  int getActiveCount() {
+    int count = 0;
+    for (PoolEntry entry : entries) {
+      if (entry.state.get() == STATE_IN_USE) {
+        count++;
+      }
+    }
+    return count;
+  }
+
+  private ConcurrentPoolState getConcurrentPoolState() {
+    return (ConcurrentPoolState) getPoolState();
+  }
+
+  private PooledConnection borrowConnection(String username, String password) throws SQLException {
+    ConcurrentPoolState state = getConcurrentPoolState();
+    boolean countedWait = false;
+    long t = System.currentTimeMillis();
+    int localBadConnectionCount = 0;
+
+    while (true) {
+      PoolEntry entry = acquireEntry();
+      if (entry == null) {
+        entry = claimOverdueEntry();
+      }
+      if (entry == null) {
+        if (!countedWait) {
+          state.recordHadToWait();
+          countedWait = true;
+        }
+        if (log.isDebugEnabled()) {
+          log.debug("Waiting as long as " + poolTimeToWait + " milliseconds for connection.");
+        }
+        long wt = System.currentTimeMillis();
+        try {
+          entry = awaitEntry(poolTimeToWait);
+        } catch (InterruptedException e) {
+          Thread.currentThread().interrupt();
+          throw new SQLException("PooledDataSource: Interrupted while waiting for a connection.", e);
+        } finally {
+          state.recordWait(System.currentTimeMillis() - wt);
+        }
+        if (entry == null) {
+          continue;
+        }
+      }
+
+      PooledConnection conn = entry.connection.get();
+      // the checkout time counts from the claim, the entries held by the housekeeping keep a timestamp of 0
+      conn.setCheckoutTimestamp(System.currentTimeMillis());
+      // ping to server and check the connection is valid or not
+      if (conn.isValid()) {
+        try {
+          if (!conn.getRealConnection().getAutoCommit()) {
+            conn.getRealConnection().rollback();
+          }
+        } catch (SQLException e) {
+          closeEntry(entry);
+          throw e;
+        }
+        if (entry.connection.get() != conn) {
+          // claimed as overdue while it was validated
+          continue;
+        }
+        long now = System.currentTimeMillis();
+        conn.setConnectionTypeCode(assembleConnectionTypeCode(dataSource.getUrl(), username, password));
+        conn.setLastUsedTimestamp(now);
+        state.recordRequest(now - t);
+        return conn;
+      }
+      if (log.isDebugEnabled()) {
+        log.debug("A bad connection (" + conn.getRealHashCode() + ") was returned from the pool, getting another connection.");
+      }
+      state.recordBadConnection();
+      closeEntry(entry);
+      localBadConnectionCount++;
+      if (localBadConnectionCount > (poolMaximumIdleConnections + poolMaximumLocalBadConnectionTolerance)) {
+        if (log.isDebugEnabled()) {
+          log.debug("PooledDataSource: Could not get a good connection to the database.");
+        }
+        throw new SQLException("PooledDataSource: Could not get a good connection to the database.");
+      }
+    }
+  }
+
+  /**
+   * Takes an idle connection or opens a new one without blocking.
+   *
+   * @return the acquired entry, or null if the pool is exhausted
+   */
+  private PoolEntry acquireEntry() throws SQLException {
+    WeakReference<PoolEntry> lastUsed = lastUsedEntry.get();
+    PoolEntry entry = lastUsed == null ? null : lastUsed.get();
+    if (entry != null && entry.acquire()) {
+      return entry;
+    }
+    for (PoolEntry candidate : entries) {
+      if (candidate.acquire()) {
+        if (log.isDebugEnabled()) {
+          log.debug("Checked out connection " + candidate.realConnection.hashCode() + " from pool.");
+        }
+        return candidate;
+      }
+    }
+    return createEntry();
+  }
+
+  private PoolEntry createEntry() throws SQLException {
+    int total;
+    do {
+      total = totalConnections.get();
+      if (total >= poolMaximumActiveConnections) {
+        return null;
+      }
+    } while (!totalConnections.compareAndSet(total, total + 1));
+    try {
+      PoolEntry entry = new PoolEntry(dataSource.getConnection());
+      entries.add(entry);
+      if (log.isDebugEnabled()) {
+        log.debug("Created connection " + entry.realConnection.hashCode() + ".");
+      }
+      return entry;
+    } catch (SQLException | RuntimeException e) {
+      totalConnections.decrementAndGet();
+      throw e;
+    }
+  }
+
+  private PoolEntry claimOverdueEntry() {
+    for (PoolEntry entry : entries) {
+      PooledConnection oldestActiveConnection = entry.connection.get();
+      if (entry.state.get() != STATE_IN_USE || oldestActiveConnection.getCheckoutTimestamp() == 0) {
+        continue;
+      }
+      long longestCheckoutTime = oldestActiveConnection.getCheckoutTime();
+      if (longestCheckoutTime > poolMaximumCheckoutTime
+          && entry.connection.compareAndSet(oldestActiveConnection, entry.newConnection(oldestActiveConnection))) {
+        // Can claim overdue connection
+        oldestActiveConnection.invalidate();
+        // the overdue holder may still use its statements, they are not shared with the next one
+        oldestActiveConnection.closeStatementCache();
+        getConcurrentPoolState().recordClaimedOverdue(longestCheckoutTime);
+        try {
+          if (!entry.realConnection.getAutoCommit()) {
+            entry.realConnection.rollback();
+          }
+        } catch (SQLException e) {
+          // the validation in borrowConnection() discards the connection if it is really broken
+          log.debug("Bad connection. Could not roll back");
+        }
+        if (log.isDebugEnabled()) {
+          log.debug("Claimed overdue connection " + entry.realConnection.hashCode() + ".");
+        }
+        return entry;
+      }
+    }
+    return null;
+  }
+
+  private PoolEntry awaitEntry(long timeoutMillis) throws InterruptedException {
+    waiters.incrementAndGet();
+    try {
+      long remaining = TimeUnit.MILLISECONDS.toNanos(timeoutMillis);
+      long deadline = System.nanoTime() + remaining;
+      while (remaining > 0) {
+        PoolEntry entry = handoffQueue.poll(remaining, TimeUnit.NANOSECONDS);
+        if (entry == null) {
+          return null;
+        }
+        if (entry.acquire()) {
+          return entry;
+        }
+        remaining = deadline - System.nanoTime();
+      }
+      return null;
+    } finally {
+      waiters.decrementAndGet();
+    }
+  }
+
+  private void releaseEntry(PoolEntry entry) {
+    entry.connection.get().setCheckoutTimestamp(0);
+    idleConnections.incrementAndGet();
+    entry.state.set(STATE_NOT_IN_USE);
+    for (int i = 0; waiters.get() > 0; i++) {
+      if (entry.state.get() != STATE_NOT_IN_USE || handoffQueue.offer(entry)) {
+        return;
+      } else if ((i & 0xff) == 0xff) {
+        LockSupport.parkNanos(TimeUnit.MICROSECONDS.toNanos(10));
+      } else {
+        Thread.yield();
+      }
+    }
+    WeakReference<PoolEntry> lastUsed = lastUsedEntry.get();
+    if (lastUsed == null || lastUsed.get() != entry) {
+      // weakly referenced so that the thread does not keep a discarded pool alive
+      lastUsedEntry.set(new WeakReference<>(entry));
+    }
+  }
+
+  private boolean removeEntry(PoolEntry entry) {
+    int previous = entry.state.getAndSet(STATE_REMOVED);
+    if (previous == STATE_REMOVED) {
+      return false;
+    }
+    if (previous == STATE_NOT_IN_USE) {
+      idleConnections.decrementAndGet();
+    }
+    entries.remove(entry);
+    totalConnections.decrementAndGet();
+    entry.connection.get().invalidate();
+    return true;
+  }
+
+  private void closeEntry(PoolEntry entry) {
+    if (removeEntry(entry)) {
+      try {
+        entry.realConnection.close();
+      } catch (Exception e) {
+        // ignore
+      }
+    }
+  }
+
+  private final class PoolEntry {
+
+    private final Connection realConnection;
+    private final AtomicInteger state = new AtomicInteger(STATE_IN_USE);
+    private final AtomicReference<PooledConnection> connection;
+
+    PoolEntry(Connection realConnection) {
+      this.realConnection = realConnection;
+      this.connection = new AtomicReference<>(new EntryConnection(realConnection, ConcurrentPooledDataSource.this, this));
+    }
+
+    boolean acquire() {
+      if (state.compareAndSet(STATE_NOT_IN_USE, STATE_IN_USE)) {
+        idleConnections.decrementAndGet();
+        return true;
+      }
+      return false;
+    }
+
+    PooledConnection newConnection(PooledConnection previous) {
+      PooledConnection newConn = new EntryConnection(realConnection, ConcurrentPooledDataSource.this, this);
+      newConn.setCreatedTimestamp(previous.getCreatedTimestamp());
+      newConn.setLastUsedTimestamp(previous.getLastUsedTimestamp());
+      newConn.setStatementCache(previous.getStatementCache());
+      return newConn;
+    }
+  }
+
+  private static final class EntryConnection extends PooledConnection {
+
+    private final PoolEntry entry;
+
+    EntryConnection(Connection connection, ConcurrentPooledDataSource dataSource, PoolEntry entry) {
+      super(connection, dataSource);
+      this.entry = entry;
+    }
+  }
+
+}
@@ -0,0 +1,82 @@
+/**
+ *    Copyright 2009-2019 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.datasource.pooled;
+
+import java.lang.ref.WeakReference;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.ibatis.logging.Log;
+import org.apache.ibatis.logging.LogFactory;
+
+/**
+ * Runs the periodic maintenance of all pooled data sources on a single daemon thread.
+ * <p>
+ * Data sources are only weakly referenced, so an unreachable pool is never kept alive by its maintenance task.
+ *
+ * @since 3.5.3
+ */
+final class PoolHousekeeper {
+
+  private static final Log log = LogFactory.getLog(PoolHousekeeper.class);
+
+  private static final ScheduledThreadPoolExecutor executor;
+
+  static {
+    executor = new ScheduledThreadPoolExecutor(1, runnable -> {
+      Thread thread = new Thread(runnable, "mybatis-pool-housekeeper");
+      thread.setDaemon(true);
+      return thread;
+    });
+    executor.setRemoveOnCancelPolicy(true);
+  }
+
+  private PoolHousekeeper() {
+    // Prevent Instantiation of Static Class
+  }
+
+  static ScheduledFuture<?> schedule(PooledDataSource dataSource, long periodMillis) {
+    Task task = new Task(dataSource);
+    task.future = executor.scheduleWithFixedDelay(task, 0, periodMillis, TimeUnit.MILLISECONDS);
+    return task.future;
+  }
+
+  private static final class Task implements Runnable {
+
+    private final WeakReference<PooledDataSource> dataSource;
+    private volatile ScheduledFuture<?> future;
+
+    Task(PooledDataSource dataSource) {
+      this.dataSource = new WeakReference<>(dataSource);
+    }
+
+    @Override
+    public void run() {
+      PooledDataSource ds = dataSource.get();
+      if (ds == null) {
+        future.cancel(false);
+        return;
+      }
+      try {
+        ds.housekeep();
+      } catch (Exception e) {
+        log.warn("Housekeeping of the connection pool failed. Cause: " + e);
+      }
+    }
+  }
+
+}
@@ -1,5 +1,5 @@
 /**
- *    Copyright 2009-2018 the original author or authors.
+ *    Copyright 2009-2019 the original author or authors.
  *
  *    Licensed under the Apache License, Version 2.0 (the "License");
  *    you may not use this file except in compliance with the License.
@@ -17,6 +17,9 @@ package org.apache.ibatis.datasource.pooled;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
 
 /**
  * @author Clinton Begin
@@ -25,6 +28,9 @@ public class PoolState {
 
   protected PooledDataSource dataSource;
 
+  protected final ReentrantLock lock = new ReentrantLock();
+  protected final Condition condition = lock.newCondition();
+
   protected final List<PooledConnection> idleConnections = new ArrayList<>();
   protected final List<PooledConnection> activeConnections = new ArrayList<>();
   protected long requestCount = 0;
@@ -35,81 +41,167 @@ public class PoolState {
   protected long accumulatedWaitTime = 0;
   protected long hadToWaitCount = 0;
   protected long badConnectionCount = 0;
+  // updated by the connections without holding the pool lock
+  private final LongAdder statementCacheHitCount = new LongAdder();
+  private final LongAdder statementCacheMissCount = new LongAdder();
 
   public PoolState(PooledDataSource dataSource) {
     this.dataSource = dataSource;
   }
 
-  public synchronized long getRequestCount() {
-    return requestCount;
+  public long getRequestCount() {
+    lock.lock();
+    try {
+      return requestCount;
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  public long getAverageRequestTime() {
+    lock.lock();
+    try {
+      return requestCount == 0 ? 0 : accumulatedRequestTime / requestCount;
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  public long getAverageWaitTime() {
+    lock.lock();
+    try {
+      return hadToWaitCount == 0 ? 0 : accumulatedWaitTime / hadToWaitCount;
+    } finally {
+      lock.unlock();
+    }
   }
 
-  public synchronized long getAverageRequestTime() {
-    return requestCount == 0 ? 0 : accumulatedRequestTime / requestCount;
+  public long getHadToWaitCount() {
+    lock.lock();
+    try {
+      return hadToWaitCount;
+    } finally {
+      lock.unlock();
+    }
   }
 
-  public synchronized long getAverageWaitTime() {
-    return hadToWaitCount == 0 ? 0 : accumulatedWaitTime / hadToWaitCount;
+  public long getBadConnectionCount() {
+    lock.lock();
+    try {
+      return badConnectionCount;
+    } finally {
+      lock.unlock();
+    }
+  }
 
+  public long getClaimedOverdueConnectionCount() {
+    lock.lock();
+    try {
+      return claimedOverdueConnectionCount;
+    } finally {
+      lock.unlock();
+    }
   }
 
-  public synchronized long getHadToWaitCount() {
-    return hadToWaitCount;
+  public long getAverageOverdueCheckoutTime() {
+    lock.lock();
+    try {
+      return claimedOverdueConnectionCount == 0 ? 0 : accumulatedCheckoutTimeOfOverdueConnections / claimedOverdueConnectionCount;
+    } finally {
+      lock.unlock();
+    }
   }
 
-  public synchronized long getBadConnectionCount() {
-    return badConnectionCount;
+  public long getAverageCheckoutTime() {
+    lock.lock();
+    try {
+      return requestCount == 0 ? 0 : accumulatedCheckoutTime / requestCount;
+    } finally {
+      lock.unlock();
+    }
   }
 
-  public synchronized long getClaimedOverdueConnectionCount() {
-    return claimedOverdueConnectionCount;
+
+  void recordStatementCacheHit() {
+    statementCacheHitCount.increment();
   }
 
-  public synchronized long getAverageOverdueCheckoutTime() {
-    return claimedOverdueConnectionCount == 0 ? 0 : accumulatedCheckoutTimeOfOverdueConnections / claimedOverdueConnectionCount;
+  void recordStatementCacheMiss() {
+    statementCacheMissCount.increment();
   }
 
-  public synchronized long getAverageCheckoutTime() {
-    return requestCount == 0 ? 0 : accumulatedCheckoutTime / requestCount;
+  /**
+   * @since 3.5.3
+   */
+  public long getStatementCacheHitCount() {
+    return statementCacheHitCount.sum();
   }
 
+  /**
+   * @since 3.5.3
+   */
+  public long getStatementCacheMissCount() {
+    return statementCacheMissCount.sum();
+  }
 
-  public synchronized int getIdleConnectionCount() {
-    return idleConnections.size();
+  public int getIdleConnectionCount() {
+    lock.lock();
+    try {
+      return idleConnections.size();
+    } finally {
+      lock.unlock();
+    }
   }
 
-  public synchronized int getActiveConnectionCount() {
-    return activeConnections.size();
+  public int getActiveConnectionCount() {
+    lock.lock();
+    try {
+      return activeConnections.size();
+    } finally {
+      lock.unlock();
+    }
   }
 
   @Override
-  public synchronized String toString() {
-    StringBuilder builder = new StringBuilder();
-    builder.append("\n===CONFINGURATION==============================================");
-    builder.append("\n jdbcDriver                     ").append(dataSource.getDriver());
-    builder.append("\n jdbcUrl                        ").append(dataSource.getUrl());
-    builder.append("\n jdbcUsername                   ").append(dataSource.getUsername());
-    builder.append("\n jdbcPassword                   ").append(dataSource.getPassword() == null ? "NULL" : "************");
-    builder.append("\n poolMaxActiveConnections       ").append(dataSource.poolMaximumActiveConnections);
-    builder.append("\n poolMaxIdleConnections         ").append(dataSource.poolMaximumIdleConnections);
-    builder.append("\n poolMaxCheckoutTime            ").append(dataSource.poolMaximumCheckoutTime);
-    builder.append("\n poolTimeToWait                 ").append(dataSource.poolTimeToWait);
-    builder.append("\n poolPingEnabled                ").append(dataSource.poolPingEnabled);
-    builder.append("\n poolPingQuery                  ").append(dataSource.poolPingQuery);
-    builder.append("\n poolPingConnectionsNotUsedFor  ").append(dataSource.poolPingConnectionsNotUsedFor);
-    builder.append("\n ---STATUS-----------------------------------------------------");
-    builder.append("\n activeConnections              ").append(getActiveConnectionCount());
-    builder.append("\n idleConnections                ").append(getIdleConnectionCount());
-    builder.append("\n requestCount                   ").append(getRequestCount());
-    builder.append("\n averageRequestTime             ").append(getAverageRequestTime());
-    builder.append("\n averageCheckoutTime            ").append(getAverageCheckoutTime());
-    builder.append("\n claimedOverdue                 ").append(getClaimedOverdueConnectionCount());
-    builder.append("\n averageOverdueCheckoutTime     ").append(getAverageOverdueCheckoutTime());
-    builder.append("\n hadToWait                      ").append(getHadToWaitCount());
-    builder.append("\n averageWaitTime                ").append(getAverageWaitTime());
-    builder.append("\n badConnectionCount             ").append(getBadConnectionCount());
-    builder.append("\n===============================================================");
-    return builder.toString();
+  public String toString() {
+    lock.lock();
+    try {
+      StringBuilder builder = new StringBuilder();
+      builder.append("\n===CONFINGURATION==============================================");
+      builder.append("\n jdbcDriver                     ").append(dataSource.getDriver());
+      builder.append("\n jdbcUrl                        ").append(dataSource.getUrl());
+      builder.append("\n jdbcUsername                   ").append(dataSource.getUsername());
+      builder.append("\n jdbcPassword                   ").append(dataSource.getPassword() == null ? "NULL" : "************");
+      builder.append("\n poolMaxActiveConnections       ").append(dataSource.poolMaximumActiveConnections);
+      builder.append("\n poolMaxIdleConnections         ").append(dataSource.poolMaximumIdleConnections);
+      builder.append("\n poolMaxCheckoutTime            ").append(dataSource.poolMaximumCheckoutTime);
+      builder.append("\n poolTimeToWait                 ").append(dataSource.poolTimeToWait);
+      builder.append("\n poolPingEnabled                ").append(dataSource.poolPingEnabled);
+      builder.append("\n poolPingQuery                  ").append(dataSource.poolPingQuery);
+      builder.append("\n poolPingConnectionsNotUsedFor  ").append(dataSource.poolPingConnectionsNotUsedFor);
+      builder.append("\n poolMinimumIdleConnections     ").append(dataSource.poolMinimumIdleConnections);
+      builder.append("\n poolMaximumLifetime            ").append(dataSource.poolMaximumLifetime);
+      builder.append("\n poolIdleTimeout                ").append(dataSource.poolIdleTimeout);
+      builder.append("\n poolKeepaliveTime              ").append(dataSource.poolKeepaliveTime);
+      builder.append("\n poolPreparedStatementCacheSize ").append(dataSource.poolPreparedStatementCacheSize);
+      builder.append("\n ---STATUS-----------------------------------------------------");
+      builder.append("\n activeConnections              ").append(getActiveConnectionCount());
+      builder.append("\n idleConnections                ").append(getIdleConnectionCount());
+      builder.append("\n requestCount                   ").append(getRequestCount());
+      builder.append("\n averageRequestTime             ").append(getAverageRequestTime());
+      builder.append("\n averageCheckoutTime            ").append(getAverageCheckoutTime());
+      builder.append("\n claimedOverdue                 ").append(getClaimedOverdueConnectionCount());
+      builder.append("\n averageOverdueCheckoutTime     ").append(getAverageOverdueCheckoutTime());
+      builder.append("\n hadToWait                      ").append(getHadToWaitCount());
+      builder.append("\n averageWaitTime                ").append(getAverageWaitTime());
+      builder.append("\n badConnectionCount             ").append(getBadConnectionCount());
+      builder.append("\n statementCacheHits             ").append(getStatementCacheHitCount());
+      builder.append("\n statementCacheMisses           ").append(getStatementCacheMissCount());
+      builder.append("\n===============================================================");
+      return builder.toString();
+    } finally {
+      lock.unlock();
+    }
   }
 
 }
@@ -19,6 +19,7 @@ import java.lang.reflect.InvocationHandler;
 import java.lang.reflect.Method;
 import java.lang.reflect.Proxy;
 import java.sql.Connection;
+import java.sql.PreparedStatement;
 import java.sql.SQLException;
 
 import org.apache.ibatis.reflection.ExceptionUtil;
@@ -29,17 +30,21 @@ import org.apache.ibatis.reflection.ExceptionUtil;
 class PooledConnection implements InvocationHandler {
 
   private static final String CLOSE = "close";
+  private static final String PREPARE_STATEMENT = "prepareStatement";
   private static final Class<?>[] IFACES = new Class<?>[] { Connection.class };
 
   private final int hashCode;
   private final PooledDataSource dataSource;
   private final Connection realConnection;
   private final Connection proxyConnection;
-  private long checkoutTimestamp;
+  // read by the threads looking for overdue connections
+  private volatile long checkoutTimestamp;
   private long createdTimestamp;
   private long lastUsedTimestamp;
+  private long lastKeepaliveTimestamp;
   private int connectionTypeCode;
   private boolean valid;
+  private PreparedStatementCache statementCache;
 
   /**
    * Constructor for SimplePooledConnection that uses the Connection and PooledDataSource passed in.
@@ -163,6 +168,24 @@ class PooledConnection implements InvocationHandler {
     return System.currentTimeMillis() - lastUsedTimestamp;
   }
 
+  /**
+   * Setter for the time that the connection was last kept alive by the pool.
+   *
+   * @param lastKeepaliveTimestamp - the timestamp
+   */
+  public void setLastKeepaliveTimestamp(long lastKeepaliveTimestamp) {
+    this.lastKeepaliveTimestamp = lastKeepaliveTimestamp;
+  }
+
+  /**
+   * Getter for the time since this connection was last used or kept alive.
+   *
+   * @return - the time since the last use or keepalive
+   */
+  public long getTimeElapsedSinceLastKeepalive() {
+    return System.currentTimeMillis() - Math.max(lastUsedTimestamp, lastKeepaliveTimestamp);
+  }
+
   /**
    * Getter for the age of the connection.
    *
@@ -199,6 +222,34 @@ class PooledConnection implements InvocationHandler {
     return System.currentTimeMillis() - checkoutTimestamp;
   }
 
+  /**
+   * Getter for the prepared statements cached by the real connection.
+   *
+   * @return the cache, or null if no statement was prepared yet
+   */
+  PreparedStatementCache getStatementCache() {
+    return statementCache;
+  }
+
+  /**
+   * Hands the prepared statements cached by the real connection over to this new wrapper.
+   *
+   * @param statementCache - the cache of the previous wrapper
+   */
+  void setStatementCache(PreparedStatementCache statementCache) {
+    this.statementCache = statementCache;
+  }
+
+  /**
+   * Closes the idle statements cached by the real connection, a new cache is started on the next prepare.
+   */
+  void closeStatementCache() {
+    PreparedStatementCache cache = statementCache;
+    if (cache != null) {
+      cache.close();
+    }
+  }
+
   @Override
   public int hashCode() {
     return hashCode;
@@ -242,6 +293,9 @@ class PooledConnection implements InvocationHandler {
         // throw an SQLException instead of a Runtime
         checkConnection();
       }
+      if (PREPARE_STATEMENT.equals(methodName) && dataSource.poolPreparedStatementCacheSize > 0) {
+        return prepareCachedStatement(method, args);
+      }
       return method.invoke(realConnection, args);
     } catch (Throwable t) {
       throw ExceptionUtil.unwrapThrowable(t);
@@ -249,6 +303,23 @@ class PooledConnection implements InvocationHandler {
 
   }
 
+  private PreparedStatement prepareCachedStatement(Method method, Object[] args) throws Exception {
+    PreparedStatementCache cache = statementCache;
+    if (cache == null || cache.isClosed()) {
+      cache = new PreparedStatementCache(dataSource.poolPreparedStatementCacheSize);
+      statementCache = cache;
+    }
+    PreparedStatementCache.Key key = new PreparedStatementCache.Key(args);
+    PreparedStatement statement = cache.borrow(key);
+    if (statement != null) {
+      dataSource.getPoolState().recordStatementCacheHit();
+    } else {
+      dataSource.getPoolState().recordStatementCacheMiss();
+      statement = (PreparedStatement) method.invoke(realConnection, args);
+    }
+    return CachedPreparedStatement.newInstance(statement, cache, key);
+  }
+
   private void checkConnection() throws SQLException {
     if (!valid) {
       throw new SQLException("Error accessing PooledConnection. Connection is invalid.");
@@ -22,27 +22,36 @@ import java.sql.Connection;
 import java.sql.DriverManager;
 import java.sql.SQLException;
 import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
 import java.util.Properties;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
 import java.util.logging.Logger;
 
 import javax.sql.DataSource;
 
+import org.apache.ibatis.datasource.WarmableDataSource;
 import org.apache.ibatis.datasource.unpooled.UnpooledDataSource;
 import org.apache.ibatis.logging.Log;
 import org.apache.ibatis.logging.LogFactory;
+import org.apache.ibatis.metrics.MetricsCollector;
 
 /**
  * This is a simple, synchronous, thread-safe database connection pool.
  *
  * @author Clinton Begin
  */
-public class PooledDataSource implements DataSource {
+public class PooledDataSource implements DataSource, WarmableDataSource {
 
   private static final Log log = LogFactory.getLog(PooledDataSource.class);
 
-  private final PoolState state = new PoolState(this);
+  private static final int KEEPALIVE_VALIDATION_TIMEOUT = 5;
 
-  private final UnpooledDataSource dataSource;
+  private final PoolState state = createPoolState();
+
+  protected final UnpooledDataSource dataSource;
 
   // OPTIONAL CONFIGURATION FIELDS
   protected int poolMaximumActiveConnections = 10;
@@ -53,8 +62,18 @@ public class PooledDataSource implements DataSource {
   protected String poolPingQuery = "NO PING QUERY SET";
   protected boolean poolPingEnabled;
   protected int poolPingConnectionsNotUsedFor;
+  protected int poolMinimumIdleConnections;
+  protected int poolMaximumLifetime;
+  protected int poolIdleTimeout;
+  protected int poolKeepaliveTime;
+  protected int poolHousekeepingPeriod = 30000;
+  protected int poolPreparedStatementCacheSize;
+
+  protected int expectedConnectionTypeCode;
+
+  private volatile ScheduledFuture<?> housekeeping;
 
-  private int expectedConnectionTypeCode;
+  private volatile MetricsCollector metricsCollector;
 
   public PooledDataSource() {
     dataSource = new UnpooledDataSource();
@@ -86,12 +105,33 @@ public class PooledDataSource implements DataSource {
 
   @Override
   public Connection getConnection() throws SQLException {
-    return popConnection(dataSource.getUsername(), dataSource.getPassword()).getProxyConnection();
+    return checkOut(dataSource.getUsername(), dataSource.getPassword()).getProxyConnection();
   }
 
   @Override
   public Connection getConnection(String username, String password) throws SQLException {
-    return popConnection(username, password).getProxyConnection();
+    return checkOut(username, password).getProxyConnection();
+  }
+
+  private PooledConnection checkOut(String username, String password) throws SQLException {
+    startHousekeeping();
+    final MetricsCollector metrics = metricsCollector;
+    if (metrics == null) {
+      return takeConnection(username, password);
+    }
+    final long start = System.nanoTime();
+    final PooledConnection conn = takeConnection(username, password);
+    metrics.recordPoolWait(System.nanoTime() - start);
+    return conn;
+  }
+
+  /**
+   * Takes a connection out of the pool, waiting for one to be returned when all of them are in use.
+   *
+   * @since 3.5.3
+   */
+  protected PooledConnection takeConnection(String username, String password) throws SQLException {
+    return popConnection(username, password);
   }
 
   @Override
@@ -247,6 +287,79 @@ public class PooledDataSource implements DataSource {
     forceCloseAll();
   }
 
+  /**
+   * The number of idle connections the pool tries to keep ready. Missing connections are opened in the background.
+   * The checked out connections count toward this number since they become idle when they are returned.
+   *
+   * @param poolMinimumIdleConnections The minimum number of idle connections
+   * @since 3.5.3
+   */
+  public void setPoolMinimumIdleConnections(int poolMinimumIdleConnections) {
+    this.poolMinimumIdleConnections = poolMinimumIdleConnections;
+    forceCloseAll();
+  }
+
+  /**
+   * The maximum time a connection may live in the pool. Older connections are closed when they are idle or
+   * returned. Should be shorter than any connection time limit imposed by the database.
+   *
+   * @param milliseconds The maximum lifetime, 0 means no limit
+   * @since 3.5.3
+   */
+  public void setPoolMaximumLifetime(int milliseconds) {
+    this.poolMaximumLifetime = milliseconds;
+    forceCloseAll();
+  }
+
+  /**
+   * The time after which an unused connection is closed, as long as more than
+   * {@code poolMinimumIdleConnections} connections are idle.
+   *
+   * @param milliseconds The idle timeout, 0 means idle connections are never closed
+   * @since 3.5.3
+   */
+  public void setPoolIdleTimeout(int milliseconds) {
+    this.poolIdleTimeout = milliseconds;
+    forceCloseAll();
+  }
+
+  /**
+   * If an idle connection has not been used or tested in this many milliseconds, it is tested in the background
+   * to keep it from being closed by the database or the network. The ping query is used if it is enabled.
+   *
+   * @param milliseconds The keepalive interval, 0 means no keepalive
+   * @since 3.5.3
+   */
+  public void setPoolKeepaliveTime(int milliseconds) {
+    this.poolKeepaliveTime = milliseconds;
+    forceCloseAll();
+  }
+
+  /**
+   * How often the background task applies {@code poolMinimumIdleConnections}, {@code poolMaximumLifetime},
+   * {@code poolIdleTimeout} and {@code poolKeepaliveTime}.
+   *
+   * @param milliseconds The period between two runs
+   * @since 3.5.3
+   */
+  public void setPoolHousekeepingPeriod(int milliseconds) {
+    this.poolHousekeepingPeriod = milliseconds;
+    forceCloseAll();
+  }
+
+  /**
+   * The number of prepared statements that each pooled connection keeps open for reuse, across sessions.
+   * Closing a statement prepared by a pooled connection returns it to the cache of the connection, the least
+   * recently used statement is closed when the cache is full.
+   *
+   * @param poolPreparedStatementCacheSize The number of statements cached by connection, 0 disables the cache
+   * @since 3.5.3
+   */
+  public void setPoolPreparedStatementCacheSize(int poolPreparedStatementCacheSize) {
+    this.poolPreparedStatementCacheSize = poolPreparedStatementCacheSize;
+    forceCloseAll();
+  }
+
   public String getDriver() {
     return dataSource.getDriver();
   }
@@ -314,11 +427,89 @@ public class PooledDataSource implements DataSource {
     return poolPingConnectionsNotUsedFor;
   }
 
+  /**
+   * @since 3.5.3
+   */
+  public int getPoolMinimumIdleConnections() {
+    return poolMinimumIdleConnections;
+  }
+
+  /**
+   * @since 3.5.3
+   */
+  public int getPoolMaximumLifetime() {
+    return poolMaximumLifetime;
+  }
+
+  /**
+   * @since 3.5.3
+   */
+  public int getPoolIdleTimeout() {
+    return poolIdleTimeout;
+  }
+
+  /**
+   * @since 3.5.3
+   */
+  public int getPoolKeepaliveTime() {
+    return poolKeepaliveTime;
+  }
+
+  /**
+   * @since 3.5.3
+   */
+  public int getPoolHousekeepingPeriod() {
+    return poolHousekeepingPeriod;
+  }
+
+  /**
+   * @since 3.5.3
+   */
+  public int getPoolPreparedStatementCacheSize() {
+    return poolPreparedStatementCacheSize;
+  }
+
+  /**
+   * @since 3.5.3
+   */
+  public MetricsCollector getMetricsCollector() {
+    return metricsCollector;
+  }
+
+  /**
+   * Sets the collector receiving the time spent to get each connection, {@code null} to stop recording it.
+   *
+   * @since 3.5.3
+   */
+  public void setMetricsCollector(MetricsCollector metricsCollector) {
+    this.metricsCollector = metricsCollector;
+  }
+
+  /**
+   * Opens connections until {@code poolMinimumIdleConnections} connections are idle and starts the background
+   * maintenance of the pool. Failures are logged, connections are opened on demand as usual then.
+   *
+   * @since 3.5.3
+   */
+  @Override
+  public void warmUp() {
+    startHousekeeping();
+    if (poolMinimumIdleConnections > 0) {
+      try {
+        fillPool();
+      } catch (SQLException e) {
+        log.warn("Could not warm up the connection pool. Cause: " + e);
+      }
+    }
+  }
+
   /**
    * Closes all active and idle connections in the pool.
    */
   public void forceCloseAll() {
-    synchronized (state) {
+    stopHousekeeping();
+    state.lock.lock();
+    try {
       expectedConnectionTypeCode = assembleConnectionTypeCode(dataSource.getUrl(), dataSource.getUsername(), dataSource.getPassword());
       for (int i = state.activeConnections.size(); i > 0; i--) {
         try {
@@ -348,6 +539,8 @@ public class PooledDataSource implements DataSource {
           // ignore
         }
       }
+    } finally {
+      state.lock.unlock();
     }
     if (log.isDebugEnabled()) {
       log.debug("PooledDataSource forcefully closed/removed all connections.");
@@ -358,16 +551,189 @@ public class PooledDataSource implements DataSource {
     return state;
   }
 
-  private int assembleConnectionTypeCode(String url, String username, String password) {
+  /**
+   * Creates the statistics holder of this pool. Subclasses that do not keep their connections in the
+   * {@link PoolState} lists may return a specialized implementation.
+   *
+   * @return the pool state
+   * @since 3.5.3
+   */
+  protected PoolState createPoolState() {
+    return new PoolState(this);
+  }
+
+  private boolean isHousekeepingEnabled() {
+    return poolHousekeepingPeriod > 0
+        && (poolMinimumIdleConnections > 0 || poolMaximumLifetime > 0 || poolIdleTimeout > 0 || poolKeepaliveTime > 0);
+  }
+
+  protected void startHousekeeping() {
+    if (housekeeping == null && isHousekeepingEnabled()) {
+      synchronized (this) {
+        if (housekeeping == null) {
+          housekeeping = PoolHousekeeper.schedule(this, poolHousekeepingPeriod);
+        }
+      }
+    }
+  }
+
+  private synchronized void stopHousekeeping() {
+    if (housekeeping != null) {
+      housekeeping.cancel(false);
+      housekeeping = null;
+    }
+  }
+
+  /**
+   * Performs one run of the background maintenance: closes expired and timed out idle connections, keeps the
+   * remaining idle connections alive and opens connections until the pool holds {@code poolMinimumIdleConnections}.
+   *
+   * @throws SQLException if a new connection could not be opened
+   * @since 3.5.3
+   */
+  protected void housekeep() throws SQLException {
+    List<PooledConnection> retired = new ArrayList<>();
+    List<PooledConnection> stale = new ArrayList<>();
+    state.lock.lock();
+    try {
+      for (Iterator<PooledConnection> it = state.idleConnections.iterator(); it.hasNext();) {
+        PooledConnection conn = it.next();
+        if (isExpired(conn) || isIdleTimedOut(conn, state.idleConnections.size())) {
+          it.remove();
+          retired.add(conn);
+        } else if (needsKeepalive(conn)) {
+          it.remove();
+          stale.add(conn);
+        }
+      }
+    } finally {
+      state.lock.unlock();
+    }
+    for (PooledConnection conn : retired) {
+      closeRetiredConnection(conn);
+    }
+    for (PooledConnection conn : stale) {
+      if (keepAlive(conn)) {
+        state.lock.lock();
+        try {
+          state.idleConnections.add(conn);
+          state.condition.signalAll();
+        } finally {
+          state.lock.unlock();
+        }
+      } else {
+        closeRetiredConnection(conn);
+      }
+    }
+    fillPool();
+  }
+
+  /**
+   * Opens connections until the pool holds {@code poolMinimumIdleConnections} connections, idle or checked out, without
+   * exceeding {@code poolMaximumActiveConnections}.
+   *
+   * @throws SQLException if a new connection could not be opened
+   * @since 3.5.3
+   */
+  protected void fillPool() throws SQLException {
+    while (true) {
+      state.lock.lock();
+      try {
+        int connectionCount = state.idleConnections.size() + state.activeConnections.size();
+        if (connectionCount >= poolMinimumIdleConnections || connectionCount >= poolMaximumActiveConnections) {
+          return;
+        }
+      } finally {
+        state.lock.unlock();
+      }
+      PooledConnection conn = new PooledConnection(dataSource.getConnection(), this);
+      conn.setConnectionTypeCode(expectedConnectionTypeCode);
+      state.lock.lock();
+      try {
+        int connectionCount = state.idleConnections.size() + state.activeConnections.size();
+        if (connectionCount < poolMinimumIdleConnections && connectionCount < poolMaximumActiveConnections) {
+          state.idleConnections.add(conn);
+          state.condition.signalAll();
+          if (log.isDebugEnabled()) {
+            log.debug("Opened idle connection " + conn.getRealHashCode() + ".");
+          }
+          continue;
+        }
+      } finally {
+        state.lock.unlock();
+      }
+      closeRetiredConnection(conn);
+      return;
+    }
+  }
+
+  protected boolean isExpired(PooledConnection conn) {
+    return poolMaximumLifetime > 0 && conn.getAge() > poolMaximumLifetime;
+  }
+
+  protected boolean isIdleTimedOut(PooledConnection conn, int idleConnectionCount) {
+    return poolIdleTimeout > 0 && idleConnectionCount > poolMinimumIdleConnections
+        && conn.getTimeElapsedSinceLastUse() > poolIdleTimeout;
+  }
+
+  protected boolean needsKeepalive(PooledConnection conn) {
+    return poolKeepaliveTime > 0 && conn.getTimeElapsedSinceLastKeepalive() > poolKeepaliveTime;
+  }
+
+  /**
+   * Tests an idle connection so that neither the database nor the network closes it for inactivity.
+   *
+   * @param conn - the connection to test
+   * @return True if the connection is still usable
+   * @since 3.5.3
+   */
+  protected boolean keepAlive(PooledConnection conn) {
+    Connection realConn = conn.getRealConnection();
+    try {
+      if (poolPingEnabled) {
+        try (Statement statement = realConn.createStatement()) {
+          statement.executeQuery(poolPingQuery).close();
+        }
+        if (!realConn.getAutoCommit()) {
+          realConn.rollback();
+        }
+      } else if (!realConn.isValid(KEEPALIVE_VALIDATION_TIMEOUT)) {
+        return false;
+      }
+    } catch (Exception e) {
+      if (log.isDebugEnabled()) {
+        log.debug("Keepalive of connection " + conn.getRealHashCode() + " failed: " + e.getMessage());
+      }
+      return false;
+    }
+    conn.setLastKeepaliveTimestamp(System.currentTimeMillis());
+    return true;
+  }
+
+  protected void closeRetiredConnection(PooledConnection conn) {
+    conn.invalidate();
+    try {
+      conn.getRealConnection().close();
+    } catch (Exception e) {
+      // ignore
+    }
+    if (log.isDebugEnabled()) {
+      log.debug("Retired connection " + conn.getRealHashCode() + ".");
+    }
+  }
+
+  protected int assembleConnectionTypeCode(String url, String username, String password) {
     return ("" + url + username + password).hashCode();
   }
 
   protected void pushConnection(PooledConnection conn) throws SQLException {
 
-    synchronized (state) {
+    state.lock.lock();
+    try {
       state.activeConnections.remove(conn);
       if (conn.isValid()) {
-        if (state.idleConnections.size() < poolMaximumIdleConnections && conn.getConnectionTypeCode() == expectedConnectionTypeCode) {
+        if (state.idleConnections.size() < poolMaximumIdleConnections && conn.getConnectionTypeCode() == expectedConnectionTypeCode
+            && !isExpired(conn)) {
           state.accumulatedCheckoutTime += conn.getCheckoutTime();
           if (!conn.getRealConnection().getAutoCommit()) {
             conn.getRealConnection().rollback();
@@ -376,11 +742,12 @@ public class PooledDataSource implements DataSource {
           state.idleConnections.add(newConn);
           newConn.setCreatedTimestamp(conn.getCreatedTimestamp());
           newConn.setLastUsedTimestamp(conn.getLastUsedTimestamp());
+          newConn.setStatementCache(conn.getStatementCache());
           conn.invalidate();
           if (log.isDebugEnabled()) {
             log.debug("Returned connection " + newConn.getRealHashCode() + " to pool.");
           }
-          state.notifyAll();
+          state.condition.signalAll();
         } else {
           state.accumulatedCheckoutTime += conn.getCheckoutTime();
           if (!conn.getRealConnection().getAutoCommit()) {
@@ -398,6 +765,8 @@ public class PooledDataSource implements DataSource {
         }
         state.badConnectionCount++;
       }
+    } finally {
+      state.lock.unlock();
     }
   }
 
@@ -408,7 +777,8 @@ public class PooledDataSource implements DataSource {
     int localBadConnectionCount = 0;
 
     while (conn == null) {
-      synchronized (state) {
+      state.lock.lock();
+      try {
         if (!state.idleConnections.isEmpty()) {
           // Pool has available connection
           conn = state.idleConnections.remove(0);
@@ -452,6 +822,8 @@ public class PooledDataSource implements DataSource {
               conn.setCreatedTimestamp(oldestActiveConnection.getCreatedTimestamp());
               conn.setLastUsedTimestamp(oldestActiveConnection.getLastUsedTimestamp());
               oldestActiveConnection.invalidate();
+              // the overdue holder may still use its statements, they are not shared with the next one
+              oldestActiveConnection.closeStatementCache();
               if (log.isDebugEnabled()) {
                 log.debug("Claimed overdue connection " + conn.getRealHashCode() + ".");
               }
@@ -466,7 +838,11 @@ public class PooledDataSource implements DataSource {
                   log.debug("Waiting as long as " + poolTimeToWait + " milliseconds for connection.");
                 }
                 long wt = System.currentTimeMillis();
-                state.wait(poolTimeToWait);
+                if (poolTimeToWait > 0) {
+                  state.condition.await(poolTimeToWait, TimeUnit.MILLISECONDS);
+                } else {
+                  state.condition.await();
+                }
                 state.accumulatedWaitTime += System.currentTimeMillis() - wt;
               } catch (InterruptedException e) {
                 break;
@@ -501,6 +877,8 @@ public class PooledDataSource implements DataSource {
             }
           }
         }
+      } finally {
+        state.lock.unlock();
       }
 
     }
@@ -1,5 +1,5 @@
 /**
- *    Copyright 2009-2015 the original author or authors.
+ *    Copyright 2009-2019 the original author or authors.
  *
  *    Licensed under the Apache License, Version 2.0 (the "License");
  *    you may not use this file except in compliance with the License.
@@ -15,6 +15,9 @@
  */
 package org.apache.ibatis.datasource.pooled;
 
+import java.util.Properties;
+
+import org.apache.ibatis.datasource.DataSourceException;
 import org.apache.ibatis.datasource.unpooled.UnpooledDataSourceFactory;
 
 /**
@@ -22,8 +25,30 @@ import org.apache.ibatis.datasource.unpooled.UnpooledDataSourceFactory;
  */
 public class PooledDataSourceFactory extends UnpooledDataSourceFactory {
 
+  private static final String POOL_ENGINE_PROPERTY = "poolEngine";
+
   public PooledDataSourceFactory() {
     this.dataSource = new PooledDataSource();
   }
 
+  @Override
+  public void setProperties(Properties properties) {
+    Properties dataSourceProperties = new Properties();
+    dataSourceProperties.putAll(properties);
+    String poolEngine = (String) dataSourceProperties.remove(POOL_ENGINE_PROPERTY);
+    if (poolEngine != null) {
+      this.dataSource = createDataSource(poolEngine);
+    }
+    super.setProperties(dataSourceProperties);
+  }
+
+  private PooledDataSource createDataSource(String poolEngine) {
+    if ("SYNCHRONIZED".equalsIgnoreCase(poolEngine)) {
+      return new PooledDataSource();
+    } else if ("CONCURRENT".equalsIgnoreCase(poolEngine)) {
+      return new ConcurrentPooledDataSource();
+    }
+    throw new DataSourceException("Unknown pool engine: " + poolEngine + ". Use SYNCHRONIZED or CONCURRENT.");
+  }
+
 }
@@ -0,0 +1,163 @@
+/**
+ *    Copyright 2009-2019 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.datasource.pooled;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * The prepared statements kept open by one physical connection, across the pooled connections that wrap it.
+ * <p>
+ * A statement is removed from the cache while it is borrowed, so two open statements never share a driver
+ * statement. When the cache is full, the least recently returned statement is closed.
+ *
+ * @since 3.5.3
+ */
+final class PreparedStatementCache {
+
+  private final int maxSize;
+  private final Map<Key, PreparedStatement> statements = new LinkedHashMap<>();
+  // statements are closed after releasing the lock
+  private final ReentrantLock lock = new ReentrantLock();
+  private boolean closed;
+
+  PreparedStatementCache(int maxSize) {
+    this.maxSize = maxSize;
+  }
+
+  boolean isClosed() {
+    lock.lock();
+    try {
+      return closed;
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  int size() {
+    lock.lock();
+    try {
+      return statements.size();
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /**
+   * Takes an idle statement prepared with the same arguments out of the cache.
+   *
+   * @return the statement, or null on a miss
+   */
+  PreparedStatement borrow(Key key) {
+    lock.lock();
+    try {
+      return statements.remove(key);
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /**
+   * Puts a statement back into the cache, closing the least recently used one when the cache is full.
+   *
+   * @return false if the cache is closed, the caller must close the statement then
+   */
+  boolean giveBack(Key key, PreparedStatement statement) {
+    PreparedStatement previous;
+    PreparedStatement evicted = null;
+    lock.lock();
+    try {
+      if (closed) {
+        return false;
+      }
+      // when the same SQL was prepared twice at once, only the last one is kept
+      previous = statements.put(key, statement);
+      if (statements.size() > maxSize) {
+        Iterator<PreparedStatement> eldest = statements.values().iterator();
+        evicted = eldest.next();
+        eldest.remove();
+      }
+    } finally {
+      lock.unlock();
+    }
+    if (previous != null) {
+      closeQuietly(previous);
+    }
+    if (evicted != null) {
+      closeQuietly(evicted);
+    }
+    return true;
+  }
+
+  /**
+   * Closes all idle statements. Statements borrowed at this time are closed when they are returned.
+   */
+  void close() {
+    List<PreparedStatement> idleStatements;
+    lock.lock();
+    try {
+      closed = true;
+      idleStatements = new ArrayList<>(statements.values());
+      statements.clear();
+    } finally {
+      lock.unlock();
+    }
+    for (PreparedStatement statement : idleStatements) {
+      closeQuietly(statement);
+    }
+  }
+
+  private static void closeQuietly(PreparedStatement statement) {
+    try {
+      statement.close();
+    } catch (SQLException e) {
+      // ignore
+    }
+  }
+
+  /**
+   * The arguments of {@code Connection.prepareStatement}: the SQL and the optional result set type,
+   * concurrency, holdability or generated keys settings.
+   */
+  static final class Key {
+
+    private final Object[] args;
+    private final int hashCode;
+
+    Key(Object[] args) {
+      this.args = args;
+      this.hashCode = Arrays.deepHashCode(args);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      return this == o || o instanceof Key && Arrays.deepEquals(args, ((Key) o).args);
+    }
+
+    @Override
+    public int hashCode() {
+      return hashCode;
+    }
+  }
+
+}
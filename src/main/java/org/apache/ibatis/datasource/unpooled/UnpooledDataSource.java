@@ -26,6 +26,7 @@ import java.util.Map;
 import java.util.Properties;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.Executors;
+import java.util.concurrent.locks.ReentrantLock;
 import java.util.logging.Logger;
 
 import javax.sql.DataSource;
@@ -42,7 +43,8 @@ public class UnpooledDataSource implements DataSource {
   private Properties driverProperties;
   private static Map<String, Driver> registeredDrivers = new ConcurrentHashMap<>();
 
-  private String driver;
+  private final ReentrantLock driverLock = new ReentrantLock();
+  private volatile String driver;
   private String url;
   private String username;
   private String password;
@@ -136,11 +138,11 @@ public class UnpooledDataSource implements DataSource {
     this.driverProperties = driverProperties;
   }
 
-  public synchronized String getDriver() {
+  public String getDriver() {
     return driver;
   }
 
-  public synchronized void setDriver(String driver) {
+  public void setDriver(String driver) {
     this.driver = driver;
   }
 
@@ -223,23 +225,32 @@ public class UnpooledDataSource implements DataSource {
     return connection;
   }
 
-  private synchronized void initializeDriver() throws SQLException {
-    if (!registeredDrivers.containsKey(driver)) {
-      Class<?> driverType;
-      try {
-        if (driverClassLoader != null) {
-          driverType = Class.forName(driver, true, driverClassLoader);
-        } else {
-          driverType = Resources.classForName(driver);
+  private void initializeDriver() throws SQLException {
+    String driver = this.driver;
+    if (registeredDrivers.containsKey(driver)) {
+      return;
+    }
+    driverLock.lock();
+    try {
+      if (!registeredDrivers.containsKey(driver)) {
+        Class<?> driverType;
+        try {
+          if (driverClassLoader != null) {
+            driverType = Class.forName(driver, true, driverClassLoader);
+          } else {
+            driverType = Resources.classForName(driver);
+          }
+          // DriverManager requires the driver to be loaded via the system ClassLoader.
+          // http://www.kfu.com/~nsayer/Java/dyn-jdbc.html
+          Driver driverInstance = (Driver)driverType.getDeclaredConstructor().newInstance();
+          DriverManager.registerDriver(new DriverProxy(driverInstance));
+          registeredDrivers.put(driver, driverInstance);
+        } catch (Exception e) {
+          throw new SQLException("Error setting driver on UnpooledDataSource. Cause: " + e);
         }
-        // DriverManager requires the driver to be loaded via the system ClassLoader.
-        // http://www.kfu.com/~nsayer/Java/dyn-jdbc.html
-        Driver driverInstance = (Driver)driverType.getDeclaredConstructor().newInstance();
-        DriverManager.registerDriver(new DriverProxy(driverInstance));
-        registeredDrivers.put(driver, driverInstance);
-      } catch (Exception e) {
-        throw new SQLException("Error setting driver on UnpooledDataSource. Cause: " + e);
       }
+    } finally {
+      driverLock.unlock();
     }
   }
 
@@ -35,6 +35,8 @@ import org.apache.ibatis.mapping.MappedStatement;
 import org.apache.ibatis.mapping.ParameterMapping;
 import org.apache.ibatis.mapping.ParameterMode;
 import org.apache.ibatis.mapping.StatementType;
+import org.apache.ibatis.metrics.CacheLevel;
+import org.apache.ibatis.metrics.MetricsCollector;
 import org.apache.ibatis.reflection.MetaObject;
 import org.apache.ibatis.reflection.factory.ObjectFactory;
 import org.apache.ibatis.session.Configuration;
@@ -51,6 +53,9 @@ public abstract class BaseExecutor implements Executor {
 
   private static final Log log = LogFactory.getLog(BaseExecutor.class);
 
+  // boxed once, Integer.valueOf() does not cache it
+  private static final Integer NO_ROW_LIMIT = RowBounds.NO_ROW_LIMIT;
+
   protected Transaction transaction;
   protected Executor wrapper;
 
@@ -161,6 +166,10 @@ public abstract class BaseExecutor implements Executor {
       queryStack++;
       //尝试从一级缓存中获取数据
       list = resultHandler == null ? (List<E>) localCache.getObject(key) : null;
+      final MetricsCollector metrics = configuration.getMetricsCollector();
+      if (metrics != null && resultHandler == null) {
+        metrics.recordCacheAccess(ms.getId(), CacheLevel.LOCAL, list != null);
+      }
       if (list != null) {
         handleLocallyCachedOutputParameters(ms, key, parameter, boundSql);
       } else {
@@ -210,13 +219,23 @@ public abstract class BaseExecutor implements Executor {
     if (closed) {
       throw new ExecutorException("Executor was closed.");
     }
-    CacheKey cacheKey = new CacheKey();
-    cacheKey.update(ms.getId());
-    cacheKey.update(rowBounds.getOffset());
-    cacheKey.update(rowBounds.getLimit());
-    cacheKey.update(boundSql.getSql());
     List<ParameterMapping> parameterMappings = boundSql.getParameterMappings();
+    // the prefix holds the statement id and, for static SQL, the SQL
+    CacheKey cacheKey = new CacheKey(ms.getCacheKeyPrefix(), parameterMappings.size() + 4);
+    cacheKey.update(rowBounds.getOffset());
+    if (rowBounds.getLimit() == RowBounds.NO_ROW_LIMIT) {
+      cacheKey.update(NO_ROW_LIMIT);
+    } else {
+      cacheKey.update(rowBounds.getLimit());
+    }
+    String sql = boundSql.getSql();
+    // identity check on purpose: static SQL is always the same instance, anything else has to be part of the key
+    if (sql != ms.getStaticSql()) {
+      cacheKey.update(sql);
+    }
     TypeHandlerRegistry typeHandlerRegistry = ms.getConfiguration().getTypeHandlerRegistry();
+    boolean simpleParameter = parameterObject != null && typeHandlerRegistry.hasTypeHandler(parameterObject.getClass());
+    MetaObject metaObject = null;
     // mimic DefaultParameterHandler logic
     for (ParameterMapping parameterMapping : parameterMappings) {
       if (parameterMapping.getMode() != ParameterMode.OUT) {
@@ -226,10 +245,12 @@ public abstract class BaseExecutor implements Executor {
           value = boundSql.getAdditionalParameter(propertyName);
         } else if (parameterObject == null) {
           value = null;
-        } else if (typeHandlerRegistry.hasTypeHandler(parameterObject.getClass())) {
+        } else if (simpleParameter) {
           value = parameterObject;
         } else {
-          MetaObject metaObject = configuration.newMetaObject(parameterObject);
+          if (metaObject == null) {
+            metaObject = configuration.newMetaObject(parameterObject);
+          }
           value = metaObject.getValue(propertyName);
         }
         cacheKey.update(value);
@@ -352,8 +373,9 @@ public abstract class BaseExecutor implements Executor {
 
   protected Connection getConnection(Log statementLog) throws SQLException {
     Connection connection = transaction.getConnection();
-    if (statementLog.isDebugEnabled()) {
-      return ConnectionLogger.newInstance(connection, statementLog, queryStack);
+    // the connection of the executions that are not sampled is not wrapped at all
+    if (statementLog.isDebugEnabled() && configuration.isStatementLogSampled()) {
+      return ConnectionLogger.newInstance(connection, statementLog, queryStack, configuration.getSlowStatementLogThreshold());
     } else {
       return connection;
     }
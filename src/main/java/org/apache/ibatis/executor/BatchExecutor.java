@@ -21,7 +21,9 @@ import java.sql.SQLException;
 import java.sql.Statement;
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 import org.apache.ibatis.cursor.Cursor;
 import org.apache.ibatis.executor.keygen.Jdbc3KeyGenerator;
@@ -30,6 +32,8 @@ import org.apache.ibatis.executor.keygen.NoKeyGenerator;
 import org.apache.ibatis.executor.statement.StatementHandler;
 import org.apache.ibatis.mapping.BoundSql;
 import org.apache.ibatis.mapping.MappedStatement;
+import org.apache.ibatis.metrics.StatementPhase;
+import org.apache.ibatis.session.BatchStatementOrder;
 import org.apache.ibatis.session.Configuration;
 import org.apache.ibatis.session.ResultHandler;
 import org.apache.ibatis.session.RowBounds;
@@ -46,9 +50,21 @@ public class BatchExecutor extends BaseExecutor {
   private final List<BatchResult> batchResultList = new ArrayList<>();
   private String currentSql;
   private MappedStatement currentStatement;
+  // FIRST_USE: index of the open statement of each mapped statement and SQL
+  private final Map<MappedStatement, Map<String, Integer>> statementIndexes = new HashMap<>();
+  private int pendingRows;
+  // results of the automatic flushes, returned by the next flushStatements()
+  private final List<BatchResult> autoFlushedResults = new ArrayList<>();
+
+  private final BatchStatementOrder statementOrder;
+  private final int flushSize;
+  private final BatchFlushListener flushListener;
 
   public BatchExecutor(Configuration configuration, Transaction transaction) {
     super(configuration, transaction);
+    this.statementOrder = configuration.getBatchStatementOrder();
+    this.flushSize = configuration.getBatchFlushSize();
+    this.flushListener = configuration.getBatchFlushListener();
   }
 
   @Override
@@ -58,12 +74,12 @@ public class BatchExecutor extends BaseExecutor {
     final BoundSql boundSql = handler.getBoundSql();
     final String sql = boundSql.getSql();
     final Statement stmt;
-    if (sql.equals(currentSql) && ms.equals(currentStatement)) {
-      int last = statementList.size() - 1;
-      stmt = statementList.get(last);
+    final int index = findOpenStatement(ms, sql);
+    if (index >= 0) {
+      stmt = statementList.get(index);
       applyTransactionTimeout(stmt);
       handler.parameterize(stmt);//fix Issues 322
-      BatchResult batchResult = batchResultList.get(last);
+      BatchResult batchResult = batchResultList.get(index);
       batchResult.addParameterObject(parameterObject);
     } else {
       Connection connection = getConnection(ms.getStatementLog());
@@ -71,13 +87,40 @@ public class BatchExecutor extends BaseExecutor {
       handler.parameterize(stmt);    //fix Issues 322
       currentSql = sql;
       currentStatement = ms;
+      if (statementOrder == BatchStatementOrder.FIRST_USE) {
+        statementIndexes.computeIfAbsent(ms, key -> new HashMap<>()).put(sql, statementList.size());
+      }
       statementList.add(stmt);
       batchResultList.add(new BatchResult(ms, sql, parameterObject));
     }
     handler.batch(stmt);
+    if (flushSize > 0 && ++pendingRows >= flushSize) {
+      autoFlushedResults.addAll(flushStatements());
+    }
     return BATCH_UPDATE_RETURN_VALUE;
   }
 
+  private int findOpenStatement(MappedStatement ms, String sql) {
+    if (statementOrder == BatchStatementOrder.FIRST_USE) {
+      Map<String, Integer> indexes = statementIndexes.get(ms);
+      Integer index = indexes == null ? null : indexes.get(sql);
+      return index != null ? index : -1;
+    }
+    return sql.equals(currentSql) && ms.equals(currentStatement) ? statementList.size() - 1 : -1;
+  }
+
+  private static List<Object> flattenRows(List<Object> parameterObjects) {
+    if (parameterObjects.isEmpty() || !MultiRowInsert.isRows(parameterObjects.get(0))) {
+      return parameterObjects;
+    }
+    // each parameter object of a multi row insert holds several rows
+    List<Object> rows = new ArrayList<>();
+    for (Object parameterObject : parameterObjects) {
+      rows.addAll((List<?>) parameterObject);
+    }
+    return rows;
+  }
+
   @Override
   public <E> List<E> doQuery(MappedStatement ms, Object parameterObject, RowBounds rowBounds, ResultHandler resultHandler, BoundSql boundSql)
       throws SQLException {
@@ -111,22 +154,31 @@ public class BatchExecutor extends BaseExecutor {
   @Override
   public List<BatchResult> doFlushStatements(boolean isRollback) throws SQLException {
     try {
-      List<BatchResult> results = new ArrayList<>();
       if (isRollback) {
+        autoFlushedResults.clear();
         return Collections.emptyList();
       }
+      // the results of the automatic flushes come first, in the order of execution
+      List<BatchResult> results = new ArrayList<>(autoFlushedResults);
+      autoFlushedResults.clear();
+      final int firstResult = results.size();
       for (int i = 0, n = statementList.size(); i < n; i++) {
         Statement stmt = statementList.get(i);
         applyTransactionTimeout(stmt);
         BatchResult batchResult = batchResultList.get(i);
         try {
+          long start = System.nanoTime();
           batchResult.setUpdateCounts(stmt.executeBatch());
+          batchResult.setExecutionTimeNanos(System.nanoTime() - start);
           MappedStatement ms = batchResult.getMappedStatement();
+          if (configuration.getMetricsCollector() != null) {
+            configuration.getMetricsCollector().recordPhase(ms.getId(), StatementPhase.EXECUTE, batchResult.getExecutionTimeNanos());
+          }
           List<Object> parameterObjects = batchResult.getParameterObjects();
           KeyGenerator keyGenerator = ms.getKeyGenerator();
           if (Jdbc3KeyGenerator.class.equals(keyGenerator.getClass())) {
             Jdbc3KeyGenerator jdbc3KeyGenerator = (Jdbc3KeyGenerator) keyGenerator;
-            jdbc3KeyGenerator.processBatch(ms, stmt, parameterObjects);
+            jdbc3KeyGenerator.processBatch(ms, stmt, flattenRows(parameterObjects));
           } else if (!NoKeyGenerator.class.equals(keyGenerator.getClass())) { //issue #141
             for (Object parameter : parameterObjects) {
               keyGenerator.processAfter(this, ms, stmt, parameter);
@@ -150,6 +202,9 @@ public class BatchExecutor extends BaseExecutor {
         }
         results.add(batchResult);
       }
+      if (flushListener != null && results.size() > firstResult) {
+        flushListener.onFlush(results.subList(firstResult, results.size()));
+      }
       return results;
     } finally {
       for (Statement stmt : statementList) {
@@ -158,6 +213,8 @@ public class BatchExecutor extends BaseExecutor {
       currentSql = null;
       statementList.clear();
       batchResultList.clear();
+      statementIndexes.clear();
+      pendingRows = 0;
     }
   }
 
@@ -0,0 +1,33 @@
+/**
+ *    Copyright 2009-2019 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.executor;
+
+import java.util.List;
+
+/**
+ * Notified each time the batch executor has executed its pending batches, either on an explicit
+ * {@code flushStatements()} or commit, or automatically once {@code batchFlushSize} rows are pending.
+ *
+ * @since 3.5.3
+ */
+public interface BatchFlushListener {
+
+  /**
+   * @param batchResults the executed batches, with their update counts and execution times
+   */
+  void onFlush(List<BatchResult> batchResults);
+
+}
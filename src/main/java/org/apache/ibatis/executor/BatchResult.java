@@ -30,6 +30,7 @@ public class BatchResult {
   private final List<Object> parameterObjects;
 
   private int[] updateCounts;
+  private long executionTimeNanos;
 
   public BatchResult(MappedStatement mappedStatement, String sql) {
     super();
@@ -68,6 +69,23 @@ public class BatchResult {
     this.updateCounts = updateCounts;
   }
 
+  /**
+   * Gets the time spent executing this batch.
+   *
+   * @return the execution time in nanoseconds
+   * @since 3.5.3
+   */
+  public long getExecutionTimeNanos() {
+    return executionTimeNanos;
+  }
+
+  /**
+   * @since 3.5.3
+   */
+  public void setExecutionTimeNanos(long executionTimeNanos) {
+    this.executionTimeNanos = executionTimeNanos;
+  }
+
   public void addParameterObject(Object parameterObject) {
     this.parameterObjects.add(parameterObject);
   }
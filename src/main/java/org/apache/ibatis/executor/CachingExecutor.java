@@ -27,6 +27,8 @@ import org.apache.ibatis.mapping.MappedStatement;
 import org.apache.ibatis.mapping.ParameterMapping;
 import org.apache.ibatis.mapping.ParameterMode;
 import org.apache.ibatis.mapping.StatementType;
+import org.apache.ibatis.metrics.CacheLevel;
+import org.apache.ibatis.metrics.MetricsCollector;
 import org.apache.ibatis.reflection.MetaObject;
 import org.apache.ibatis.session.ResultHandler;
 import org.apache.ibatis.session.RowBounds;
@@ -113,6 +115,10 @@ public class CachingExecutor implements Executor {
         ensureNoOutParams(ms, boundSql);
         @SuppressWarnings("unchecked")
         List<E> list = (List<E>) tcm.getObject(cache, key); //尝试从缓存中获取数据
+        final MetricsCollector metrics = ms.getConfiguration().getMetricsCollector();
+        if (metrics != null) {
+          metrics.recordCacheAccess(ms.getId(), CacheLevel.SECOND_LEVEL, list != null);
+        }
         if (list == null) {
           /**
            * 如果没有从头缓存中获取到数据,则从数据库中查询
@@ -0,0 +1,348 @@
+/**
+ *    Copyright 2009-2019 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.executor;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.apache.ibatis.executor.keygen.Jdbc3KeyGenerator;
+import org.apache.ibatis.executor.keygen.KeyGenerator;
+import org.apache.ibatis.executor.keygen.NoKeyGenerator;
+import org.apache.ibatis.mapping.BoundSql;
+import org.apache.ibatis.mapping.MappedStatement;
+import org.apache.ibatis.mapping.ParameterMapping;
+import org.apache.ibatis.mapping.ParameterMode;
+import org.apache.ibatis.mapping.SqlCommandType;
+import org.apache.ibatis.mapping.SqlSource;
+import org.apache.ibatis.mapping.StatementType;
+import org.apache.ibatis.session.Configuration;
+import org.apache.ibatis.type.TypeHandlerRegistry;
+
+/**
+ * Executes a single row insert for a collection of rows by rewriting it into multi row
+ * {@code INSERT ... VALUES (...), (...)} statements.
+ * <p>
+ * Consecutive rows that produce the same SQL are sent in chunks whose sizes are powers of two up to
+ * {@link Configuration#getMultiRowInsertMaxRows()}, so that only a few distinct SQL strings are prepared for each statement.
+ * Rows that cannot be rewritten (no single {@code VALUES} tuple holding all the parameters, a callable statement or
+ * a key generator other than {@link Jdbc3KeyGenerator}) are inserted one by one.
+ *
+ * @since 3.5.3
+ */
+public class MultiRowInsert {
+
+  private static final String STATEMENT_SUFFIX = "!multiRow";
+  private static final String ROW_PARAMETER_PREFIX = "__row";
+
+  private final Configuration configuration;
+  private final Map<String, MappedStatement> rewrittenStatements = new ConcurrentHashMap<>();
+
+  public MultiRowInsert(Configuration configuration) {
+    this.configuration = configuration;
+  }
+
+  /**
+   * Inserts the rows through the executor.
+   *
+   * @param executor the executor of the session
+   * @param ms the single row insert
+   * @param rows the parameter objects, one per row
+   * @return the number of inserted rows, or {@link BatchExecutor#BATCH_UPDATE_RETURN_VALUE} when batched
+   */
+  public int insert(Executor executor, MappedStatement ms, Collection<?> rows) throws SQLException {
+    int maxRows = configuration.getMultiRowInsertMaxRows();
+    boolean rewritable = maxRows > 1 && ms.getStatementType() != StatementType.CALLABLE && isSupported(ms.getKeyGenerator());
+    List<?> list = rows instanceof List ? (List<?>) rows : new ArrayList<>(rows);
+    int count = 0;
+    int i = 0;
+    while (i < list.size()) {
+      Object row = list.get(i++);
+      BoundSql boundSql = ms.getBoundSql(row);
+      ValuesTemplate template = rewritable ? ValuesTemplate.parse(boundSql) : null;
+      if (template == null) {
+        count = addCount(count, executor.update(ms, row));
+        continue;
+      }
+      Rows chunk = new Rows(template);
+      chunk.add(row, boundSql);
+      while (i < list.size()) {
+        Object next = list.get(i);
+        BoundSql nextBoundSql = ms.getBoundSql(next);
+        if (!template.sql.equals(nextBoundSql.getSql())) {
+          break;
+        }
+        i++;
+        chunk.add(next, nextBoundSql);
+        if (chunk.size() == maxRows) {
+          count = addCount(count, executor.update(getStatement(ms, maxRows), chunk));
+          chunk = new Rows(template);
+        }
+      }
+      count = addCount(count, insertChunks(executor, ms, chunk));
+    }
+    return count;
+  }
+
+  private int insertChunks(Executor executor, MappedStatement ms, Rows rows) throws SQLException {
+    int count = 0;
+    int from = 0;
+    int remaining = rows.size();
+    while (remaining > 0) {
+      int size = Integer.highestOneBit(remaining);
+      if (size == 1) {
+        count = addCount(count, executor.update(ms, rows.get(from)));
+      } else {
+        count = addCount(count, executor.update(getStatement(ms, size), rows.subRows(from, size)));
+      }
+      from += size;
+      remaining -= size;
+    }
+    return count;
+  }
+
+  private static int addCount(int count, int updateCount) {
+    if (count == BatchExecutor.BATCH_UPDATE_RETURN_VALUE || updateCount == BatchExecutor.BATCH_UPDATE_RETURN_VALUE) {
+      return BatchExecutor.BATCH_UPDATE_RETURN_VALUE;
+    }
+    return count + updateCount;
+  }
+
+  private static boolean isSupported(KeyGenerator keyGenerator) {
+    return keyGenerator == null || keyGenerator instanceof NoKeyGenerator
+        || Jdbc3KeyGenerator.class.equals(keyGenerator.getClass());
+  }
+
+  private MappedStatement getStatement(MappedStatement ms, int size) {
+    return rewrittenStatements.computeIfAbsent(ms.getId() + STATEMENT_SUFFIX + size, id -> {
+      MappedStatement.Builder builder = new MappedStatement.Builder(configuration, id, new RowsSqlSource(size), SqlCommandType.INSERT)
+          .resource(ms.getResource())
+          .fetchSize(ms.getFetchSize())
+          .timeout(ms.getTimeout())
+          .statementType(ms.getStatementType())
+          .keyGenerator(ms.getKeyGenerator())
+          .databaseId(ms.getDatabaseId())
+          .lang(ms.getLang())
+          .resultMaps(ms.getResultMaps())
+          .cache(ms.getCache())
+          .flushCacheRequired(ms.isFlushCacheRequired())
+          .useCache(false);
+      if (ms.getKeyProperties() != null) {
+        builder.keyProperty(String.join(",", ms.getKeyProperties()));
+      }
+      if (ms.getKeyColumns() != null) {
+        builder.keyColumn(String.join(",", ms.getKeyColumns()));
+      }
+      return builder.build();
+    });
+  }
+
+  /**
+   * Returns whether the parameter object is a chunk of rows passed to a rewritten statement.
+   */
+  static boolean isRows(Object parameterObject) {
+    return parameterObject instanceof Rows;
+  }
+
+  /**
+   * The parameter object of a rewritten statement. It is a list of the row parameter objects,
+   * so that the {@link Jdbc3KeyGenerator} assigns the generated keys to each row.
+   */
+  static final class Rows extends ArrayList<Object> {
+
+    private static final long serialVersionUID = 1L;
+
+    private final transient ValuesTemplate template;
+    private final transient List<BoundSql> boundSqls = new ArrayList<>();
+
+    Rows(ValuesTemplate template) {
+      this.template = template;
+    }
+
+    void add(Object row, BoundSql boundSql) {
+      add(row);
+      boundSqls.add(boundSql);
+    }
+
+    Rows subRows(int from, int size) {
+      Rows rows = new Rows(template);
+      for (int i = from; i < from + size; i++) {
+        rows.add(get(i), boundSqls.get(i));
+      }
+      return rows;
+    }
+  }
+
+  private final class RowsSqlSource implements SqlSource {
+
+    private final int size;
+
+    RowsSqlSource(int size) {
+      this.size = size;
+    }
+
+    @Override
+    public BoundSql getBoundSql(Object parameterObject) {
+      Rows rows = (Rows) parameterObject;
+      if (rows.size() != size) {
+        throw new ExecutorException("Expected " + size + " rows but got " + rows.size() + ".");
+      }
+      TypeHandlerRegistry typeHandlerRegistry = configuration.getTypeHandlerRegistry();
+      List<ParameterMapping> parameterMappings = new ArrayList<>();
+      List<Object> values = new ArrayList<>();
+      for (int i = 0; i < size; i++) {
+        Object row = rows.get(i);
+        BoundSql rowBoundSql = rows.boundSqls.get(i);
+        for (ParameterMapping mapping : rowBoundSql.getParameterMappings()) {
+          // same resolution as the DefaultParameterHandler
+          String property = mapping.getProperty();
+          Object value;
+          if (rowBoundSql.hasAdditionalParameter(property)) {
+            value = rowBoundSql.getAdditionalParameter(property);
+          } else if (row == null) {
+            value = null;
+          } else if (typeHandlerRegistry.hasTypeHandler(row.getClass())) {
+            value = row;
+          } else {
+            value = configuration.newMetaObject(row).getValue(property);
+          }
+          parameterMappings.add(new ParameterMapping.Builder(configuration, ROW_PARAMETER_PREFIX + values.size(), mapping.getTypeHandler())
+              .javaType(mapping.getJavaType())
+              .jdbcType(mapping.getJdbcType())
+              .numericScale(mapping.getNumericScale())
+              .jdbcTypeName(mapping.getJdbcTypeName())
+              .build());
+          values.add(value);
+        }
+      }
+      BoundSql boundSql = new BoundSql(configuration, rows.template.toSql(size), parameterMappings, rows);
+      for (int i = 0; i < values.size(); i++) {
+        boundSql.setAdditionalParameter(ROW_PARAMETER_PREFIX + i, values.get(i));
+      }
+      return boundSql;
+    }
+  }
+
+  /**
+   * A single row insert split around its {@code VALUES} tuple.
+   */
+  static final class ValuesTemplate {
+
+    private final String sql;
+    private final String head;
+    private final String tuple;
+    private final String tail;
+
+    private ValuesTemplate(String sql, int tupleStart, int tupleEnd) {
+      this.sql = sql;
+      this.head = sql.substring(0, tupleStart);
+      this.tuple = sql.substring(tupleStart, tupleEnd);
+      this.tail = sql.substring(tupleEnd);
+    }
+
+    String toSql(int rows) {
+      StringBuilder builder = new StringBuilder(head.length() + tail.length() + (tuple.length() + 2) * rows);
+      builder.append(head).append(tuple);
+      for (int i = 1; i < rows; i++) {
+        builder.append(", ").append(tuple);
+      }
+      return builder.append(tail).toString();
+    }
+
+    /**
+     * Returns the template of a single row insert whose parameters all are in its only {@code VALUES} tuple,
+     * null otherwise.
+     */
+    static ValuesTemplate parse(BoundSql boundSql) {
+      for (ParameterMapping mapping : boundSql.getParameterMappings()) {
+        if (mapping.getMode() != ParameterMode.IN) {
+          return null;
+        }
+      }
+      String sql = boundSql.getSql();
+      int valuesEnd = findValuesKeyword(sql);
+      if (valuesEnd < 0) {
+        return null;
+      }
+      int tupleStart = valuesEnd;
+      while (tupleStart < sql.length() && Character.isWhitespace(sql.charAt(tupleStart))) {
+        tupleStart++;
+      }
+      if (tupleStart == sql.length() || sql.charAt(tupleStart) != '(') {
+        return null;
+      }
+      int tupleEnd = -1;
+      int depth = 0;
+      int placeholders = 0;
+      char quote = 0;
+      for (int i = tupleStart; i < sql.length(); i++) {
+        char c = sql.charAt(i);
+        if (quote != 0) {
+          if (c == quote) {
+            quote = 0;
+          }
+        } else if (c == '\'' || c == '"') {
+          quote = c;
+        } else if (c == '(') {
+          depth++;
+        } else if (c == ')' && --depth == 0) {
+          tupleEnd = i + 1;
+          break;
+        } else if (c == '?') {
+          placeholders++;
+        }
+      }
+      if (tupleEnd < 0 || placeholders != boundSql.getParameterMappings().size()) {
+        // unbalanced, or parameters outside of the tuple
+        return null;
+      }
+      String tail = sql.substring(tupleEnd).trim();
+      if (tail.startsWith(",") || tail.indexOf('?') >= 0) {
+        // already a multi row insert
+        return null;
+      }
+      return new ValuesTemplate(sql, tupleStart, tupleEnd);
+    }
+
+    private static int findValuesKeyword(String sql) {
+      char quote = 0;
+      int depth = 0;
+      for (int i = 0; i < sql.length(); i++) {
+        char c = sql.charAt(i);
+        if (quote != 0) {
+          if (c == quote) {
+            quote = 0;
+          }
+        } else if (c == '\'' || c == '"') {
+          quote = c;
+        } else if (c == '(') {
+          depth++;
+        } else if (c == ')') {
+          depth--;
+        } else if (depth == 0 && (c == 'v' || c == 'V') && sql.regionMatches(true, i, "values", 0, 6)
+            && (i == 0 || !Character.isJavaIdentifierPart(sql.charAt(i - 1)))
+            && (i + 6 == sql.length() || !Character.isJavaIdentifierPart(sql.charAt(i + 6)))) {
+          return i + 6;
+        }
+      }
+      return -1;
+    }
+  }
+
+}
@@ -23,11 +23,14 @@ import java.util.AbstractMap;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
+import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.apache.ibatis.binding.MapperMethod.ParamMap;
 import org.apache.ibatis.executor.Executor;
@@ -35,6 +38,8 @@ import org.apache.ibatis.executor.ExecutorException;
 import org.apache.ibatis.mapping.MappedStatement;
 import org.apache.ibatis.reflection.ArrayUtil;
 import org.apache.ibatis.reflection.MetaObject;
+import org.apache.ibatis.reflection.Reflector;
+import org.apache.ibatis.reflection.invoker.Invoker;
 import org.apache.ibatis.session.Configuration;
 import org.apache.ibatis.session.defaults.DefaultSqlSession.StrictMap;
 import org.apache.ibatis.type.JdbcType;
@@ -57,6 +62,9 @@ public class Jdbc3KeyGenerator implements KeyGenerator {
   private static final String MSG_TOO_MANY_KEYS = "Too many keys are generated. There are only %d target objects. "
       + "You either specified a wrong 'keyProperty' or encountered a driver bug like #1523.";
 
+  // the setters of the key properties by parameter class, property and column type, for all the statements and batches
+  private final Map<Configuration, Map<List<Object>, KeySetter>> keySetters = Collections.synchronizedMap(new WeakHashMap<>());
+
   @Override
   public void processBefore(Executor executor, MappedStatement ms, Statement stmt, Object parameter) {
     // do nothing
@@ -67,6 +75,21 @@ public class Jdbc3KeyGenerator implements KeyGenerator {
     processBatch(ms, stmt, parameter);
   }
 
+  /**
+   * Returns whether the statement has to be prepared to return the generated keys. This generator reads them only
+   * when the statement has key properties, so the driver need not return them for the other statements.
+   *
+   * @since 3.5.3
+   */
+  public boolean readsGeneratedKeys(MappedStatement ms) {
+    if (getClass() != Jdbc3KeyGenerator.class) {
+      // a subclass may read the keys on its own
+      return true;
+    }
+    final String[] keyProperties = ms.getKeyProperties();
+    return keyProperties != null && keyProperties.length > 0;
+  }
+
   public void processBatch(MappedStatement ms, Statement stmt, Object parameter) {
     final String[] keyProperties = ms.getKeyProperties();
     if (keyProperties == null || keyProperties.length == 0) {
@@ -232,7 +255,11 @@ public class Jdbc3KeyGenerator implements KeyGenerator {
     private final int columnPosition;
     private final String paramName;
     private final String propertyName;
+    private final boolean simpleProperty;
     private TypeHandler<?> typeHandler;
+    // the setter of the property in the last parameter class
+    private Class<?> setterClass;
+    private KeySetter keySetter;
 
     protected KeyAssigner(Configuration configuration, ResultSetMetaData rsmd, int columnPosition, String paramName,
         String propertyName) {
@@ -243,6 +270,7 @@ public class Jdbc3KeyGenerator implements KeyGenerator {
       this.columnPosition = columnPosition;
       this.paramName = paramName;
       this.propertyName = propertyName;
+      this.simpleProperty = propertyName.indexOf('.') == -1 && propertyName.indexOf('[') == -1;
     }
 
     protected void assign(ResultSet rs, Object param) {
@@ -250,6 +278,16 @@ public class Jdbc3KeyGenerator implements KeyGenerator {
         // If paramName is set, param is ParamMap
         param = ((ParamMap<?>) param).get(paramName);
       }
+      try {
+        if (resolveSetter(param)) {
+          // a property of a bean, set without creating a MetaObject for each parameter
+          keySetter.setter.invoke(param, new Object[] { keySetter.typeHandler.getResult(rs, columnPosition) });
+          return;
+        }
+      } catch (SQLException | ReflectiveOperationException e) {
+        throw new ExecutorException("Error getting generated key or setting result to parameter object. Cause: " + e,
+            e);
+      }
       MetaObject metaParam = configuration.newMetaObject(param);
       try {
         if (typeHandler == null) {
@@ -273,5 +311,44 @@ public class Jdbc3KeyGenerator implements KeyGenerator {
             e);
       }
     }
+
+    private boolean resolveSetter(Object param) throws SQLException {
+      if (!simpleProperty || param == null || param instanceof Map
+          || configuration.getObjectWrapperFactory().hasWrapperFor(param)) {
+        return false;
+      }
+      final Class<?> paramClass = param.getClass();
+      if (paramClass != setterClass) {
+        final JdbcType jdbcType = JdbcType.forCode(rsmd.getColumnType(columnPosition));
+        keySetter = keySetters.computeIfAbsent(configuration, k -> new ConcurrentHashMap<>())
+            .computeIfAbsent(Arrays.asList(paramClass, propertyName, jdbcType), k -> newKeySetter(paramClass, jdbcType));
+        setterClass = paramClass;
+      }
+      return keySetter != KeySetter.NONE;
+    }
+
+    private KeySetter newKeySetter(Class<?> paramClass, JdbcType jdbcType) {
+      final Reflector reflector = configuration.getReflectorFactory().findForClass(paramClass);
+      if (!reflector.hasSetter(propertyName)) {
+        return KeySetter.NONE;
+      }
+      final TypeHandler<?> setterTypeHandler = typeHandlerRegistry.getTypeHandler(reflector.getSetterType(propertyName),
+          jdbcType);
+      return setterTypeHandler == null ? KeySetter.NONE
+          : new KeySetter(reflector.getSetInvoker(propertyName), setterTypeHandler);
+    }
+  }
+
+  private static final class KeySetter {
+    // the property is set through a MetaObject
+    private static final KeySetter NONE = new KeySetter(null, null);
+
+    private final Invoker setter;
+    private final TypeHandler<?> typeHandler;
+
+    private KeySetter(Invoker setter, TypeHandler<?> typeHandler) {
+      this.setter = setter;
+      this.typeHandler = typeHandler;
+    }
   }
 }
@@ -73,10 +73,7 @@ public class ResultLoader {
   }
 
   private <E> List<E> selectList() throws SQLException {
-    Executor localExecutor = executor;
-    if (Thread.currentThread().getId() != this.creatorThreadId || localExecutor.isClosed()) {
-      localExecutor = newExecutor();
-    }
+    Executor localExecutor = localExecutor();
     try {
       return localExecutor.query(mappedStatement, parameterObject, RowBounds.DEFAULT, Executor.NO_RESULT_HANDLER, cacheKey, boundSql);
     } finally {
@@ -86,6 +83,27 @@ public class ResultLoader {
     }
   }
 
+  /**
+   * Executes the statement of this loader with another parameter, used by {@link ResultLoaderBatch}.
+   */
+  <E> List<E> selectList(Object parameterObject) throws SQLException {
+    Executor localExecutor = localExecutor();
+    try {
+      return localExecutor.query(mappedStatement, parameterObject, RowBounds.DEFAULT, Executor.NO_RESULT_HANDLER);
+    } finally {
+      if (localExecutor != executor) {
+        localExecutor.close(false);
+      }
+    }
+  }
+
+  private Executor localExecutor() {
+    if (Thread.currentThread().getId() != this.creatorThreadId || executor.isClosed()) {
+      return newExecutor();
+    }
+    return executor;
+  }
+
   private Executor newExecutor() {
     final Environment environment = configuration.getEnvironment();
     if (environment == null) {
@@ -0,0 +1,239 @@
+/**
+ *    Copyright 2009-2019 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.executor.loader;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.apache.ibatis.executor.Executor;
+import org.apache.ibatis.executor.ExecutorException;
+import org.apache.ibatis.mapping.MappedStatement;
+import org.apache.ibatis.mapping.ResultFlag;
+import org.apache.ibatis.mapping.ResultMap;
+import org.apache.ibatis.mapping.ResultMapping;
+import org.apache.ibatis.reflection.MetaClass;
+import org.apache.ibatis.reflection.MetaObject;
+import org.apache.ibatis.session.Configuration;
+import org.apache.ibatis.session.defaults.DefaultSqlSession.StrictMap;
+
+/**
+ * Loads the nested select of a result mapping with a batch size for all the result objects of a statement, executing
+ * the nested select once for up to batch size keys instead of once per key.
+ * <p>
+ * The nested select gets the keys as a list, like a list passed to {@code SqlSession.selectList()}, and its rows are
+ * distributed to the result objects by the value of the foreign column of the mapping, or of the id of the nested
+ * result map when there is no foreign column.
+ *
+ * @since 3.5.3
+ */
+public class ResultLoaderBatch {
+
+  private final Configuration configuration;
+  private final Executor executor;
+  private final MappedStatement mappedStatement;
+  private final ResultMapping resultMapping;
+  private final Map<Object, List<BatchedResultLoader>> pendingLoaders = new LinkedHashMap<>();
+  private final Lock lock = new ReentrantLock();
+  private String keyProperty;
+
+  public ResultLoaderBatch(Configuration configuration, Executor executor, MappedStatement mappedStatement, ResultMapping resultMapping) {
+    this.configuration = configuration;
+    this.executor = executor;
+    this.mappedStatement = mappedStatement;
+    this.resultMapping = resultMapping;
+  }
+
+  /**
+   * Adds a key to be loaded lazily. The returned loader executes the nested select for its key together with the
+   * keys of up to batch size - 1 other pending loaders.
+   */
+  public ResultLoader addLoader(Object key, Class<?> targetType) {
+    return addLoader(key, targetType, null, null);
+  }
+
+  /**
+   * Adds a key to be loaded by {@link #loadAll()}, which sets the property of the result object.
+   */
+  public void addLoad(Object key, Class<?> targetType, MetaObject metaResultObject, String property) {
+    addLoader(key, targetType, metaResultObject, property);
+  }
+
+  /**
+   * Loads all the pending keys, a batch at a time.
+   */
+  public void loadAll() throws SQLException {
+    lock.lock();
+    try {
+      while (!pendingLoaders.isEmpty()) {
+        final List<Object> keys = new ArrayList<>();
+        final Iterator<Object> pendingKeys = pendingLoaders.keySet().iterator();
+        while (keys.size() < resultMapping.getBatchSize() && pendingKeys.hasNext()) {
+          keys.add(pendingKeys.next());
+        }
+        loadBatch(pendingLoaders.get(keys.get(0)).get(0), keys);
+      }
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  private ResultLoader addLoader(Object key, Class<?> targetType, MetaObject metaResultObject, String property) {
+    final BatchedResultLoader loader = new BatchedResultLoader(key, targetType, metaResultObject, property);
+    lock.lock();
+    try {
+      pendingLoaders.computeIfAbsent(normalizeKey(key), k -> new ArrayList<>()).add(loader);
+    } finally {
+      lock.unlock();
+    }
+    return loader;
+  }
+
+  private Object load(BatchedResultLoader loader) throws SQLException {
+    lock.lock();
+    try {
+      if (!loader.loaded) {
+        final Object loaderKey = normalizeKey(loader.key);
+        final List<Object> keys = new ArrayList<>();
+        keys.add(loaderKey);
+        final Iterator<Object> pendingKeys = pendingLoaders.keySet().iterator();
+        while (keys.size() < resultMapping.getBatchSize() && pendingKeys.hasNext()) {
+          final Object key = pendingKeys.next();
+          if (!key.equals(loaderKey)) {
+            keys.add(key);
+          }
+        }
+        loadBatch(loader, keys);
+      }
+      return loader.resultObject;
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  private void loadBatch(BatchedResultLoader loader, List<Object> keys) throws SQLException {
+    final List<Object> parameterKeys = new ArrayList<>(keys.size());
+    for (Object key : keys) {
+      parameterKeys.add(pendingLoaders.get(key).get(0).key);
+    }
+    final Map<Object, List<Object>> rowsByKey = new HashMap<>();
+    for (Object row : loader.selectList(wrapKeys(parameterKeys))) {
+      rowsByKey.computeIfAbsent(normalizeKey(keyOf(row)), k -> new ArrayList<>()).add(row);
+    }
+    for (Object key : keys) {
+      final List<Object> rows = rowsByKey.getOrDefault(key, Collections.emptyList());
+      for (BatchedResultLoader keyLoader : pendingLoaders.remove(key)) {
+        keyLoader.resultObject = keyLoader.resultExtractor.extractObjectFromList(new ArrayList<>(rows), keyLoader.targetType);
+        keyLoader.loaded = true;
+        keyLoader.setProperty();
+      }
+    }
+  }
+
+  private static Object wrapKeys(List<Object> keys) {
+    final StrictMap<Object> map = new StrictMap<>();
+    map.put("collection", keys);
+    map.put("list", keys);
+    return map;
+  }
+
+  private Object keyOf(Object row) {
+    if (row instanceof Map) {
+      final String column = resultMapping.getForeignColumn();
+      for (Map.Entry<?, ?> entry : ((Map<?, ?>) row).entrySet()) {
+        if (column != null && column.equalsIgnoreCase(String.valueOf(entry.getKey()))) {
+          return entry.getValue();
+        }
+      }
+      throw new ExecutorException("The rows of the batched nested select '" + mappedStatement.getId()
+          + "' have no column named '" + column + "'.");
+    }
+    if (keyProperty == null) {
+      keyProperty = resolveKeyProperty();
+    }
+    return configuration.newMetaObject(row).getValue(keyProperty);
+  }
+
+  private String resolveKeyProperty() {
+    final ResultMap resultMap = mappedStatement.getResultMaps().get(0);
+    final String column = resultMapping.getForeignColumn();
+    if (column == null) {
+      for (ResultMapping idMapping : resultMap.getResultMappings()) {
+        if (idMapping.getFlags().contains(ResultFlag.ID) && idMapping.getProperty() != null) {
+          return idMapping.getProperty();
+        }
+      }
+      throw new ExecutorException("Property '" + resultMapping.getProperty() + "' has a batch size but neither a foreignColumn "
+          + "nor does the result map of the nested select '" + mappedStatement.getId() + "' have an id.");
+    }
+    for (ResultMapping propertyMapping : resultMap.getPropertyResultMappings()) {
+      if (column.equalsIgnoreCase(propertyMapping.getColumn()) && propertyMapping.getProperty() != null) {
+        return propertyMapping.getProperty();
+      }
+    }
+    final String property = MetaClass.forClass(resultMap.getType(), configuration.getReflectorFactory())
+        .findProperty(column, configuration.isMapUnderscoreToCamelCase());
+    if (property == null) {
+      throw new ExecutorException("Cannot find the property of the foreignColumn '" + column + "' in "
+          + resultMap.getType().getName() + " to distribute the rows of the batched nested select '" + mappedStatement.getId() + "'.");
+    }
+    return property;
+  }
+
+  private static Object normalizeKey(Object key) {
+    // a key read as an Integer matches a Long id of the nested result
+    if (key instanceof Integer || key instanceof Long || key instanceof Short || key instanceof Byte) {
+      return ((Number) key).longValue();
+    }
+    return key;
+  }
+
+  private class BatchedResultLoader extends ResultLoader {
+
+    private final Object key;
+    private final MetaObject metaResultObject;
+    private final String property;
+
+    BatchedResultLoader(Object key, Class<?> targetType, MetaObject metaResultObject, String property) {
+      // the parameter is a batch of one key, used when the loader is deserialized
+      super(ResultLoaderBatch.this.configuration, ResultLoaderBatch.this.executor, ResultLoaderBatch.this.mappedStatement,
+          wrapKeys(new ArrayList<>(Collections.singletonList(key))), targetType, null, null);
+      this.key = key;
+      this.metaResultObject = metaResultObject;
+      this.property = property;
+    }
+
+    @Override
+    public Object loadResult() throws SQLException {
+      return load(this);
+    }
+
+    private void setProperty() {
+      if (metaResultObject != null && (resultObject != null
+          || configuration.isCallSettersOnNulls() && !metaResultObject.getSetterType(property).isPrimitive())) {
+        metaResultObject.setValue(property, resultObject);
+      }
+    }
+  }
+
+}
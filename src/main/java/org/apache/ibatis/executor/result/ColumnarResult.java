@@ -0,0 +1,183 @@
+/**
+ *    Copyright 2009-2019 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.executor.result;
+
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+import org.apache.ibatis.executor.ExecutorException;
+
+/**
+ * The rows of a result set stored column by column, as filled by {@link ColumnarResultHandler}.
+ * <p>
+ * Integer, long and floating point columns are primitive arrays, character columns are dictionary encoded (an
+ * {@code int} code per row into a list of the distinct values) and the other columns hold the values read by their
+ * type handler. The arrays are as long as the number of rows and are not copied, they must not be modified.
+ *
+ * @since 3.5.3
+ */
+public class ColumnarResult {
+
+  /**
+   * How the values of a column are stored.
+   */
+  public enum ColumnType {
+    /** {@code int[]}, for INTEGER, SMALLINT and TINYINT columns. */
+    INT,
+    /** {@code long[]}, for BIGINT columns. */
+    LONG,
+    /** {@code double[]}, for DOUBLE, FLOAT and REAL columns. */
+    DOUBLE,
+    /** {@code int[]} codes into a dictionary, -1 for null, for character columns. */
+    STRING,
+    /** {@code Object[]} of the values read by the type handler of the column, for the other columns. */
+    OBJECT
+  }
+
+  private final List<String> columnNames;
+  private final Map<String, Integer> columnIndexes = new HashMap<>();
+  private final ColumnType[] columnTypes;
+  private final Object[] values;
+  private final BitSet[] nulls;
+  private final List<String>[] dictionaries;
+  private final int rowCount;
+
+  ColumnarResult(List<String> columnNames, ColumnType[] columnTypes, Object[] values, BitSet[] nulls,
+      List<String>[] dictionaries, int rowCount) {
+    this.columnNames = Collections.unmodifiableList(columnNames);
+    this.columnTypes = columnTypes;
+    this.values = values;
+    this.nulls = nulls;
+    this.dictionaries = dictionaries;
+    this.rowCount = rowCount;
+    for (int i = 0; i < columnNames.size(); i++) {
+      columnIndexes.putIfAbsent(columnNames.get(i).toUpperCase(Locale.ENGLISH), i);
+    }
+  }
+
+  public int getRowCount() {
+    return rowCount;
+  }
+
+  public List<String> getColumnNames() {
+    return columnNames;
+  }
+
+  public ColumnType getColumnType(String column) {
+    return columnTypes[indexOf(column)];
+  }
+
+  /**
+   * @return the values of an {@link ColumnType#INT} column, 0 for null
+   */
+  public int[] getInts(String column) {
+    return (int[]) valuesOf(column, ColumnType.INT);
+  }
+
+  /**
+   * @return the values of a {@link ColumnType#LONG} column, 0 for null
+   */
+  public long[] getLongs(String column) {
+    return (long[]) valuesOf(column, ColumnType.LONG);
+  }
+
+  /**
+   * @return the values of a {@link ColumnType#DOUBLE} column, 0 for null
+   */
+  public double[] getDoubles(String column) {
+    return (double[]) valuesOf(column, ColumnType.DOUBLE);
+  }
+
+  /**
+   * @return the codes of a {@link ColumnType#STRING} column, indexes into {@link #getDictionary(String)} or -1 for null
+   */
+  public int[] getCodes(String column) {
+    return (int[]) valuesOf(column, ColumnType.STRING);
+  }
+
+  /**
+   * Gets the distinct values of a {@link ColumnType#STRING} column. The codes of a value are the same in all the
+   * chunks of a result set, so the dictionary may grow after this chunk was handled.
+   *
+   * @return the values by code
+   */
+  public List<String> getDictionary(String column) {
+    valuesOf(column, ColumnType.STRING);
+    return dictionaries[indexOf(column)];
+  }
+
+  /**
+   * @return the values of an {@link ColumnType#OBJECT} column
+   */
+  public Object[] getObjects(String column) {
+    return (Object[]) valuesOf(column, ColumnType.OBJECT);
+  }
+
+  public boolean isNull(String column, int row) {
+    final int index = indexOf(column);
+    switch (columnTypes[index]) {
+      case STRING:
+        return ((int[]) values[index])[row] < 0;
+      case OBJECT:
+        return ((Object[]) values[index])[row] == null;
+      default:
+        return nulls[index].get(row);
+    }
+  }
+
+  /**
+   * Gets a value of any column, boxed. Meant for occasional access, the arrays are the efficient way.
+   */
+  public Object getValue(String column, int row) {
+    if (isNull(column, row)) {
+      return null;
+    }
+    final int index = indexOf(column);
+    switch (columnTypes[index]) {
+      case INT:
+        return ((int[]) values[index])[row];
+      case LONG:
+        return ((long[]) values[index])[row];
+      case DOUBLE:
+        return ((double[]) values[index])[row];
+      case STRING:
+        return dictionaries[index].get(((int[]) values[index])[row]);
+      default:
+        return ((Object[]) values[index])[row];
+    }
+  }
+
+  private Object valuesOf(String column, ColumnType columnType) {
+    final int index = indexOf(column);
+    if (columnTypes[index] != columnType) {
+      throw new ExecutorException("Column '" + column + "' is stored as " + columnTypes[index] + ", not as " + columnType + ".");
+    }
+    return values[index];
+  }
+
+  private int indexOf(String column) {
+    final Integer index = columnIndexes.get(column.toUpperCase(Locale.ENGLISH));
+    if (index == null) {
+      throw new ExecutorException("The result has no column named '" + column + "'. Columns are " + columnNames + ".");
+    }
+    return index;
+  }
+
+}
@@ -0,0 +1,298 @@
+/**
+ *    Copyright 2009-2019 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.executor.result;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.Consumer;
+
+import org.apache.ibatis.executor.ExecutorException;
+import org.apache.ibatis.executor.result.ColumnarResult.ColumnType;
+import org.apache.ibatis.executor.resultset.ResultSetWrapper;
+import org.apache.ibatis.io.Resources;
+import org.apache.ibatis.session.ResultContext;
+import org.apache.ibatis.session.ResultHandler;
+import org.apache.ibatis.type.JdbcType;
+import org.apache.ibatis.type.TypeHandler;
+
+/**
+ * Reads the rows of a select straight from the result set into columns, see {@link ColumnarResult}, instead of
+ * mapping each row to an object. Numbers are read with the primitive getters of the result set, so neither the
+ * values nor the rows are boxed. The result maps of the statement are ignored.
+ * <p>
+ * Passed to {@link org.apache.ibatis.session.SqlSession#select(String, Object, ResultHandler)}, the handler either
+ * collects all the rows in a single result, or hands them to a consumer in chunks of a fixed number of rows so that
+ * large results are read with constant memory.
+ *
+ * @since 3.5.3
+ */
+public class ColumnarResultHandler implements ResultHandler<Object> {
+
+  private static final int INITIAL_CAPACITY = 256;
+
+  private final int chunkSize;
+  private final Consumer<ColumnarResult> chunkConsumer;
+  private final Map<String, ColumnType> columnTypes = new HashMap<>();
+  private ColumnarResult result;
+
+  /**
+   * Collects all the rows, see {@link #getResult()}.
+   */
+  public ColumnarResultHandler() {
+    this(Integer.MAX_VALUE, null);
+  }
+
+  /**
+   * @param chunkSize the number of rows of each chunk but the last one
+   * @param chunkConsumer called with each chunk, it may keep the chunk
+   */
+  public ColumnarResultHandler(int chunkSize, Consumer<ColumnarResult> chunkConsumer) {
+    if (chunkSize < 1) {
+      throw new IllegalArgumentException("The chunk size must be positive but was " + chunkSize);
+    }
+    this.chunkSize = chunkSize;
+    this.chunkConsumer = chunkConsumer;
+  }
+
+  /**
+   * Stores a column as the given type instead of the type derived from its JDBC type, e.g. a DECIMAL column as
+   * {@link ColumnType#DOUBLE}.
+   */
+  public void setColumnType(String column, ColumnType columnType) {
+    columnTypes.put(column.toUpperCase(Locale.ENGLISH), columnType);
+  }
+
+  /**
+   * @return all the rows of the last result set, or its last chunk when a chunk consumer is set
+   */
+  public ColumnarResult getResult() {
+    return result;
+  }
+
+  @Override
+  public void handleResult(ResultContext<?> context) {
+    throw new ExecutorException("ColumnarResultHandler reads the result set itself and cannot handle mapped objects. "
+        + "It requires the default ResultSetHandler.");
+  }
+
+  /**
+   * Reads the rows of a result set, called by the result set handler in place of the object mapping.
+   *
+   * @param rsw the result set, positioned before the first row to read
+   * @param maxRows the maximum number of rows to read
+   */
+  public void handleResultSet(ResultSetWrapper rsw, int maxRows) throws SQLException {
+    final ResultSet rs = rsw.getResultSet();
+    final List<String> columnNames = rsw.getColumnNames();
+    final int columnCount = columnNames.size();
+    final ColumnType[] types = new ColumnType[columnCount];
+    final TypeHandler<?>[] typeHandlers = new TypeHandler<?>[columnCount];
+    final List<Map<String, Integer>> codes = new ArrayList<>(columnCount);
+    @SuppressWarnings("unchecked")
+    final List<String>[] dictionaries = new List[columnCount];
+    for (int i = 0; i < columnCount; i++) {
+      final String columnName = columnNames.get(i);
+      final ColumnType forcedType = columnTypes.get(columnName.toUpperCase(Locale.ENGLISH));
+      types[i] = forcedType != null ? forcedType : columnTypeOf(rsw.getJdbcTypes().get(i));
+      if (types[i] == ColumnType.OBJECT) {
+        typeHandlers[i] = rsw.getTypeHandler(resolveClass(rsw.getClassNames().get(i)), columnName);
+      }
+      codes.add(types[i] == ColumnType.STRING ? new HashMap<>() : null);
+      dictionaries[i] = types[i] == ColumnType.STRING ? new ArrayList<>() : null;
+    }
+    @SuppressWarnings("unchecked")
+    final List<String>[] dictionaryViews = new List[columnCount];
+    for (int i = 0; i < columnCount; i++) {
+      dictionaryViews[i] = dictionaries[i] == null ? null : Collections.unmodifiableList(dictionaries[i]);
+    }
+
+    boolean handledChunk = false;
+    int remainingRows = maxRows;
+    while (true) {
+      final Chunk chunk = new Chunk(types, Math.min(chunkSize, INITIAL_CAPACITY));
+      int row = 0;
+      while (row < chunkSize && remainingRows > 0 && !rs.isClosed() && rs.next()) {
+        chunk.ensureCapacity(row + 1, chunkSize);
+        for (int i = 0; i < columnCount; i++) {
+          final int columnIndex = i + 1;
+          switch (types[i]) {
+            case INT: {
+              final int value = rs.getInt(columnIndex);
+              ((int[]) chunk.values[i])[row] = value;
+              if (value == 0 && rs.wasNull()) {
+                chunk.nulls[i].set(row);
+              }
+              break;
+            }
+            case LONG: {
+              final long value = rs.getLong(columnIndex);
+              ((long[]) chunk.values[i])[row] = value;
+              if (value == 0 && rs.wasNull()) {
+                chunk.nulls[i].set(row);
+              }
+              break;
+            }
+            case DOUBLE: {
+              final double value = rs.getDouble(columnIndex);
+              ((double[]) chunk.values[i])[row] = value;
+              if (value == 0 && rs.wasNull()) {
+                chunk.nulls[i].set(row);
+              }
+              break;
+            }
+            case STRING: {
+              final String value = rs.getString(columnIndex);
+              ((int[]) chunk.values[i])[row] = value == null ? -1 : encode(codes.get(i), dictionaries[i], value);
+              break;
+            }
+            default:
+              ((Object[]) chunk.values[i])[row] = typeHandlers[i].getResult(rs, columnIndex);
+              break;
+          }
+        }
+        row++;
+        remainingRows--;
+      }
+      if (row > 0 || !handledChunk) {
+        result = chunk.toResult(columnNames, dictionaryViews, row);
+        if (chunkConsumer != null) {
+          chunkConsumer.accept(result);
+        }
+        handledChunk = true;
+      }
+      if (row < chunkSize) {
+        return;
+      }
+    }
+  }
+
+  private static int encode(Map<String, Integer> codes, List<String> dictionary, String value) {
+    Integer code = codes.get(value);
+    if (code == null) {
+      code = dictionary.size();
+      dictionary.add(value);
+      codes.put(value, code);
+    }
+    return code;
+  }
+
+  private static ColumnType columnTypeOf(JdbcType jdbcType) {
+    if (jdbcType == null) {
+      return ColumnType.OBJECT;
+    }
+    switch (jdbcType) {
+      case INTEGER:
+      case SMALLINT:
+      case TINYINT:
+        return ColumnType.INT;
+      case BIGINT:
+        return ColumnType.LONG;
+      case DOUBLE:
+      case FLOAT:
+      case REAL:
+        return ColumnType.DOUBLE;
+      case CHAR:
+      case VARCHAR:
+      case LONGVARCHAR:
+      case NCHAR:
+      case NVARCHAR:
+        return ColumnType.STRING;
+      default:
+        return ColumnType.OBJECT;
+    }
+  }
+
+  private static Class<?> resolveClass(String className) {
+    try {
+      if (className != null) {
+        return Resources.classForName(className);
+      }
+    } catch (ClassNotFoundException e) {
+      // ignore
+    }
+    return Object.class;
+  }
+
+  private static class Chunk {
+
+    private final ColumnType[] types;
+    private final Object[] values;
+    private final BitSet[] nulls;
+    private int capacity;
+
+    Chunk(ColumnType[] types, int capacity) {
+      this.types = types;
+      this.values = new Object[types.length];
+      this.nulls = new BitSet[types.length];
+      this.capacity = capacity;
+      for (int i = 0; i < types.length; i++) {
+        values[i] = newArray(types[i], capacity);
+        nulls[i] = new BitSet();
+      }
+    }
+
+    void ensureCapacity(int rows, int maxCapacity) {
+      if (rows <= capacity) {
+        return;
+      }
+      capacity = (int) Math.min(Math.max((long) capacity * 2, rows), maxCapacity);
+      for (int i = 0; i < types.length; i++) {
+        values[i] = resize(values[i], capacity);
+      }
+    }
+
+    ColumnarResult toResult(List<String> columnNames, List<String>[] dictionaries, int rowCount) {
+      for (int i = 0; i < types.length; i++) {
+        values[i] = resize(values[i], rowCount);
+      }
+      return new ColumnarResult(columnNames, types, values, nulls, dictionaries, rowCount);
+    }
+
+    private static Object newArray(ColumnType type, int capacity) {
+      switch (type) {
+        case INT:
+        case STRING:
+          return new int[capacity];
+        case LONG:
+          return new long[capacity];
+        case DOUBLE:
+          return new double[capacity];
+        default:
+          return new Object[capacity];
+      }
+    }
+
+    private static Object resize(Object array, int length) {
+      if (array instanceof int[]) {
+        return ((int[]) array).length == length ? array : Arrays.copyOf((int[]) array, length);
+      } else if (array instanceof long[]) {
+        return ((long[]) array).length == length ? array : Arrays.copyOf((long[]) array, length);
+      } else if (array instanceof double[]) {
+        return ((double[]) array).length == length ? array : Arrays.copyOf((double[]) array, length);
+      }
+      return ((Object[]) array).length == length ? array : Arrays.copyOf((Object[]) array, length);
+    }
+  }
+
+}
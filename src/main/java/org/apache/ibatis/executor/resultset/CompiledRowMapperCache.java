@@ -0,0 +1,60 @@
+/**
+ *    Copyright 2009-2019 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.executor.resultset;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import org.apache.ibatis.executor.resultset.DefaultResultSetHandler.CompiledRowMapper;
+import org.apache.ibatis.session.Configuration;
+
+/**
+ * The row mapping plans compiled by {@link DefaultResultSetHandler} for a configuration, per result map id and
+ * column layout. A result map keeps as many layouts as the configuration keeps SQL shapes of a dynamic statement,
+ * see {@link Configuration#getDynamicSqlCacheSize()}.
+ */
+final class CompiledRowMapperCache {
+
+  // the configurations are weakly referenced, so that their plans go away with them
+  private static final Map<Configuration, CompiledRowMapperCache> CACHES = Collections.synchronizedMap(new WeakHashMap<>());
+
+  private final ConcurrentMap<String, ConcurrentMap<String, CompiledRowMapper>> rowMappers = new ConcurrentHashMap<>();
+  private final int maxLayouts;
+
+  private CompiledRowMapperCache(int maxLayouts) {
+    this.maxLayouts = maxLayouts;
+  }
+
+  static CompiledRowMapperCache of(Configuration configuration) {
+    return CACHES.computeIfAbsent(configuration, key -> new CompiledRowMapperCache(key.getDynamicSqlCacheSize()));
+  }
+
+  CompiledRowMapper get(String resultMapId, String layout) {
+    final Map<String, CompiledRowMapper> layouts = rowMappers.get(resultMapId);
+    return layouts == null ? null : layouts.get(layout);
+  }
+
+  void put(String resultMapId, String layout, CompiledRowMapper rowMapper) {
+    final Map<String, CompiledRowMapper> layouts = rowMappers.computeIfAbsent(resultMapId, id -> new ConcurrentHashMap<>());
+    if (layouts.size() < maxLayouts) {
+      layouts.putIfAbsent(layout, rowMapper);
+    }
+  }
+
+}
@@ -20,13 +20,20 @@ import java.sql.CallableStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.Statement;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Deque;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.IdentityHashMap;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
 
 import org.apache.ibatis.annotations.AutomapConstructor;
 import org.apache.ibatis.binding.MapperMethod.ParamMap;
@@ -37,11 +44,14 @@ import org.apache.ibatis.executor.ErrorContext;
 import org.apache.ibatis.executor.Executor;
 import org.apache.ibatis.executor.ExecutorException;
 import org.apache.ibatis.executor.loader.ResultLoader;
+import org.apache.ibatis.executor.loader.ResultLoaderBatch;
 import org.apache.ibatis.executor.loader.ResultLoaderMap;
 import org.apache.ibatis.executor.parameter.ParameterHandler;
+import org.apache.ibatis.executor.result.ColumnarResultHandler;
 import org.apache.ibatis.executor.result.DefaultResultContext;
 import org.apache.ibatis.executor.result.DefaultResultHandler;
 import org.apache.ibatis.executor.result.ResultMapException;
+import org.apache.ibatis.logging.Log;
 import org.apache.ibatis.mapping.BoundSql;
 import org.apache.ibatis.mapping.Discriminator;
 import org.apache.ibatis.mapping.MappedStatement;
@@ -49,10 +59,17 @@ import org.apache.ibatis.mapping.ParameterMapping;
 import org.apache.ibatis.mapping.ParameterMode;
 import org.apache.ibatis.mapping.ResultMap;
 import org.apache.ibatis.mapping.ResultMapping;
+import org.apache.ibatis.metrics.MetricsCollector;
+import org.apache.ibatis.metrics.StatementPhase;
+import org.apache.ibatis.reflection.ExceptionUtil;
 import org.apache.ibatis.reflection.MetaClass;
 import org.apache.ibatis.reflection.MetaObject;
+import org.apache.ibatis.reflection.ReflectionException;
 import org.apache.ibatis.reflection.ReflectorFactory;
+import org.apache.ibatis.reflection.factory.DefaultObjectFactory;
 import org.apache.ibatis.reflection.factory.ObjectFactory;
+import org.apache.ibatis.reflection.invoker.Invoker;
+import org.apache.ibatis.reflection.wrapper.DefaultObjectWrapperFactory;
 import org.apache.ibatis.session.AutoMappingBehavior;
 import org.apache.ibatis.session.Configuration;
 import org.apache.ibatis.session.ResultContext;
@@ -61,6 +78,7 @@ import org.apache.ibatis.session.RowBounds;
 import org.apache.ibatis.type.JdbcType;
 import org.apache.ibatis.type.TypeHandler;
 import org.apache.ibatis.type.TypeHandlerRegistry;
+import org.apache.ibatis.type.UnknownTypeHandler;
 
 /**
  * @author Clinton Begin
@@ -71,6 +89,10 @@ import org.apache.ibatis.type.TypeHandlerRegistry;
 public class DefaultResultSetHandler implements ResultSetHandler {
 
   private static final Object DEFERRED = new Object();
+  // above this size, the identity map of a completed parent is dropped instead of cleared (clear() costs its capacity)
+  private static final int NESTED_RESULT_OBJECTS_REUSE_LIMIT = 1024;
+  // rows mapped by a task of the fork-join pool when the statement maps its rows in parallel
+  private static final int PARALLEL_MAPPING_CHUNK_SIZE = 256;
 
   private final Executor executor;
   private final Configuration configuration;
@@ -84,14 +106,22 @@ public class DefaultResultSetHandler implements ResultSetHandler {
   private final ReflectorFactory reflectorFactory;
 
   // nested resultmaps
-  private final Map<CacheKey, Object> nestedResultObjects = new HashMap<>();
+  private Map<CacheKey, Object> nestedResultObjects = new HashMap<>();
   private final Map<String, Object> ancestorObjects = new HashMap<>();
   private Object previousRowValue;
+  private int peakNestedResultObjects;
 
   // multiple resultsets
   private final Map<String, ResultMapping> nextResultMaps = new HashMap<>();
   private final Map<CacheKey, List<PendingRelation>> pendingRelations = new HashMap<>();
 
+  // nested selects with a batch size, eager ones are loaded once all the result sets are handled
+  private final Map<ResultMapping, ResultLoaderBatch> nestedQueryBatches = new IdentityHashMap<>();
+  private boolean deferBatchedNestedQueries;
+
+  // the result objects handed to the result handlers, recorded as the rows of the statement
+  private int mappedRows;
+
   // Cached Automappings
   private final Map<String, List<UnMappedColumnAutoMapping>> autoMappingsCache = new HashMap<>();
 
@@ -105,18 +135,100 @@ public class DefaultResultSetHandler implements ResultSetHandler {
 
   private static class UnMappedColumnAutoMapping {
     private final String column;
+    private final int columnIndex;
     private final String property;
     private final TypeHandler<?> typeHandler;
     private final boolean primitive;
 
-    public UnMappedColumnAutoMapping(String column, String property, TypeHandler<?> typeHandler, boolean primitive) {
+    public UnMappedColumnAutoMapping(String column, int columnIndex, String property, TypeHandler<?> typeHandler, boolean primitive) {
       this.column = column;
+      this.columnIndex = columnIndex;
       this.property = property;
       this.typeHandler = typeHandler;
       this.primitive = primitive;
     }
   }
 
+  /**
+   * A flat plan of the columns of a result set that are mapped to the properties of a simple result map.
+   * Mapping a row with it needs neither a MetaObject nor any lookup by column or property name.
+   */
+  static class CompiledRowMapper {
+    // marks the column layouts of a result map that cannot be mapped by a compiled plan
+    private static final CompiledRowMapper NONE = new CompiledRowMapper();
+
+    private final Class<?> type;
+    private final String[] columns;
+    private final int[] columnIndexes;
+    private final String[] properties;
+    private final TypeHandler<?>[] typeHandlers;
+    private final Invoker[] setters;
+    private final boolean[] primitives;
+    private final boolean callSettersOnNulls;
+    private final boolean returnInstanceForEmptyRow;
+
+    private CompiledRowMapper() {
+      this.type = null;
+      this.columns = new String[0];
+      this.columnIndexes = new int[0];
+      this.properties = new String[0];
+      this.typeHandlers = new TypeHandler<?>[0];
+      this.setters = new Invoker[0];
+      this.primitives = new boolean[0];
+      this.callSettersOnNulls = false;
+      this.returnInstanceForEmptyRow = false;
+    }
+
+    private CompiledRowMapper(Builder builder) {
+      final int size = builder.columns.size();
+      this.type = builder.type;
+      this.callSettersOnNulls = builder.configuration.isCallSettersOnNulls();
+      this.returnInstanceForEmptyRow = builder.configuration.isReturnInstanceForEmptyRow();
+      this.columns = builder.columns.toArray(new String[size]);
+      this.columnIndexes = new int[size];
+      this.properties = builder.properties.toArray(new String[size]);
+      this.typeHandlers = builder.typeHandlers.toArray(new TypeHandler<?>[size]);
+      this.setters = new Invoker[size];
+      this.primitives = new boolean[size];
+      for (int i = 0; i < size; i++) {
+        columnIndexes[i] = builder.columnIndexes.get(i);
+        setters[i] = builder.metaType.getSetInvoker(properties[i]);
+        primitives[i] = builder.metaType.getSetterType(properties[i]).isPrimitive();
+      }
+    }
+
+    private static class Builder {
+      private final Configuration configuration;
+      private final Class<?> type;
+      private final MetaClass metaType;
+      private final List<String> columns = new ArrayList<>();
+      private final List<Integer> columnIndexes = new ArrayList<>();
+      private final List<String> properties = new ArrayList<>();
+      private final List<TypeHandler<?>> typeHandlers = new ArrayList<>();
+
+      private Builder(Configuration configuration, Class<?> type, MetaClass metaType) {
+        this.configuration = configuration;
+        this.type = type;
+        this.metaType = metaType;
+      }
+
+      private boolean add(String column, int columnIndex, String property, TypeHandler<?> typeHandler) {
+        if (columnIndex < 1 || property.indexOf('.') >= 0 || property.indexOf('[') >= 0 || !metaType.hasSetter(property)) {
+          return false;
+        }
+        columns.add(column);
+        columnIndexes.add(columnIndex);
+        properties.add(property);
+        typeHandlers.add(typeHandler);
+        return true;
+      }
+
+      private CompiledRowMapper build() {
+        return new CompiledRowMapper(this);
+      }
+    }
+  }
+
   public DefaultResultSetHandler(Executor executor, MappedStatement mappedStatement, ParameterHandler parameterHandler, ResultHandler<?> resultHandler, BoundSql boundSql,
                                  RowBounds rowBounds) {
     this.executor = executor;
@@ -180,8 +292,12 @@ public class DefaultResultSetHandler implements ResultSetHandler {
   @Override
   public List<Object> handleResultSets(Statement stmt) throws SQLException {
     ErrorContext.instance().activity("handling results").object(mappedStatement.getId());
+    final MetricsCollector metrics = configuration.getMetricsCollector();
+    final long start = metrics == null ? 0L : System.nanoTime();
 
     final List<Object> multipleResults = new ArrayList<>();
+    // the rows are handed to a custom result handler as they are mapped, before any deferred load could complete
+    deferBatchedNestedQueries = resultHandler == null;
 
     int resultSetCount = 0;
     ResultSetWrapper rsw = getFirstResultSet(stmt);
@@ -212,6 +328,19 @@ public class DefaultResultSetHandler implements ResultSetHandler {
       }
     }
 
+    deferBatchedNestedQueries = false;
+    for (Map.Entry<ResultMapping, ResultLoaderBatch> batch : nestedQueryBatches.entrySet()) {
+      if (!batch.getKey().isLazy()) {
+        batch.getValue().loadAll();
+      }
+    }
+    if (metrics != null) {
+      metrics.recordPhase(mappedStatement.getId(), StatementPhase.MAP_RESULTS, System.nanoTime() - start);
+      metrics.recordRows(mappedStatement.getId(), mappedRows);
+      if (peakNestedResultObjects > 0) {
+        metrics.recordNestedResultObjects(mappedStatement.getId(), peakNestedResultObjects);
+      }
+    }
     return collapseSingleResultList(multipleResults);
   }
 
@@ -281,7 +410,26 @@ public class DefaultResultSetHandler implements ResultSetHandler {
   }
 
   private void cleanUpAfterHandlingResultSet() {
-    nestedResultObjects.clear();
+    clearNestedResultObjects();
+    final Log statementLog = mappedStatement.getStatementLog();
+    if (peakNestedResultObjects > 0 && statementLog != null && statementLog.isDebugEnabled()) {
+      statementLog.debug("<==  Retained: " + peakNestedResultObjects + " nested result objects at most");
+    }
+  }
+
+  /**
+   * Forgets the objects of nested result maps, once they cannot receive rows anymore.
+   */
+  private void clearNestedResultObjects() {
+    final int size = nestedResultObjects.size();
+    if (size > peakNestedResultObjects) {
+      peakNestedResultObjects = size;
+    }
+    if (size > NESTED_RESULT_OBJECTS_REUSE_LIMIT) {
+      nestedResultObjects = new HashMap<>();
+    } else {
+      nestedResultObjects.clear();
+    }
   }
 
   private void validateResultMapsCount(ResultSetWrapper rsw, int resultMapCount) {
@@ -292,6 +440,8 @@ public class DefaultResultSetHandler implements ResultSetHandler {
   }
 
   private void handleResultSet(ResultSetWrapper rsw, ResultMap resultMap, List<Object> multipleResults, ResultMapping parentMapping) throws SQLException {
+    // automatic mappings hold column indexes, they cannot be reused for another result set
+    autoMappingsCache.clear();
     try {
       if (parentMapping != null) {
         handleRowValues(rsw, resultMap, null, RowBounds.DEFAULT, parentMapping);
@@ -300,6 +450,10 @@ public class DefaultResultSetHandler implements ResultSetHandler {
           DefaultResultHandler defaultResultHandler = new DefaultResultHandler(objectFactory);
           handleRowValues(rsw, resultMap, defaultResultHandler, rowBounds, null);
           multipleResults.add(defaultResultHandler.getResultList());
+        } else if (resultHandler instanceof ColumnarResultHandler) {
+          // no object mapping at all, the handler reads the columns itself
+          skipRows(rsw.getResultSet(), rowBounds);
+          ((ColumnarResultHandler) resultHandler).handleResultSet(rsw, rowBounds.getLimit());
         } else {
           handleRowValues(rsw, resultMap, resultHandler, rowBounds, null);
         }
@@ -349,13 +503,97 @@ public class DefaultResultSetHandler implements ResultSetHandler {
     DefaultResultContext<Object> resultContext = new DefaultResultContext<>();
     ResultSet resultSet = rsw.getResultSet();
     skipRows(resultSet, rowBounds);
-    while (shouldProcessMoreRows(resultContext, rowBounds) && !resultSet.isClosed() && resultSet.next()) {
-      ResultMap discriminatedResultMap = resolveDiscriminatedResultMap(resultSet, resultMap, null);
-      Object rowValue = getRowValue(rsw, discriminatedResultMap, null);
+    CompiledRowMapper rowMapper = null;
+    boolean firstRow = true;
+    while (shouldProcessMoreRows(resultContext, rowBounds) && !resultSet.isClosed()) {
+      if (rowMapper != null && parentMapping == null && mappedStatement.isParallelMapping()) {
+        handleRowValuesInParallel(resultSet, rowMapper, resultHandler, resultContext, rowBounds);
+        return;
+      }
+      if (!resultSet.next()) {
+        break;
+      }
+      Object rowValue;
+      if (rowMapper != null) {
+        rowValue = getRowValue(rsw, rowMapper);
+      } else {
+        ResultMap discriminatedResultMap = resolveDiscriminatedResultMap(resultSet, resultMap, null);
+        rowValue = getRowValue(rsw, discriminatedResultMap, null);
+        if (firstRow) {
+          // the first row resolved the automatic mappings, the following rows can reuse a flat plan
+          rowMapper = getRowMapper(rsw, resultMap);
+          firstRow = false;
+        }
+      }
       storeObject(resultHandler, resultContext, rowValue, parentMapping, resultSet);
     }
   }
 
+  /**
+   * Reads the remaining rows on this thread and maps them on the fork-join pool, a chunk of rows per task.
+   * The row values are passed to the result handler on this thread, in the order of the rows.
+   */
+  private void handleRowValuesInParallel(ResultSet resultSet, CompiledRowMapper rowMapper, ResultHandler<?> resultHandler,
+      DefaultResultContext<Object> resultContext, RowBounds rowBounds) throws SQLException {
+    final Deque<ForkJoinTask<Object[]>> chunks = new ArrayDeque<>();
+    final int maxChunks = 2 * ForkJoinPool.getCommonPoolParallelism() + 1;
+    int remainingRows = rowBounds.getLimit() - resultContext.getResultCount();
+    boolean moreRows = true;
+    try {
+      while (moreRows || !chunks.isEmpty()) {
+        if (moreRows) {
+          final List<Object[]> rows = new ArrayList<>(PARALLEL_MAPPING_CHUNK_SIZE);
+          while (rows.size() < PARALLEL_MAPPING_CHUNK_SIZE && remainingRows > 0 && !resultSet.isClosed() && resultSet.next()) {
+            rows.add(readRowValues(resultSet, rowMapper));
+            remainingRows--;
+          }
+          moreRows = rows.size() == PARALLEL_MAPPING_CHUNK_SIZE && remainingRows > 0;
+          if (!rows.isEmpty()) {
+            chunks.add(ForkJoinPool.commonPool().submit(() -> createRowValues(rowMapper, rows)));
+          }
+        }
+        // hands over the mapped chunks in order, waiting only when enough chunks are in flight or all rows are read
+        while (!chunks.isEmpty() && (chunks.peek().isDone() || chunks.size() >= maxChunks || !moreRows)) {
+          for (Object rowValue : joinChunk(chunks.poll())) {
+            if (!shouldProcessMoreRows(resultContext, rowBounds)) {
+              return;
+            }
+            callResultHandler(resultHandler, resultContext, rowValue);
+          }
+        }
+      }
+    } finally {
+      for (ForkJoinTask<Object[]> chunk : chunks) {
+        chunk.cancel(false);
+      }
+    }
+  }
+
+  private Object[] createRowValues(CompiledRowMapper rowMapper, List<Object[]> rows) {
+    final Object[] rowValues = new Object[rows.size()];
+    for (int i = 0; i < rowValues.length; i++) {
+      rowValues[i] = createRowValue(rowMapper, rows.get(i));
+    }
+    return rowValues;
+  }
+
+  private Object[] joinChunk(ForkJoinTask<Object[]> chunk) {
+    try {
+      return chunk.get();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new ExecutorException("Interrupted while mapping rows in parallel.", e);
+    } catch (ExecutionException e) {
+      final Throwable cause = e.getCause();
+      if (cause instanceof RuntimeException) {
+        throw (RuntimeException) cause;
+      } else if (cause instanceof Error) {
+        throw (Error) cause;
+      }
+      throw new ExecutorException("Error mapping rows in parallel.", cause);
+    }
+  }
+
   private void storeObject(ResultHandler<?> resultHandler, DefaultResultContext<Object> resultContext, Object rowValue, ResultMapping parentMapping, ResultSet rs) throws SQLException {
     if (parentMapping != null) {
       linkToParents(rs, parentMapping, rowValue);
@@ -367,6 +605,7 @@ public class DefaultResultSetHandler implements ResultSetHandler {
   @SuppressWarnings("unchecked" /* because ResultHandler<?> is always ResultHandler<Object>*/)
   private void callResultHandler(ResultHandler<?> resultHandler, DefaultResultContext<Object> resultContext, Object rowValue) {
     resultContext.nextResultObject(rowValue);
+    mappedRows++;
     ((ResultHandler<Object>) resultHandler).handleResult(resultContext);
   }
 
@@ -408,6 +647,118 @@ public class DefaultResultSetHandler implements ResultSetHandler {
     return rowValue;
   }
 
+  private Object getRowValue(ResultSetWrapper rsw, CompiledRowMapper rowMapper) throws SQLException {
+    return createRowValue(rowMapper, readRowValues(rsw.getResultSet(), rowMapper));
+  }
+
+  private Object[] readRowValues(ResultSet rs, CompiledRowMapper rowMapper) throws SQLException {
+    final Object[] values = new Object[rowMapper.columns.length];
+    for (int i = 0; i < values.length; i++) {
+      values[i] = getResult(rowMapper.typeHandlers[i], rs, rowMapper.columnIndexes[i], rowMapper.columns[i]);
+    }
+    return values;
+  }
+
+  /**
+   * Creates the object of a row from the values read by {@link #readRowValues(ResultSet, CompiledRowMapper)}.
+   * It does not touch the result set, so it may run on another thread.
+   */
+  private Object createRowValue(CompiledRowMapper rowMapper, Object[] values) {
+    final Object rowValue = objectFactory.create(rowMapper.type);
+    boolean foundValues = false;
+    for (int i = 0; i < values.length; i++) {
+      final Object value = values[i];
+      if (value != null) {
+        foundValues = true;
+      }
+      if (value != null || (rowMapper.callSettersOnNulls && !rowMapper.primitives[i])) {
+        // gcode issue #377, call setter on nulls (value is not 'found')
+        try {
+          rowMapper.setters[i].invoke(rowValue, new Object[] {value});
+        } catch (Throwable t) {
+          Throwable cause = ExceptionUtil.unwrapThrowable(t);
+          throw new ReflectionException("Could not set property '" + rowMapper.properties[i] + "' of '" + rowValue.getClass()
+              + "' with value '" + value + "' Cause: " + cause.toString(), cause);
+        }
+      }
+    }
+    return foundValues || rowMapper.returnInstanceForEmptyRow ? rowValue : null;
+  }
+
+  /**
+   * Returns the plan compiled for the result map and the column layout of the result set, compiling it on the
+   * first result set with that layout (see {@link CompiledRowMapperCache}). Returns null when the result map needs
+   * the generic path (discriminator, constructor, nested query or nested property, custom object factory or wrapper).
+   */
+  private CompiledRowMapper getRowMapper(ResultSetWrapper rsw, ResultMap resultMap) throws SQLException {
+    final Class<?> resultType = resultMap.getType();
+    if (resultMap.getDiscriminator() != null
+        || !resultMap.getConstructorResultMappings().isEmpty()
+        || objectFactory.getClass() != DefaultObjectFactory.class
+        || configuration.getObjectWrapperFactory().getClass() != DefaultObjectWrapperFactory.class
+        || resultType.isInterface()
+        || Map.class.isAssignableFrom(resultType)
+        || Collection.class.isAssignableFrom(resultType)) {
+      return null;
+    }
+    // the plan depends on these settings as well as on the names and types of the columns
+    final String layout = (shouldApplyAutomaticMappings(resultMap, false) ? "A" : "-")
+        + (configuration.isMapUnderscoreToCamelCase() ? "C" : "-")
+        + (configuration.isCallSettersOnNulls() ? "S" : "-")
+        + (configuration.isReturnInstanceForEmptyRow() ? "E" : "-")
+        + rsw.getColumnLayout();
+    final CompiledRowMapperCache cache = CompiledRowMapperCache.of(configuration);
+    CompiledRowMapper rowMapper = cache.get(resultMap.getId(), layout);
+    if (rowMapper == null) {
+      rowMapper = compileRowMapper(rsw, resultMap);
+      if (rowMapper == null) {
+        rowMapper = CompiledRowMapper.NONE;
+      }
+      cache.put(resultMap.getId(), layout, rowMapper);
+    }
+    return rowMapper != CompiledRowMapper.NONE ? rowMapper : null;
+  }
+
+  private CompiledRowMapper compileRowMapper(ResultSetWrapper rsw, ResultMap resultMap) throws SQLException {
+    final Class<?> resultType = resultMap.getType();
+    if (hasTypeHandlerForResultObject(rsw, resultType)) {
+      return null;
+    }
+    final MetaClass metaType = MetaClass.forClass(resultType, reflectorFactory);
+    if (!metaType.hasDefaultConstructor()) {
+      return null;
+    }
+    final CompiledRowMapper.Builder rowMapper = new CompiledRowMapper.Builder(configuration, resultType, metaType);
+    if (shouldApplyAutomaticMappings(resultMap, false)) {
+      final List<UnMappedColumnAutoMapping> autoMapping = autoMappingsCache.get(resultMap.getId() + ":" + null);
+      if (autoMapping == null) {
+        return null;
+      }
+      for (UnMappedColumnAutoMapping mapping : autoMapping) {
+        if (!rowMapper.add(mapping.column, mapping.columnIndex, mapping.property, mapping.typeHandler)) {
+          return null;
+        }
+      }
+    }
+    final int[] columnIndexes = rsw.getPropertyColumnIndexes(resultMap, null);
+    final List<ResultMapping> propertyMappings = resultMap.getPropertyResultMappings();
+    for (int i = 0; i < propertyMappings.size(); i++) {
+      final ResultMapping propertyMapping = propertyMappings.get(i);
+      if (propertyMapping.getNestedQueryId() != null || propertyMapping.getNestedResultMapId() != null
+          || propertyMapping.getResultSet() != null || propertyMapping.isCompositeResult()) {
+        return null;
+      }
+      if (columnIndexes[i] == -1 || propertyMapping.getProperty() == null) {
+        continue;
+      }
+      final TypeHandler<?> typeHandler = getColumnTypeHandler(rsw, propertyMapping.getTypeHandler(), columnIndexes[i]);
+      if (!rowMapper.add(propertyMapping.getColumn(), columnIndexes[i], propertyMapping.getProperty(), typeHandler)) {
+        return null;
+      }
+    }
+    return rowMapper.build();
+  }
+
   private boolean shouldApplyAutomaticMappings(ResultMap resultMap, boolean isNested) {
     if (resultMap.getAutoMapping() != null) {
       return resultMap.getAutoMapping();
@@ -426,19 +777,16 @@ public class DefaultResultSetHandler implements ResultSetHandler {
 
   private boolean applyPropertyMappings(ResultSetWrapper rsw, ResultMap resultMap, MetaObject metaObject, ResultLoaderMap lazyLoader, String columnPrefix)
       throws SQLException {
-    final List<String> mappedColumnNames = rsw.getMappedColumnNames(resultMap, columnPrefix);
+    // -1 when the column is not in the result set, or when the user added a column attribute to a nested result map
+    final int[] columnIndexes = rsw.getPropertyColumnIndexes(resultMap, columnPrefix);
     boolean foundValues = false;
     final List<ResultMapping> propertyMappings = resultMap.getPropertyResultMappings();
-    for (ResultMapping propertyMapping : propertyMappings) {
-      String column = prependPrefix(propertyMapping.getColumn(), columnPrefix);
-      if (propertyMapping.getNestedResultMapId() != null) {
-        // the user added a column attribute to a nested result map, ignore it
-        column = null;
-      }
+    for (int i = 0; i < propertyMappings.size(); i++) {
+      final ResultMapping propertyMapping = propertyMappings.get(i);
       if (propertyMapping.isCompositeResult()
-          || (column != null && mappedColumnNames.contains(column.toUpperCase(Locale.ENGLISH)))
+          || columnIndexes[i] != -1
           || propertyMapping.getResultSet() != null) {
-        Object value = getPropertyMappingValue(rsw.getResultSet(), metaObject, propertyMapping, lazyLoader, columnPrefix);
+        Object value = getPropertyMappingValue(rsw, metaObject, propertyMapping, lazyLoader, columnPrefix, columnIndexes[i]);
         // issue #541 make property optional
         final String property = propertyMapping.getProperty();
         if (property == null) {
@@ -459,8 +807,9 @@ public class DefaultResultSetHandler implements ResultSetHandler {
     return foundValues;
   }
 
-  private Object getPropertyMappingValue(ResultSet rs, MetaObject metaResultObject, ResultMapping propertyMapping, ResultLoaderMap lazyLoader, String columnPrefix)
-      throws SQLException {
+  private Object getPropertyMappingValue(ResultSetWrapper rsw, MetaObject metaResultObject, ResultMapping propertyMapping, ResultLoaderMap lazyLoader, String columnPrefix,
+      int columnIndex) throws SQLException {
+    final ResultSet rs = rsw.getResultSet();
     if (propertyMapping.getNestedQueryId() != null) {
       return getNestedQueryMappingValue(rs, metaResultObject, propertyMapping, lazyLoader, columnPrefix);
     } else if (propertyMapping.getResultSet() != null) {
@@ -469,7 +818,28 @@ public class DefaultResultSetHandler implements ResultSetHandler {
     } else {
       final TypeHandler<?> typeHandler = propertyMapping.getTypeHandler();
       final String column = prependPrefix(propertyMapping.getColumn(), columnPrefix);
-      return typeHandler.getResult(rs, column);
+      if (columnIndex == -1) {
+        return typeHandler.getResult(rs, column);
+      }
+      return getResult(getColumnTypeHandler(rsw, typeHandler, columnIndex), rs, columnIndex, column);
+    }
+  }
+
+  private TypeHandler<?> getColumnTypeHandler(ResultSetWrapper rsw, TypeHandler<?> typeHandler, int columnIndex) {
+    // the unknown type handler would resolve the handler of the column for each value, the wrapper resolves it once
+    return typeHandler.getClass() == UnknownTypeHandler.class ? rsw.getColumnTypeHandler(columnIndex) : typeHandler;
+  }
+
+  /**
+   * Reads a column by its index, which saves the driver a lookup of the column name on every row.
+   * A failure is reported with the column name, as when the column is read by name.
+   */
+  private Object getResult(TypeHandler<?> typeHandler, ResultSet rs, int columnIndex, String column) throws SQLException {
+    try {
+      return typeHandler.getResult(rs, columnIndex);
+    } catch (ResultMapException e) {
+      final Throwable cause = e.getCause() == null ? e : e.getCause();
+      throw new ResultMapException("Error attempting to get column '" + column + "' from result set.  Cause: " + cause, cause);
     }
   }
 
@@ -498,7 +868,7 @@ public class DefaultResultSetHandler implements ResultSetHandler {
           final Class<?> propertyType = metaObject.getSetterType(property);
           if (typeHandlerRegistry.hasTypeHandler(propertyType, rsw.getJdbcType(columnName))) {
             final TypeHandler<?> typeHandler = rsw.getTypeHandler(propertyType, columnName);
-            autoMapping.add(new UnMappedColumnAutoMapping(columnName, property, typeHandler, propertyType.isPrimitive()));
+            autoMapping.add(new UnMappedColumnAutoMapping(columnName, rsw.getColumnIndex(columnName), property, typeHandler, propertyType.isPrimitive()));
           } else {
             configuration.getAutoMappingUnknownColumnBehavior()
                 .doAction(mappedStatement, columnName, property, propertyType);
@@ -518,7 +888,7 @@ public class DefaultResultSetHandler implements ResultSetHandler {
     boolean foundValues = false;
     if (!autoMapping.isEmpty()) {
       for (UnMappedColumnAutoMapping mapping : autoMapping) {
-        final Object value = mapping.typeHandler.getResult(rsw.getResultSet(), mapping.column);
+        final Object value = getResult(mapping.typeHandler, rsw.getResultSet(), mapping.columnIndex, mapping.column);
         if (value != null) {
           foundValues = true;
         }
@@ -705,15 +1075,21 @@ public class DefaultResultSetHandler implements ResultSetHandler {
   private Object createPrimitiveResultObject(ResultSetWrapper rsw, ResultMap resultMap, String columnPrefix) throws SQLException {
     final Class<?> resultType = resultMap.getType();
     final String columnName;
+    final int columnIndex;
     if (!resultMap.getResultMappings().isEmpty()) {
       final List<ResultMapping> resultMappingList = resultMap.getResultMappings();
       final ResultMapping mapping = resultMappingList.get(0);
       columnName = prependPrefix(mapping.getColumn(), columnPrefix);
+      columnIndex = rsw.getColumnIndex(columnName);
     } else {
       columnName = rsw.getColumnNames().get(0);
+      columnIndex = 1;
     }
     final TypeHandler<?> typeHandler = rsw.getTypeHandler(resultType, columnName);
-    return typeHandler.getResult(rsw.getResultSet(), columnName);
+    if (columnIndex == -1) {
+      return typeHandler.getResult(rsw.getResultSet(), columnName);
+    }
+    return getResult(typeHandler, rsw.getResultSet(), columnIndex, columnName);
   }
 
   //
@@ -744,7 +1120,20 @@ public class DefaultResultSetHandler implements ResultSetHandler {
     final Class<?> nestedQueryParameterType = nestedQuery.getParameterMap().getType();
     final Object nestedQueryParameterObject = prepareParameterForNestedQuery(rs, propertyMapping, nestedQueryParameterType, columnPrefix);
     Object value = null;
-    if (nestedQueryParameterObject != null) {
+    if (nestedQueryParameterObject != null && propertyMapping.getBatchSize() > 0) {
+      final Class<?> targetType = propertyMapping.getJavaType();
+      final ResultLoaderBatch batch = nestedQueryBatches.computeIfAbsent(propertyMapping,
+          mapping -> new ResultLoaderBatch(configuration, executor, nestedQuery, mapping));
+      if (propertyMapping.isLazy()) {
+        lazyLoader.addLoader(property, metaResultObject, batch.addLoader(nestedQueryParameterObject, targetType));
+        value = DEFERRED;
+      } else if (deferBatchedNestedQueries) {
+        batch.addLoad(nestedQueryParameterObject, targetType, metaResultObject, property);
+        value = DEFERRED;
+      } else {
+        value = batch.addLoader(nestedQueryParameterObject, targetType).loadResult();
+      }
+    } else if (nestedQueryParameterObject != null) {
       final BoundSql nestedBoundSql = nestedQuery.getBoundSql(nestedQueryParameterObject);
       final CacheKey key = executor.createCacheKey(nestedQuery, nestedQueryParameterObject, RowBounds.DEFAULT, nestedBoundSql);
       final Class<?> targetType = propertyMapping.getJavaType();
@@ -862,7 +1251,8 @@ public class DefaultResultSetHandler implements ResultSetHandler {
       // issue #577 && #542
       if (mappedStatement.isResultOrdered()) {
         if (partialObject == null && rowValue != null) {
-          nestedResultObjects.clear();
+          // the previous parent is complete, its children can no longer be merged with the following rows
+          clearNestedResultObjects();
           storeObject(resultHandler, resultContext, rowValue, parentMapping, resultSet);
         }
         rowValue = getRowValue(rsw, discriminatedResultMap, rowKey, null, partialObject);
@@ -874,6 +1264,7 @@ public class DefaultResultSetHandler implements ResultSetHandler {
       }
     }
     if (rowValue != null && mappedStatement.isResultOrdered() && shouldProcessMoreRows(resultContext, rowBounds)) {
+      clearNestedResultObjects();
       storeObject(resultHandler, resultContext, rowValue, parentMapping, resultSet);
       previousRowValue = null;
     } else if (rowValue != null) {
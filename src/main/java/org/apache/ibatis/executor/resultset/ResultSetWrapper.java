@@ -28,6 +28,7 @@ import java.util.Map;
 import java.util.Set;
 import org.apache.ibatis.io.Resources;
 import org.apache.ibatis.mapping.ResultMap;
+import org.apache.ibatis.mapping.ResultMapping;
 import org.apache.ibatis.session.Configuration;
 import org.apache.ibatis.type.JdbcType;
 import org.apache.ibatis.type.ObjectTypeHandler;
@@ -45,9 +46,14 @@ public class ResultSetWrapper {
   private final List<String> columnNames = new ArrayList<>();
   private final List<String> classNames = new ArrayList<>();
   private final List<JdbcType> jdbcTypes = new ArrayList<>();
+  private final List<String> upperColumnNames = new ArrayList<>();
+  private final Map<String, Integer> columnIndexes = new HashMap<>();
   private final Map<String, Map<Class<?>, TypeHandler<?>>> typeHandlerMap = new HashMap<>();
+  private TypeHandler<?>[] columnTypeHandlers;
   private final Map<String, List<String>> mappedColumnNamesMap = new HashMap<>();
   private final Map<String, List<String>> unMappedColumnNamesMap = new HashMap<>();
+  private final Map<String, int[]> propertyColumnIndexesMap = new HashMap<>();
+  private String columnLayout;
 
   public ResultSetWrapper(ResultSet rs, Configuration configuration) throws SQLException {
     super();
@@ -60,6 +66,15 @@ public class ResultSetWrapper {
       jdbcTypes.add(JdbcType.forCode(metaData.getColumnType(i)));
       classNames.add(metaData.getColumnClassName(i));
     }
+    for (int i = 0; i < columnCount; i++) {
+      final String columnName = columnNames.get(i);
+      final String upperColumnName = columnName == null ? null : columnName.toUpperCase(Locale.ENGLISH);
+      upperColumnNames.add(upperColumnName);
+      if (upperColumnName != null) {
+        // like ResultSet#findColumn, the first of several columns with the same name wins
+        columnIndexes.putIfAbsent(upperColumnName, i + 1);
+      }
+    }
   }
 
   public ResultSet getResultSet() {
@@ -78,6 +93,22 @@ public class ResultSetWrapper {
     return jdbcTypes;
   }
 
+  /**
+   * Returns a key made of the names and types of the columns, equal for the result sets with the same columns.
+   *
+   * @since 3.5.3
+   */
+  public String getColumnLayout() {
+    if (columnLayout == null) {
+      final StringBuilder layout = new StringBuilder();
+      for (int i = 0; i < columnNames.size(); i++) {
+        layout.append(columnNames.get(i)).append(':').append(jdbcTypes.get(i)).append(':').append(classNames.get(i)).append(',');
+      }
+      columnLayout = layout.toString();
+    }
+    return columnLayout;
+  }
+
   public JdbcType getJdbcType(String columnName) {
     for (int i = 0 ; i < columnNames.size(); i++) {
       if (columnNames.get(i).equalsIgnoreCase(columnName)) {
@@ -111,24 +142,48 @@ public class ResultSetWrapper {
       // Replicate logic of UnknownTypeHandler#resolveTypeHandler
       // See issue #59 comment 10
       if (handler == null || handler instanceof UnknownTypeHandler) {
-        final int index = columnNames.indexOf(columnName);
-        final Class<?> javaType = resolveClass(classNames.get(index));
-        if (javaType != null && jdbcType != null) {
-          handler = typeHandlerRegistry.getTypeHandler(javaType, jdbcType);
-        } else if (javaType != null) {
-          handler = typeHandlerRegistry.getTypeHandler(javaType);
-        } else if (jdbcType != null) {
-          handler = typeHandlerRegistry.getTypeHandler(jdbcType);
-        }
-      }
-      if (handler == null || handler instanceof UnknownTypeHandler) {
-        handler = new ObjectTypeHandler();
+        handler = resolveColumnTypeHandler(jdbcType, classNames.get(columnNames.indexOf(columnName)));
       }
       columnHandlers.put(propertyType, handler);
     }
     return handler;
   }
 
+  /**
+   * Gets the type handler reading a column whose java type is unknown. Like the {@link UnknownTypeHandler}, it is
+   * resolved from the class name and the JDBC type of the column, but only once per result set.
+   *
+   * @param columnIndex the index of the column, starting at 1
+   * @since 3.5.3
+   */
+  public TypeHandler<?> getColumnTypeHandler(int columnIndex) {
+    if (columnTypeHandlers == null) {
+      columnTypeHandlers = new TypeHandler<?>[columnNames.size()];
+    }
+    TypeHandler<?> handler = columnTypeHandlers[columnIndex - 1];
+    if (handler == null) {
+      handler = resolveColumnTypeHandler(jdbcTypes.get(columnIndex - 1), classNames.get(columnIndex - 1));
+      columnTypeHandlers[columnIndex - 1] = handler;
+    }
+    return handler;
+  }
+
+  private TypeHandler<?> resolveColumnTypeHandler(JdbcType jdbcType, String className) {
+    TypeHandler<?> handler = null;
+    final Class<?> javaType = resolveClass(className);
+    if (javaType != null && jdbcType != null) {
+      handler = typeHandlerRegistry.getTypeHandler(javaType, jdbcType);
+    } else if (javaType != null) {
+      handler = typeHandlerRegistry.getTypeHandler(javaType);
+    } else if (jdbcType != null) {
+      handler = typeHandlerRegistry.getTypeHandler(jdbcType);
+    }
+    if (handler == null || handler instanceof UnknownTypeHandler) {
+      handler = new ObjectTypeHandler();
+    }
+    return handler;
+  }
+
   private Class<?> resolveClass(String className) {
     try {
       // #699 className could be null
@@ -146,12 +201,12 @@ public class ResultSetWrapper {
     List<String> unmappedColumnNames = new ArrayList<>();
     final String upperColumnPrefix = columnPrefix == null ? null : columnPrefix.toUpperCase(Locale.ENGLISH);
     final Set<String> mappedColumns = prependPrefixes(resultMap.getMappedColumns(), upperColumnPrefix);
-    for (String columnName : columnNames) {
-      final String upperColumnName = columnName.toUpperCase(Locale.ENGLISH);
+    for (int i = 0; i < columnNames.size(); i++) {
+      final String upperColumnName = upperColumnNames.get(i);
       if (mappedColumns.contains(upperColumnName)) {
         mappedColumnNames.add(upperColumnName);
       } else {
-        unmappedColumnNames.add(columnName);
+        unmappedColumnNames.add(columnNames.get(i));
       }
     }
     mappedColumnNamesMap.put(getMapKey(resultMap, columnPrefix), mappedColumnNames);
@@ -176,6 +231,62 @@ public class ResultSetWrapper {
     return unMappedColumnNames;
   }
 
+  /**
+   * Gets the 1-based index of a column in the result set.
+   *
+   * @param columnName the column name or label, case insensitive
+   * @return the index of the first column with this name, or -1 if the result set has no such column
+   * @since 3.5.3
+   */
+  public int getColumnIndex(String columnName) {
+    if (columnName == null) {
+      return -1;
+    }
+    final Integer index = columnIndexes.get(columnName.toUpperCase(Locale.ENGLISH));
+    return index == null ? -1 : index;
+  }
+
+  /**
+   * Gets the 1-based index of the column read by each property mapping of a result map.
+   * <p>
+   * The returned array is aligned with {@link ResultMap#getPropertyResultMappings()}. An entry is -1
+   * when the mapping does not read a column of this result set: its column is missing, or it maps
+   * a nested result map. The array is computed once per result map and column prefix.
+   *
+   * @param resultMap the result map
+   * @param columnPrefix the column prefix, may be null
+   * @return the column indexes
+   * @since 3.5.3
+   */
+  public int[] getPropertyColumnIndexes(ResultMap resultMap, String columnPrefix) throws SQLException {
+    final String mapKey = getMapKey(resultMap, columnPrefix);
+    int[] propertyColumnIndexes = propertyColumnIndexesMap.get(mapKey);
+    if (propertyColumnIndexes == null) {
+      final List<String> mappedColumnNames = getMappedColumnNames(resultMap, columnPrefix);
+      final List<ResultMapping> propertyMappings = resultMap.getPropertyResultMappings();
+      propertyColumnIndexes = new int[propertyMappings.size()];
+      for (int i = 0; i < propertyColumnIndexes.length; i++) {
+        final ResultMapping propertyMapping = propertyMappings.get(i);
+        final String column = prependPrefix(propertyMapping.getColumn(), columnPrefix);
+        if (propertyMapping.getNestedResultMapId() != null || column == null
+            || !mappedColumnNames.contains(column.toUpperCase(Locale.ENGLISH))) {
+          propertyColumnIndexes[i] = -1;
+        } else {
+          propertyColumnIndexes[i] = getColumnIndex(column);
+        }
+      }
+      propertyColumnIndexesMap.put(mapKey, propertyColumnIndexes);
+    }
+    return propertyColumnIndexes;
+  }
+
+  private String prependPrefix(String columnName, String prefix) {
+    if (columnName == null || columnName.length() == 0 || prefix == null || prefix.length() == 0) {
+      return columnName;
+    }
+    return prefix + columnName;
+  }
+
   private String getMapKey(ResultMap resultMap, String columnPrefix) {
     return resultMap.getId() + ":" + columnPrefix;
   }
@@ -1,5 +1,5 @@
 /**
- *    Copyright 2009-2018 the original author or authors.
+ *    Copyright 2009-2019 the original author or authors.
  *
  *    Licensed under the Apache License, Version 2.0 (the "License");
  *    you may not use this file except in compliance with the License.
@@ -30,6 +30,7 @@ import org.apache.ibatis.executor.resultset.DefaultResultSetHandler;
 import org.apache.ibatis.mapping.BoundSql;
 import org.apache.ibatis.mapping.MappedStatement;
 import org.apache.ibatis.mapping.ResultSetType;
+import org.apache.ibatis.metrics.StatementPhase;
 import org.apache.ibatis.session.ResultHandler;
 import org.apache.ibatis.session.RowBounds;
 
@@ -48,16 +49,20 @@ public class SimpleStatementHandler extends BaseStatementHandler {
     Object parameterObject = boundSql.getParameterObject();
     KeyGenerator keyGenerator = mappedStatement.getKeyGenerator();
     int rows;
-    if (keyGenerator instanceof Jdbc3KeyGenerator) {
+    final long start = startPhase();
+    if (keyGenerator instanceof Jdbc3KeyGenerator && ((Jdbc3KeyGenerator) keyGenerator).readsGeneratedKeys(mappedStatement)) {
       statement.execute(sql, Statement.RETURN_GENERATED_KEYS);
+      endPhase(StatementPhase.EXECUTE, start);
       rows = statement.getUpdateCount();
       keyGenerator.processAfter(executor, mappedStatement, statement, parameterObject);
     } else if (keyGenerator instanceof SelectKeyGenerator) {
       statement.execute(sql);
+      endPhase(StatementPhase.EXECUTE, start);
       rows = statement.getUpdateCount();
       keyGenerator.processAfter(executor, mappedStatement, statement, parameterObject);
     } else {
       statement.execute(sql);
+      endPhase(StatementPhase.EXECUTE, start);
       rows = statement.getUpdateCount();
     }
     return rows;
@@ -73,7 +78,9 @@ public class SimpleStatementHandler extends BaseStatementHandler {
   public <E> List<E> query(Statement statement, ResultHandler resultHandler) throws SQLException {
     String sql = boundSql.getSql();
     //执行sql
+    final long start = startPhase();
     statement.execute(sql);
+    endPhase(StatementPhase.EXECUTE, start);
     /**
      * 对结果集进行解析
      * {@link DefaultResultSetHandler#handleResultSets(java.sql.Statement)}
@@ -84,7 +91,9 @@ public class SimpleStatementHandler extends BaseStatementHandler {
   @Override
   public <E> Cursor<E> queryCursor(Statement statement) throws SQLException {
     String sql = boundSql.getSql();
+    final long start = startPhase();
     statement.execute(sql);
+    endPhase(StatementPhase.EXECUTE, start);
     return resultSetHandler.handleCursorResultSets(statement);
   }
 
@@ -15,10 +15,12 @@
  */
 package org.apache.ibatis.logging.jdbc;
 
+import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
 import java.sql.Array;
 import java.sql.PreparedStatement;
 import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.HashMap;
@@ -33,14 +35,22 @@ import org.apache.ibatis.logging.Log;
 import org.apache.ibatis.reflection.ArrayUtil;
 
 /**
- * Base class for proxies to do logging.
+ * Base class for JDBC wrappers to do logging.
  *
  * @author Clinton Begin
  * @author Eduardo Macarron
  */
 public abstract class BaseJdbcLogger {
 
+  /**
+   * @deprecated the loggers override the setters of {@link PreparedStatement} instead of matching method names
+   */
+  @Deprecated
   protected static final Set<String> SET_METHODS;
+  /**
+   * @deprecated the loggers override the execute methods instead of matching method names
+   */
+  @Deprecated
   protected static final Set<String> EXECUTE_METHODS = new HashSet<>();
 
   private final Map<Object, Object> columnMap = new HashMap<>();
@@ -76,6 +86,43 @@ public abstract class BaseJdbcLogger {
     EXECUTE_METHODS.add("addBatch");
   }
 
+  /**
+   * Looks up a JDBC method added after Java 8, the delegates cannot override it while they are compiled for Java 8.
+   *
+   * @return the method, or null if the running JDK does not have it
+   */
+  static Method jdbcMethod(Class<?> type, String name, Class<?>... parameterTypes) {
+    try {
+      return type.getMethod(name, parameterTypes);
+    } catch (NoSuchMethodException e) {
+      return null;
+    }
+  }
+
+  /**
+   * Calls a method found by {@link #jdbcMethod(Class, String, Class...)} on the wrapped JDBC object.
+   */
+  static Object invokeJdbcMethod(Method method, Object target, Object... args) throws SQLException {
+    if (method == null) {
+      throw new SQLFeatureNotSupportedException();
+    }
+    try {
+      return method.invoke(target, args);
+    } catch (InvocationTargetException e) {
+      final Throwable cause = e.getCause();
+      if (cause instanceof SQLException) {
+        throw (SQLException) cause;
+      } else if (cause instanceof RuntimeException) {
+        throw (RuntimeException) cause;
+      } else if (cause instanceof Error) {
+        throw (Error) cause;
+      }
+      throw new SQLException(cause);
+    } catch (IllegalAccessException e) {
+      throw new SQLException(e);
+    }
+  }
+
   protected void setColumn(Object key, Object value) {
     columnMap.put(key, value);
     columnNames.add(key);
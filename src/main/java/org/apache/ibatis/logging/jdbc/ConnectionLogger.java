@@ -18,62 +18,121 @@ package org.apache.ibatis.logging.jdbc;
 import java.lang.reflect.InvocationHandler;
 import java.lang.reflect.Method;
 import java.lang.reflect.Proxy;
+import java.sql.CallableStatement;
 import java.sql.Connection;
 import java.sql.PreparedStatement;
+import java.sql.SQLException;
 import java.sql.Statement;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
 
 import org.apache.ibatis.logging.Log;
 import org.apache.ibatis.reflection.ExceptionUtil;
 
 /**
- * Connection proxy to add logging.
+ * Connection wrapper to add logging.
  *
  * @author Clinton Begin
  * @author Eduardo Macarron
  *
  */
-public final class ConnectionLogger extends BaseJdbcLogger implements InvocationHandler {
+public final class ConnectionLogger extends ConnectionDelegate {
 
-  private final Connection connection;
+  // the Connection methods added after Java 8 (e.g. setShardingKey), which cannot be overridden here
+  private static final Set<Method> UNDECLARED_METHODS = findUndeclaredMethods();
 
-  private ConnectionLogger(Connection conn, Log statementLog, int queryStack) {
-    super(statementLog, queryStack);
-    this.connection = conn;
+  private final long slowThreshold;
+
+  private ConnectionLogger(Connection conn, Log statementLog, int queryStack, long slowThreshold) {
+    super(conn, statementLog, queryStack);
+    this.slowThreshold = slowThreshold;
   }
 
   @Override
-  public Object invoke(Object proxy, Method method, Object[] params)
-      throws Throwable {
-    try {
-      if (Object.class.equals(method.getDeclaringClass())) {
-        return method.invoke(this, params);
-      }
-      if ("prepareStatement".equals(method.getName())) {
-        if (isDebugEnabled()) {
-          debug(" Preparing: " + removeBreakingWhitespace((String) params[0]), true);
-        }
-        PreparedStatement stmt = (PreparedStatement) method.invoke(connection, params);
-        stmt = PreparedStatementLogger.newInstance(stmt, statementLog, queryStack);
-        return stmt;
-      } else if ("prepareCall".equals(method.getName())) {
-        if (isDebugEnabled()) {
-          debug(" Preparing: " + removeBreakingWhitespace((String) params[0]), true);
-        }
-        PreparedStatement stmt = (PreparedStatement) method.invoke(connection, params);
-        stmt = PreparedStatementLogger.newInstance(stmt, statementLog, queryStack);
-        return stmt;
-      } else if ("createStatement".equals(method.getName())) {
-        Statement stmt = (Statement) method.invoke(connection, params);
-        stmt = StatementLogger.newInstance(stmt, statementLog, queryStack);
-        return stmt;
-      } else {
-        return method.invoke(connection, params);
-      }
-    } catch (Throwable t) {
-      throw ExceptionUtil.unwrapThrowable(t);
+  public PreparedStatement prepareStatement(String sql) throws SQLException {
+    logPreparing(sql);
+    return newPreparedStatementLogger(connection.prepareStatement(sql), sql);
+  }
+
+  @Override
+  public PreparedStatement prepareStatement(String sql, int resultSetType, int resultSetConcurrency) throws SQLException {
+    logPreparing(sql);
+    return newPreparedStatementLogger(connection.prepareStatement(sql, resultSetType, resultSetConcurrency), sql);
+  }
+
+  @Override
+  public PreparedStatement prepareStatement(String sql, int resultSetType, int resultSetConcurrency,
+      int resultSetHoldability) throws SQLException {
+    logPreparing(sql);
+    return newPreparedStatementLogger(connection.prepareStatement(sql, resultSetType, resultSetConcurrency, resultSetHoldability), sql);
+  }
+
+  @Override
+  public PreparedStatement prepareStatement(String sql, int autoGeneratedKeys) throws SQLException {
+    logPreparing(sql);
+    return newPreparedStatementLogger(connection.prepareStatement(sql, autoGeneratedKeys), sql);
+  }
+
+  @Override
+  public PreparedStatement prepareStatement(String sql, int[] columnIndexes) throws SQLException {
+    logPreparing(sql);
+    return newPreparedStatementLogger(connection.prepareStatement(sql, columnIndexes), sql);
+  }
+
+  @Override
+  public PreparedStatement prepareStatement(String sql, String[] columnNames) throws SQLException {
+    logPreparing(sql);
+    return newPreparedStatementLogger(connection.prepareStatement(sql, columnNames), sql);
+  }
+
+  @Override
+  public CallableStatement prepareCall(String sql) throws SQLException {
+    logPreparing(sql);
+    return newPreparedStatementLogger(connection.prepareCall(sql), sql);
+  }
+
+  @Override
+  public CallableStatement prepareCall(String sql, int resultSetType, int resultSetConcurrency) throws SQLException {
+    logPreparing(sql);
+    return newPreparedStatementLogger(connection.prepareCall(sql, resultSetType, resultSetConcurrency), sql);
+  }
+
+  @Override
+  public CallableStatement prepareCall(String sql, int resultSetType, int resultSetConcurrency,
+      int resultSetHoldability) throws SQLException {
+    logPreparing(sql);
+    return newPreparedStatementLogger(connection.prepareCall(sql, resultSetType, resultSetConcurrency, resultSetHoldability), sql);
+  }
+
+  @Override
+  public Statement createStatement() throws SQLException {
+    return new StatementLogger(connection.createStatement(), statementLog, queryStack, slowThreshold);
+  }
+
+  @Override
+  public Statement createStatement(int resultSetType, int resultSetConcurrency) throws SQLException {
+    return new StatementLogger(connection.createStatement(resultSetType, resultSetConcurrency), statementLog, queryStack, slowThreshold);
+  }
+
+  @Override
+  public Statement createStatement(int resultSetType, int resultSetConcurrency, int resultSetHoldability)
+      throws SQLException {
+    return new StatementLogger(connection.createStatement(resultSetType, resultSetConcurrency, resultSetHoldability),
+        statementLog, queryStack, slowThreshold);
+  }
+
+  private void logPreparing(String sql) {
+    // a slow statement is logged with its SQL once it has been executed
+    if (slowThreshold == 0 && isDebugEnabled()) {
+      debug(" Preparing: " + removeBreakingWhitespace(sql), true);
     }
   }
 
+  private PreparedStatementLogger newPreparedStatementLogger(PreparedStatement stmt, String sql) {
+    return new PreparedStatementLogger(stmt, statementLog, queryStack, sql, slowThreshold);
+  }
+
   /**
    * Creates a logging version of a connection.
    *
@@ -81,9 +140,52 @@ public final class ConnectionLogger extends BaseJdbcLogger implements Invocation
    * @return - the connection with logging
    */
   public static Connection newInstance(Connection conn, Log statementLog, int queryStack) {
-    InvocationHandler handler = new ConnectionLogger(conn, statementLog, queryStack);
-    ClassLoader cl = Connection.class.getClassLoader();
-    return (Connection) Proxy.newProxyInstance(cl, new Class[]{Connection.class}, handler);
+    return newConnection(new ConnectionLogger(conn, statementLog, queryStack, 0));
+  }
+
+  /**
+   * Creates a logging version of a connection that only logs the statements that take at least the given time to
+   * execute, with their SQL, parameters and execution time.
+   *
+   * @param conn - the original connection
+   * @param slowThresholdMillis - the minimum execution time of a logged statement, 0 to log all the statements
+   * @return - the connection with logging
+   * @since 3.5.3
+   */
+  public static Connection newInstance(Connection conn, Log statementLog, int queryStack, long slowThresholdMillis) {
+    return newConnection(new ConnectionLogger(conn, statementLog, queryStack, TimeUnit.MILLISECONDS.toNanos(slowThresholdMillis)));
+  }
+
+  /**
+   * Returns the logger itself, or a proxy that calls the logger and passes the methods it does not declare to the
+   * connection when the JDK has some.
+   */
+  private static Connection newConnection(ConnectionLogger logger) {
+    if (UNDECLARED_METHODS.isEmpty()) {
+      return logger;
+    }
+    InvocationHandler handler = (proxy, method, params) -> {
+      try {
+        return method.invoke(UNDECLARED_METHODS.contains(method) ? logger.connection : logger, params);
+      } catch (Throwable t) {
+        throw ExceptionUtil.unwrapThrowable(t);
+      }
+    };
+    return (Connection) Proxy.newProxyInstance(ConnectionLogger.class.getClassLoader(), new Class[] { Connection.class }, handler);
+  }
+
+  private static Set<Method> findUndeclaredMethods() {
+    Set<Method> methods = new HashSet<>();
+    for (Method method : Connection.class.getMethods()) {
+      try {
+        if (ConnectionLogger.class.getMethod(method.getName(), method.getParameterTypes()).getDeclaringClass().isInterface()) {
+          methods.add(method);
+        }
+      } catch (NoSuchMethodException e) {
+        methods.add(method);
+      }
+    }
+    return methods;
   }
 
   /**
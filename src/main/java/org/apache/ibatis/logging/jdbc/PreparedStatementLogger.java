@@ -15,85 +15,240 @@
  */
 package org.apache.ibatis.logging.jdbc;
 
-import java.lang.reflect.InvocationHandler;
-import java.lang.reflect.Method;
-import java.lang.reflect.Proxy;
-import java.sql.CallableStatement;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.concurrent.TimeUnit;
 
 import org.apache.ibatis.logging.Log;
-import org.apache.ibatis.reflection.ExceptionUtil;
 
 /**
- * PreparedStatement proxy to add logging.
+ * PreparedStatement wrapper to add logging. It is also a CallableStatement.
+ * <p>
+ * The parameters are only recorded when they are set, their description is built when they are logged.
  *
  * @author Clinton Begin
  * @author Eduardo Macarron
  *
  */
-public final class PreparedStatementLogger extends BaseJdbcLogger implements InvocationHandler {
+public final class PreparedStatementLogger extends PreparedStatementDelegate {
 
-  private final PreparedStatement statement;
+  private final String sql;
+  private final long slowThreshold;
 
-  private PreparedStatementLogger(PreparedStatement stmt, Log statementLog, int queryStack) {
-    super(statementLog, queryStack);
-    this.statement = stmt;
+  PreparedStatementLogger(PreparedStatement stmt, Log statementLog, int queryStack, String sql, long slowThreshold) {
+    super(stmt, statementLog, queryStack);
+    this.sql = sql;
+    this.slowThreshold = slowThreshold;
   }
 
   @Override
-  public Object invoke(Object proxy, Method method, Object[] params) throws Throwable {
+  public ResultSet executeQuery() throws SQLException {
+    long start = beforeExecute();
     try {
-      if (Object.class.equals(method.getDeclaringClass())) {
-        return method.invoke(this, params);
+      return newResultSetLogger(statement.executeQuery());
+    } finally {
+      afterExecute(start, true);
+    }
+  }
+
+  @Override
+  public int executeUpdate() throws SQLException {
+    long start = beforeExecute();
+    try {
+      return statement.executeUpdate();
+    } finally {
+      afterExecute(start, true);
+    }
+  }
+
+  @Override
+  public boolean execute() throws SQLException {
+    long start = beforeExecute();
+    try {
+      return statement.execute();
+    } finally {
+      afterExecute(start, true);
+    }
+  }
+
+  @Override
+  public void addBatch() throws SQLException {
+    long start = beforeExecute();
+    try {
+      statement.addBatch();
+    } finally {
+      afterExecute(start, true);
+    }
+  }
+
+  @Override
+  public ResultSet executeQuery(String sql) throws SQLException {
+    long start = beforeExecute();
+    try {
+      return newResultSetLogger(statement.executeQuery(sql));
+    } finally {
+      afterExecute(start, true);
+    }
+  }
+
+  @Override
+  public int executeUpdate(String sql) throws SQLException {
+    long start = beforeExecute();
+    try {
+      return statement.executeUpdate(sql);
+    } finally {
+      afterExecute(start, true);
+    }
+  }
+
+  @Override
+  public int executeUpdate(String sql, int autoGeneratedKeys) throws SQLException {
+    long start = beforeExecute();
+    try {
+      return statement.executeUpdate(sql, autoGeneratedKeys);
+    } finally {
+      afterExecute(start, true);
+    }
+  }
+
+  @Override
+  public int executeUpdate(String sql, int[] columnIndexes) throws SQLException {
+    long start = beforeExecute();
+    try {
+      return statement.executeUpdate(sql, columnIndexes);
+    } finally {
+      afterExecute(start, true);
+    }
+  }
+
+  @Override
+  public int executeUpdate(String sql, String[] columnNames) throws SQLException {
+    long start = beforeExecute();
+    try {
+      return statement.executeUpdate(sql, columnNames);
+    } finally {
+      afterExecute(start, true);
+    }
+  }
+
+  @Override
+  public boolean execute(String sql) throws SQLException {
+    long start = beforeExecute();
+    try {
+      return statement.execute(sql);
+    } finally {
+      afterExecute(start, true);
+    }
+  }
+
+  @Override
+  public boolean execute(String sql, int autoGeneratedKeys) throws SQLException {
+    long start = beforeExecute();
+    try {
+      return statement.execute(sql, autoGeneratedKeys);
+    } finally {
+      afterExecute(start, true);
+    }
+  }
+
+  @Override
+  public boolean execute(String sql, int[] columnIndexes) throws SQLException {
+    long start = beforeExecute();
+    try {
+      return statement.execute(sql, columnIndexes);
+    } finally {
+      afterExecute(start, true);
+    }
+  }
+
+  @Override
+  public boolean execute(String sql, String[] columnNames) throws SQLException {
+    long start = beforeExecute();
+    try {
+      return statement.execute(sql, columnNames);
+    } finally {
+      afterExecute(start, true);
+    }
+  }
+
+  @Override
+  public void addBatch(String sql) throws SQLException {
+    long start = beforeExecute();
+    try {
+      statement.addBatch(sql);
+    } finally {
+      afterExecute(start, true);
+    }
+  }
+
+  @Override
+  public int[] executeBatch() throws SQLException {
+    if (slowThreshold == 0) {
+      return statement.executeBatch();
+    }
+    long start = System.nanoTime();
+    try {
+      return statement.executeBatch();
+    } finally {
+      afterExecute(start, false);
+    }
+  }
+
+  @Override
+  public ResultSet getResultSet() throws SQLException {
+    return newResultSetLogger(statement.getResultSet());
+  }
+
+  @Override
+  public int getUpdateCount() throws SQLException {
+    int updateCount = statement.getUpdateCount();
+    if (updateCount != -1 && slowThreshold == 0) {
+      debug("   Updates: " + updateCount, false);
+    }
+    return updateCount;
+  }
+
+  private long beforeExecute() {
+    if (slowThreshold == 0) {
+      if (isDebugEnabled()) {
+        debug("Parameters: " + getParameterValueString(), true);
       }
-      if (EXECUTE_METHODS.contains(method.getName())) {
-        if (isDebugEnabled()) {
+      clearColumnInfo();
+      return 0;
+    }
+    return System.nanoTime();
+  }
+
+  private void afterExecute(long start, boolean parameters) {
+    if (slowThreshold > 0) {
+      long elapsed = System.nanoTime() - start;
+      if (elapsed >= slowThreshold && isDebugEnabled()) {
+        debug(" Preparing: " + removeBreakingWhitespace(sql), true);
+        if (parameters) {
           debug("Parameters: " + getParameterValueString(), true);
         }
-        clearColumnInfo();
-        if ("executeQuery".equals(method.getName())) {
-          ResultSet rs = (ResultSet) method.invoke(statement, params);
-          return rs == null ? null : ResultSetLogger.newInstance(rs, statementLog, queryStack);
-        } else {
-          return method.invoke(statement, params);
-        }
-      } else if (SET_METHODS.contains(method.getName())) {
-        if ("setNull".equals(method.getName())) {
-          setColumn(params[0], null);
-        } else {
-          setColumn(params[0], params[1]);
-        }
-        return method.invoke(statement, params);
-      } else if ("getResultSet".equals(method.getName())) {
-        ResultSet rs = (ResultSet) method.invoke(statement, params);
-        return rs == null ? null : ResultSetLogger.newInstance(rs, statementLog, queryStack);
-      } else if ("getUpdateCount".equals(method.getName())) {
-        int updateCount = (Integer) method.invoke(statement, params);
-        if (updateCount != -1) {
-          debug("   Updates: " + updateCount, false);
-        }
-        return updateCount;
-      } else {
-        return method.invoke(statement, params);
+        debug("   Elapsed: " + TimeUnit.NANOSECONDS.toMillis(elapsed) + " ms", false);
       }
-    } catch (Throwable t) {
-      throw ExceptionUtil.unwrapThrowable(t);
+      clearColumnInfo();
     }
   }
 
+  private ResultSet newResultSetLogger(ResultSet rs) {
+    // the rows of the statements logged when they are slow are not logged
+    return rs == null || slowThreshold > 0 ? rs : ResultSetLogger.newInstance(rs, statementLog, queryStack);
+  }
+
   /**
    * Creates a logging version of a PreparedStatement.
    *
    * @param stmt - the statement
    * @param statementLog - the statement log
    * @param queryStack - the query stack
-   * @return - the proxy
+   * @return - the statement with logging
    */
   public static PreparedStatement newInstance(PreparedStatement stmt, Log statementLog, int queryStack) {
-    InvocationHandler handler = new PreparedStatementLogger(stmt, statementLog, queryStack);
-    ClassLoader cl = PreparedStatement.class.getClassLoader();
-    return (PreparedStatement) Proxy.newProxyInstance(cl, new Class[]{PreparedStatement.class, CallableStatement.class}, handler);
+    return new PreparedStatementLogger(stmt, statementLog, queryStack, null, 0);
   }
 
   /**
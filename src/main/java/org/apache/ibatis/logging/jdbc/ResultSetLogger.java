@@ -15,9 +15,6 @@
  */
 package org.apache.ibatis.logging.jdbc;
 
-import java.lang.reflect.InvocationHandler;
-import java.lang.reflect.Method;
-import java.lang.reflect.Proxy;
 import java.sql.ResultSet;
 import java.sql.ResultSetMetaData;
 import java.sql.SQLException;
@@ -27,21 +24,19 @@ import java.util.Set;
 import java.util.StringJoiner;
 
 import org.apache.ibatis.logging.Log;
-import org.apache.ibatis.reflection.ExceptionUtil;
 
 /**
- * ResultSet proxy to add logging.
+ * ResultSet wrapper to add logging.
  *
  * @author Clinton Begin
  * @author Eduardo Macarron
  *
  */
-public final class ResultSetLogger extends BaseJdbcLogger implements InvocationHandler {
+public final class ResultSetLogger extends ResultSetDelegate {
 
   private static final Set<Integer> BLOB_TYPES = new HashSet<>();
   private boolean first = true;
   private int rows;
-  private final ResultSet rs;
   private final Set<Integer> blobColumns = new HashSet<>();
 
   static {
@@ -56,38 +51,27 @@ public final class ResultSetLogger extends BaseJdbcLogger implements InvocationH
   }
 
   private ResultSetLogger(ResultSet rs, Log statementLog, int queryStack) {
-    super(statementLog, queryStack);
-    this.rs = rs;
+    super(rs, statementLog, queryStack);
   }
 
   @Override
-  public Object invoke(Object proxy, Method method, Object[] params) throws Throwable {
-    try {
-      if (Object.class.equals(method.getDeclaringClass())) {
-        return method.invoke(this, params);
-      }
-      Object o = method.invoke(rs, params);
-      if ("next".equals(method.getName())) {
-        if ((Boolean) o) {
-          rows++;
-          if (isTraceEnabled()) {
-            ResultSetMetaData rsmd = rs.getMetaData();
-            final int columnCount = rsmd.getColumnCount();
-            if (first) {
-              first = false;
-              printColumnHeaders(rsmd, columnCount);
-            }
-            printColumnValues(columnCount);
-          }
-        } else {
-          debug("     Total: " + rows, false);
+  public boolean next() throws SQLException {
+    boolean next = rs.next();
+    if (next) {
+      rows++;
+      if (isTraceEnabled()) {
+        ResultSetMetaData rsmd = rs.getMetaData();
+        final int columnCount = rsmd.getColumnCount();
+        if (first) {
+          first = false;
+          printColumnHeaders(rsmd, columnCount);
         }
+        printColumnValues(columnCount);
       }
-      clearColumnInfo();
-      return o;
-    } catch (Throwable t) {
-      throw ExceptionUtil.unwrapThrowable(t);
+    } else {
+      debug("     Total: " + rows, false);
     }
+    return next;
   }
 
   private void printColumnHeaders(ResultSetMetaData rsmd, int columnCount) throws SQLException {
@@ -121,13 +105,11 @@ public final class ResultSetLogger extends BaseJdbcLogger implements InvocationH
   /**
    * Creates a logging version of a ResultSet.
    *
-   * @param rs - the ResultSet to proxy
+   * @param rs - the ResultSet to wrap
    * @return - the ResultSet with logging
    */
   public static ResultSet newInstance(ResultSet rs, Log statementLog, int queryStack) {
-    InvocationHandler handler = new ResultSetLogger(rs, statementLog, queryStack);
-    ClassLoader cl = ResultSet.class.getClassLoader();
-    return (ResultSet) Proxy.newProxyInstance(cl, new Class[]{ResultSet.class}, handler);
+    return new ResultSetLogger(rs, statementLog, queryStack);
   }
 
   /**
@@ -15,68 +15,165 @@
  */
 package org.apache.ibatis.logging.jdbc;
 
-import java.lang.reflect.InvocationHandler;
-import java.lang.reflect.Method;
-import java.lang.reflect.Proxy;
 import java.sql.ResultSet;
+import java.sql.SQLException;
 import java.sql.Statement;
+import java.util.concurrent.TimeUnit;
 
 import org.apache.ibatis.logging.Log;
-import org.apache.ibatis.reflection.ExceptionUtil;
 
 /**
- * Statement proxy to add logging.
+ * Statement wrapper to add logging.
  *
  * @author Clinton Begin
  * @author Eduardo Macarron
  *
  */
-public final class StatementLogger extends BaseJdbcLogger implements InvocationHandler {
+public final class StatementLogger extends StatementDelegate {
 
-  private final Statement statement;
+  private final long slowThreshold;
 
-  private StatementLogger(Statement stmt, Log statementLog, int queryStack) {
-    super(statementLog, queryStack);
-    this.statement = stmt;
+  StatementLogger(Statement stmt, Log statementLog, int queryStack, long slowThreshold) {
+    super(stmt, statementLog, queryStack);
+    this.slowThreshold = slowThreshold;
   }
 
   @Override
-  public Object invoke(Object proxy, Method method, Object[] params) throws Throwable {
+  public ResultSet executeQuery(String sql) throws SQLException {
+    long start = beforeExecute(sql);
     try {
-      if (Object.class.equals(method.getDeclaringClass())) {
-        return method.invoke(this, params);
+      return newResultSetLogger(statement.executeQuery(sql));
+    } finally {
+      afterExecute(sql, start);
+    }
+  }
+
+  @Override
+  public int executeUpdate(String sql) throws SQLException {
+    long start = beforeExecute(sql);
+    try {
+      return statement.executeUpdate(sql);
+    } finally {
+      afterExecute(sql, start);
+    }
+  }
+
+  @Override
+  public int executeUpdate(String sql, int autoGeneratedKeys) throws SQLException {
+    long start = beforeExecute(sql);
+    try {
+      return statement.executeUpdate(sql, autoGeneratedKeys);
+    } finally {
+      afterExecute(sql, start);
+    }
+  }
+
+  @Override
+  public int executeUpdate(String sql, int[] columnIndexes) throws SQLException {
+    long start = beforeExecute(sql);
+    try {
+      return statement.executeUpdate(sql, columnIndexes);
+    } finally {
+      afterExecute(sql, start);
+    }
+  }
+
+  @Override
+  public int executeUpdate(String sql, String[] columnNames) throws SQLException {
+    long start = beforeExecute(sql);
+    try {
+      return statement.executeUpdate(sql, columnNames);
+    } finally {
+      afterExecute(sql, start);
+    }
+  }
+
+  @Override
+  public boolean execute(String sql) throws SQLException {
+    long start = beforeExecute(sql);
+    try {
+      return statement.execute(sql);
+    } finally {
+      afterExecute(sql, start);
+    }
+  }
+
+  @Override
+  public boolean execute(String sql, int autoGeneratedKeys) throws SQLException {
+    long start = beforeExecute(sql);
+    try {
+      return statement.execute(sql, autoGeneratedKeys);
+    } finally {
+      afterExecute(sql, start);
+    }
+  }
+
+  @Override
+  public boolean execute(String sql, int[] columnIndexes) throws SQLException {
+    long start = beforeExecute(sql);
+    try {
+      return statement.execute(sql, columnIndexes);
+    } finally {
+      afterExecute(sql, start);
+    }
+  }
+
+  @Override
+  public boolean execute(String sql, String[] columnNames) throws SQLException {
+    long start = beforeExecute(sql);
+    try {
+      return statement.execute(sql, columnNames);
+    } finally {
+      afterExecute(sql, start);
+    }
+  }
+
+  @Override
+  public void addBatch(String sql) throws SQLException {
+    if (slowThreshold == 0 && isDebugEnabled()) {
+      debug(" Executing: " + removeBreakingWhitespace(sql), true);
+    }
+    statement.addBatch(sql);
+  }
+
+  @Override
+  public ResultSet getResultSet() throws SQLException {
+    return newResultSetLogger(statement.getResultSet());
+  }
+
+  private long beforeExecute(String sql) {
+    if (slowThreshold == 0) {
+      if (isDebugEnabled()) {
+        debug(" Executing: " + removeBreakingWhitespace(sql), true);
       }
-      if (EXECUTE_METHODS.contains(method.getName())) {
-        if (isDebugEnabled()) {
-          debug(" Executing: " + removeBreakingWhitespace((String) params[0]), true);
-        }
-        if ("executeQuery".equals(method.getName())) {
-          ResultSet rs = (ResultSet) method.invoke(statement, params);
-          return rs == null ? null : ResultSetLogger.newInstance(rs, statementLog, queryStack);
-        } else {
-          return method.invoke(statement, params);
-        }
-      } else if ("getResultSet".equals(method.getName())) {
-        ResultSet rs = (ResultSet) method.invoke(statement, params);
-        return rs == null ? null : ResultSetLogger.newInstance(rs, statementLog, queryStack);
-      } else {
-        return method.invoke(statement, params);
+      return 0;
+    }
+    return System.nanoTime();
+  }
+
+  private void afterExecute(String sql, long start) {
+    if (slowThreshold > 0) {
+      long elapsed = System.nanoTime() - start;
+      if (elapsed >= slowThreshold && isDebugEnabled()) {
+        debug(" Executing: " + removeBreakingWhitespace(sql), true);
+        debug("   Elapsed: " + TimeUnit.NANOSECONDS.toMillis(elapsed) + " ms", false);
       }
-    } catch (Throwable t) {
-      throw ExceptionUtil.unwrapThrowable(t);
     }
   }
 
+  private ResultSet newResultSetLogger(ResultSet rs) {
+    // the rows of the statements logged when they are slow are not logged
+    return rs == null || slowThreshold > 0 ? rs : ResultSetLogger.newInstance(rs, statementLog, queryStack);
+  }
+
   /**
    * Creates a logging version of a Statement.
    *
    * @param stmt - the statement
-   * @return - the proxy
+   * @return - the statement with logging
    */
   public static Statement newInstance(Statement stmt, Log statementLog, int queryStack) {
-    InvocationHandler handler = new StatementLogger(stmt, statementLog, queryStack);
-    ClassLoader cl = Statement.class.getClassLoader();
-    return (Statement) Proxy.newProxyInstance(cl, new Class[]{Statement.class}, handler);
+    return new StatementLogger(stmt, statementLog, queryStack, 0);
   }
 
   /**
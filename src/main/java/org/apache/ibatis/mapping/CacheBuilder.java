@@ -24,12 +24,14 @@ import java.util.Properties;
 import org.apache.ibatis.builder.InitializingObject;
 import org.apache.ibatis.cache.Cache;
 import org.apache.ibatis.cache.CacheException;
+import org.apache.ibatis.cache.CacheValueCopier;
 import org.apache.ibatis.cache.decorators.BlockingCache;
 import org.apache.ibatis.cache.decorators.LoggingCache;
 import org.apache.ibatis.cache.decorators.LruCache;
 import org.apache.ibatis.cache.decorators.ScheduledCache;
 import org.apache.ibatis.cache.decorators.SerializedCache;
 import org.apache.ibatis.cache.decorators.SynchronizedCache;
+import org.apache.ibatis.cache.impl.ConcurrentLruCache;
 import org.apache.ibatis.cache.impl.PerpetualCache;
 import org.apache.ibatis.reflection.MetaObject;
 import org.apache.ibatis.reflection.SystemMetaObject;
@@ -44,6 +46,7 @@ public class CacheBuilder {
   private Integer size;
   private Long clearInterval;
   private boolean readWrite;
+  private CacheValueCopier copier;
   private Properties properties;
   private boolean blocking;
 
@@ -79,6 +82,16 @@ public class CacheBuilder {
     return this;
   }
 
+  /**
+   * Sets the copier of a read-write cache, the default copier serializes the values.
+   *
+   * @since 3.5.3
+   */
+  public CacheBuilder copier(CacheValueCopier copier) {
+    this.copier = copier;
+    return this;
+  }
+
   public CacheBuilder blocking(boolean blocking) {
     this.blocking = blocking;
     return this;
@@ -100,6 +113,9 @@ public class CacheBuilder {
         setCacheProperties(cache);
       }
       cache = setStandardDecorators(cache);
+    } else if (ConcurrentLruCache.class.equals(cache.getClass())) {
+      // evicts its entries itself, an eviction decorator would need a lock
+      cache = setStandardDecorators(cache);
     } else if (!LoggingCache.class.isAssignableFrom(cache.getClass())) {
       cache = new LoggingCache(cache);
     }
@@ -126,10 +142,12 @@ public class CacheBuilder {
         ((ScheduledCache) cache).setClearInterval(clearInterval);
       }
       if (readWrite) {
-        cache = new SerializedCache(cache);
+        cache = copier == null ? new SerializedCache(cache) : new SerializedCache(cache, copier);
       }
       cache = new LoggingCache(cache);
-      cache = new SynchronizedCache(cache);
+      if (!isThreadSafe()) {
+        cache = new SynchronizedCache(cache);
+      }
       if (blocking) {
         cache = new BlockingCache(cache);
       }
@@ -139,6 +157,10 @@ public class CacheBuilder {
     }
   }
 
+  private boolean isThreadSafe() {
+    return ConcurrentLruCache.class.equals(implementation);
+  }
+
   private void setCacheProperties(Cache cache) {
     if (properties != null) {
       MetaObject metaCache = SystemMetaObject.forObject(cache);
@@ -17,6 +17,7 @@ package org.apache.ibatis.mapping;
 
 import javax.sql.DataSource;
 
+import org.apache.ibatis.datasource.WarmableDataSource;
 import org.apache.ibatis.transaction.TransactionFactory;
 
 /**
@@ -83,4 +84,16 @@ public final class Environment {
     return this.dataSource;
   }
 
+  /**
+   * Warms up the data source if it supports it, e.g. opens the minimum idle connections of a pool.
+   *
+   * @since 3.5.3
+   * @see WarmableDataSource
+   */
+  public void warmUp() {
+    if (dataSource instanceof WarmableDataSource) {
+      ((WarmableDataSource) dataSource).warmUp();
+    }
+  }
+
 }
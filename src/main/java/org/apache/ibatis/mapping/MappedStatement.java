@@ -19,13 +19,18 @@ import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 
+import org.apache.ibatis.builder.StaticSqlSource;
 import org.apache.ibatis.cache.Cache;
+import org.apache.ibatis.cache.CacheKey;
 import org.apache.ibatis.executor.keygen.Jdbc3KeyGenerator;
 import org.apache.ibatis.executor.keygen.KeyGenerator;
 import org.apache.ibatis.executor.keygen.NoKeyGenerator;
 import org.apache.ibatis.logging.Log;
 import org.apache.ibatis.logging.LogFactory;
+import org.apache.ibatis.metrics.MetricsCollector;
+import org.apache.ibatis.metrics.StatementPhase;
 import org.apache.ibatis.scripting.LanguageDriver;
+import org.apache.ibatis.scripting.defaults.RawSqlSource;
 import org.apache.ibatis.session.Configuration;
 
 /**
@@ -47,6 +52,7 @@ public final class MappedStatement {
   private boolean flushCacheRequired;
   private boolean useCache;  //是否使用缓存，默认为true
   private boolean resultOrdered; //结果是否排序
+  private boolean parallelMapping; //是否在线程池中并行映射结果
   private SqlCommandType sqlCommandType; //sql语句的类型，如select、update、delete、insert
   private KeyGenerator keyGenerator;
   private String[] keyProperties;
@@ -56,6 +62,8 @@ public final class MappedStatement {
   private Log statementLog;
   private LanguageDriver lang;
   private String[] resultSets;
+  private String staticSql;
+  private CacheKey cacheKeyPrefix;
 
   MappedStatement() {
     // constructor disabled
@@ -144,6 +152,14 @@ public final class MappedStatement {
       return this;
     }
 
+    /**
+     * @since 3.5.3
+     */
+    public Builder parallelMapping(boolean parallelMapping) {
+      mappedStatement.parallelMapping = parallelMapping;
+      return this;
+    }
+
     public Builder keyGenerator(KeyGenerator keyGenerator) {
       mappedStatement.keyGenerator = keyGenerator;
       return this;
@@ -189,8 +205,20 @@ public final class MappedStatement {
       assert mappedStatement.sqlSource != null;
       assert mappedStatement.lang != null;
       mappedStatement.resultMaps = Collections.unmodifiableList(mappedStatement.resultMaps);
+      mappedStatement.cacheKeyPrefix = createCacheKeyPrefix();
       return mappedStatement;
     }
+
+    private CacheKey createCacheKeyPrefix() {
+      CacheKey prefix = new CacheKey();
+      prefix.update(mappedStatement.id);
+      SqlSource sqlSource = mappedStatement.sqlSource;
+      if (sqlSource instanceof RawSqlSource || sqlSource instanceof StaticSqlSource) {
+        mappedStatement.staticSql = sqlSource.getBoundSql(null).getSql();
+        prefix.update(mappedStatement.staticSql);
+      }
+      return prefix;
+    }
   }
 
   public KeyGenerator getKeyGenerator() {
@@ -233,6 +261,26 @@ public final class MappedStatement {
     return resultSetType;
   }
 
+  /**
+   * Gets the SQL of this statement if it never changes, i.e. every bound SQL returns this very instance.
+   *
+   * @return the static SQL, or null if the SQL is built for each execution
+   * @since 3.5.3
+   */
+  public String getStaticSql() {
+    return staticSql;
+  }
+
+  /**
+   * Gets the leading updates shared by all cache keys of this statement: the id and the static SQL, if any.
+   *
+   * @return the cache key prefix, to be used with {@link CacheKey#CacheKey(CacheKey, int)}
+   * @since 3.5.3
+   */
+  public CacheKey getCacheKeyPrefix() {
+    return cacheKeyPrefix;
+  }
+
   public SqlSource getSqlSource() {
     return sqlSource;
   }
@@ -261,6 +309,16 @@ public final class MappedStatement {
     return resultOrdered;
   }
 
+  /**
+   * Whether the rows of this select are mapped to objects on the fork-join pool while the following rows are
+   * fetched. It only applies to result maps without nested result maps, nested selects or discriminator.
+   *
+   * @since 3.5.3
+   */
+  public boolean isParallelMapping() {
+    return parallelMapping;
+  }
+
   public String getDatabaseId() {
     return databaseId;
   }
@@ -294,6 +352,8 @@ public final class MappedStatement {
   }
 
   public BoundSql getBoundSql(Object parameterObject) {
+    final MetricsCollector metrics = configuration.getMetricsCollector();
+    final long start = metrics == null ? 0L : System.nanoTime();
     BoundSql boundSql = sqlSource.getBoundSql(parameterObject);
     List<ParameterMapping> parameterMappings = boundSql.getParameterMappings();
     if (parameterMappings == null || parameterMappings.isEmpty()) {
@@ -311,6 +371,9 @@ public final class MappedStatement {
       }
     }
 
+    if (metrics != null) {
+      metrics.recordPhase(id, StatementPhase.BOUND_SQL, System.nanoTime() - start);
+    }
     return boundSql;
   }
 
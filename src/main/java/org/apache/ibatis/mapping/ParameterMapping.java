@@ -21,6 +21,7 @@ import org.apache.ibatis.session.Configuration;
 import org.apache.ibatis.type.JdbcType;
 import org.apache.ibatis.type.TypeHandler;
 import org.apache.ibatis.type.TypeHandlerRegistry;
+import org.apache.ibatis.type.UnknownTypeHandler;
 
 /**
  * @author Clinton Begin
@@ -38,6 +39,8 @@ public class ParameterMapping {
   private String resultMapId;
   private String jdbcTypeName;
   private String expression;
+  // the handler an UnknownTypeHandler delegates to for the class of the last value
+  private volatile ResolvedTypeHandler resolvedTypeHandler;
 
   private ParameterMapping() {
   }
@@ -175,6 +178,26 @@ public class ParameterMapping {
     return typeHandler;
   }
 
+  /**
+   * Used when setting a parameter value to the PreparedStatement. When the type handler is the
+   * {@link UnknownTypeHandler}, returns the handler it would delegate to for the class of the value, so that it is
+   * resolved once while the values have the same class instead of once per value.
+   *
+   * @since 3.5.3
+   */
+  public TypeHandler<?> getTypeHandler(Object value) {
+    if (value == null || typeHandler == null || typeHandler.getClass() != UnknownTypeHandler.class) {
+      return typeHandler;
+    }
+    ResolvedTypeHandler resolved = resolvedTypeHandler;
+    if (resolved == null || resolved.javaType != value.getClass()) {
+      final TypeHandler<?> handler = ((UnknownTypeHandler) typeHandler).resolveTypeHandler(value.getClass(), jdbcType);
+      resolved = new ResolvedTypeHandler(value.getClass(), handler);
+      resolvedTypeHandler = resolved;
+    }
+    return resolved.typeHandler;
+  }
+
   /**
    * Used for handling output of callable statements.
    * @return
@@ -215,4 +238,14 @@ public class ParameterMapping {
     sb.append('}');
     return sb.toString();
   }
+
+  private static class ResolvedTypeHandler {
+    private final Class<?> javaType;
+    private final TypeHandler<?> typeHandler;
+
+    ResolvedTypeHandler(Class<?> javaType, TypeHandler<?> typeHandler) {
+      this.javaType = javaType;
+      this.typeHandler = typeHandler;
+    }
+  }
 }
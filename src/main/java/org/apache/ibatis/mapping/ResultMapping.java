@@ -45,6 +45,7 @@ public class ResultMapping {
   private String resultSet;
   private String foreignColumn;
   private boolean lazy;
+  private int batchSize;
 
   ResultMapping() {
   }
@@ -132,6 +133,11 @@ public class ResultMapping {
       return this;
     }
 
+    public Builder batchSize(int batchSize) {
+      resultMapping.batchSize = batchSize;
+      return this;
+    }
+
     public ResultMapping build() {
       // lock down collections
       resultMapping.flags = Collections.unmodifiableList(resultMapping.flags);
@@ -167,6 +173,9 @@ public class ResultMapping {
           throw new IllegalStateException("There should be the same number of columns and foreignColumns in property " + resultMapping.property);
         }
       }
+      if (resultMapping.batchSize > 0 && (resultMapping.nestedQueryId == null || !resultMapping.composites.isEmpty())) {
+        throw new IllegalStateException("A batch size requires a nested select with a single key column in property " + resultMapping.property);
+      }
     }
 
     private void resolveTypeHandler() {
@@ -251,6 +260,15 @@ public class ResultMapping {
     this.lazy = lazy;
   }
 
+  /**
+   * Gets the number of keys loaded by a single execution of the nested select, 0 to execute it for each key.
+   *
+   * @since 3.5.3
+   */
+  public int getBatchSize() {
+    return batchSize;
+  }
+
   @Override
   public boolean equals(Object o) {
     if (this == o) {
@@ -294,6 +312,7 @@ public class ResultMapping {
     sb.append(", resultSet='").append(resultSet).append('\'');
     sb.append(", foreignColumn='").append(foreignColumn).append('\'');
     sb.append(", lazy=").append(lazy);
+    sb.append(", batchSize=").append(batchSize);
     sb.append('}');
     return sb.toString();
   }
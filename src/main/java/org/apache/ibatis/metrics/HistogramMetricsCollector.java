@@ -0,0 +1,145 @@
+/**
+ *    Copyright 2009-2019 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.metrics;
+
+import java.util.Collections;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Keeps the metrics in memory: a {@link LatencyHistogram} per statement and phase, the number of mapped result
+ * objects, the peak of retained nested result objects and the cache hits and misses per statement, and a histogram of the pool wait times.
+ *
+ * @since 3.5.3
+ */
+public class HistogramMetricsCollector implements MetricsCollector {
+
+  private final ConcurrentMap<String, StatementMetrics> statements = new ConcurrentHashMap<>();
+  private volatile LatencyHistogram poolWait = new LatencyHistogram();
+
+  @Override
+  public void recordPhase(String statementId, StatementPhase phase, long nanos) {
+    metricsOf(statementId).histogramOf(phase).record(nanos);
+  }
+
+  @Override
+  public void recordRows(String statementId, int rows) {
+    metricsOf(statementId).rows.add(rows);
+  }
+
+  @Override
+  public void recordNestedResultObjects(String statementId, int count) {
+    metricsOf(statementId).peakNestedResultObjects.accumulate(count);
+  }
+
+  @Override
+  public void recordCacheAccess(String statementId, CacheLevel level, boolean hit) {
+    final StatementMetrics metrics = metricsOf(statementId);
+    (hit ? metrics.cacheHits : metrics.cacheMisses)[level.ordinal()].increment();
+  }
+
+  @Override
+  public void recordPoolWait(long nanos) {
+    poolWait.record(nanos);
+  }
+
+  /**
+   * Returns the ids of the statements with recorded metrics.
+   */
+  public Set<String> getStatementIds() {
+    return Collections.unmodifiableSet(statements.keySet());
+  }
+
+  /**
+   * Returns the latencies of a phase of a statement, or {@code null} when none was recorded.
+   */
+  public LatencyHistogram getHistogram(String statementId, StatementPhase phase) {
+    final StatementMetrics metrics = statements.get(statementId);
+    return metrics == null ? null : metrics.histograms.get(phase.ordinal());
+  }
+
+  public long getRows(String statementId) {
+    final StatementMetrics metrics = statements.get(statementId);
+    return metrics == null ? 0L : metrics.rows.sum();
+  }
+
+  /**
+   * Returns the largest number of objects of nested result maps retained at once by an execution of a statement.
+   */
+  public long getPeakNestedResultObjects(String statementId) {
+    final StatementMetrics metrics = statements.get(statementId);
+    return metrics == null ? 0L : metrics.peakNestedResultObjects.get();
+  }
+
+  public long getCacheHits(String statementId, CacheLevel level) {
+    final StatementMetrics metrics = statements.get(statementId);
+    return metrics == null ? 0L : metrics.cacheHits[level.ordinal()].sum();
+  }
+
+  public long getCacheMisses(String statementId, CacheLevel level) {
+    final StatementMetrics metrics = statements.get(statementId);
+    return metrics == null ? 0L : metrics.cacheMisses[level.ordinal()].sum();
+  }
+
+  public LatencyHistogram getPoolWaitHistogram() {
+    return poolWait;
+  }
+
+  /**
+   * Discards all the recorded metrics.
+   */
+  public void clear() {
+    statements.clear();
+    poolWait = new LatencyHistogram();
+  }
+
+  private StatementMetrics metricsOf(String statementId) {
+    final StatementMetrics metrics = statements.get(statementId);
+    return metrics != null ? metrics : statements.computeIfAbsent(statementId, id -> new StatementMetrics());
+  }
+
+  private static class StatementMetrics {
+    // the histograms are created on first use, most statements go through only some of the phases
+    private final AtomicReferenceArray<LatencyHistogram> histograms = new AtomicReferenceArray<>(StatementPhase.values().length);
+    private final LongAdder rows = new LongAdder();
+    private final LongAccumulator peakNestedResultObjects = new LongAccumulator(Math::max, 0);
+    private final LongAdder[] cacheHits = newAdders(CacheLevel.values().length);
+    private final LongAdder[] cacheMisses = newAdders(CacheLevel.values().length);
+
+    LatencyHistogram histogramOf(StatementPhase phase) {
+      final int index = phase.ordinal();
+      LatencyHistogram histogram = histograms.get(index);
+      if (histogram == null) {
+        histograms.compareAndSet(index, null, new LatencyHistogram());
+        histogram = histograms.get(index);
+      }
+      return histogram;
+    }
+
+    private static LongAdder[] newAdders(int length) {
+      final LongAdder[] adders = new LongAdder[length];
+      for (int i = 0; i < length; i++) {
+        adders[i] = new LongAdder();
+      }
+      return adders;
+    }
+  }
+
+}
@@ -0,0 +1,124 @@
+/**
+ *    Copyright 2009-2019 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.metrics;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A lock-free histogram of latencies in nanoseconds.
+ * <p>
+ * The values are counted in log-linear buckets: values below 32 have their own bucket, larger values are counted in
+ * 16 buckets per power of two, so a percentile is reported with an error below 1/16 of its value while a histogram
+ * holds a fixed number of counters. Values above about 36 minutes are counted as 36 minutes.
+ *
+ * @since 3.5.3
+ */
+public class LatencyHistogram {
+
+  private static final int SUB_BUCKET_BITS = 4;
+  private static final int SUB_BUCKET_COUNT = 1 << SUB_BUCKET_BITS;
+  private static final int EXACT_BUCKET_COUNT = SUB_BUCKET_COUNT * 2;
+  private static final int MAX_EXPONENT = 40;
+  private static final long MAX_VALUE = (1L << (MAX_EXPONENT + 1)) - 1;
+  private static final int BUCKET_COUNT = indexOf(MAX_VALUE) + 1;
+
+  private final AtomicLongArray buckets = new AtomicLongArray(BUCKET_COUNT);
+  private final LongAdder count = new LongAdder();
+  private final LongAdder sum = new LongAdder();
+  private final AtomicLong max = new AtomicLong();
+
+  /**
+   * Records a value.
+   *
+   * @param nanos the value in nanoseconds, negative values are recorded as 0
+   */
+  public void record(long nanos) {
+    final long value = Math.min(Math.max(nanos, 0L), MAX_VALUE);
+    buckets.incrementAndGet(indexOf(value));
+    count.increment();
+    sum.add(value);
+    long current = max.get();
+    while (value > current && !max.compareAndSet(current, value)) {
+      current = max.get();
+    }
+  }
+
+  public long getCount() {
+    return count.sum();
+  }
+
+  public long getSum() {
+    return sum.sum();
+  }
+
+  public long getMax() {
+    return max.get();
+  }
+
+  public double getMean() {
+    final long n = count.sum();
+    return n == 0 ? 0.0 : (double) sum.sum() / n;
+  }
+
+  /**
+   * Returns the value at a percentile, i.e. the highest value of the bucket holding that percentile.
+   *
+   * @param percentile the percentile, between 0 and 100
+   * @return the value in nanoseconds, or 0 when no value was recorded
+   */
+  public long getValueAtPercentile(double percentile) {
+    long total = 0;
+    final long[] counts = new long[BUCKET_COUNT];
+    for (int i = 0; i < BUCKET_COUNT; i++) {
+      counts[i] = buckets.get(i);
+      total += counts[i];
+    }
+    if (total == 0) {
+      return 0L;
+    }
+    final double ratio = Math.min(Math.max(percentile, 0.0), 100.0) / 100.0;
+    final long target = Math.max(1L, (long) Math.ceil(ratio * total));
+    long cumulated = 0;
+    for (int i = 0; i < BUCKET_COUNT; i++) {
+      cumulated += counts[i];
+      if (cumulated >= target) {
+        return Math.min(highestValueOf(i), max.get());
+      }
+    }
+    return max.get();
+  }
+
+  private static int indexOf(long value) {
+    if (value < EXACT_BUCKET_COUNT) {
+      return (int) value;
+    }
+    final int exponent = 63 - Long.numberOfLeadingZeros(value);
+    final int subBucket = (int) (value >>> (exponent - SUB_BUCKET_BITS)) - SUB_BUCKET_COUNT;
+    return EXACT_BUCKET_COUNT + (exponent - SUB_BUCKET_BITS - 1) * SUB_BUCKET_COUNT + subBucket;
+  }
+
+  private static long highestValueOf(int index) {
+    if (index < EXACT_BUCKET_COUNT) {
+      return index;
+    }
+    final int exponent = (index - EXACT_BUCKET_COUNT) / SUB_BUCKET_COUNT + SUB_BUCKET_BITS + 1;
+    final int subBucket = (index - EXACT_BUCKET_COUNT) % SUB_BUCKET_COUNT + SUB_BUCKET_COUNT;
+    return ((long) (subBucket + 1) << (exponent - SUB_BUCKET_BITS)) - 1;
+  }
+
+}
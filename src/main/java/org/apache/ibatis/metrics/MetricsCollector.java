@@ -0,0 +1,82 @@
+/**
+ *    Copyright 2009-2019 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.metrics;
+
+/**
+ * Receives the metrics of the statements executed by MyBatis. Implement it to export the metrics to a monitoring
+ * system, or use {@link HistogramMetricsCollector} to keep them in memory.
+ * <p>
+ * The methods are called by the threads executing the statements, so they must be thread safe and fast. No metrics
+ * are collected at all when no collector is configured.
+ *
+ * @since 3.5.3
+ * @see org.apache.ibatis.session.Configuration#setMetricsCollector(MetricsCollector)
+ */
+public interface MetricsCollector {
+
+  /**
+   * Records the latency of a phase of a statement execution.
+   *
+   * @param statementId the id of the mapped statement
+   * @param phase the phase
+   * @param nanos the elapsed time in nanoseconds
+   */
+  default void recordPhase(String statementId, StatementPhase phase, long nanos) {
+    // NOP
+  }
+
+  /**
+   * Records the number of result objects mapped by a statement execution.
+   *
+   * @param statementId the id of the mapped statement
+   * @param rows the number of result objects
+   */
+  default void recordRows(String statementId, int rows) {
+    // NOP
+  }
+
+  /**
+   * Records the largest number of objects of nested result maps a statement execution retained at once to merge
+   * its joined rows. With {@code resultOrdered=true} only the objects of the current parent row are retained.
+   *
+   * @param statementId the id of the mapped statement
+   * @param count the number of retained objects
+   */
+  default void recordNestedResultObjects(String statementId, int count) {
+    // NOP
+  }
+
+  /**
+   * Records a lookup of the result of a query in a cache.
+   *
+   * @param statementId the id of the mapped statement
+   * @param level the cache level
+   * @param hit whether the result was found in the cache
+   */
+  default void recordCacheAccess(String statementId, CacheLevel level, boolean hit) {
+    // NOP
+  }
+
+  /**
+   * Records the time spent to get a connection from a pooled data source.
+   *
+   * @param nanos the elapsed time in nanoseconds
+   */
+  default void recordPoolWait(long nanos) {
+    // NOP
+  }
+
+}
@@ -0,0 +1,44 @@
+/**
+ *    Copyright 2009-2019 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.metrics;
+
+/**
+ * The phases of a statement execution whose latency is measured.
+ *
+ * @since 3.5.3
+ */
+public enum StatementPhase {
+  /**
+   * Generating the SQL and the parameter mappings, i.e. {@code MappedStatement.getBoundSql()}.
+   */
+  BOUND_SQL,
+  /**
+   * Creating the JDBC statement, i.e. {@code StatementHandler.prepare()}.
+   */
+  PREPARE,
+  /**
+   * Setting the parameters of the JDBC statement, i.e. {@code StatementHandler.parameterize()}.
+   */
+  PARAMETERIZE,
+  /**
+   * Executing the JDBC statement.
+   */
+  EXECUTE,
+  /**
+   * Mapping the result sets, i.e. {@code ResultSetHandler.handleResultSets()}.
+   */
+  MAP_RESULTS
+}
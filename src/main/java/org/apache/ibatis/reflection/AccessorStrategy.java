@@ -0,0 +1,35 @@
+/**
+ *    Copyright 2009-2019 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.reflection;
+
+/**
+ * Specifies how a {@link Reflector} calls the getters and setters of a class.
+ *
+ * @since 3.5.3
+ */
+public enum AccessorStrategy {
+
+  /**
+   * Calls getters and setters with {@link java.lang.reflect.Method#invoke(Object, Object...)}.
+   */
+  REFLECTION,
+
+  /**
+   * Generates a class per getter and setter with the {@link java.lang.invoke.LambdaMetafactory} once
+   * and calls it afterwards. Falls back to reflection for methods that cannot be accessed this way.
+   */
+  LAMBDA
+}
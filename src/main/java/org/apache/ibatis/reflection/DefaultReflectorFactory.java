@@ -20,6 +20,7 @@ import java.util.concurrent.ConcurrentMap;
 
 public class DefaultReflectorFactory implements ReflectorFactory {
   private boolean classCacheEnabled = true;
+  private AccessorStrategy accessorStrategy = AccessorStrategy.REFLECTION;
   private final ConcurrentMap<Class<?>, Reflector> reflectorMap = new ConcurrentHashMap<>();
 
   public DefaultReflectorFactory() {
@@ -35,14 +36,33 @@ public class DefaultReflectorFactory implements ReflectorFactory {
     this.classCacheEnabled = classCacheEnabled;
   }
 
+  /**
+   * @since 3.5.3
+   */
+  public AccessorStrategy getAccessorStrategy() {
+    return accessorStrategy;
+  }
+
+  /**
+   * @since 3.5.3
+   */
+  public void setAccessorStrategy(AccessorStrategy accessorStrategy) {
+    this.accessorStrategy = accessorStrategy;
+    reflectorMap.clear();
+  }
+
   @Override
   public Reflector findForClass(Class<?> type) {
     if (classCacheEnabled) {
       // synchronized (type) removed see issue #461
-      return reflectorMap.computeIfAbsent(type, Reflector::new);
+      return reflectorMap.computeIfAbsent(type, this::newReflector);
     } else {
-      return new Reflector(type);
+      return newReflector(type);
     }
   }
 
+  private Reflector newReflector(Class<?> type) {
+    return new Reflector(type, accessorStrategy);
+  }
+
 }
@@ -15,9 +15,16 @@
  */
 package org.apache.ibatis.scripting.xmltags;
 
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+
 import org.apache.ibatis.builder.SqlSourceBuilder;
 import org.apache.ibatis.mapping.BoundSql;
+import org.apache.ibatis.mapping.ParameterMapping;
 import org.apache.ibatis.mapping.SqlSource;
+import org.apache.ibatis.reflection.MetaObject;
 import org.apache.ibatis.session.Configuration;
 
 /**
@@ -27,6 +34,8 @@ public class DynamicSqlSource implements SqlSource {
 
   private final Configuration configuration;
   private final SqlNode rootSqlNode;
+  // parse results by generated sql, so that the #{} placeholders are not parsed again on every call
+  private final Map<SqlShape, ParsedSql> parsedSqlCache = new ConcurrentHashMap<>();
 
   public DynamicSqlSource(Configuration configuration, SqlNode rootSqlNode) {
     this.configuration = configuration;
@@ -37,12 +46,91 @@ public class DynamicSqlSource implements SqlSource {
   public BoundSql getBoundSql(Object parameterObject) {
     DynamicContext context = new DynamicContext(configuration, parameterObject);
     rootSqlNode.apply(context);
-    SqlSourceBuilder sqlSourceParser = new SqlSourceBuilder(configuration);
     Class<?> parameterType = parameterObject == null ? Object.class : parameterObject.getClass();
-    SqlSource sqlSource = sqlSourceParser.parse(context.getSql(), parameterType, context.getBindings());
-    BoundSql boundSql = sqlSource.getBoundSql(parameterObject);
+    BoundSql boundSql = createBoundSql(context.getSql(), parameterType, context.getBindings(), parameterObject);
     context.getBindings().forEach(boundSql::setAdditionalParameter);
     return boundSql;
   }
 
+  private BoundSql createBoundSql(String originalSql, Class<?> parameterType, Map<String, Object> bindings, Object parameterObject) {
+    int cacheSize = configuration.getDynamicSqlCacheSize();
+    if (cacheSize <= 0) {
+      return parse(originalSql, parameterType, bindings).getBoundSql(parameterObject);
+    }
+    SqlShape shape = new SqlShape(originalSql, parameterType);
+    MetaObject metaBindings = configuration.newMetaObject(bindings);
+    ParsedSql parsedSql = parsedSqlCache.get(shape);
+    if (parsedSql != null && parsedSql.matches(metaBindings)) {
+      return new BoundSql(configuration, parsedSql.sql, parsedSql.parameterMappings, parameterObject);
+    }
+    BoundSql boundSql = parse(originalSql, parameterType, bindings).getBoundSql(parameterObject);
+    if (parsedSql != null || parsedSqlCache.size() < cacheSize) {
+      parsedSqlCache.put(shape, new ParsedSql(boundSql.getSql(), boundSql.getParameterMappings(), metaBindings));
+    }
+    return boundSql;
+  }
+
+  private SqlSource parse(String originalSql, Class<?> parameterType, Map<String, Object> bindings) {
+    SqlSourceBuilder sqlSourceParser = new SqlSourceBuilder(configuration);
+    return sqlSourceParser.parse(originalSql, parameterType, bindings);
+  }
+
+  private static Class<?> bindingType(MetaObject metaBindings, String property) {
+    return property != null && metaBindings.hasGetter(property) ? metaBindings.getGetterType(property) : null;
+  }
+
+  private static final class SqlShape {
+
+    private final String sql;
+    private final Class<?> parameterType;
+
+    SqlShape(String sql, Class<?> parameterType) {
+      this.sql = sql;
+      this.parameterType = parameterType;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      if (this == o) {
+        return true;
+      }
+      if (!(o instanceof SqlShape)) {
+        return false;
+      }
+      SqlShape other = (SqlShape) o;
+      return parameterType.equals(other.parameterType) && sql.equals(other.sql);
+    }
+
+    @Override
+    public int hashCode() {
+      return 31 * sql.hashCode() + parameterType.hashCode();
+    }
+  }
+
+  private static final class ParsedSql {
+
+    private final String sql;
+    private final List<ParameterMapping> parameterMappings;
+    // parameter types resolved from the additional parameters (e.g. <bind> and <foreach>), they vary between calls
+    private final Class<?>[] bindingTypes;
+
+    ParsedSql(String sql, List<ParameterMapping> parameterMappings, MetaObject metaBindings) {
+      this.sql = sql;
+      this.parameterMappings = parameterMappings;
+      this.bindingTypes = new Class<?>[parameterMappings.size()];
+      for (int i = 0; i < bindingTypes.length; i++) {
+        bindingTypes[i] = bindingType(metaBindings, parameterMappings.get(i).getProperty());
+      }
+    }
+
+    boolean matches(MetaObject metaBindings) {
+      for (int i = 0; i < bindingTypes.length; i++) {
+        if (!Objects.equals(bindingTypes[i], bindingType(metaBindings, parameterMappings.get(i).getProperty()))) {
+          return false;
+        }
+      }
+      return true;
+    }
+  }
+
 }
@@ -0,0 +1,142 @@
+/**
+ *    Copyright 2009-2019 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.session;
+
+import java.lang.reflect.Method;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import org.apache.ibatis.cursor.Cursor;
+import org.apache.ibatis.cursor.CursorPublisher;
+
+/**
+ * Runs statements asynchronously, each one in a session of its own.
+ * <p>
+ * Every unit of work opens a new {@link SqlSession} (and therefore takes its own connection from the
+ * {@link javax.sql.DataSource}) on a thread of {@link Configuration#getAsyncExecutor()}. The session is committed
+ * when the work completes normally and rolled back otherwise, then closed before the returned future completes.
+ * As a consequence:
+ * <ul>
+ * <li>the work is not part of the transaction of any other session and does not see its uncommitted changes,</li>
+ * <li>the first level cache lives only as long as the unit of work,</li>
+ * <li>the second level cache is shared as usual and is updated on the commit.</li>
+ * </ul>
+ * Mapper methods returning {@link CompletableFuture} are executed the same way, by the session registered with
+ * {@link Configuration#setAsyncSqlSession(AsyncSqlSession)}. Cursors are published instead of
+ * returned, see {@link #selectCursor(String, Object)}.
+ *
+ * @since 3.5.3
+ */
+public class AsyncSqlSession {
+
+  private final SqlSessionFactory sqlSessionFactory;
+
+  public AsyncSqlSession(SqlSessionFactory sqlSessionFactory) {
+    this.sqlSessionFactory = sqlSessionFactory;
+  }
+
+  public <T> CompletableFuture<T> selectOne(String statement, Object parameter) {
+    return execute(sqlSession -> sqlSession.selectOne(statement, parameter));
+  }
+
+  public <E> CompletableFuture<List<E>> selectList(String statement, Object parameter) {
+    return execute(sqlSession -> sqlSession.selectList(statement, parameter));
+  }
+
+  public CompletableFuture<Integer> insert(String statement, Object parameter) {
+    return execute(sqlSession -> sqlSession.insert(statement, parameter));
+  }
+
+  public CompletableFuture<Integer> update(String statement, Object parameter) {
+    return execute(sqlSession -> sqlSession.update(statement, parameter));
+  }
+
+  public CompletableFuture<Integer> delete(String statement, Object parameter) {
+    return execute(sqlSession -> sqlSession.delete(statement, parameter));
+  }
+
+  /**
+   * Publishes the rows of a cursor, see {@link CursorPublisher}.
+   */
+  public <T> CursorPublisher<T> selectCursor(String statement, Object parameter) {
+    return publish(sqlSession -> sqlSession.selectCursor(statement, parameter));
+  }
+
+  /**
+   * Publishes the rows of the cursor opened by the query, in a new session for every subscription.
+   *
+   * @param query opens the cursor, the session must not be used once the query returns
+   * @return a publisher running the query for each of its subscribers
+   */
+  public <T> CursorPublisher<T> publish(Function<SqlSession, Cursor<T>> query) {
+    return new CursorPublisher<>(sqlSessionFactory, query, getExecutor());
+  }
+
+  /**
+   * Runs a unit of work in a new session.
+   *
+   * @param work the work, it must not use the session after it returns (e.g. through a cursor or a lazy loaded property)
+   * @return the result of the work
+   */
+  public <T> CompletableFuture<T> execute(Function<SqlSession, T> work) {
+    return CompletableFuture.supplyAsync(() -> {
+      try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+        T result = work.apply(sqlSession);
+        sqlSession.commit();
+        return result;
+      }
+    }, getExecutor());
+  }
+
+  private Executor getExecutor() {
+    Executor executor = sqlSessionFactory.getConfiguration().getAsyncExecutor();
+    return executor == null ? DefaultExecutorHolder.INSTANCE : executor;
+  }
+
+  private static final class DefaultExecutorHolder {
+
+    // the default maximum of active connections of the pooled data source, more threads would wait for a connection
+    private static final int MAX_THREADS = 10;
+
+    private static final Executor INSTANCE = createDefaultExecutor();
+
+    private static Executor createDefaultExecutor() {
+      try {
+        // JDBC calls block, so virtual threads are the best fit where available (JDK 21+)
+        Method factory = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+        return (Executor) factory.invoke(null);
+      } catch (ReflectiveOperationException e) {
+        AtomicInteger threadNumber = new AtomicInteger();
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(MAX_THREADS, MAX_THREADS, 60L, TimeUnit.SECONDS,
+            new LinkedBlockingQueue<>(), runnable -> {
+              Thread thread = new Thread(runnable, "mybatis-async-" + threadNumber.incrementAndGet());
+              thread.setDaemon(true);
+              return thread;
+            });
+        executor.allowCoreThreadTimeOut(true);
+        return executor;
+      }
+    }
+  }
+
+}
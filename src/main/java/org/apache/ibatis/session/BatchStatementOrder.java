@@ -0,0 +1,35 @@
+/**
+ *    Copyright 2009-2019 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.session;
+
+/**
+ * How the batch executor groups the statements of a batch.
+ *
+ * @since 3.5.3
+ */
+public enum BatchStatementOrder {
+  /**
+   * A statement is reused only by consecutive updates with the same SQL, and the statements are executed
+   * in the order of the updates.
+   */
+  SEQUENTIAL,
+  /**
+   * One statement is kept open per distinct SQL, and the statements are executed in the order they were first used.
+   * Interleaved updates (parent, child, parent, child) are grouped into two batches, and the rows a foreign key
+   * refers to are inserted first as long as their statement is used first.
+   */
+  FIRST_USE
+}
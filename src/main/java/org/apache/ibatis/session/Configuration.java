@@ -25,6 +25,8 @@ import java.util.List;
 import java.util.Map;
 import java.util.Properties;
 import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.function.BiFunction;
 
 import org.apache.ibatis.binding.MapperRegistry;
@@ -34,17 +36,25 @@ import org.apache.ibatis.builder.ResultMapResolver;
 import org.apache.ibatis.builder.annotation.MethodResolver;
 import org.apache.ibatis.builder.xml.XMLStatementBuilder;
 import org.apache.ibatis.cache.Cache;
+import org.apache.ibatis.cache.copier.CloningCopier;
+import org.apache.ibatis.cache.copier.CopyOnWriteCopier;
+import org.apache.ibatis.cache.copier.SerializingCopier;
 import org.apache.ibatis.cache.decorators.FifoCache;
 import org.apache.ibatis.cache.decorators.LruCache;
 import org.apache.ibatis.cache.decorators.SoftCache;
 import org.apache.ibatis.cache.decorators.WeakCache;
+import org.apache.ibatis.cache.impl.ConcurrentLruCache;
+import org.apache.ibatis.cache.impl.OffHeapCache;
 import org.apache.ibatis.cache.impl.PerpetualCache;
 import org.apache.ibatis.datasource.jndi.JndiDataSourceFactory;
+import org.apache.ibatis.datasource.pooled.PooledDataSource;
 import org.apache.ibatis.datasource.pooled.PooledDataSourceFactory;
 import org.apache.ibatis.datasource.unpooled.UnpooledDataSourceFactory;
 import org.apache.ibatis.executor.BatchExecutor;
+import org.apache.ibatis.executor.BatchFlushListener;
 import org.apache.ibatis.executor.CachingExecutor;
 import org.apache.ibatis.executor.Executor;
+import org.apache.ibatis.executor.MultiRowInsert;
 import org.apache.ibatis.executor.ReuseExecutor;
 import org.apache.ibatis.executor.SimpleExecutor;
 import org.apache.ibatis.executor.keygen.KeyGenerator;
@@ -73,9 +83,11 @@ import org.apache.ibatis.mapping.ParameterMap;
 import org.apache.ibatis.mapping.ResultMap;
 import org.apache.ibatis.mapping.ResultSetType;
 import org.apache.ibatis.mapping.VendorDatabaseIdProvider;
+import org.apache.ibatis.metrics.MetricsCollector;
 import org.apache.ibatis.parsing.XNode;
 import org.apache.ibatis.plugin.Interceptor;
 import org.apache.ibatis.plugin.InterceptorChain;
+import org.apache.ibatis.reflection.AccessorStrategy;
 import org.apache.ibatis.reflection.DefaultReflectorFactory;
 import org.apache.ibatis.reflection.MetaObject;
 import org.apache.ibatis.reflection.ReflectorFactory;
@@ -125,6 +137,14 @@ public class Configuration {
   protected boolean returnInstanceForEmptyRow;
   // 指定 MyBatis 增加到日志名称的前缀。
   protected String logPrefix;
+  // 只记录每 N 次执行中的一次语句日志, 1 表示每次都记录
+  protected int statementLogSampling = 1;
+  // 语句日志采样的执行计数
+  protected final AtomicLong statementLogExecutions = new AtomicLong();
+  // 只记录执行时间不少于该毫秒数的语句日志, 0 表示记录所有语句
+  protected int slowStatementLogThreshold;
+  // 收集语句各阶段耗时、映射行数、缓存命中和连接池等待时间的指标收集器, 未指定时不收集任何指标
+  protected MetricsCollector metricsCollector;
   // 指定 MyBatis 所用日志的具体实现，未指定时将自动查找。一般建议指定为slf4j或log4j
   protected Class<? extends Log> logImpl;
   // 指定VFS的实现, VFS是mybatis提供的用于访问AS内资源的一个简便接口
@@ -140,8 +160,22 @@ public class Configuration {
   // 为驱动的结果集设置默认获取数量。
   protected Integer defaultFetchSize;
   protected ResultSetType defaultResultSetType;
+  // 每个动态SQL语句缓存的已解析SQL形态的最大数量, 0 表示不缓存
+  protected int dynamicSqlCacheSize = 64;
   // SIMPLE 就是普通的执行器；REUSE 执行器会重用预处理语句（prepared statements）； BATCH 执行器将重用语句并执行批量更新。
   protected ExecutorType defaultExecutorType = ExecutorType.SIMPLE;
+  // BATCH 执行器的语句分组方式, FIRST_USE 为每条不同的SQL保留一个语句, 按首次使用的顺序执行
+  protected BatchStatementOrder batchStatementOrder = BatchStatementOrder.SEQUENTIAL;
+  // BATCH 执行器累计多少行后自动执行批处理, 0 表示只在提交或 flushStatements 时执行
+  protected int batchFlushSize;
+  // 每次执行批处理后通知的监听器
+  protected BatchFlushListener batchFlushListener;
+  // insertAll 改写成多行 INSERT 时每条语句的最大行数, 1 表示逐行插入
+  protected int multiRowInsertMaxRows = 64;
+  // 异步执行语句使用的线程池, 未设置时优先使用虚拟线程
+  protected ExecutorService asyncExecutor;
+  // 异步执行的 Mapper 方法使用的会话, 未设置时按 DefaultSqlSessionFactory 的方式打开会话
+  protected AsyncSqlSession asyncSqlSession;
   // 指定 MyBatis 应如何自动映射列到字段或属性。 NONE 表示取消自动映射；PARTIAL 只会自动映射没有定义嵌套结果集映射的结果集。 FULL 会自动映射任意复杂的结果集（无论是否嵌套）。
   protected AutoMappingBehavior autoMappingBehavior = AutoMappingBehavior.PARTIAL;
   // 指定发现自动映射目标未知列（或者未知属性类型）的行为。这个值应该设置为WARNING比较合适
@@ -150,6 +184,8 @@ public class Configuration {
   protected Properties variables = new Properties();
   // 默认的反射器工厂,用于操作属性、构造器方便
   protected ReflectorFactory reflectorFactory = new DefaultReflectorFactory();
+  // 指定如何调用属性的 getter/setter 方法, LAMBDA 会为每个方法生成一次调用类, 避免反射开销
+  protected AccessorStrategy accessorStrategy = AccessorStrategy.REFLECTION;
   // 对象工厂, 所有的类resultMap类都需要依赖于对象工厂来实例化
   protected ObjectFactory objectFactory = new DefaultObjectFactory();
   // 对象包装器工厂,主要用来在创建非原生对象,比如增加了某些监控或者特殊属性的代理类
@@ -170,6 +206,8 @@ public class Configuration {
   protected Class<?> configurationFactory;
 
   protected final MapperRegistry mapperRegistry = new MapperRegistry(this);
+  // insertAll 使用的多行 INSERT 改写器, 缓存改写后的语句
+  protected final MultiRowInsert multiRowInsert = new MultiRowInsert(this);
   // mybatis插件列表
   protected final InterceptorChain interceptorChain = new InterceptorChain();
   protected final TypeHandlerRegistry typeHandlerRegistry = new TypeHandlerRegistry();
@@ -219,6 +257,12 @@ public class Configuration {
     typeAliasRegistry.registerAlias("LRU", LruCache.class);
     typeAliasRegistry.registerAlias("SOFT", SoftCache.class);
     typeAliasRegistry.registerAlias("WEAK", WeakCache.class);
+    typeAliasRegistry.registerAlias("CONCURRENT_LRU", ConcurrentLruCache.class);
+    typeAliasRegistry.registerAlias("OFF_HEAP", OffHeapCache.class);
+
+    typeAliasRegistry.registerAlias("SERIALIZING", SerializingCopier.class);
+    typeAliasRegistry.registerAlias("CLONING", CloningCopier.class);
+    typeAliasRegistry.registerAlias("COPY_ON_WRITE", CopyOnWriteCopier.class);
 
     typeAliasRegistry.registerAlias("DB_VENDOR", VendorDatabaseIdProvider.class);
 
@@ -248,6 +292,67 @@ public class Configuration {
     this.logPrefix = logPrefix;
   }
 
+  /**
+   * @since 3.5.3
+   */
+  public int getStatementLogSampling() {
+    return statementLogSampling;
+  }
+
+  /**
+   * Sets the sampling of the statement logs: when the log of a statement is enabled only one execution in
+   * {@code statementLogSampling} is logged, 1 means every execution.
+   *
+   * @since 3.5.3
+   */
+  public void setStatementLogSampling(int statementLogSampling) {
+    this.statementLogSampling = statementLogSampling;
+  }
+
+  /**
+   * Counts a statement execution and tells whether its log is sampled according to {@link #getStatementLogSampling()}.
+   *
+   * @since 3.5.3
+   */
+  public boolean isStatementLogSampled() {
+    return statementLogSampling <= 1 || statementLogExecutions.getAndIncrement() % statementLogSampling == 0;
+  }
+
+  /**
+   * @since 3.5.3
+   */
+  public int getSlowStatementLogThreshold() {
+    return slowStatementLogThreshold;
+  }
+
+  /**
+   * Sets the minimum execution time in milliseconds of the logged statements, 0 means every statement.
+   * The statements that reach it are logged after their execution with their parameters and execution time.
+   *
+   * @since 3.5.3
+   */
+  public void setSlowStatementLogThreshold(int slowStatementLogThreshold) {
+    this.slowStatementLogThreshold = slowStatementLogThreshold;
+  }
+
+  /**
+   * @since 3.5.3
+   */
+  public MetricsCollector getMetricsCollector() {
+    return metricsCollector;
+  }
+
+  /**
+   * Sets the collector receiving the latencies of the statement phases, the number of mapped rows, the cache hits and
+   * misses and the wait time of a pooled data source. No metrics are collected when it is {@code null}, the default.
+   *
+   * @since 3.5.3
+   */
+  public void setMetricsCollector(MetricsCollector metricsCollector) {
+    this.metricsCollector = metricsCollector;
+    bindMetricsCollector();
+  }
+
   public Class<? extends Log> getLogImpl() {
     return logImpl;
   }
@@ -348,6 +453,13 @@ public class Configuration {
 
   public void setEnvironment(Environment environment) {
     this.environment = environment;
+    bindMetricsCollector();
+  }
+
+  private void bindMetricsCollector() {
+    if (metricsCollector != null && environment != null && environment.getDataSource() instanceof PooledDataSource) {
+      ((PooledDataSource) environment.getDataSource()).setMetricsCollector(metricsCollector);
+    }
   }
 
   public AutoMappingBehavior getAutoMappingBehavior() {
@@ -475,6 +587,127 @@ public class Configuration {
     this.defaultResultSetType = defaultResultSetType;
   }
 
+  /**
+   * @since 3.5.3
+   */
+  public int getDynamicSqlCacheSize() {
+    return dynamicSqlCacheSize;
+  }
+
+  /**
+   * @since 3.5.3
+   */
+  public void setDynamicSqlCacheSize(int dynamicSqlCacheSize) {
+    this.dynamicSqlCacheSize = dynamicSqlCacheSize;
+  }
+
+  /**
+   * @since 3.5.3
+   */
+  public BatchStatementOrder getBatchStatementOrder() {
+    return batchStatementOrder;
+  }
+
+  /**
+   * @since 3.5.3
+   */
+  public void setBatchStatementOrder(BatchStatementOrder batchStatementOrder) {
+    this.batchStatementOrder = batchStatementOrder;
+  }
+
+  /**
+   * @since 3.5.3
+   */
+  public int getBatchFlushSize() {
+    return batchFlushSize;
+  }
+
+  /**
+   * Sets the number of pending rows after which the batch executor executes its batches, 0 means never.
+   * The results of the automatic flushes are passed to the {@link BatchFlushListener} if any, and are returned by
+   * the next {@code flushStatements()} before the results of the batches it executes.
+   *
+   * @since 3.5.3
+   */
+  public void setBatchFlushSize(int batchFlushSize) {
+    this.batchFlushSize = batchFlushSize;
+  }
+
+  /**
+   * @since 3.5.3
+   */
+  public BatchFlushListener getBatchFlushListener() {
+    return batchFlushListener;
+  }
+
+  /**
+   * @since 3.5.3
+   */
+  public void setBatchFlushListener(BatchFlushListener batchFlushListener) {
+    this.batchFlushListener = batchFlushListener;
+  }
+
+  /**
+   * @since 3.5.3
+   */
+  public int getMultiRowInsertMaxRows() {
+    return multiRowInsertMaxRows;
+  }
+
+  /**
+   * Sets the maximum number of rows of a statement rewritten by {@link SqlSession#insertAll(String, java.util.Collection)}.
+   * Setting 1 disables the rewriting.
+   *
+   * @since 3.5.3
+   */
+  public void setMultiRowInsertMaxRows(int multiRowInsertMaxRows) {
+    this.multiRowInsertMaxRows = multiRowInsertMaxRows;
+  }
+
+  /**
+   * @since 3.5.3
+   */
+  public MultiRowInsert getMultiRowInsert() {
+    return multiRowInsert;
+  }
+
+  /**
+   * @since 3.5.3
+   */
+  public ExecutorService getAsyncExecutor() {
+    return asyncExecutor;
+  }
+
+  /**
+   * Sets the executor running the statements of {@link AsyncSqlSession} and of mapper methods returning
+   * {@link java.util.concurrent.CompletableFuture}. When not set, a virtual thread per task executor is used
+   * where available, a small pool of daemon threads otherwise.
+   *
+   * @since 3.5.3
+   */
+  public void setAsyncExecutor(ExecutorService asyncExecutor) {
+    this.asyncExecutor = asyncExecutor;
+  }
+
+  /**
+   * @since 3.5.3
+   */
+  public AsyncSqlSession getAsyncSqlSession() {
+    return asyncSqlSession;
+  }
+
+  /**
+   * Sets the session running the mapper methods returning {@link java.util.concurrent.CompletableFuture}.
+   * When not set, their sessions are opened by a {@link org.apache.ibatis.session.defaults.DefaultSqlSessionFactory}
+   * over this configuration; an application opening its sessions through another factory registers an
+   * {@link AsyncSqlSession} over that factory.
+   *
+   * @since 3.5.3
+   */
+  public void setAsyncSqlSession(AsyncSqlSession asyncSqlSession) {
+    this.asyncSqlSession = asyncSqlSession;
+  }
+
   public boolean isUseColumnLabel() {
     return useColumnLabel;
   }
@@ -542,6 +775,25 @@ public class Configuration {
     this.reflectorFactory = reflectorFactory;
   }
 
+  /**
+   * @since 3.5.3
+   */
+  public AccessorStrategy getAccessorStrategy() {
+    return accessorStrategy;
+  }
+
+  /**
+   * Sets the accessor strategy, it is applied to the {@link DefaultReflectorFactory} only.
+   *
+   * @since 3.5.3
+   */
+  public void setAccessorStrategy(AccessorStrategy accessorStrategy) {
+    this.accessorStrategy = accessorStrategy;
+    if (reflectorFactory instanceof DefaultReflectorFactory) {
+      ((DefaultReflectorFactory) reflectorFactory).setAccessorStrategy(accessorStrategy);
+    }
+  }
+
   public ObjectFactory getObjectFactory() {
     return objectFactory;
   }
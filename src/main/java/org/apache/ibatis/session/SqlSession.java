@@ -17,11 +17,15 @@ package org.apache.ibatis.session;
 
 import java.io.Closeable;
 import java.sql.Connection;
+import java.util.Collection;
 import java.util.List;
 import java.util.Map;
 
 import org.apache.ibatis.cursor.Cursor;
+import org.apache.ibatis.executor.BatchExecutor;
 import org.apache.ibatis.executor.BatchResult;
+import org.apache.ibatis.executor.result.ColumnarResult;
+import org.apache.ibatis.executor.result.ColumnarResultHandler;
 
 /**
  * The primary Java interface for working with MyBatis.
@@ -169,6 +173,33 @@ public interface SqlSession extends Closeable {
    */
   void select(String statement, Object parameter, RowBounds rowBounds, ResultHandler handler);
 
+  /**
+   * Retrieve the rows of a select column by column, without mapping them to objects.
+   * Integer and floating point columns are read into primitive arrays and character columns are dictionary encoded.
+   * @param statement Unique identifier matching the statement to use.
+   * @param parameter A parameter object to pass to the statement.
+   * @return All the rows, see {@link ColumnarResult}
+   * @since 3.5.3
+   */
+  default ColumnarResult selectColumns(String statement, Object parameter) {
+    return selectColumns(statement, parameter, RowBounds.DEFAULT);
+  }
+
+  /**
+   * Retrieve the rows of a select column by column, within the specified row bounds.
+   * @param statement Unique identifier matching the statement to use.
+   * @param parameter A parameter object to pass to the statement.
+   * @param rowBounds Bounds to limit object retrieval
+   * @return The rows, see {@link ColumnarResult}
+   * @see org.apache.ibatis.executor.result.ColumnarResultHandler
+   * @since 3.5.3
+   */
+  default ColumnarResult selectColumns(String statement, Object parameter, RowBounds rowBounds) {
+    ColumnarResultHandler handler = new ColumnarResultHandler();
+    select(statement, parameter, rowBounds, handler);
+    return handler.getResult();
+  }
+
   /**
    * Execute an insert statement.
    * @param statement Unique identifier matching the statement to execute.
@@ -186,6 +217,34 @@ public interface SqlSession extends Closeable {
    */
   int insert(String statement, Object parameter);
 
+  /**
+   * Execute a single row insert statement once for each element of the given collection.
+   * Consecutive rows that produce the same SQL are inserted by multi row {@code INSERT ... VALUES (...), (...)}
+   * statements and generated keys are assigned to each element as usual.
+   * The default implementation inserts the elements one by one, without rewriting the statement.
+   * <p>
+   * With {@link ExecutorType#BATCH} the rows are only inserted when the statements are flushed, so the number of
+   * rows is not known: like {@link #insert(String, Object)}, the method returns
+   * {@link BatchExecutor#BATCH_UPDATE_RETURN_VALUE} and the update counts are those of {@link #flushStatements()}.
+   * @param statement Unique identifier matching the single row insert statement to execute.
+   * @param parameters The parameter objects, one per row.
+   * @return int The number of rows affected by the inserts, {@link BatchExecutor#BATCH_UPDATE_RETURN_VALUE} when batched.
+   * @since 3.5.3
+   */
+  default int insertAll(String statement, Collection<?> parameters) {
+    int rows = 0;
+    for (Object parameter : parameters) {
+      final int count = insert(statement, parameter);
+      if (count == BatchExecutor.BATCH_UPDATE_RETURN_VALUE) {
+        // batched, the count of the other rows is unknown too
+        rows = count;
+      } else if (rows != BatchExecutor.BATCH_UPDATE_RETURN_VALUE) {
+        rows += count;
+      }
+    }
+    return rows;
+  }
+
   /**
    * Execute an update statement. The number of rows affected will be returned.
    * @param statement Unique identifier matching the statement to execute.
@@ -23,6 +23,7 @@ import java.util.Properties;
 import org.apache.ibatis.builder.xml.XMLConfigBuilder;
 import org.apache.ibatis.exceptions.ExceptionFactory;
 import org.apache.ibatis.executor.ErrorContext;
+import org.apache.ibatis.mapping.Environment;
 import org.apache.ibatis.session.defaults.DefaultSqlSessionFactory;
 
 /**
@@ -97,6 +98,10 @@ public class SqlSessionFactoryBuilder {
   }
 
   public SqlSessionFactory build(Configuration config) {
+    Environment environment = config.getEnvironment();
+    if (environment != null) {
+      environment.warmUp();
+    }
     return new DefaultSqlSessionFactory(config);
   }
 
@@ -21,6 +21,7 @@ import java.lang.reflect.InvocationHandler;
 import java.lang.reflect.Method;
 import java.lang.reflect.Proxy;
 import java.sql.Connection;
+import java.util.Collection;
 import java.util.List;
 import java.util.Map;
 import java.util.Properties;
@@ -236,6 +237,11 @@ public class SqlSessionManager implements SqlSessionFactory, SqlSession {
     return sqlSessionProxy.insert(statement, parameter);
   }
 
+  @Override
+  public int insertAll(String statement, Collection<?> parameters) {
+    return sqlSessionProxy.insertAll(statement, parameters);
+  }
+
   @Override
   public int update(String statement) {
     return sqlSessionProxy.update(statement);
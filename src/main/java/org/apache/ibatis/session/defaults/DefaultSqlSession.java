@@ -191,6 +191,19 @@ public class DefaultSqlSession implements SqlSession {
     return update(statement, parameter);
   }
 
+  @Override
+  public int insertAll(String statement, Collection<?> parameters) {
+    try {
+      dirty = true;
+      MappedStatement ms = configuration.getMappedStatement(statement);
+      return configuration.getMultiRowInsert().insert(executor, ms, parameters);
+    } catch (Exception e) {
+      throw ExceptionFactory.wrapException("Error updating database.  Cause: " + e, e);
+    } finally {
+      ErrorContext.instance().reset();
+    }
+  }
+
   @Override
   public int update(String statement) {
     return update(statement, null);
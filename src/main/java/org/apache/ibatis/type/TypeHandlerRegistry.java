@@ -42,6 +42,7 @@ import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReferenceArray;
 
 import org.apache.ibatis.binding.MapperMethod.ParamMap;
 import org.apache.ibatis.io.ResolverUtil;
@@ -60,6 +61,12 @@ public final class TypeHandlerRegistry {
 
   private static final Map<JdbcType, TypeHandler<?>> NULL_TYPE_HANDLER_MAP = Collections.emptyMap();
 
+  // marks a (java type, jdbc type) pair resolved to no handler in the resolved handlers
+  private static final Object NO_TYPE_HANDLER = new Object();
+
+  // the handlers resolved per java type, indexed by the ordinal of the jdbc type plus one, 0 for a null jdbc type
+  private final Map<Type, AtomicReferenceArray<Object>> resolvedTypeHandlers = new ConcurrentHashMap<>();
+
   private Class<? extends TypeHandler> defaultEnumTypeHandler = EnumTypeHandler.class;
 
   public TypeHandlerRegistry() {
@@ -171,6 +178,7 @@ public final class TypeHandlerRegistry {
    */
   public void setDefaultEnumTypeHandler(Class<? extends TypeHandler> typeHandler) {
     this.defaultEnumTypeHandler = typeHandler;
+    resolvedTypeHandlers.clear();
   }
 
   public boolean hasTypeHandler(Class<?> javaType) {
@@ -215,6 +223,25 @@ public final class TypeHandlerRegistry {
 
   @SuppressWarnings("unchecked")
   private <T> TypeHandler<T> getTypeHandler(Type type, JdbcType jdbcType) {
+    AtomicReferenceArray<Object> resolved = resolvedTypeHandlers.get(type);
+    if (resolved == null) {
+      resolved = new AtomicReferenceArray<>(JdbcType.values().length + 1);
+      AtomicReferenceArray<Object> existing = resolvedTypeHandlers.putIfAbsent(type, resolved);
+      if (existing != null) {
+        resolved = existing;
+      }
+    }
+    final int index = jdbcType == null ? 0 : jdbcType.ordinal() + 1;
+    Object handler = resolved.get(index);
+    if (handler == null) {
+      handler = resolveTypeHandler(type, jdbcType);
+      resolved.set(index, handler == null ? NO_TYPE_HANDLER : handler);
+    }
+    // type drives generics here
+    return handler == NO_TYPE_HANDLER ? null : (TypeHandler<T>) handler;
+  }
+
+  private TypeHandler<?> resolveTypeHandler(Type type, JdbcType jdbcType) {
     if (ParamMap.class.equals(type)) {
       return null;
     }
@@ -230,8 +257,7 @@ public final class TypeHandlerRegistry {
         handler = pickSoleHandler(jdbcHandlerMap);
       }
     }
-    // type drives generics here
-    return (TypeHandler<T>) handler;
+    return handler;
   }
 
   private Map<JdbcType, TypeHandler<?>> getJdbcHandlerMap(Type type) {
@@ -378,6 +404,7 @@ public final class TypeHandlerRegistry {
         typeHandlerMap.put(javaType, map);
       }
       map.put(jdbcType, handler);
+      resolvedTypeHandlers.clear();
     }
     allTypeHandlersMap.put(handler.getClass(), handler);
   }
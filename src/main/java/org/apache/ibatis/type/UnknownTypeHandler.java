@@ -20,8 +20,7 @@ import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.ResultSetMetaData;
 import java.sql.SQLException;
-import java.util.HashMap;
-import java.util.Map;
+import java.util.Objects;
 
 import org.apache.ibatis.io.Resources;
 
@@ -69,30 +68,33 @@ public class UnknownTypeHandler extends BaseTypeHandler<Object> {
   }
 
   private TypeHandler<?> resolveTypeHandler(Object parameter, JdbcType jdbcType) {
-    TypeHandler<?> handler;
-    if (parameter == null) {
+    return parameter == null ? OBJECT_TYPE_HANDLER : resolveTypeHandler(parameter.getClass(), jdbcType);
+  }
+
+  /**
+   * Gets the type handler this handler delegates to for the parameter values of a class.
+   *
+   * @since 3.5.3
+   */
+  public TypeHandler<?> resolveTypeHandler(Class<?> parameterType, JdbcType jdbcType) {
+    TypeHandler<?> handler = typeHandlerRegistry.getTypeHandler(parameterType, jdbcType);
+    // check if handler is null (issue #270)
+    if (handler == null || handler instanceof UnknownTypeHandler) {
       handler = OBJECT_TYPE_HANDLER;
-    } else {
-      handler = typeHandlerRegistry.getTypeHandler(parameter.getClass(), jdbcType);
-      // check if handler is null (issue #270)
-      if (handler == null || handler instanceof UnknownTypeHandler) {
-        handler = OBJECT_TYPE_HANDLER;
-      }
     }
     return handler;
   }
 
   private TypeHandler<?> resolveTypeHandler(ResultSet rs, String column) {
     try {
-      Map<String,Integer> columnIndexLookup;
-      columnIndexLookup = new HashMap<>();
       ResultSetMetaData rsmd = rs.getMetaData();
-      int count = rsmd.getColumnCount();
-      for (int i = 1; i <= count; i++) {
-        String name = rsmd.getColumnName(i);
-        columnIndexLookup.put(name,i);
+      Integer columnIndex = null;
+      // the last column with the name wins, as when the columns were indexed by name
+      for (int i = rsmd.getColumnCount(); i >= 1 && columnIndex == null; i--) {
+        if (Objects.equals(column, rsmd.getColumnName(i))) {
+          columnIndex = i;
+        }
       }
-      Integer columnIndex = columnIndexLookup.get(column);
       TypeHandler<?> handler = null;
       if (columnIndex != null) {
         handler = resolveTypeHandler(rsmd, columnIndex);
@@ -42,10 +42,13 @@ import org.apache.ibatis.io.Resources;
 import org.apache.ibatis.logging.slf4j.Slf4jImpl;
 import org.apache.ibatis.mapping.Environment;
 import org.apache.ibatis.mapping.ResultSetType;
+import org.apache.ibatis.metrics.HistogramMetricsCollector;
+import org.apache.ibatis.reflection.AccessorStrategy;
 import org.apache.ibatis.scripting.defaults.RawLanguageDriver;
 import org.apache.ibatis.scripting.xmltags.XMLLanguageDriver;
 import org.apache.ibatis.session.AutoMappingBehavior;
 import org.apache.ibatis.session.AutoMappingUnknownColumnBehavior;
+import org.apache.ibatis.session.BatchStatementOrder;
 import org.apache.ibatis.session.Configuration;
 import org.apache.ibatis.session.ExecutorType;
 import org.apache.ibatis.session.LocalCacheScope;
@@ -85,9 +88,15 @@ class XmlConfigBuilderTest {
       assertThat(config.isUseColumnLabel()).isTrue();
       assertThat(config.isUseGeneratedKeys()).isFalse();
       assertThat(config.getDefaultExecutorType()).isEqualTo(ExecutorType.SIMPLE);
+      assertThat(config.getBatchStatementOrder()).isEqualTo(BatchStatementOrder.SEQUENTIAL);
+      assertThat(config.getBatchFlushSize()).isEqualTo(0);
+      assertNull(config.getBatchFlushListener());
+      assertThat(config.getMultiRowInsertMaxRows()).isEqualTo(64);
       assertNull(config.getDefaultStatementTimeout());
       assertNull(config.getDefaultFetchSize());
       assertNull(config.getDefaultResultSetType());
+      assertThat(config.getDynamicSqlCacheSize()).isEqualTo(64);
+      assertThat(config.getAccessorStrategy()).isEqualTo(AccessorStrategy.REFLECTION);
       assertThat(config.isMapUnderscoreToCamelCase()).isFalse();
       assertThat(config.isSafeRowBoundsEnabled()).isFalse();
       assertThat(config.getLocalCacheScope()).isEqualTo(LocalCacheScope.SESSION);
@@ -97,6 +106,9 @@ class XmlConfigBuilderTest {
       assertThat(config.getDefaultScriptingLanuageInstance()).isInstanceOf(XMLLanguageDriver.class);
       assertThat(config.isCallSettersOnNulls()).isFalse();
       assertNull(config.getLogPrefix());
+      assertThat(config.getStatementLogSampling()).isEqualTo(1);
+      assertThat(config.getSlowStatementLogThreshold()).isEqualTo(0);
+      assertNull(config.getMetricsCollector());
       assertNull(config.getLogImpl());
       assertNull(config.getConfigurationFactory());
       assertThat(config.getTypeHandlerRegistry().getTypeHandler(RoundingMode.class)).isInstanceOf(EnumTypeHandler.class);
@@ -179,9 +191,15 @@ class XmlConfigBuilderTest {
       assertThat(config.isUseColumnLabel()).isFalse();
       assertThat(config.isUseGeneratedKeys()).isTrue();
       assertThat(config.getDefaultExecutorType()).isEqualTo(ExecutorType.BATCH);
+      assertThat(config.getBatchStatementOrder()).isEqualTo(BatchStatementOrder.FIRST_USE);
+      assertThat(config.getBatchFlushSize()).isEqualTo(500);
+      assertThat(config.getBatchFlushListener()).isInstanceOf(CustomBatchFlushListener.class);
+      assertThat(config.getMultiRowInsertMaxRows()).isEqualTo(16);
       assertThat(config.getDefaultStatementTimeout()).isEqualTo(10);
       assertThat(config.getDefaultFetchSize()).isEqualTo(100);
       assertThat(config.getDefaultResultSetType()).isEqualTo(ResultSetType.SCROLL_INSENSITIVE);
+      assertThat(config.getDynamicSqlCacheSize()).isEqualTo(128);
+      assertThat(config.getAccessorStrategy()).isEqualTo(AccessorStrategy.LAMBDA);
       assertThat(config.isMapUnderscoreToCamelCase()).isTrue();
       assertThat(config.isSafeRowBoundsEnabled()).isTrue();
       assertThat(config.getLocalCacheScope()).isEqualTo(LocalCacheScope.STATEMENT);
@@ -191,6 +209,9 @@ class XmlConfigBuilderTest {
       assertThat(config.getDefaultScriptingLanuageInstance()).isInstanceOf(RawLanguageDriver.class);
       assertThat(config.isCallSettersOnNulls()).isTrue();
       assertThat(config.getLogPrefix()).isEqualTo("mybatis_");
+      assertThat(config.getStatementLogSampling()).isEqualTo(10);
+      assertThat(config.getSlowStatementLogThreshold()).isEqualTo(500);
+      assertThat(config.getMetricsCollector()).isInstanceOf(HistogramMetricsCollector.class);
       assertThat(config.getLogImpl().getName()).isEqualTo(Slf4jImpl.class.getName());
       assertThat(config.getVfsImpl().getName()).isEqualTo(JBoss6VFS.class.getName());
       assertThat(config.getConfigurationFactory().getName()).isEqualTo(String.class.getName());
@@ -16,6 +16,7 @@
 package org.apache.ibatis.builder.xml.dynamic;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
 
 import java.io.IOException;
 import java.io.Reader;
@@ -376,6 +377,43 @@ class DynamicSqlSourceTest extends BaseDataTest {
     assertEquals("__frch_u_0", boundSql.getParameterMappings().get(3).getProperty());
   }
 
+  @Test
+  void shouldReuseParsedSqlForTheSameSqlShape() throws Exception {
+    DynamicSqlSource source = createDynamicSqlSource(
+        new TextSqlNode("SELECT * FROM BLOG"),
+        new WhereSqlNode(new Configuration(), mixedContents(
+            new IfSqlNode(mixedContents(new TextSqlNode("AND ID = #{id}")), "id != null"),
+            new IfSqlNode(mixedContents(new TextSqlNode("AND NAME = #{name}")), "name != null"))));
+    Map<String, Object> param = new HashMap<>();
+    param.put("id", 1);
+    param.put("name", null);
+    BoundSql first = source.getBoundSql(param);
+    param.put("id", 2);
+    BoundSql second = source.getBoundSql(param);
+    assertEquals("SELECT * FROM BLOG WHERE  ID = ?", second.getSql());
+    assertSame(first.getParameterMappings(), second.getParameterMappings());
+    param.put("name", "Jim");
+    BoundSql third = source.getBoundSql(param);
+    assertEquals(2, third.getParameterMappings().size());
+    assertEquals("name", third.getParameterMappings().get(1).getProperty());
+  }
+
+  @Test
+  void shouldParseAgainWhenTypesOfAdditionalParametersChange() throws Exception {
+    DynamicSqlSource source = createDynamicSqlSource(
+        new TextSqlNode("SELECT * FROM BLOG WHERE ID in"),
+        new ForEachSqlNode(new Configuration(), mixedContents(new TextSqlNode("#{item}")), "list", null, "item", "(", ")", ","));
+    Map<String, Object> param = new HashMap<>();
+    param.put("list", Arrays.asList(1, 2));
+    BoundSql integers = source.getBoundSql(param);
+    assertEquals(Integer.class, integers.getParameterMappings().get(0).getJavaType());
+    param.put("list", Arrays.asList("a", "b"));
+    BoundSql strings = source.getBoundSql(param);
+    assertEquals(integers.getSql(), strings.getSql());
+    assertEquals(String.class, strings.getParameterMappings().get(0).getJavaType());
+    assertEquals(String.class, strings.getParameterMappings().get(1).getJavaType());
+  }
+
   private DynamicSqlSource createDynamicSqlSource(SqlNode... contents) throws IOException, SQLException {
     createBlogDataSource();
     final String resource = "org/apache/ibatis/builder/MapperConfig.xml";
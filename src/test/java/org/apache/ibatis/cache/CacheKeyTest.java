@@ -103,6 +103,50 @@ class CacheKeyTest {
     Assertions.assertEquals(cacheKey, serialize(cacheKey));
   }
 
+  @Test
+  void shouldTestCacheKeysCreatedFromPrefix() {
+    CacheKey prefix = new CacheKey(new Object[] { "statementId", "select * from blog" });
+    CacheKey key1 = new CacheKey(prefix, 2);
+    key1.update(1);
+    key1.update("hello");
+    CacheKey key2 = new CacheKey(prefix, 0);
+    key2.update(1);
+    key2.update("hello");
+    CacheKey key3 = new CacheKey(new Object[] { "statementId", "select * from blog", 1, "hello" });
+    assertEquals(key1, key2);
+    assertEquals(key1, key3);
+    assertEquals(key3, key1);
+    assertEquals(key1.hashCode(), key3.hashCode());
+    assertEquals(key1.toString(), key3.toString());
+    assertEquals(4, key1.getUpdateCount());
+    key2.update(null);
+    assertNotEquals(key1, key2);
+    assertEquals(2, prefix.getUpdateCount());
+  }
+
+  @Test
+  void shouldKeepHashCodeAndEqualityAfterSerialization() throws Exception {
+    CacheKey cacheKey = new CacheKey(new CacheKey(new Object[] { "statementId" }), 1);
+    cacheKey.update(new byte[] { 1, 2 });
+    CacheKey copy = serialize(cacheKey);
+    assertEquals(cacheKey, copy);
+    assertEquals(copy, cacheKey);
+    assertEquals(cacheKey.hashCode(), copy.hashCode());
+    assertEquals(cacheKey.toString(), copy.toString());
+    copy.update("more");
+    assertEquals(3, copy.getUpdateCount());
+  }
+
+  @Test
+  void shouldCloneIndependentCopy() throws Exception {
+    CacheKey cacheKey = new CacheKey(new Object[] { 1 });
+    CacheKey clone = cacheKey.clone();
+    assertEquals(cacheKey, clone);
+    clone.update(2);
+    assertNotEquals(cacheKey, clone);
+    assertEquals(1, cacheKey.getUpdateCount());
+  }
+
   private static <T> T serialize(T object) throws Exception {
       ByteArrayOutputStream baos = new ByteArrayOutputStream();
       new ObjectOutputStream(baos).writeObject(object);
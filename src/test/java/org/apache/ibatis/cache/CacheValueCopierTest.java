@@ -0,0 +1,208 @@
+/**
+ *    Copyright 2009-2019 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.cache;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.io.Serializable;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+
+import org.apache.ibatis.annotations.CacheNamespace;
+import org.apache.ibatis.builder.xml.XMLMapperBuilder;
+import org.apache.ibatis.cache.copier.CloningCopier;
+import org.apache.ibatis.cache.copier.CopyOnWriteCopier;
+import org.apache.ibatis.cache.decorators.SerializedCache;
+import org.apache.ibatis.cache.impl.PerpetualCache;
+import org.apache.ibatis.mapping.CacheBuilder;
+import org.apache.ibatis.session.Configuration;
+import org.junit.jupiter.api.Test;
+
+class CacheValueCopierTest {
+
+  @Test
+  void shouldCloneObjectGraphs() {
+    Node root = new Node("root", new Date(0L), LocalDate.of(2019, 1, 1));
+    Node child = new Node("child", null, null);
+    child.setParent(root);
+    root.getChildren().add(child);
+    root.getScores().put("a", new int[] { 1, 2 });
+
+    Node copy = (Node) new CloningCopier().copy(root);
+
+    assertNotSame(root, copy);
+    assertEquals("root", copy.getName());
+    assertNotSame(root.getCreated(), copy.getCreated());
+    assertEquals(root.getCreated(), copy.getCreated());
+    assertSame(root.getDay(), copy.getDay());
+    assertNotSame(root.getChildren(), copy.getChildren());
+    Node childCopy = copy.getChildren().get(0);
+    assertNotSame(child, childCopy);
+    assertEquals("child", childCopy.getName());
+    assertSame(copy, childCopy.getParent());
+    assertNotSame(root.getScores().get("a"), copy.getScores().get("a"));
+    assertArrayEquals(new int[] { 1, 2 }, copy.getScores().get("a"));
+  }
+
+  @Test
+  void shouldSerializeObjectsThatCannotBeCloned() {
+    TreeSet<String> sorted = new TreeSet<>(String.CASE_INSENSITIVE_ORDER);
+    sorted.add("b");
+    sorted.add("A");
+    Object[] values = { sorted, new Immutable("x") };
+
+    Object[] copy = (Object[]) new CloningCopier().copy(values);
+
+    assertNotSame(sorted, copy[0]);
+    assertEquals(sorted, copy[0]);
+    assertTrue(((TreeSet<?>) copy[0]).contains("a"));
+    assertNotSame(values[1], copy[1]);
+    assertEquals("x", ((Immutable) copy[1]).getValue());
+  }
+
+  @Test
+  void shouldReturnCopiesFromReadWriteCache() {
+    Cache cache = new SerializedCache(new PerpetualCache("default"), new CloningCopier());
+    List<Node> nodes = new ArrayList<>();
+    nodes.add(new Node("a", null, null));
+    cache.putObject(1, nodes);
+    nodes.get(0).setName("changed");
+
+    @SuppressWarnings("unchecked")
+    List<Node> first = (List<Node>) cache.getObject(1);
+    @SuppressWarnings("unchecked")
+    List<Node> second = (List<Node>) cache.getObject(1);
+    assertEquals("a", first.get(0).getName());
+    assertNotSame(first, second);
+    assertNull(cache.getObject(2));
+  }
+
+  @Test
+  void shouldReturnTheSameCopyFromCopyOnWriteCache() {
+    Cache cache = new CacheBuilder("default").readWrite(true).copier(new CopyOnWriteCopier()).build();
+    Node node = new Node("a", null, null);
+    cache.putObject(1, node);
+    node.setName("changed");
+
+    Node first = (Node) cache.getObject(1);
+    assertEquals("a", first.getName());
+    assertNotSame(node, first);
+    assertSame(first, cache.getObject(1));
+  }
+
+  @Test
+  void shouldConfigureCopierInMapperXml() {
+    String xml = "<?xml version=\"1.0\" encoding=\"UTF-8\" ?>"
+        + "<!DOCTYPE mapper PUBLIC \"-//mybatis.org//DTD Mapper 3.0//EN\" \"http://mybatis.org/dtd/mybatis-3-mapper.dtd\">"
+        + "<mapper namespace=\"copier\"><cache copier=\"COPY_ON_WRITE\"/></mapper>";
+    Configuration configuration = new Configuration();
+    InputStream inputStream = new ByteArrayInputStream(xml.getBytes(StandardCharsets.UTF_8));
+    new XMLMapperBuilder(inputStream, configuration, "copier.xml", configuration.getSqlFragments()).parse();
+
+    Cache cache = configuration.getCache("copier");
+    Node node = new Node("a", null, null);
+    cache.putObject(1, node);
+    assertSame(cache.getObject(1), cache.getObject(1));
+    assertNotSame(node, cache.getObject(1));
+  }
+
+  @Test
+  void shouldConfigureCopierInCacheNamespace() {
+    Configuration configuration = new Configuration();
+    configuration.addMapper(CloningMapper.class);
+
+    Cache cache = configuration.getCache(CloningMapper.class.getName());
+    cache.putObject(1, new Node("a", null, null));
+    assertNotSame(cache.getObject(1), cache.getObject(1));
+    assertEquals("a", ((Node) cache.getObject(1)).getName());
+  }
+
+  @CacheNamespace(copier = CloningCopier.class)
+  public interface CloningMapper {
+  }
+
+  public static class Node {
+    private String name;
+    private Date created;
+    private LocalDate day;
+    private Node parent;
+    private List<Node> children = new ArrayList<>();
+    private Map<String, int[]> scores = new HashMap<>();
+
+    public Node() {
+    }
+
+    Node(String name, Date created, LocalDate day) {
+      this.name = name;
+      this.created = created;
+      this.day = day;
+    }
+
+    public String getName() {
+      return name;
+    }
+
+    public void setName(String name) {
+      this.name = name;
+    }
+
+    public Date getCreated() {
+      return created;
+    }
+
+    public LocalDate getDay() {
+      return day;
+    }
+
+    public Node getParent() {
+      return parent;
+    }
+
+    public void setParent(Node parent) {
+      this.parent = parent;
+    }
+
+    public List<Node> getChildren() {
+      return children;
+    }
+
+    public Map<String, int[]> getScores() {
+      return scores;
+    }
+  }
+
+  public static class Immutable implements Serializable {
+    private static final long serialVersionUID = 1L;
+    private final String value;
+
+    Immutable(String value) {
+      this.value = value;
+    }
+
+    public String getValue() {
+      return value;
+    }
+  }
+
+}
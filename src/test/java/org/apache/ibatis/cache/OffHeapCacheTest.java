@@ -0,0 +1,189 @@
+/**
+ *    Copyright 2009-2019 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.cache;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+
+import org.apache.ibatis.cache.decorators.LoggingCache;
+import org.apache.ibatis.cache.impl.OffHeapCache;
+import org.apache.ibatis.mapping.CacheBuilder;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class OffHeapCacheTest {
+
+  @Test
+  void shouldReturnCopiesOfTheValues() throws Exception {
+    Cache cache = newCache(1024 * 1024, 64 * 1024, null);
+    List<String> value = new ArrayList<>();
+    value.add("a");
+    cache.putObject(key(1), value);
+    value.add("b");
+
+    assertEquals(1, ((List<?>) cache.getObject(key(1))).size());
+    assertNotSame(cache.getObject(key(1)), cache.getObject(key(1)));
+    assertNull(cache.getObject(key(2)));
+    assertEquals(1, cache.getSize());
+  }
+
+  @Test
+  void shouldReplaceAndRemoveItems() throws Exception {
+    Cache cache = newCache(1024 * 1024, 64 * 1024, null);
+    cache.putObject(key(1), "a");
+    cache.putObject(key(1), "b");
+    assertEquals("b", cache.getObject(key(1)));
+    assertEquals(1, cache.getSize());
+    cache.removeObject(key(1));
+    assertNull(cache.getObject(key(1)));
+    assertEquals(0, cache.getSize());
+  }
+
+  @Test
+  void shouldMatchEqualKeysThatSerializeDifferently() throws Exception {
+    Cache cache = newCache(1024 * 1024, 64 * 1024, null);
+    // "Aa" and "BB" have the same hash code, the map keeps them in the order they were put
+    Map<String, Integer> first = new HashMap<>();
+    first.put("Aa", 1);
+    first.put("BB", 2);
+    Map<String, Integer> second = new HashMap<>();
+    second.put("BB", 2);
+    second.put("Aa", 1);
+    assertEquals(first, second);
+
+    cache.putObject(new CacheKey(new Object[] { "select", first }), "a");
+    assertEquals("a", cache.getObject(new CacheKey(new Object[] { "select", second })));
+    cache.putObject(new CacheKey(new Object[] { "select", second }), "b");
+    assertEquals(1, cache.getSize());
+    cache.removeObject(new CacheKey(new Object[] { "select", second }));
+    assertNull(cache.getObject(new CacheKey(new Object[] { "select", first })));
+  }
+
+  @Test
+  void shouldEvictTheOldestSlabWhenFull() throws Exception {
+    Cache cache = newCache(4 * 1024, 1024, null);
+    for (int i = 0; i < 1000; i++) {
+      cache.putObject(key(i), i);
+      assertEquals(i, cache.getObject(key(i)));
+    }
+    assertNull(cache.getObject(key(0)));
+    assertEquals(999, cache.getObject(key(999)));
+    assertTrue(cache.getSize() < 1000);
+  }
+
+  @Test
+  void shouldNotCacheValuesLargerThanASlab() throws Exception {
+    Cache cache = newCache(4 * 1024, 1024, null);
+    cache.putObject(key(1), "small");
+    cache.putObject(key(1), new byte[2048]);
+    assertNull(cache.getObject(key(1)));
+  }
+
+  @Test
+  void shouldFlushAllItemsOnDemand() throws Exception {
+    Cache cache = newCache(1024 * 1024, 64 * 1024, null);
+    for (int i = 0; i < 5; i++) {
+      cache.putObject(key(i), i);
+    }
+    cache.clear();
+    assertNull(cache.getObject(key(0)));
+    assertNull(cache.getObject(key(4)));
+    assertEquals(0, cache.getSize());
+  }
+
+  @Test
+  void shouldAllocateTheSlabsAgainAfterClear(@TempDir Path directory) throws Exception {
+    for (String file : new String[] { null, directory.resolve("cache.bin").toString() }) {
+      Cache cache = newCache(4 * 1024, 1024, file);
+      cache.putObject(key(1), "a");
+      cache.clear();
+      assertNull(cache.getObject(key(1)));
+      for (int i = 0; i < 100; i++) {
+        cache.putObject(key(i), i);
+      }
+      assertEquals(99, cache.getObject(key(99)));
+      cache.clear();
+      assertEquals(0, cache.getSize());
+      assertNull(cache.getObject(key(99)));
+    }
+  }
+
+  @Test
+  void shouldEvictTheOldestSlabOfAFile(@TempDir Path directory) throws Exception {
+    String file = directory.resolve("cache.bin").toString();
+    Cache cache = newCache(4 * 1024, 1024, file);
+    for (int i = 0; i < 1000; i++) {
+      cache.putObject(key(i), i);
+      assertEquals(i, cache.getObject(key(i)));
+    }
+    assertNull(cache.getObject(key(0)));
+
+    Cache restarted = newCache(4 * 1024, 1024, file);
+    assertEquals(cache.getSize(), restarted.getSize());
+    assertEquals(999, restarted.getObject(key(999)));
+  }
+
+  @Test
+  void shouldKeepItemsInFileAcrossRestarts(@TempDir Path directory) throws Exception {
+    String file = directory.resolve("cache.bin").toString();
+    Cache cache = newCache(64 * 1024, 16 * 1024, file);
+    for (int i = 0; i < 10; i++) {
+      cache.putObject(key(i), "value" + i);
+    }
+    cache.putObject(key(1), "changed");
+    cache.removeObject(key(2));
+
+    Cache restarted = newCache(64 * 1024, 16 * 1024, file);
+    assertEquals(9, restarted.getSize());
+    assertEquals("value0", restarted.getObject(key(0)));
+    assertEquals("changed", restarted.getObject(key(1)));
+    assertNull(restarted.getObject(key(2)));
+
+    Cache resized = newCache(128 * 1024, 16 * 1024, file);
+    assertEquals(0, resized.getSize());
+  }
+
+  @Test
+  void shouldBeBuiltByCacheBuilder() {
+    Properties properties = new Properties();
+    properties.setProperty("capacity", "65536");
+    properties.setProperty("slabSize", "4096");
+    Cache cache = new CacheBuilder("default").implementation(OffHeapCache.class).properties(properties).build();
+    assertTrue(cache instanceof LoggingCache);
+    cache.putObject(key(1), "a");
+    assertEquals("a", cache.getObject(key(1)));
+  }
+
+  private static Cache newCache(long capacity, int slabSize, String file) throws Exception {
+    OffHeapCache cache = new OffHeapCache("default");
+    cache.setCapacity(capacity);
+    cache.setSlabSize(slabSize);
+    cache.setFile(file);
+    cache.initialize();
+    return cache;
+  }
+
+  private static CacheKey key(int i) {
+    return new CacheKey(new Object[] { "select", i });
+  }
+
+}
@@ -0,0 +1,226 @@
+/**
+ *    Copyright 2009-2019 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.datasource.pooled;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.ibatis.datasource.DataSourceException;
+import org.junit.jupiter.api.Test;
+
+class ConcurrentPooledDataSourceTest {
+
+  private static ConcurrentPooledDataSource createDataSource() {
+    ConcurrentPooledDataSource ds = new ConcurrentPooledDataSource();
+    ds.setDriver("org.hsqldb.jdbcDriver");
+    ds.setUrl("jdbc:hsqldb:mem:concurrentpool");
+    ds.setUsername("sa");
+    ds.setPassword("");
+    return ds;
+  }
+
+  @Test
+  void shouldProperlyMaintainPoolOf3ActiveAnd2IdleConnections() throws Exception {
+    ConcurrentPooledDataSource ds = createDataSource();
+    try {
+      ds.setDefaultAutoCommit(false);
+      ds.setPoolMaximumActiveConnections(3);
+      ds.setPoolMaximumIdleConnections(2);
+      ds.setPoolPingConnectionsNotUsedFor(1);
+      ds.setPoolPingEnabled(true);
+      ds.setPoolPingQuery("SELECT 1 FROM INFORMATION_SCHEMA.SYSTEM_USERS");
+      List<Connection> connections = new ArrayList<>();
+      for (int i = 0; i < 3; i++) {
+        connections.add(ds.getConnection());
+      }
+      assertEquals(3, ds.getPoolState().getActiveConnectionCount());
+      assertEquals(0, ds.getPoolState().getIdleConnectionCount());
+      for (Connection c : connections) {
+        c.close();
+      }
+      assertEquals(0, ds.getPoolState().getActiveConnectionCount());
+      assertEquals(2, ds.getPoolState().getIdleConnectionCount());
+      assertEquals(3, ds.getPoolState().getRequestCount());
+      assertEquals(0, ds.getPoolState().getBadConnectionCount());
+      assertEquals(0, ds.getPoolState().getHadToWaitCount());
+      assertEquals(0, ds.getPoolState().getClaimedOverdueConnectionCount());
+      assertNotNull(ds.getPoolState().toString());
+    } finally {
+      ds.forceCloseAll();
+    }
+  }
+
+  @Test
+  void shouldReuseTheConnectionLastReturnedByTheSameThread() throws Exception {
+    ConcurrentPooledDataSource ds = createDataSource();
+    try {
+      Connection first = ds.getConnection();
+      Connection second = ds.getConnection();
+      Connection realSecond = PooledDataSource.unwrapConnection(second);
+      first.close();
+      second.close();
+      Connection c = ds.getConnection();
+      assertSame(realSecond, PooledDataSource.unwrapConnection(c));
+      c.close();
+    } finally {
+      ds.forceCloseAll();
+    }
+  }
+
+  @Test
+  void shouldInvalidateClosedConnection() throws Exception {
+    ConcurrentPooledDataSource ds = createDataSource();
+    try {
+      Connection c = ds.getConnection();
+      c.close();
+      assertThrows(SQLException.class, c::createStatement);
+      assertNotNull(c.toString());
+      c.close();
+      assertEquals(1, ds.getPoolState().getBadConnectionCount());
+      assertEquals(1, ds.getPoolState().getIdleConnectionCount());
+    } finally {
+      ds.forceCloseAll();
+    }
+  }
+
+  @Test
+  void shouldHandOffReturnedConnectionToWaitingThread() throws Exception {
+    ConcurrentPooledDataSource ds = createDataSource();
+    ds.setPoolMaximumActiveConnections(1);
+    ExecutorService executor = Executors.newSingleThreadExecutor();
+    try {
+      Connection c = ds.getConnection();
+      Connection real = PooledDataSource.unwrapConnection(c);
+      CountDownLatch started = new CountDownLatch(1);
+      Future<Connection> waiting = executor.submit(() -> {
+        started.countDown();
+        try (Connection other = ds.getConnection()) {
+          return PooledDataSource.unwrapConnection(other);
+        }
+      });
+      started.await();
+      while (ds.getPoolState().getHadToWaitCount() == 0) {
+        Thread.sleep(10);
+      }
+      c.close();
+      assertSame(real, waiting.get(10, TimeUnit.SECONDS));
+      assertEquals(1, ds.getPoolState().getHadToWaitCount());
+    } finally {
+      executor.shutdownNow();
+      ds.forceCloseAll();
+    }
+  }
+
+  @Test
+  void shouldClaimOverdueConnection() throws Exception {
+    ConcurrentPooledDataSource ds = createDataSource();
+    ds.setPoolMaximumActiveConnections(1);
+    ds.setPoolMaximumCheckoutTime(50);
+    try {
+      Connection leaked = ds.getConnection();
+      Thread.sleep(100);
+      Connection c = ds.getConnection();
+      assertThrows(SQLException.class, leaked::createStatement);
+      assertEquals(1, ds.getPoolState().getClaimedOverdueConnectionCount());
+      assertEquals(1, ds.getPoolState().getActiveConnectionCount());
+      c.close();
+      leaked.close();
+      assertEquals(1, ds.getPoolState().getIdleConnectionCount());
+    } finally {
+      ds.forceCloseAll();
+    }
+  }
+
+  @Test
+  void shouldServeManyThreadsWithinTheMaximumNumberOfConnections() throws Exception {
+    ConcurrentPooledDataSource ds = createDataSource();
+    ds.setPoolMaximumActiveConnections(4);
+    ds.setPoolMaximumIdleConnections(4);
+    ExecutorService executor = Executors.newFixedThreadPool(16);
+    try {
+      List<Future<?>> futures = new ArrayList<>();
+      for (int i = 0; i < 16; i++) {
+        futures.add(executor.submit(() -> {
+          for (int j = 0; j < 200; j++) {
+            try (Connection c = ds.getConnection()) {
+              assertTrue(ds.getPoolState().getActiveConnectionCount() <= 4);
+              assertFalse(c.isClosed());
+            }
+          }
+          return null;
+        }));
+      }
+      for (Future<?> future : futures) {
+        future.get(30, TimeUnit.SECONDS);
+      }
+      assertEquals(16 * 200, ds.getPoolState().getRequestCount());
+      assertEquals(0, ds.getPoolState().getActiveConnectionCount());
+      assertTrue(ds.getPoolState().getIdleConnectionCount() <= 4);
+      assertEquals(0, ds.getPoolState().getBadConnectionCount());
+    } finally {
+      executor.shutdownNow();
+      ds.forceCloseAll();
+    }
+  }
+
+  @Test
+  void shouldCloseAllConnections() throws Exception {
+    ConcurrentPooledDataSource ds = createDataSource();
+    Connection active = ds.getConnection();
+    ds.getConnection().close();
+    ds.forceCloseAll();
+    assertEquals(0, ds.getPoolState().getActiveConnectionCount());
+    assertEquals(0, ds.getPoolState().getIdleConnectionCount());
+    assertThrows(SQLException.class, active::createStatement);
+    Connection c = ds.getConnection();
+    assertFalse(c.isClosed());
+    c.close();
+    ds.forceCloseAll();
+  }
+
+  @Test
+  void shouldSelectPoolEngineFromFactoryProperties() {
+    PooledDataSourceFactory factory = new PooledDataSourceFactory();
+    Properties props = new Properties();
+    props.setProperty("poolEngine", "concurrent");
+    props.setProperty("driver", "org.hsqldb.jdbcDriver");
+    props.setProperty("url", "jdbc:hsqldb:mem:concurrentpool");
+    props.setProperty("poolMaximumActiveConnections", "20");
+    factory.setProperties(props);
+    ConcurrentPooledDataSource ds = (ConcurrentPooledDataSource) factory.getDataSource();
+    assertEquals(20, ds.getPoolMaximumActiveConnections());
+    assertTrue(ds.getPoolState() instanceof ConcurrentPoolState);
+
+    PooledDataSourceFactory defaultFactory = new PooledDataSourceFactory();
+    props.remove("poolEngine");
+    defaultFactory.setProperties(props);
+    assertEquals(PooledDataSource.class, defaultFactory.getDataSource().getClass());
+
+    props.setProperty("poolEngine", "unknown");
+    assertThrows(DataSourceException.class, () -> new PooledDataSourceFactory().setProperties(props));
+  }
+
+}
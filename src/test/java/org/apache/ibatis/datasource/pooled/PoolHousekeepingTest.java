@@ -0,0 +1,177 @@
+/**
+ *    Copyright 2009-2019 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.datasource.pooled;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.sql.Connection;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.ibatis.mapping.Environment;
+import org.apache.ibatis.session.Configuration;
+import org.apache.ibatis.session.SqlSessionFactoryBuilder;
+import org.apache.ibatis.transaction.jdbc.JdbcTransactionFactory;
+import org.junit.jupiter.api.Test;
+
+class PoolHousekeepingTest {
+
+  private static PooledDataSource createDataSource(boolean concurrent) {
+    PooledDataSource ds = concurrent ? new ConcurrentPooledDataSource() : new PooledDataSource();
+    ds.setDriver("org.hsqldb.jdbcDriver");
+    ds.setUrl("jdbc:hsqldb:mem:housekeeping");
+    ds.setUsername("sa");
+    ds.setPassword("");
+    // keep the background task out of the way, the tests call housekeep() themselves
+    ds.setPoolHousekeepingPeriod(0);
+    return ds;
+  }
+
+  @Test
+  void shouldOpenMinimumIdleConnectionsOnWarmUp() throws Exception {
+    for (boolean concurrent : new boolean[] { false, true }) {
+      PooledDataSource ds = createDataSource(concurrent);
+      ds.setPoolMinimumIdleConnections(3);
+      ds.setPoolMaximumActiveConnections(2);
+      try {
+        ds.warmUp();
+        assertEquals(2, ds.getPoolState().getIdleConnectionCount());
+        ds.setPoolMaximumActiveConnections(10);
+        ds.warmUp();
+        assertEquals(3, ds.getPoolState().getIdleConnectionCount());
+        ds.getConnection().close();
+        assertEquals(0, ds.getPoolState().getHadToWaitCount());
+        assertEquals(3, ds.getPoolState().getIdleConnectionCount());
+      } finally {
+        ds.forceCloseAll();
+      }
+    }
+  }
+
+  @Test
+  void shouldReplaceExpiredConnections() throws Exception {
+    for (boolean concurrent : new boolean[] { false, true }) {
+      PooledDataSource ds = createDataSource(concurrent);
+      ds.setPoolMinimumIdleConnections(1);
+      ds.setPoolMaximumLifetime(50);
+      try {
+        ds.warmUp();
+        Connection first = ds.getConnection();
+        Connection firstReal = PooledDataSource.unwrapConnection(first);
+        first.close();
+        Thread.sleep(100);
+        ds.housekeep();
+        assertTrue(firstReal.isClosed());
+        assertEquals(1, ds.getPoolState().getIdleConnectionCount());
+        Connection second = ds.getConnection();
+        assertNotSame(firstReal, PooledDataSource.unwrapConnection(second));
+        Thread.sleep(100);
+        Connection secondReal = PooledDataSource.unwrapConnection(second);
+        second.close();
+        assertTrue(secondReal.isClosed());
+      } finally {
+        ds.forceCloseAll();
+      }
+    }
+  }
+
+  @Test
+  void shouldCloseIdleConnectionsAboveMinimum() throws Exception {
+    for (boolean concurrent : new boolean[] { false, true }) {
+      PooledDataSource ds = createDataSource(concurrent);
+      ds.setPoolMinimumIdleConnections(1);
+      ds.setPoolIdleTimeout(50);
+      try {
+        List<Connection> connections = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+          connections.add(ds.getConnection());
+        }
+        for (Connection c : connections) {
+          c.close();
+        }
+        assertEquals(3, ds.getPoolState().getIdleConnectionCount());
+        ds.housekeep();
+        assertEquals(3, ds.getPoolState().getIdleConnectionCount());
+        Thread.sleep(100);
+        ds.housekeep();
+        assertEquals(1, ds.getPoolState().getIdleConnectionCount());
+      } finally {
+        ds.forceCloseAll();
+      }
+    }
+  }
+
+  @Test
+  void shouldDiscardIdleConnectionFailingKeepalive() throws Exception {
+    for (boolean concurrent : new boolean[] { false, true }) {
+      PooledDataSource ds = createDataSource(concurrent);
+      ds.setPoolKeepaliveTime(50);
+      try {
+        Connection c = ds.getConnection();
+        Connection realConnection = PooledDataSource.unwrapConnection(c);
+        c.close();
+        Connection other = ds.getConnection();
+        Connection otherRealConnection = PooledDataSource.unwrapConnection(other);
+        other.close();
+        assertSame(realConnection, otherRealConnection);
+        Thread.sleep(100);
+        ds.housekeep();
+        assertEquals(1, ds.getPoolState().getIdleConnectionCount());
+        realConnection.close();
+        Thread.sleep(100);
+        ds.housekeep();
+        assertEquals(0, ds.getPoolState().getIdleConnectionCount());
+      } finally {
+        ds.forceCloseAll();
+      }
+    }
+  }
+
+  @Test
+  void shouldOpenIdleConnectionsInBackground() throws Exception {
+    for (boolean concurrent : new boolean[] { false, true }) {
+      PooledDataSource ds = createDataSource(concurrent);
+      ds.setPoolMinimumIdleConnections(2);
+      ds.setPoolHousekeepingPeriod(10);
+      try {
+        ds.getConnection().close();
+        long deadline = System.currentTimeMillis() + 5000;
+        while (ds.getPoolState().getIdleConnectionCount() < 2 && System.currentTimeMillis() < deadline) {
+          Thread.sleep(10);
+        }
+        assertEquals(2, ds.getPoolState().getIdleConnectionCount());
+      } finally {
+        ds.forceCloseAll();
+      }
+    }
+  }
+
+  @Test
+  void shouldWarmUpPoolWhenBuildingSqlSessionFactory() {
+    for (boolean concurrent : new boolean[] { false, true }) {
+      PooledDataSource ds = createDataSource(concurrent);
+      ds.setPoolMinimumIdleConnections(2);
+      try {
+        Configuration configuration = new Configuration(new Environment("test", new JdbcTransactionFactory(), ds));
+        new SqlSessionFactoryBuilder().build(configuration);
+        assertEquals(2, ds.getPoolState().getIdleConnectionCount());
+      } finally {
+        ds.forceCloseAll();
+      }
+    }
+  }
+
+}
@@ -0,0 +1,159 @@
+/**
+ *    Copyright 2009-2019 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.datasource.pooled;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+
+import org.junit.jupiter.api.Test;
+
+class PreparedStatementCacheTest {
+
+  private static final String SQL_A = "SELECT 1 FROM INFORMATION_SCHEMA.SYSTEM_USERS";
+  private static final String SQL_B = "SELECT 2 FROM INFORMATION_SCHEMA.SYSTEM_USERS";
+
+  private static PooledDataSource createDataSource(boolean concurrent, int cacheSize) {
+    PooledDataSource ds = concurrent ? new ConcurrentPooledDataSource() : new PooledDataSource();
+    ds.setDriver("org.hsqldb.jdbcDriver");
+    ds.setUrl("jdbc:hsqldb:mem:statementcache");
+    ds.setUsername("sa");
+    ds.setPassword("");
+    ds.setPoolHousekeepingPeriod(0);
+    ds.setPoolPreparedStatementCacheSize(cacheSize);
+    return ds;
+  }
+
+  private static PreparedStatement prepare(PooledDataSource ds, String sql) throws SQLException {
+    try (Connection conn = ds.getConnection(); PreparedStatement ps = conn.prepareStatement(sql)) {
+      return ps.unwrap(PreparedStatement.class);
+    }
+  }
+
+  @Test
+  void shouldReuseStatementAcrossCheckouts() throws Exception {
+    for (boolean concurrent : new boolean[] { false, true }) {
+      PooledDataSource ds = createDataSource(concurrent, 2);
+      try {
+        PreparedStatement first = prepare(ds, SQL_A);
+        PreparedStatement second = prepare(ds, SQL_A);
+        assertSame(first, second);
+        assertFalse(first.isClosed());
+        assertEquals(1, ds.getPoolState().getStatementCacheHitCount());
+        assertEquals(1, ds.getPoolState().getStatementCacheMissCount());
+      } finally {
+        ds.forceCloseAll();
+      }
+    }
+  }
+
+  @Test
+  void shouldCloseStatementWhenCacheIsDisabled() throws Exception {
+    PooledDataSource ds = createDataSource(false, 0);
+    try {
+      PreparedStatement first = prepare(ds, SQL_A);
+      assertTrue(first.isClosed());
+      assertNotSame(first, prepare(ds, SQL_A));
+      assertEquals(0, ds.getPoolState().getStatementCacheMissCount());
+    } finally {
+      ds.forceCloseAll();
+    }
+  }
+
+  @Test
+  void shouldCloseLeastRecentlyUsedStatement() throws Exception {
+    for (boolean concurrent : new boolean[] { false, true }) {
+      PooledDataSource ds = createDataSource(concurrent, 1);
+      try {
+        PreparedStatement a = prepare(ds, SQL_A);
+        PreparedStatement b = prepare(ds, SQL_B);
+        assertTrue(a.isClosed());
+        assertFalse(b.isClosed());
+        assertSame(b, prepare(ds, SQL_B));
+      } finally {
+        ds.forceCloseAll();
+      }
+    }
+  }
+
+  @Test
+  void shouldNotShareBorrowedStatement() throws Exception {
+    PooledDataSource ds = createDataSource(false, 2);
+    try (Connection conn = ds.getConnection()) {
+      PreparedStatement ps1 = conn.prepareStatement(SQL_A);
+      PreparedStatement ps2 = conn.prepareStatement(SQL_A);
+      PreparedStatement real1 = ps1.unwrap(PreparedStatement.class);
+      PreparedStatement real2 = ps2.unwrap(PreparedStatement.class);
+      assertNotSame(real1, real2);
+      ps1.close();
+      assertTrue(ps1.isClosed());
+      assertThrows(SQLException.class, ps1::executeQuery);
+      ps2.close();
+      // only one statement is kept for the same SQL
+      assertTrue(real1.isClosed());
+      assertFalse(real2.isClosed());
+    } finally {
+      ds.forceCloseAll();
+    }
+  }
+
+  @Test
+  void shouldResetStatementSettingsOnReturn() throws Exception {
+    PooledDataSource ds = createDataSource(false, 2);
+    try (Connection conn = ds.getConnection()) {
+      try (PreparedStatement ps = conn.prepareStatement(SQL_A)) {
+        ps.setQueryTimeout(5);
+        ps.setFetchSize(10);
+      }
+      try (PreparedStatement ps = conn.prepareStatement(SQL_A)) {
+        assertEquals(0, ps.getQueryTimeout());
+        assertEquals(0, ps.getFetchSize());
+      }
+      PreparedStatement changed = conn.prepareStatement(SQL_A);
+      PreparedStatement real = changed.unwrap(PreparedStatement.class);
+      changed.setMaxFieldSize(100);
+      changed.close();
+      assertTrue(real.isClosed());
+    } finally {
+      ds.forceCloseAll();
+    }
+  }
+
+  @Test
+  void shouldNotCacheStatementsOfOverdueConnection() throws Exception {
+    PooledDataSource ds = createDataSource(false, 2);
+    ds.setPoolMaximumActiveConnections(1);
+    ds.setPoolMaximumCheckoutTime(10);
+    try {
+      Connection overdue = ds.getConnection();
+      PreparedStatement ps = overdue.prepareStatement(SQL_A);
+      PreparedStatement real = ps.unwrap(PreparedStatement.class);
+      Thread.sleep(50);
+      try (Connection conn = ds.getConnection()) {
+        ps.close();
+        assertTrue(real.isClosed());
+        try (PreparedStatement other = conn.prepareStatement(SQL_A)) {
+          assertNotSame(real, other.unwrap(PreparedStatement.class));
+        }
+      }
+    } finally {
+      ds.forceCloseAll();
+    }
+  }
+
+}
@@ -0,0 +1,69 @@
+/**
+ *    Copyright 2009-2019 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.executor;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.when;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+
+import org.apache.ibatis.logging.Log;
+import org.apache.ibatis.session.Configuration;
+import org.apache.ibatis.transaction.Transaction;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+@ExtendWith(MockitoExtension.class)
+class StatementLogSamplingTest {
+
+  @Mock
+  Transaction transaction;
+
+  @Mock
+  Connection connection;
+
+  @Mock
+  Log log;
+
+  @Test
+  void shouldLogEveryExecutionByDefault() throws SQLException {
+    assertEquals(6, countLoggedExecutions(new Configuration(), 6));
+  }
+
+  @Test
+  void shouldLogOneExecutionInSampling() throws SQLException {
+    Configuration configuration = new Configuration();
+    configuration.setStatementLogSampling(3);
+    assertEquals(2, countLoggedExecutions(configuration, 6));
+  }
+
+  private int countLoggedExecutions(Configuration configuration, int executions) throws SQLException {
+    when(transaction.getConnection()).thenReturn(connection);
+    when(log.isDebugEnabled()).thenReturn(true);
+    SimpleExecutor executor = new SimpleExecutor(configuration, transaction);
+    int logged = 0;
+    for (int i = 0; i < executions; i++) {
+      if (executor.getConnection(log) != connection) {
+        logged++;
+      }
+    }
+    return logged;
+  }
+
+}
@@ -16,8 +16,15 @@
 package org.apache.ibatis.executor.resultset;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import java.sql.Connection;
@@ -36,6 +43,7 @@ import org.apache.ibatis.builder.StaticSqlSource;
 import org.apache.ibatis.executor.Executor;
 import org.apache.ibatis.executor.ExecutorException;
 import org.apache.ibatis.executor.parameter.ParameterHandler;
+import org.apache.ibatis.executor.result.ResultMapException;
 import org.apache.ibatis.mapping.BoundSql;
 import org.apache.ibatis.mapping.MappedStatement;
 import org.apache.ibatis.mapping.ResultMap;
@@ -87,7 +95,7 @@ class DefaultResultSetHandlerTest {
     when(rs.getMetaData()).thenReturn(rsmd);
     when(rs.getType()).thenReturn(ResultSet.TYPE_FORWARD_ONLY);
     when(rs.next()).thenReturn(true).thenReturn(false);
-    when(rs.getInt("CoLuMn1")).thenReturn(100);
+    when(rs.getInt(1)).thenReturn(100);
     when(rsmd.getColumnCount()).thenReturn(1);
     when(rsmd.getColumnLabel(1)).thenReturn("CoLuMn1");
     when(rsmd.getColumnType(1)).thenReturn(Types.INTEGER);
@@ -101,6 +109,35 @@ class DefaultResultSetHandlerTest {
     assertEquals(100, ((HashMap) results.get(0)).get("cOlUmN1"));
   }
 
+  @Test
+  void shouldResolveTheHandlerOfAnUnknownTypeColumnOnce() throws Exception {
+    final Configuration config = new Configuration();
+    final ResultMap resultMap = new ResultMap.Builder(config, "unknownMap", HashMap.class, Collections.singletonList(
+        new ResultMapping.Builder(config, "value", "VALUE", config.getTypeHandlerRegistry().getUnknownTypeHandler()).build())).build();
+    final MappedStatement ms = new MappedStatement.Builder(config, "testSelect", new StaticSqlSource(config, "some select statement"), SqlCommandType.SELECT)
+        .resultMaps(Collections.singletonList(resultMap)).build();
+    final DefaultResultSetHandler resultSetHandler = new DefaultResultSetHandler(null, ms, null, null, null, new RowBounds(0, 100));
+
+    when(stmt.getResultSet()).thenReturn(rs);
+    when(rs.getMetaData()).thenReturn(rsmd);
+    when(rs.getType()).thenReturn(ResultSet.TYPE_FORWARD_ONLY);
+    when(rs.next()).thenReturn(true, true, true, false);
+    when(rs.getInt(1)).thenReturn(1, 2, 3);
+    when(rsmd.getColumnCount()).thenReturn(1);
+    when(rsmd.getColumnLabel(1)).thenReturn("VALUE");
+    when(rsmd.getColumnType(1)).thenReturn(Types.INTEGER);
+    when(rsmd.getColumnClassName(1)).thenReturn(Integer.class.getCanonicalName());
+    when(stmt.getConnection()).thenReturn(conn);
+    when(conn.getMetaData()).thenReturn(dbmd);
+    when(dbmd.supportsMultipleResultSets()).thenReturn(false);
+
+    final List<Object> results = resultSetHandler.handleResultSets(stmt);
+    assertEquals(3, results.size());
+    assertEquals(3, ((HashMap) results.get(2)).get("value"));
+    // the column metadata is read when the result set is wrapped, not for each value
+    verify(rsmd, times(1)).getColumnClassName(1);
+  }
+
   @Test
   void shouldThrowExceptionWithColumnName() throws Exception {
     final MappedStatement ms = getMappedStatement();
@@ -129,6 +166,130 @@ class DefaultResultSetHandlerTest {
     }
   }
 
+  @Test
+  void shouldMapFollowingRowsOfSimpleResultMapWithCompiledMapper() throws Exception {
+    final Configuration config = new Configuration();
+    final TypeHandlerRegistry registry = config.getTypeHandlerRegistry();
+    final ResultMap resultMap = new ResultMap.Builder(config, "beanMap", Bean.class,
+        Collections.singletonList(new ResultMapping.Builder(config, "name", "NAME", registry.getTypeHandler(String.class)).build())).build();
+    final MappedStatement ms = new MappedStatement.Builder(config, "selectBeans", new StaticSqlSource(config, "some select statement"),
+        SqlCommandType.SELECT).resultMaps(Collections.singletonList(resultMap)).build();
+    final DefaultResultSetHandler resultSetHandler = new DefaultResultSetHandler(null/*executor*/, ms,
+        null/*parameterHandler*/, null/*resultHandler*/, null/*boundSql*/, new RowBounds(0, 100));
+
+    when(stmt.getResultSet()).thenReturn(rs);
+    when(rs.getMetaData()).thenReturn(rsmd);
+    when(rs.getType()).thenReturn(ResultSet.TYPE_FORWARD_ONLY);
+    when(rs.next()).thenReturn(true, true, true, true, false);
+    when(rs.getInt(1)).thenReturn(1, 2, 3, 0);
+    when(rs.wasNull()).thenReturn(true);
+    when(rs.getString(2)).thenReturn("a", null, "c", null);
+    when(rsmd.getColumnCount()).thenReturn(2);
+    when(rsmd.getColumnLabel(1)).thenReturn("ID");
+    when(rsmd.getColumnType(1)).thenReturn(Types.INTEGER);
+    when(rsmd.getColumnClassName(1)).thenReturn(Integer.class.getCanonicalName());
+    when(rsmd.getColumnLabel(2)).thenReturn("NAME");
+    when(rsmd.getColumnType(2)).thenReturn(Types.VARCHAR);
+    when(rsmd.getColumnClassName(2)).thenReturn(String.class.getCanonicalName());
+    when(stmt.getConnection()).thenReturn(conn);
+    when(conn.getMetaData()).thenReturn(dbmd);
+    when(dbmd.supportsMultipleResultSets()).thenReturn(false); // for simplicity.
+
+    final List<Object> results = resultSetHandler.handleResultSets(stmt);
+    assertEquals(4, results.size());
+    for (int i = 0; i < 3; i++) {
+      assertEquals(i + 1, ((Bean) results.get(i)).getId());
+    }
+    assertEquals("a", ((Bean) results.get(0)).getName());
+    assertNull(((Bean) results.get(1)).getName());
+    assertEquals("c", ((Bean) results.get(2)).getName());
+    assertNull(results.get(3));
+  }
+
+  @Test
+  void shouldReuseCompiledMapperForResultSetsWithSameColumns() throws Exception {
+    final Configuration config = new Configuration();
+    final TypeHandlerRegistry registry = config.getTypeHandlerRegistry();
+    final ResultMap resultMap = new ResultMap.Builder(config, "beanMap", Bean.class,
+        Collections.singletonList(new ResultMapping.Builder(config, "name", "NAME", registry.getTypeHandler(String.class)).build())).build();
+    final MappedStatement ms = new MappedStatement.Builder(config, "selectBeans", new StaticSqlSource(config, "some select statement"),
+        SqlCommandType.SELECT).resultMaps(Collections.singletonList(resultMap)).build();
+
+    when(stmt.getResultSet()).thenReturn(rs);
+    when(rs.getMetaData()).thenReturn(rsmd);
+    when(rs.getType()).thenReturn(ResultSet.TYPE_FORWARD_ONLY);
+    when(rs.next()).thenReturn(true, true, false, true, true, false, true, false);
+    when(rs.getString(1)).thenReturn("a", "b", "c", "d", "e");
+    when(rsmd.getColumnCount()).thenReturn(1);
+    when(rsmd.getColumnLabel(1)).thenReturn("NAME");
+    when(rsmd.getColumnType(1)).thenReturn(Types.VARCHAR);
+    when(rsmd.getColumnClassName(1)).thenReturn(String.class.getCanonicalName());
+    when(stmt.getConnection()).thenReturn(conn);
+    when(conn.getMetaData()).thenReturn(dbmd);
+    when(dbmd.supportsMultipleResultSets()).thenReturn(false); // for simplicity.
+
+    final String layout = "A---" + new ResultSetWrapper(rs, config).getColumnLayout();
+    final CompiledRowMapperCache cache = CompiledRowMapperCache.of(config);
+    new DefaultResultSetHandler(null, ms, null, null, null, new RowBounds(0, 100)).handleResultSets(stmt);
+    final Object rowMapper = cache.get("beanMap", layout);
+    assertNotNull(rowMapper);
+    final List<Object> results = new DefaultResultSetHandler(null, ms, null, null, null, new RowBounds(0, 100)).handleResultSets(stmt);
+    assertSame(rowMapper, cache.get("beanMap", layout));
+    assertEquals("d", ((Bean) results.get(1)).getName());
+
+    // another setting the plan depends on compiles another plan
+    config.setCallSettersOnNulls(true);
+    new DefaultResultSetHandler(null, ms, null, null, null, new RowBounds(0, 100)).handleResultSets(stmt);
+    assertNotNull(cache.get("beanMap", "A-S-" + new ResultSetWrapper(rs, config).getColumnLayout()));
+  }
+
+  @Test
+  void shouldReportColumnNameWhenReadingColumnByIndexFails() throws Exception {
+    final Configuration config = new Configuration();
+    final TypeHandlerRegistry registry = config.getTypeHandlerRegistry();
+    final ResultMap resultMap = new ResultMap.Builder(config, "beanMap", Bean.class,
+        Collections.singletonList(new ResultMapping.Builder(config, "name", "NAME", registry.getTypeHandler(String.class)).build())).build();
+    final MappedStatement ms = new MappedStatement.Builder(config, "selectBeans", new StaticSqlSource(config, "some select statement"),
+        SqlCommandType.SELECT).resultMaps(Collections.singletonList(resultMap)).build();
+    final DefaultResultSetHandler resultSetHandler = new DefaultResultSetHandler(null/*executor*/, ms,
+        null/*parameterHandler*/, null/*resultHandler*/, null/*boundSql*/, new RowBounds(0, 100));
+
+    when(stmt.getResultSet()).thenReturn(rs);
+    when(rs.getMetaData()).thenReturn(rsmd);
+    when(rs.getType()).thenReturn(ResultSet.TYPE_FORWARD_ONLY);
+    when(rs.next()).thenReturn(true);
+    when(rs.getString(1)).thenThrow(new SQLException("bad value"));
+    when(rsmd.getColumnCount()).thenReturn(1);
+    when(rsmd.getColumnLabel(1)).thenReturn("NAME");
+    when(rsmd.getColumnType(1)).thenReturn(Types.VARCHAR);
+    when(rsmd.getColumnClassName(1)).thenReturn(String.class.getCanonicalName());
+
+    final ResultMapException e = assertThrows(ResultMapException.class, () -> resultSetHandler.handleResultSets(stmt));
+    assertTrue(e.getMessage().startsWith("Error attempting to get column 'NAME' from result set."));
+    assertEquals("bad value", e.getCause().getMessage());
+  }
+
+  public static class Bean {
+    private int id;
+    private String name;
+
+    public int getId() {
+      return id;
+    }
+
+    public void setId(int id) {
+      this.id = id;
+    }
+
+    public String getName() {
+      return name;
+    }
+
+    public void setName(String name) {
+      this.name = name;
+    }
+  }
+
   MappedStatement getMappedStatement() {
     final Configuration config = new Configuration();
     final TypeHandlerRegistry registry = config.getTypeHandlerRegistry();
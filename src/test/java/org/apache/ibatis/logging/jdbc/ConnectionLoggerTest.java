@@ -21,11 +21,15 @@ import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
+import java.lang.reflect.Method;
 import java.sql.Connection;
 import java.sql.PreparedStatement;
+import java.sql.ResultSet;
 import java.sql.SQLException;
 
 import org.apache.ibatis.logging.Log;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Assumptions;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -41,6 +45,9 @@ class ConnectionLoggerTest {
   @Mock
   PreparedStatement preparedStatement;
 
+  @Mock
+  ResultSet resultSet;
+
   @Mock
   Log log;
 
@@ -71,4 +78,50 @@ class ConnectionLoggerTest {
     conn.close();
     verify(log, times(0)).debug(anyString());
   }
+
+  @Test
+  void shouldPrintSlowStatementAfterExecution() throws SQLException {
+    when(log.isDebugEnabled()).thenReturn(true);
+    when(connection.prepareStatement("select ?")).thenReturn(preparedStatement);
+    when(preparedStatement.executeQuery()).thenAnswer(invocation -> {
+      Thread.sleep(20);
+      return resultSet;
+    });
+    Connection slowConn = ConnectionLogger.newInstance(connection, log, 1, 10);
+
+    PreparedStatement ps = slowConn.prepareStatement("select ?");
+    ps.setInt(1, 10);
+    ResultSet rs = ps.executeQuery();
+
+    verify(log).debug(contains("Preparing: select ?"));
+    verify(log).debug(contains("Parameters: 10(Integer)"));
+    verify(log).debug(contains("Elapsed: "));
+    Assertions.assertSame(resultSet, rs);
+  }
+
+  @Test
+  void shouldNotPrintFastStatement() throws SQLException {
+    when(connection.prepareStatement("select ?")).thenReturn(preparedStatement);
+    Connection slowConn = ConnectionLogger.newInstance(connection, log, 1, 60000);
+
+    PreparedStatement ps = slowConn.prepareStatement("select ?");
+    ps.setInt(1, 10);
+    ps.executeQuery();
+
+    verify(log, times(0)).debug(anyString());
+  }
+
+  @Test
+  void shouldPassJava9MethodsToConnection() throws Exception {
+    Method beginRequest = BaseJdbcLogger.jdbcMethod(Connection.class, "beginRequest");
+    Assumptions.assumeTrue(beginRequest != null);
+    Method setShardingKeyIfValid = Connection.class.getMethod("setShardingKeyIfValid",
+        Class.forName("java.sql.ShardingKey"), int.class);
+    when(setShardingKeyIfValid.invoke(connection, null, 5)).thenReturn(true);
+
+    beginRequest.invoke(conn);
+    Assertions.assertEquals(true, setShardingKeyIfValid.invoke(conn, null, 5));
+
+    beginRequest.invoke(verify(connection));
+  }
 }
@@ -21,11 +21,13 @@ import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
+import java.lang.reflect.Method;
 import java.sql.SQLException;
 import java.sql.Statement;
 
 import org.apache.ibatis.logging.Log;
 import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Assumptions;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -67,6 +69,14 @@ public class StatementLoggerTest {
     Assertions.assertTrue(execute);
   }
 
+  @Test
+  void shouldPassJava9MethodsToStatement() throws Exception {
+    Method enquoteLiteral = StatementDelegate.ENQUOTE_LITERAL;
+    Assumptions.assumeTrue(enquoteLiteral != null);
+    when(enquoteLiteral.invoke(statement, "it's")).thenReturn("'it''s' by driver");
+    Assertions.assertEquals("'it''s' by driver", enquoteLiteral.invoke(st, "it's"));
+  }
+
   @Test
   void shouldNotPrintLog() throws SQLException {
     st.getResultSet();
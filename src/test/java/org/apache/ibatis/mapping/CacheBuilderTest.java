@@ -18,6 +18,10 @@ package org.apache.ibatis.mapping;
 import org.apache.ibatis.builder.InitializingObject;
 import org.apache.ibatis.cache.Cache;
 import org.apache.ibatis.cache.CacheException;
+import org.apache.ibatis.cache.decorators.LoggingCache;
+import org.apache.ibatis.cache.decorators.LruCache;
+import org.apache.ibatis.cache.decorators.SynchronizedCache;
+import org.apache.ibatis.cache.impl.ConcurrentLruCache;
 import org.apache.ibatis.cache.impl.PerpetualCache;
 import org.assertj.core.api.Assertions;
 import org.junit.jupiter.api.Test;
@@ -43,6 +47,33 @@ class CacheBuilderTest {
       .hasMessage("Failed cache initialization for 'test' on 'org.apache.ibatis.mapping.CacheBuilderTest$InitializingFailureCache'");
   }
 
+  @Test
+  void testConcurrentCacheIsNotSynchronizedNorDecoratedWithEviction() {
+    // the XML mappers always pass an eviction decorator, LRU by default
+    Cache cache = new CacheBuilder("test").implementation(ConcurrentLruCache.class)
+      .addDecorator(LruCache.class).size(10).build();
+
+    Assertions.assertThat(cache).isInstanceOf(LoggingCache.class);
+    ConcurrentLruCache concurrentCache = unwrap(cache);
+    for (int i = 0; i < 20; i++) {
+      cache.putObject(i, i);
+    }
+    Assertions.assertThat(concurrentCache.getSize()).isEqualTo(10);
+  }
+
+  @Test
+  void testConcurrentCacheIsNotAnEvictionDecorator() {
+    when(new CacheBuilder("test").implementation(PerpetualCache.class).addDecorator(ConcurrentLruCache.class)).build();
+    then(caughtException()).isInstanceOf(CacheException.class);
+  }
+
+  @Test
+  void testDefaultEvictionIsSynchronized() {
+    Cache cache = new CacheBuilder("test").implementation(PerpetualCache.class).build();
+
+    Assertions.assertThat(cache).isInstanceOf(SynchronizedCache.class);
+  }
+
   @SuppressWarnings("unchecked")
   private <T> T unwrap(Cache cache) {
     Field field;
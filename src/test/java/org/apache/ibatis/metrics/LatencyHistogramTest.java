@@ -0,0 +1,83 @@
+/**
+ *    Copyright 2009-2019 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.metrics;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.api.Test;
+
+class LatencyHistogramTest {
+
+  @Test
+  void shouldBeEmptyWithoutValues() {
+    LatencyHistogram histogram = new LatencyHistogram();
+    assertEquals(0, histogram.getCount());
+    assertEquals(0, histogram.getValueAtPercentile(99), 0);
+    assertEquals(0.0, histogram.getMean(), 0.0);
+  }
+
+  @Test
+  void shouldKeepSmallValuesExact() {
+    LatencyHistogram histogram = new LatencyHistogram();
+    for (int i = 1; i <= 20; i++) {
+      histogram.record(i);
+    }
+    assertEquals(20, histogram.getCount());
+    assertEquals(210, histogram.getSum());
+    assertEquals(20, histogram.getMax());
+    assertEquals(10.5, histogram.getMean(), 0.0);
+    assertEquals(10, histogram.getValueAtPercentile(50));
+    assertEquals(20, histogram.getValueAtPercentile(100));
+  }
+
+  @Test
+  void shouldReportPercentilesWithinTheBucketPrecision() {
+    LatencyHistogram histogram = new LatencyHistogram();
+    for (long value = 1000; value <= 1_000_000; value += 1000) {
+      histogram.record(value);
+    }
+    assertWithinPrecision(500_000, histogram.getValueAtPercentile(50));
+    assertWithinPrecision(990_000, histogram.getValueAtPercentile(99));
+    assertEquals(1_000_000, histogram.getValueAtPercentile(100));
+    assertEquals(1_000_000, histogram.getMax());
+  }
+
+  @Test
+  void shouldClampOutOfRangeValues() {
+    LatencyHistogram histogram = new LatencyHistogram();
+    histogram.record(-5);
+    histogram.record(Long.MAX_VALUE);
+    assertEquals(2, histogram.getCount());
+    assertEquals(0, histogram.getValueAtPercentile(50));
+    assertTrue(histogram.getValueAtPercentile(100) > 2_000_000_000_000L);
+  }
+
+  @Test
+  void shouldRecordConcurrently() {
+    LatencyHistogram histogram = new LatencyHistogram();
+    IntStream.range(0, 100_000).parallel().forEach(i -> histogram.record(i % 1000));
+    assertEquals(100_000, histogram.getCount());
+    assertEquals(999, histogram.getMax());
+  }
+
+  private static void assertWithinPrecision(long expected, long actual) {
+    assertTrue(actual >= expected && actual <= expected + expected / 16, expected + " ~ " + actual);
+  }
+
+}
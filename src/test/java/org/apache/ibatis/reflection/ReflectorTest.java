@@ -22,6 +22,7 @@ import java.util.Arrays;
 import java.util.List;
 
 import org.apache.ibatis.reflection.invoker.Invoker;
+import org.apache.ibatis.reflection.invoker.LambdaMethodInvoker;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
 
@@ -322,4 +323,45 @@ class ReflectorTest {
             "Ambiguous setters defined for property 'bool' in class '" + Bean.class.getName().replace("$", "\\$")
                 + "' with types '(java.lang.Integer|boolean)' and '(java.lang.Integer|boolean)'\\.");
   }
+
+  @Test
+  void shouldInvokeGettersAndSettersThroughLambdas() throws Exception {
+    @SuppressWarnings("unused")
+    class Bean {
+      private int count;
+      private String name;
+      public int getCount() {return count;}
+      public void setCount(int count) {this.count = count;}
+      private String getName() {return name;}
+      public Bean setName(String name) {this.name = name; return this;}
+    }
+    DefaultReflectorFactory reflectorFactory = new DefaultReflectorFactory();
+    reflectorFactory.setAccessorStrategy(AccessorStrategy.LAMBDA);
+    Reflector reflector = reflectorFactory.findForClass(Bean.class);
+    Bean bean = new Bean();
+    for (String property : new String[] {"count", "name"}) {
+      assertTrue(reflector.getGetInvoker(property) instanceof LambdaMethodInvoker);
+      assertTrue(reflector.getSetInvoker(property) instanceof LambdaMethodInvoker);
+    }
+    reflector.getSetInvoker("count").invoke(bean, new Object[] {3});
+    reflector.getSetInvoker("name").invoke(bean, new Object[] {"foo"});
+    assertEquals(3, reflector.getGetInvoker("count").invoke(bean, null));
+    assertEquals("foo", reflector.getGetInvoker("name").invoke(bean, null));
+
+    Reflector inherited = reflectorFactory.findForClass(Section.class);
+    Section section = new Section();
+    inherited.getSetInvoker("id").invoke(section, new Object[] {1L});
+    assertEquals(1L, inherited.getGetInvoker("id").invoke(section, null));
+    assertEquals(Long.class, inherited.getGetterType("id"));
+  }
+
+  @Test
+  void shouldRebuildReflectorsWhenAccessorStrategyChanges() {
+    DefaultReflectorFactory reflectorFactory = new DefaultReflectorFactory();
+    Reflector reflector = reflectorFactory.findForClass(Section.class);
+    assertFalse(reflector.getGetInvoker("id") instanceof LambdaMethodInvoker);
+    reflectorFactory.setAccessorStrategy(AccessorStrategy.LAMBDA);
+    assertNotSame(reflector, reflectorFactory.findForClass(Section.class));
+    assertTrue(reflectorFactory.findForClass(Section.class).getGetInvoker("id") instanceof LambdaMethodInvoker);
+  }
 }
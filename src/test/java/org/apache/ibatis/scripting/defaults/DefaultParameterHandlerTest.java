@@ -36,6 +36,7 @@ import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 /**
@@ -70,6 +71,27 @@ class DefaultParameterHandlerTest {
 
   }
 
+  @Test
+  void setParametersOfUnknownTypeWithTheHandlerOfTheValueClass() throws SQLException {
+    final MappedStatement mappedStatement = getMappedStatement();
+    final Configuration config = mappedStatement.getConfiguration();
+    final TypeHandlerRegistry registry = config.getTypeHandlerRegistry();
+    ParameterMapping parameterMapping = new ParameterMapping.Builder(config, "prop", Object.class).build();
+    Assertions.assertSame(registry.getUnknownTypeHandler(), parameterMapping.getTypeHandler());
+    final BoundSql boundSql = new BoundSql(config, "some select statement", Collections.singletonList(parameterMapping),
+        Collections.singletonMap("prop", "value"));
+
+    PreparedStatement ps = mock(PreparedStatement.class);
+    new DefaultParameterHandler(mappedStatement, Collections.singletonMap("prop", "value"), boundSql).setParameters(ps);
+    new DefaultParameterHandler(mappedStatement, Collections.singletonMap("prop", 7), boundSql).setParameters(ps);
+    verify(ps).setString(1, "value");
+    verify(ps).setInt(1, 7);
+
+    Assertions.assertSame(registry.getTypeHandler(Integer.class), parameterMapping.getTypeHandler(8));
+    Assertions.assertSame(registry.getTypeHandler(String.class), parameterMapping.getTypeHandler("other"));
+    Assertions.assertSame(registry.getUnknownTypeHandler(), parameterMapping.getTypeHandler(null));
+  }
+
   MappedStatement getMappedStatement() {
     final Configuration config = new Configuration();
     final TypeHandlerRegistry registry = config.getTypeHandlerRegistry();
@@ -0,0 +1,142 @@
+/**
+ *    Copyright 2009-2019 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.submitted.async_statement;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.Reader;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.ibatis.BaseDataTest;
+import org.apache.ibatis.exceptions.PersistenceException;
+import org.apache.ibatis.io.Resources;
+import org.apache.ibatis.session.AsyncSqlSession;
+import org.apache.ibatis.session.Configuration;
+import org.apache.ibatis.session.SqlSession;
+import org.apache.ibatis.session.SqlSessionFactory;
+import org.apache.ibatis.session.SqlSessionFactoryBuilder;
+import org.apache.ibatis.session.defaults.DefaultSqlSessionFactory;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class AsyncStatementTest {
+
+  private static SqlSessionFactory sqlSessionFactory;
+
+  @BeforeAll
+  static void setUp() throws Exception {
+    try (Reader reader = Resources.getResourceAsReader("org/apache/ibatis/submitted/async_statement/mybatis-config.xml")) {
+      sqlSessionFactory = new SqlSessionFactoryBuilder().build(reader);
+    }
+  }
+
+  @BeforeEach
+  void createTable() throws Exception {
+    BaseDataTest.runScript(sqlSessionFactory.getConfiguration().getEnvironment().getDataSource(),
+        "org/apache/ibatis/submitted/async_statement/CreateDB.sql");
+  }
+
+  @Test
+  void shouldRunMapperMethodsReturningFutures() {
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      Mapper mapper = sqlSession.getMapper(Mapper.class);
+      CompletableFuture<User> user = mapper.getUser(1);
+      CompletableFuture<Optional<User>> missingUser = mapper.findUser(3);
+      CompletableFuture<List<User>> users = mapper.getUsers();
+      assertEquals("User1", user.join().getName());
+      assertFalse(missingUser.join().isPresent());
+      assertEquals(2, users.join().size());
+    }
+  }
+
+  @Test
+  void shouldCommitAsynchronousInsertIndependently() {
+    User user = new User();
+    user.setName("User3");
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      assertEquals(Integer.valueOf(1), sqlSession.getMapper(Mapper.class).insertUser(user).join());
+      assertEquals(Integer.valueOf(3), user.getId());
+      sqlSession.rollback(true);
+    }
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      assertEquals(3, sqlSession.getMapper(Mapper.class).countUsers());
+    }
+  }
+
+  @Test
+  void shouldCompleteExceptionallyAndRollBackWhenStatementFails() {
+    User user = new User();
+    user.setId(1);
+    user.setName("Duplicate");
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      Mapper mapper = sqlSession.getMapper(Mapper.class);
+      CompletionException e = assertThrows(CompletionException.class, () -> mapper.insertUserWithId(user).join());
+      assertTrue(e.getCause() instanceof PersistenceException);
+      assertEquals(2, mapper.countUsers());
+    }
+  }
+
+  @Test
+  void shouldNotRegisterFactoriesInConfiguration() {
+    Configuration configuration = sqlSessionFactory.getConfiguration();
+    new DefaultSqlSessionFactory(configuration);
+    assertNull(configuration.getAsyncSqlSession());
+  }
+
+  @Test
+  void shouldRunMapperMethodsInRegisteredAsyncSession() {
+    Configuration configuration = sqlSessionFactory.getConfiguration();
+    AsyncSqlSession registered = configuration.getAsyncSqlSession();
+    AtomicInteger openedSessions = new AtomicInteger();
+    configuration.setAsyncSqlSession(new AsyncSqlSession(new DefaultSqlSessionFactory(configuration) {
+      @Override
+      public SqlSession openSession() {
+        openedSessions.incrementAndGet();
+        return super.openSession();
+      }
+    }));
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      assertEquals("User1", sqlSession.getMapper(Mapper.class).getUser(1).join().getName());
+      assertEquals(1, openedSessions.get());
+    } finally {
+      configuration.setAsyncSqlSession(registered);
+    }
+  }
+
+  @Test
+  void shouldRunOnConfiguredExecutor() {
+    ExecutorService executor = Executors.newSingleThreadExecutor(runnable -> new Thread(runnable, "async-test"));
+    sqlSessionFactory.getConfiguration().setAsyncExecutor(executor);
+    try {
+      AsyncSqlSession asyncSqlSession = new AsyncSqlSession(sqlSessionFactory);
+      assertEquals("async-test", asyncSqlSession.execute(sqlSession -> Thread.currentThread().getName()).join());
+      List<User> users = asyncSqlSession.<User>selectList("org.apache.ibatis.submitted.async_statement.Mapper.getUsers", null).join();
+      assertEquals(2, users.size());
+      assertEquals(Integer.valueOf(1), asyncSqlSession.delete("org.apache.ibatis.submitted.async_statement.Mapper.deleteUser", 1).join());
+    } finally {
+      sqlSessionFactory.getConfiguration().setAsyncExecutor(null);
+      executor.shutdown();
+    }
+  }
+
+}
@@ -16,9 +16,14 @@
 package org.apache.ibatis.submitted.batch_test;
 
 import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
 
 import org.apache.ibatis.BaseDataTest;
+import org.apache.ibatis.executor.BatchResult;
 import org.apache.ibatis.io.Resources;
+import org.apache.ibatis.session.BatchStatementOrder;
+import org.apache.ibatis.session.Configuration;
 import org.apache.ibatis.session.ExecutorType;
 import org.apache.ibatis.session.SqlSession;
 import org.apache.ibatis.session.SqlSessionFactory;
@@ -63,4 +68,115 @@ class BatchTest {
     }
   }
 
+  @Test
+  void shouldGroupInterleavedStatementsBySql() {
+    Configuration configuration = sqlSessionFactory.getConfiguration();
+    configuration.setBatchStatementOrder(BatchStatementOrder.FIRST_USE);
+    try (SqlSession sqlSession = sqlSessionFactory.openSession(ExecutorType.BATCH, false)) {
+      Mapper mapper = sqlSession.getMapper(Mapper.class);
+      for (int i = 10; i < 13; i++) {
+        mapper.insertDept(newDept(i));
+        mapper.insertUser(newUser(i, i));
+      }
+      List<BatchResult> results = sqlSession.flushStatements();
+      Assertions.assertEquals(2, results.size());
+      Assertions.assertEquals(3, results.get(0).getUpdateCounts().length);
+      Assertions.assertEquals(3, results.get(1).getUpdateCounts().length);
+      Assertions.assertEquals("Dept11", mapper.getUser(11).getDept().getName());
+      sqlSession.rollback();
+    } finally {
+      configuration.setBatchStatementOrder(BatchStatementOrder.SEQUENTIAL);
+    }
+  }
+
+  @Test
+  void shouldFlushAutomaticallyWhenBatchIsFull() {
+    Configuration configuration = sqlSessionFactory.getConfiguration();
+    List<Integer> flushedRows = new ArrayList<>();
+    configuration.setBatchFlushSize(2);
+    configuration.setBatchFlushListener(batchResults -> {
+      for (BatchResult batchResult : batchResults) {
+        flushedRows.add(batchResult.getUpdateCounts().length);
+      }
+    });
+    try (SqlSession sqlSession = sqlSessionFactory.openSession(ExecutorType.BATCH, false)) {
+      Mapper mapper = sqlSession.getMapper(Mapper.class);
+      for (int i = 20; i < 25; i++) {
+        mapper.insertUser(newUser(i, 1));
+      }
+      Assertions.assertEquals(2, flushedRows.size());
+      List<BatchResult> results = sqlSession.flushStatements();
+      Assertions.assertEquals(3, results.size());
+      Assertions.assertEquals(2, results.get(0).getUpdateCounts().length);
+      Assertions.assertEquals(1, results.get(2).getUpdateCounts().length);
+      Assertions.assertEquals(3, flushedRows.size());
+      Assertions.assertTrue(sqlSession.flushStatements().isEmpty());
+      sqlSession.rollback();
+    } finally {
+      configuration.setBatchFlushSize(0);
+      configuration.setBatchFlushListener(null);
+    }
+  }
+
+  @Test
+  void shouldReturnResultsOfAutomaticFlushesWithoutListener() {
+    Configuration configuration = sqlSessionFactory.getConfiguration();
+    configuration.setBatchFlushSize(2);
+    try (SqlSession sqlSession = sqlSessionFactory.openSession(ExecutorType.BATCH, false)) {
+      Mapper mapper = sqlSession.getMapper(Mapper.class);
+      for (int i = 30; i < 35; i++) {
+        mapper.insertUser(newUser(i, 1));
+      }
+      List<BatchResult> results = sqlSession.flushStatements();
+      Assertions.assertEquals(3, results.size());
+      int rows = 0;
+      for (BatchResult result : results) {
+        rows += result.getUpdateCounts().length;
+        Assertions.assertEquals(result.getUpdateCounts().length, result.getParameterObjects().size());
+      }
+      Assertions.assertEquals(5, rows);
+      Assertions.assertEquals(Integer.valueOf(30), ((User) results.get(0).getParameterObjects().get(0)).getId());
+      sqlSession.rollback();
+    } finally {
+      configuration.setBatchFlushSize(0);
+    }
+  }
+
+  @Test
+  void shouldNotGroupStatementsOfDifferentMappedStatementsWithSameSql() {
+    Configuration configuration = sqlSessionFactory.getConfiguration();
+    configuration.setBatchStatementOrder(BatchStatementOrder.FIRST_USE);
+    try (SqlSession sqlSession = sqlSessionFactory.openSession(ExecutorType.BATCH, false)) {
+      Mapper mapper = sqlSession.getMapper(Mapper.class);
+      mapper.insertUser(newUser(40, 1));
+      mapper.insertOtherUser(newUser(41, 1));
+      mapper.insertUser(newUser(42, 1));
+      mapper.insertOtherUser(newUser(43, 1));
+      List<BatchResult> results = sqlSession.flushStatements();
+      Assertions.assertEquals(2, results.size());
+      Assertions.assertEquals("org.apache.ibatis.submitted.batch_test.Mapper.insertUser", results.get(0).getMappedStatement().getId());
+      Assertions.assertEquals(2, results.get(0).getUpdateCounts().length);
+      Assertions.assertEquals("org.apache.ibatis.submitted.batch_test.Mapper.insertOtherUser", results.get(1).getMappedStatement().getId());
+      Assertions.assertEquals(2, results.get(1).getUpdateCounts().length);
+      sqlSession.rollback();
+    } finally {
+      configuration.setBatchStatementOrder(BatchStatementOrder.SEQUENTIAL);
+    }
+  }
+
+  private static Dept newDept(int id) {
+    Dept dept = new Dept();
+    dept.setId(id);
+    dept.setName("Dept" + id);
+    return dept;
+  }
+
+  private static User newUser(int id, int deptId) {
+    User user = new User();
+    user.setId(id);
+    user.setName("User" + id);
+    user.setDept(newDept(deptId));
+    return user;
+  }
+
 }
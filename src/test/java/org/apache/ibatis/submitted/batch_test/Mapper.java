@@ -1,5 +1,5 @@
 /**
- *    Copyright 2009-2018 the original author or authors.
+ *    Copyright 2009-2019 the original author or authors.
  *
  *    Licensed under the Apache License, Version 2.0 (the "License");
  *    you may not use this file except in compliance with the License.
@@ -22,4 +22,8 @@ public interface Mapper {
   Dept getDept(Integer id);
 
   void insertUser(User user);
+
+  void insertOtherUser(User user);
+
+  void insertDept(Dept dept);
 }
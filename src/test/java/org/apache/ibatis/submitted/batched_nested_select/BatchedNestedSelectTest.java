@@ -0,0 +1,120 @@
+/**
+ *    Copyright 2009-2019 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.submitted.batched_nested_select;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.apache.ibatis.BaseDataTest;
+import org.apache.ibatis.io.Resources;
+import org.apache.ibatis.session.SqlSession;
+import org.apache.ibatis.session.SqlSessionFactory;
+import org.apache.ibatis.session.SqlSessionFactoryBuilder;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class BatchedNestedSelectTest {
+
+  private static final String SELECT_AUTHORS = "select * from author";
+  private static final String SELECT_POSTS = "select * from post";
+
+  private static SqlSessionFactory sqlSessionFactory;
+
+  @BeforeAll
+  static void setUp() throws Exception {
+    try (Reader reader = Resources.getResourceAsReader("org/apache/ibatis/submitted/batched_nested_select/mybatis-config.xml")) {
+      sqlSessionFactory = new SqlSessionFactoryBuilder().build(reader);
+    }
+    BaseDataTest.runScript(sqlSessionFactory.getConfiguration().getEnvironment().getDataSource(),
+        "org/apache/ibatis/submitted/batched_nested_select/CreateDB.sql");
+  }
+
+  @BeforeEach
+  void clearStatements() {
+    StatementRecorder.statements.clear();
+  }
+
+  @Test
+  void shouldLoadEagerNestedSelectsInBatches() {
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      List<Blog> blogs = sqlSession.getMapper(Mapper.class).getBlogs();
+      assertBlogs(blogs);
+      // authors 1, 2 and 3 in batches of two, posts of blogs 1 to 5 in batches of two
+      assertEquals(2, StatementRecorder.count(SELECT_AUTHORS));
+      assertEquals(3, StatementRecorder.count(SELECT_POSTS));
+      assertEquals(6, StatementRecorder.statements.size());
+    }
+  }
+
+  @Test
+  void shouldLoadLazyNestedSelectsInBatches() {
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      List<Blog> blogs = sqlSession.getMapper(Mapper.class).getLazyBlogs();
+      assertEquals(1, StatementRecorder.statements.size());
+
+      // loads author 3 and the first pending one, author 1
+      assertEquals("Author3", blogs.get(3).getAuthor().getName());
+      assertEquals(1, StatementRecorder.count(SELECT_AUTHORS));
+      assertEquals("Author1", blogs.get(0).getAuthor().getName());
+      assertEquals("Author1", blogs.get(2).getAuthor().getName());
+      assertEquals(1, StatementRecorder.count(SELECT_AUTHORS));
+      assertEquals("Author2", blogs.get(1).getAuthor().getName());
+      assertEquals(2, StatementRecorder.count(SELECT_AUTHORS));
+
+      assertBlogs(blogs);
+      assertEquals(2, StatementRecorder.count(SELECT_AUTHORS));
+      assertEquals(3, StatementRecorder.count(SELECT_POSTS));
+    }
+  }
+
+  @Test
+  void shouldLoadNestedSelectsOfEachRowForResultHandler() {
+    List<Blog> blogs = new ArrayList<>();
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      sqlSession.getMapper(Mapper.class).getBlogs(context -> {
+        Blog blog = context.getResultObject();
+        // the nested selects are loaded before the row is handed over
+        assertNotNull(blog.getPosts());
+        blogs.add(blog);
+      });
+    }
+    assertBlogs(blogs);
+  }
+
+  private static void assertBlogs(List<Blog> blogs) {
+    assertEquals(5, blogs.size());
+    assertEquals(Integer.valueOf(1), blogs.get(0).getAuthor().getId());
+    assertEquals("Author2", blogs.get(1).getAuthor().getName());
+    assertEquals("Author1", blogs.get(2).getAuthor().getName());
+    assertEquals("Author3", blogs.get(3).getAuthor().getName());
+    assertNull(blogs.get(4).getAuthor());
+    assertEquals("[Post1, Post2]", subjects(blogs.get(0)));
+    assertEquals("[Post3]", subjects(blogs.get(1)));
+    assertEquals("[]", subjects(blogs.get(2)));
+    assertEquals("[Post4, Post5, Post6]", subjects(blogs.get(3)));
+    assertEquals("[Post7]", subjects(blogs.get(4)));
+  }
+
+  private static String subjects(Blog blog) {
+    return blog.getPosts().stream().map(Post::getSubject).collect(Collectors.toList()).toString();
+  }
+
+}
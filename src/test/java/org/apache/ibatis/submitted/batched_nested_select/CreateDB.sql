@@ -0,0 +1,54 @@
+--
+--    Copyright 2009-2019 the original author or authors.
+--
+--    Licensed under the Apache License, Version 2.0 (the "License");
+--    you may not use this file except in compliance with the License.
+--    You may obtain a copy of the License at
+--
+--       http://www.apache.org/licenses/LICENSE-2.0
+--
+--    Unless required by applicable law or agreed to in writing, software
+--    distributed under the License is distributed on an "AS IS" BASIS,
+--    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+--    See the License for the specific language governing permissions and
+--    limitations under the License.
+--
+
+drop table post if exists;
+drop table blog if exists;
+drop table author if exists;
+
+create table author (
+  id int primary key,
+  name varchar(20)
+);
+
+create table blog (
+  id int primary key,
+  title varchar(20),
+  author_id int
+);
+
+create table post (
+  id int primary key,
+  blog_id int,
+  subject varchar(20)
+);
+
+insert into author values (1, 'Author1');
+insert into author values (2, 'Author2');
+insert into author values (3, 'Author3');
+
+insert into blog values (1, 'Blog1', 1);
+insert into blog values (2, 'Blog2', 2);
+insert into blog values (3, 'Blog3', 1);
+insert into blog values (4, 'Blog4', 3);
+insert into blog values (5, 'Blog5', null);
+
+insert into post values (1, 1, 'Post1');
+insert into post values (2, 1, 'Post2');
+insert into post values (3, 2, 'Post3');
+insert into post values (4, 4, 'Post4');
+insert into post values (5, 4, 'Post5');
+insert into post values (6, 4, 'Post6');
+insert into post values (7, 5, 'Post7');
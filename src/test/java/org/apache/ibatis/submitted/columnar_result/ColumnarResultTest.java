@@ -0,0 +1,118 @@
+/**
+ *    Copyright 2009-2019 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.submitted.columnar_result;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.Reader;
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.apache.ibatis.BaseDataTest;
+import org.apache.ibatis.executor.result.ColumnarResult;
+import org.apache.ibatis.executor.result.ColumnarResult.ColumnType;
+import org.apache.ibatis.executor.result.ColumnarResultHandler;
+import org.apache.ibatis.io.Resources;
+import org.apache.ibatis.session.RowBounds;
+import org.apache.ibatis.session.SqlSession;
+import org.apache.ibatis.session.SqlSessionFactory;
+import org.apache.ibatis.session.SqlSessionFactoryBuilder;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+class ColumnarResultTest {
+
+  private static final String GET_SALES = "org.apache.ibatis.submitted.columnar_result.Mapper.getSales";
+
+  private static SqlSessionFactory sqlSessionFactory;
+
+  @BeforeAll
+  static void setUp() throws Exception {
+    try (Reader reader = Resources.getResourceAsReader("org/apache/ibatis/submitted/columnar_result/mybatis-config.xml")) {
+      sqlSessionFactory = new SqlSessionFactoryBuilder().build(reader);
+    }
+    BaseDataTest.runScript(sqlSessionFactory.getConfiguration().getEnvironment().getDataSource(),
+        "org/apache/ibatis/submitted/columnar_result/CreateDB.sql");
+  }
+
+  @Test
+  void shouldReadColumnsIntoArrays() {
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      ColumnarResult result = sqlSession.selectColumns(GET_SALES, null);
+      assertEquals(5, result.getRowCount());
+      assertEquals(Arrays.asList("ID", "REGION", "QUANTITY", "AMOUNT", "PRICE", "SOLD"), result.getColumnNames());
+
+      assertEquals(ColumnType.LONG, result.getColumnType("id"));
+      assertArrayEquals(new long[] { 1, 2, 3, 4, 5 }, result.getLongs("id"));
+
+      assertEquals(ColumnType.INT, result.getColumnType("quantity"));
+      assertArrayEquals(new int[] { 3, 0, 5, 0, 7 }, result.getInts("quantity"));
+      assertTrue(result.isNull("quantity", 1));
+      assertFalse(result.isNull("quantity", 3));
+
+      assertEquals(ColumnType.DOUBLE, result.getColumnType("amount"));
+      assertArrayEquals(new double[] { 10.5, 20.0, 0, 0, 14.0 }, result.getDoubles("amount"));
+      assertTrue(result.isNull("amount", 2));
+      assertFalse(result.isNull("amount", 3));
+
+      assertEquals(ColumnType.STRING, result.getColumnType("region"));
+      assertArrayEquals(new int[] { 0, 1, 0, -1, 2 }, result.getCodes("region"));
+      assertEquals(Arrays.asList("north", "south", "east"), result.getDictionary("region"));
+      assertEquals("south", result.getValue("region", 1));
+      assertNull(result.getValue("region", 3));
+
+      assertEquals(ColumnType.OBJECT, result.getColumnType("price"));
+      assertEquals(new BigDecimal("3.50"), result.getObjects("price")[0]);
+      assertEquals(Date.valueOf("2019-01-02"), result.getValue("sold", 1));
+      assertNull(result.getValue("sold", 3));
+    }
+  }
+
+  @Test
+  void shouldHandRowsInChunks() {
+    List<ColumnarResult> chunks = new ArrayList<>();
+    ColumnarResultHandler handler = new ColumnarResultHandler(2, chunks::add);
+    handler.setColumnType("price", ColumnType.DOUBLE);
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      sqlSession.select(GET_SALES, null, handler);
+    }
+    assertEquals(3, chunks.size());
+    assertEquals(2, chunks.get(0).getRowCount());
+    assertEquals(2, chunks.get(1).getRowCount());
+    assertEquals(1, chunks.get(2).getRowCount());
+    assertArrayEquals(new double[] { 3.5, 10.0 }, chunks.get(0).getDoubles("price"));
+    assertTrue(chunks.get(1).isNull("price", 1));
+    // the codes are shared by all chunks
+    assertArrayEquals(new int[] { 0, -1 }, chunks.get(1).getCodes("region"));
+    assertArrayEquals(new int[] { 2 }, chunks.get(2).getCodes("region"));
+    assertEquals("east", chunks.get(0).getDictionary("region").get(2));
+  }
+
+  @Test
+  void shouldApplyRowBounds() {
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      ColumnarResult result = sqlSession.selectColumns(GET_SALES, null, new RowBounds(1, 2));
+      assertArrayEquals(new long[] { 2, 3 }, result.getLongs("id"));
+      ColumnarResult empty = sqlSession.selectColumns(GET_SALES, null, new RowBounds(5, 2));
+      assertEquals(0, empty.getRowCount());
+      assertEquals(0, empty.getLongs("id").length);
+    }
+  }
+
+}
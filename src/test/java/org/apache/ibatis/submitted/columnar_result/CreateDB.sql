@@ -0,0 +1,32 @@
+--
+--    Copyright 2009-2019 the original author or authors.
+--
+--    Licensed under the Apache License, Version 2.0 (the "License");
+--    you may not use this file except in compliance with the License.
+--    You may obtain a copy of the License at
+--
+--       http://www.apache.org/licenses/LICENSE-2.0
+--
+--    Unless required by applicable law or agreed to in writing, software
+--    distributed under the License is distributed on an "AS IS" BASIS,
+--    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+--    See the License for the specific language governing permissions and
+--    limitations under the License.
+--
+
+drop table sales if exists;
+
+create table sales (
+  id bigint primary key,
+  region varchar(20),
+  quantity int,
+  amount double,
+  price decimal(10, 2),
+  sold date
+);
+
+insert into sales values (1, 'north', 3, 10.5, 3.50, date '2019-01-01');
+insert into sales values (2, 'south', null, 20.0, 10.00, date '2019-01-02');
+insert into sales values (3, 'north', 5, null, 1.25, date '2019-01-03');
+insert into sales values (4, null, 0, 0, null, null);
+insert into sales values (5, 'east', 7, 14.0, 2.00, date '2019-01-05');
@@ -0,0 +1,228 @@
+/**
+ *    Copyright 2009-2019 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.submitted.cursor_publisher;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+import java.io.Reader;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.ibatis.BaseDataTest;
+import org.apache.ibatis.cursor.CursorPublisher;
+import org.apache.ibatis.datasource.pooled.PooledDataSource;
+import org.apache.ibatis.io.Resources;
+import org.apache.ibatis.session.AsyncSqlSession;
+import org.apache.ibatis.session.Configuration;
+import org.apache.ibatis.session.SqlSession;
+import org.apache.ibatis.session.SqlSessionFactory;
+import org.apache.ibatis.session.SqlSessionFactoryBuilder;
+import org.apache.ibatis.session.defaults.DefaultSqlSessionFactory;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+class CursorPublisherTest {
+
+  private static SqlSessionFactory sqlSessionFactory;
+
+  @BeforeAll
+  static void setUp() throws Exception {
+    try (Reader reader = Resources.getResourceAsReader("org/apache/ibatis/submitted/cursor_publisher/mybatis-config.xml")) {
+      sqlSessionFactory = new SqlSessionFactoryBuilder().build(reader);
+    }
+    BaseDataTest.runScript(sqlSessionFactory.getConfiguration().getEnvironment().getDataSource(),
+        "org/apache/ibatis/submitted/cursor_publisher/CreateDB.sql");
+  }
+
+  @Test
+  void shouldPublishRowsOnlyWhenRequested() throws Exception {
+    RecordingSubscriber subscriber = new RecordingSubscriber();
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      sqlSession.getMapper(Mapper.class).getUsers().subscribe(subscriber);
+    }
+    subscriber.subscription.request(2);
+    assertEquals("User1", subscriber.next());
+    assertEquals("User2", subscriber.next());
+    assertNull(subscriber.signals.poll(200, TimeUnit.MILLISECONDS));
+    subscriber.subscription.request(Long.MAX_VALUE);
+    assertEquals("User3", subscriber.next());
+    assertEquals("User4", subscriber.next());
+    assertEquals("User5", subscriber.next());
+    assertEquals("complete", subscriber.next());
+    assertEquals(0, getActiveConnectionCount());
+  }
+
+  @Test
+  void shouldPublishThroughRegisteredAsyncSession() throws Exception {
+    Configuration configuration = sqlSessionFactory.getConfiguration();
+    AsyncSqlSession registered = configuration.getAsyncSqlSession();
+    AtomicInteger openedSessions = new AtomicInteger();
+    configuration.setAsyncSqlSession(new AsyncSqlSession(new DefaultSqlSessionFactory(configuration) {
+      @Override
+      public SqlSession openSession() {
+        openedSessions.incrementAndGet();
+        return super.openSession();
+      }
+    }));
+    RecordingSubscriber subscriber = new RecordingSubscriber();
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      sqlSession.getMapper(Mapper.class).getUsers().subscribe(subscriber);
+    } finally {
+      configuration.setAsyncSqlSession(registered);
+    }
+    subscriber.subscription.request(Long.MAX_VALUE);
+    assertEquals("User1", subscriber.next());
+    assertEquals(1, openedSessions.get());
+    for (int i = 0; i < 4; i++) {
+      subscriber.next();
+    }
+    assertEquals("complete", subscriber.next());
+  }
+
+  @Test
+  void shouldCloseSessionWhenCancelled() throws Exception {
+    RecordingSubscriber subscriber = new RecordingSubscriber();
+    new AsyncSqlSession(sqlSessionFactory).<User>selectCursor("org.apache.ibatis.submitted.cursor_publisher.Mapper.getUsers", null)
+        .subscribe(subscriber);
+    subscriber.subscription.request(1);
+    assertEquals("User1", subscriber.next());
+    assertEquals(1, getActiveConnectionCount());
+    subscriber.subscription.cancel();
+    long deadline = System.currentTimeMillis() + 5000;
+    while (getActiveConnectionCount() > 0 && System.currentTimeMillis() < deadline) {
+      Thread.sleep(10);
+    }
+    assertEquals(0, getActiveConnectionCount());
+    assertNull(subscriber.signals.poll(100, TimeUnit.MILLISECONDS));
+  }
+
+  @Test
+  void shouldCancelWithoutSignallingErrorWhenSubscriberThrows() throws Exception {
+    RecordingSubscriber subscriber = new RecordingSubscriber() {
+      @Override
+      public void onNext(User item) {
+        super.onNext(item);
+        throw new IllegalStateException("Rejected " + item.getName());
+      }
+    };
+    new AsyncSqlSession(sqlSessionFactory).<User>selectCursor("org.apache.ibatis.submitted.cursor_publisher.Mapper.getUsers", null)
+        .subscribe(subscriber);
+    subscriber.subscription.request(Long.MAX_VALUE);
+    assertEquals("User1", subscriber.next());
+    // rule 2.13: no onError for the failure of the subscriber itself
+    assertNull(subscriber.signals.poll(200, TimeUnit.MILLISECONDS));
+    long deadline = System.currentTimeMillis() + 5000;
+    while (getActiveConnectionCount() > 0 && System.currentTimeMillis() < deadline) {
+      Thread.sleep(10);
+    }
+    assertEquals(0, getActiveConnectionCount());
+  }
+
+  @Test
+  void shouldSignalErrorOnNonPositiveRequest() throws Exception {
+    RecordingSubscriber subscriber = new RecordingSubscriber();
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      sqlSession.getMapper(Mapper.class).getUsers().subscribe(subscriber);
+    }
+    subscriber.subscription.request(0);
+    assertEquals("error: java.lang.IllegalArgumentException", subscriber.next());
+    assertNull(subscriber.signals.poll(100, TimeUnit.MILLISECONDS));
+  }
+
+  @Test
+  void shouldAdaptToFlowPublisher() throws Exception {
+    Class<?> subscriberType;
+    try {
+      subscriberType = Class.forName("java.util.concurrent.Flow$Subscriber");
+    } catch (ClassNotFoundException e) {
+      subscriberType = null;
+    }
+    assumeTrue(subscriberType != null, "java.util.concurrent.Flow is not available");
+    Class<?> publisherType = Class.forName("java.util.concurrent.Flow$Publisher");
+    Class<?> subscriptionType = Class.forName("java.util.concurrent.Flow$Subscription");
+    Method request = subscriptionType.getMethod("request", long.class);
+    List<Object> users = new ArrayList<>();
+    CountDownLatch completed = new CountDownLatch(1);
+    Object flowSubscriber = Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[] { subscriberType },
+        (proxy, method, args) -> {
+          switch (method.getName()) {
+            case "onSubscribe":
+              request.invoke(args[0], Long.MAX_VALUE);
+              break;
+            case "onNext":
+              users.add(args[0]);
+              break;
+            case "onComplete":
+              completed.countDown();
+              break;
+            default:
+              break;
+          }
+          return null;
+        });
+    Object flowPublisher = new AsyncSqlSession(sqlSessionFactory)
+        .selectCursor("org.apache.ibatis.submitted.cursor_publisher.Mapper.getUsers", null).toFlowPublisher();
+    assertTrue(publisherType.isInstance(flowPublisher));
+    publisherType.getMethod("subscribe", subscriberType).invoke(flowPublisher, flowSubscriber);
+    assertTrue(completed.await(5, TimeUnit.SECONDS));
+    assertEquals(5, users.size());
+    assertEquals("User5", ((User) users.get(4)).getName());
+  }
+
+  private static int getActiveConnectionCount() {
+    return ((PooledDataSource) sqlSessionFactory.getConfiguration().getEnvironment().getDataSource())
+        .getPoolState().getActiveConnectionCount();
+  }
+
+  private static class RecordingSubscriber implements CursorPublisher.Subscriber<User> {
+
+    private final BlockingQueue<String> signals = new LinkedBlockingQueue<>();
+    private volatile CursorPublisher.Subscription subscription;
+
+    @Override
+    public void onSubscribe(CursorPublisher.Subscription subscription) {
+      this.subscription = subscription;
+    }
+
+    @Override
+    public void onNext(User item) {
+      signals.add(item.getName());
+    }
+
+    @Override
+    public void onError(Throwable throwable) {
+      signals.add("error: " + throwable.getClass().getName());
+    }
+
+    @Override
+    public void onComplete() {
+      signals.add("complete");
+    }
+
+    String next() throws InterruptedException {
+      return signals.poll(5, TimeUnit.SECONDS);
+    }
+  }
+
+}
@@ -33,6 +33,10 @@ public interface CountryMapper {
   @Insert({ "insert into country (countryname,countrycode) values (#{country.countryname},#{country.countrycode})" })
   int insertNamedBean(@Param("country") Country country);
 
+  @Options(useGeneratedKeys = true)
+  @Insert({ "insert into country (countryname,countrycode) values (#{countryname},#{countrycode})" })
+  int insertBeanWithoutKeyProperty(Country country);
+
   @Options(useGeneratedKeys = true, keyProperty = "country.id")
   @Insert({ "insert into country (countryname,countrycode) values (#{country.countryname},#{country.countrycode})" })
   int insertNamedBean_keyPropertyWithParamName(@Param("country") Country country);
@@ -30,7 +30,10 @@ import java.util.Set;
 
 import org.apache.ibatis.BaseDataTest;
 import org.apache.ibatis.exceptions.PersistenceException;
+import org.apache.ibatis.executor.keygen.Jdbc3KeyGenerator;
 import org.apache.ibatis.io.Resources;
+import org.apache.ibatis.mapping.MappedStatement;
+import org.apache.ibatis.session.Configuration;
 import org.apache.ibatis.session.ExecutorType;
 import org.apache.ibatis.session.SqlSession;
 import org.apache.ibatis.session.SqlSessionFactory;
@@ -90,6 +93,48 @@ class Jdbc3KeyGeneratorTest {
     }
   }
 
+  @Test
+  void shouldAssignKeysToManyBeans_batch() {
+    try (SqlSession sqlSession = sqlSessionFactory.openSession(ExecutorType.BATCH)) {
+      try {
+        CountryMapper mapper = sqlSession.getMapper(CountryMapper.class);
+        List<Country> countries = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+          Country country = new Country("Country" + i, "C" + i);
+          mapper.insertBean(country);
+          countries.add(country);
+        }
+        sqlSession.flushStatements();
+        sqlSession.clearCache();
+        for (int i = 1; i < countries.size(); i++) {
+          assertEquals(countries.get(i - 1).getId() + 1, (int) countries.get(i).getId());
+        }
+      } finally {
+        sqlSession.rollback();
+      }
+    }
+  }
+
+  @Test
+  void shouldNotRequestGeneratedKeysWithoutKeyProperty() {
+    Configuration configuration = sqlSessionFactory.getConfiguration();
+    MappedStatement withKeyProperty = configuration.getMappedStatement(CountryMapper.class.getName() + ".insertBean");
+    MappedStatement withoutKeyProperty = configuration
+        .getMappedStatement(CountryMapper.class.getName() + ".insertBeanWithoutKeyProperty");
+    assertTrue(Jdbc3KeyGenerator.INSTANCE.readsGeneratedKeys(withKeyProperty));
+    assertFalse(Jdbc3KeyGenerator.INSTANCE.readsGeneratedKeys(withoutKeyProperty));
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      try {
+        CountryMapper mapper = sqlSession.getMapper(CountryMapper.class);
+        Country country = new Country("China", "CN");
+        assertEquals(1, mapper.insertBeanWithoutKeyProperty(country));
+        assertNull(country.getId());
+      } finally {
+        sqlSession.rollback();
+      }
+    }
+  }
+
   @Test
   void shouldAssignKeyToNamedBean() {
     try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
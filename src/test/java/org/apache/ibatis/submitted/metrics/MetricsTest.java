@@ -0,0 +1,120 @@
+/**
+ *    Copyright 2009-2019 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.submitted.metrics;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.Reader;
+
+import org.apache.ibatis.BaseDataTest;
+import org.apache.ibatis.datasource.pooled.PooledDataSource;
+import org.apache.ibatis.io.Resources;
+import org.apache.ibatis.metrics.CacheLevel;
+import org.apache.ibatis.metrics.HistogramMetricsCollector;
+import org.apache.ibatis.metrics.StatementPhase;
+import org.apache.ibatis.session.SqlSession;
+import org.apache.ibatis.session.SqlSessionFactory;
+import org.apache.ibatis.session.SqlSessionFactoryBuilder;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class MetricsTest {
+
+  private static final String GET_USERS = "org.apache.ibatis.submitted.metrics.Mapper.getUsers";
+  private static final String GET_USERS_NOT_CACHED = "org.apache.ibatis.submitted.metrics.Mapper.getUsersNotCached";
+  private static final String INSERT_USER = "org.apache.ibatis.submitted.metrics.Mapper.insertUser";
+
+  private SqlSessionFactory sqlSessionFactory;
+  private HistogramMetricsCollector metrics;
+
+  @BeforeEach
+  void setUp() throws Exception {
+    try (Reader reader = Resources.getResourceAsReader("org/apache/ibatis/submitted/metrics/mybatis-config.xml")) {
+      sqlSessionFactory = new SqlSessionFactoryBuilder().build(reader);
+    }
+    BaseDataTest.runScript(sqlSessionFactory.getConfiguration().getEnvironment().getDataSource(),
+        "org/apache/ibatis/submitted/metrics/CreateDB.sql");
+    metrics = (HistogramMetricsCollector) sqlSessionFactory.getConfiguration().getMetricsCollector();
+    metrics.clear();
+  }
+
+  @Test
+  void shouldRecordEachPhaseOfAQuery() {
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      assertEquals(3, sqlSession.getMapper(Mapper.class).getUsersNotCached().size());
+    }
+    for (StatementPhase phase : StatementPhase.values()) {
+      assertEquals(1, metrics.getHistogram(GET_USERS_NOT_CACHED, phase).getCount(), phase.name());
+    }
+    assertEquals(3, metrics.getRows(GET_USERS_NOT_CACHED));
+  }
+
+  @Test
+  void shouldRecordTheExecutionOfAnUpdate() {
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      User user = new User();
+      user.setId(4);
+      user.setName("User4");
+      sqlSession.getMapper(Mapper.class).insertUser(user);
+      sqlSession.commit();
+    }
+    assertEquals(1, metrics.getHistogram(INSERT_USER, StatementPhase.PARAMETERIZE).getCount());
+    assertEquals(1, metrics.getHistogram(INSERT_USER, StatementPhase.EXECUTE).getCount());
+    assertNull(metrics.getHistogram(INSERT_USER, StatementPhase.MAP_RESULTS));
+  }
+
+  @Test
+  void shouldCountLocalCacheHitsAndMisses() {
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      Mapper mapper = sqlSession.getMapper(Mapper.class);
+      mapper.getUsersNotCached();
+      mapper.getUsersNotCached();
+      mapper.getUsersNotCached();
+    }
+    assertEquals(2, metrics.getCacheHits(GET_USERS_NOT_CACHED, CacheLevel.LOCAL));
+    assertEquals(1, metrics.getCacheMisses(GET_USERS_NOT_CACHED, CacheLevel.LOCAL));
+    assertEquals(1, metrics.getHistogram(GET_USERS_NOT_CACHED, StatementPhase.EXECUTE).getCount());
+  }
+
+  @Test
+  void shouldCountSecondLevelCacheHitsAndMisses() {
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      sqlSession.getMapper(Mapper.class).getUsers();
+    }
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      sqlSession.getMapper(Mapper.class).getUsers();
+    }
+    assertEquals(1, metrics.getCacheHits(GET_USERS, CacheLevel.SECOND_LEVEL));
+    assertEquals(1, metrics.getCacheMisses(GET_USERS, CacheLevel.SECOND_LEVEL));
+    assertEquals(1, metrics.getCacheMisses(GET_USERS, CacheLevel.LOCAL));
+    assertEquals(3, metrics.getRows(GET_USERS));
+  }
+
+  @Test
+  void shouldRecordThePoolWait() {
+    PooledDataSource dataSource = (PooledDataSource) sqlSessionFactory.getConfiguration().getEnvironment().getDataSource();
+    assertSame(metrics, dataSource.getMetricsCollector());
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      sqlSession.getMapper(Mapper.class).getUsersNotCached();
+    }
+    assertEquals(1, metrics.getPoolWaitHistogram().getCount());
+    assertTrue(metrics.getPoolWaitHistogram().getMax() > 0);
+  }
+
+}
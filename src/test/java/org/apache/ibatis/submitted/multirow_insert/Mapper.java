@@ -0,0 +1,44 @@
+/**
+ *    Copyright 2009-2019 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.submitted.multirow_insert;
+
+import java.util.List;
+
+import org.apache.ibatis.annotations.Insert;
+import org.apache.ibatis.annotations.Options;
+import org.apache.ibatis.annotations.Select;
+
+public interface Mapper {
+
+  @Insert("insert into items (name, code) values (#{name}, #{code})")
+  @Options(useGeneratedKeys = true, keyProperty = "id")
+  int insertItem(Item item);
+
+  @Insert({
+      "<script>",
+      "insert into items (name<if test='code != null'>, code</if>)",
+      "values (#{name}<if test='code != null'>, #{code}</if>)",
+      "</script>" })
+  @Options(useGeneratedKeys = true, keyProperty = "id")
+  int insertItemSelectively(Item item);
+
+  @Insert("insert into items (name, code) select #{name}, 'values (?)' from (values(0))")
+  int insertItemFromSelect(Item item);
+
+  @Select("select * from items order by id")
+  List<Item> getItems();
+
+}
@@ -0,0 +1,159 @@
+/**
+ *    Copyright 2009-2019 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.submitted.multirow_insert;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.Reader;
+import java.sql.Connection;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.apache.ibatis.BaseDataTest;
+import org.apache.ibatis.executor.BatchExecutor;
+import org.apache.ibatis.executor.statement.StatementHandler;
+import org.apache.ibatis.io.Resources;
+import org.apache.ibatis.plugin.Interceptor;
+import org.apache.ibatis.plugin.Intercepts;
+import org.apache.ibatis.plugin.Invocation;
+import org.apache.ibatis.plugin.Signature;
+import org.apache.ibatis.session.ExecutorType;
+import org.apache.ibatis.session.SqlSession;
+import org.apache.ibatis.session.SqlSessionFactory;
+import org.apache.ibatis.session.SqlSessionFactoryBuilder;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class MultiRowInsertTest {
+
+  private static final String INSERT_ITEM = "org.apache.ibatis.submitted.multirow_insert.Mapper.insertItem";
+
+  private static SqlSessionFactory sqlSessionFactory;
+  private static final List<String> preparedSqls = new ArrayList<>();
+
+  @BeforeAll
+  static void setUp() throws Exception {
+    try (Reader reader = Resources.getResourceAsReader("org/apache/ibatis/submitted/multirow_insert/mybatis-config.xml")) {
+      sqlSessionFactory = new SqlSessionFactoryBuilder().build(reader);
+    }
+    sqlSessionFactory.getConfiguration().addInterceptor(new PrepareRecorder());
+  }
+
+  @BeforeEach
+  void createTable() throws Exception {
+    BaseDataTest.runScript(sqlSessionFactory.getConfiguration().getEnvironment().getDataSource(),
+        "org/apache/ibatis/submitted/multirow_insert/CreateDB.sql");
+    preparedSqls.clear();
+  }
+
+  @Test
+  void shouldInsertRowsInChunksAndAssignGeneratedKeys() {
+    List<Item> items = newItems(71);
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      assertEquals(71, sqlSession.insertAll(INSERT_ITEM, items));
+      // 64 + 4 + 2 + 1
+      assertEquals(4, preparedSqls.size());
+      assertEquals(64, countTuples(preparedSqls.get(0)));
+      assertEquals(4, countTuples(preparedSqls.get(1)));
+      assertEquals(2, countTuples(preparedSqls.get(2)));
+      assertEquals(1, countTuples(preparedSqls.get(3)));
+      assertInserted(sqlSession, items);
+    }
+  }
+
+  @Test
+  void shouldInsertRowsInChunksInBatch() {
+    List<Item> items = newItems(7);
+    try (SqlSession sqlSession = sqlSessionFactory.openSession(ExecutorType.BATCH)) {
+      assertEquals(BatchExecutor.BATCH_UPDATE_RETURN_VALUE, sqlSession.insertAll(INSERT_ITEM, items));
+      // 4 + 2 + 1
+      assertEquals(3, sqlSession.flushStatements().size());
+      assertInserted(sqlSession, items);
+    }
+  }
+
+  @Test
+  void shouldStartNewChunkWhenSqlChanges() {
+    List<Item> items = Arrays.asList(new Item("a", "1"), new Item("b", "2"), new Item("c", null), new Item("d", null),
+        new Item("e", "5"));
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      assertEquals(5, sqlSession.insertAll("org.apache.ibatis.submitted.multirow_insert.Mapper.insertItemSelectively", items));
+      assertEquals(3, preparedSqls.size());
+      assertEquals(2, countTuples(preparedSqls.get(0)));
+      assertEquals(2, countTuples(preparedSqls.get(1)));
+      assertEquals(1, countTuples(preparedSqls.get(2)));
+      assertInserted(sqlSession, items);
+    }
+  }
+
+  @Test
+  void shouldInsertOneByOneWhenStatementCannotBeRewritten() {
+    List<Item> items = newItems(3);
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      assertEquals(3, sqlSession.insertAll("org.apache.ibatis.submitted.multirow_insert.Mapper.insertItemFromSelect", items));
+      assertEquals(3, preparedSqls.size());
+      List<Item> inserted = sqlSession.getMapper(Mapper.class).getItems();
+      assertEquals(3, inserted.size());
+      assertEquals("values (?)", inserted.get(0).getCode());
+    }
+  }
+
+  @Test
+  void shouldInsertOneByOneWhenRewritingIsDisabled() {
+    sqlSessionFactory.getConfiguration().setMultiRowInsertMaxRows(1);
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      assertEquals(3, sqlSession.insertAll(INSERT_ITEM, newItems(3)));
+      assertEquals(3, preparedSqls.size());
+    } finally {
+      sqlSessionFactory.getConfiguration().setMultiRowInsertMaxRows(64);
+    }
+  }
+
+  private static List<Item> newItems(int count) {
+    List<Item> items = new ArrayList<>();
+    for (int i = 0; i < count; i++) {
+      items.add(new Item("item" + i, "code" + i));
+    }
+    return items;
+  }
+
+  private static int countTuples(String sql) {
+    return sql.split("\\(\\?").length - 1;
+  }
+
+  private static void assertInserted(SqlSession sqlSession, List<Item> items) {
+    List<Item> inserted = sqlSession.getMapper(Mapper.class).getItems();
+    assertEquals(items.size(), inserted.size());
+    for (int i = 0; i < items.size(); i++) {
+      assertEquals(inserted.get(i).getId(), items.get(i).getId());
+      assertEquals(inserted.get(i).getName(), items.get(i).getName());
+      assertEquals(inserted.get(i).getCode(), items.get(i).getCode());
+    }
+  }
+
+  @Intercepts(@Signature(type = StatementHandler.class, method = "prepare", args = { Connection.class, Integer.class }))
+  public static class PrepareRecorder implements Interceptor {
+
+    @Override
+    public Object intercept(Invocation invocation) throws Throwable {
+      preparedSqls.add(((StatementHandler) invocation.getTarget()).getBoundSql().getSql());
+      return invocation.proceed();
+    }
+  }
+
+}
@@ -21,6 +21,8 @@ import java.util.List;
 import org.apache.ibatis.BaseDataTest;
 import org.apache.ibatis.exceptions.PersistenceException;
 import org.apache.ibatis.io.Resources;
+import org.apache.ibatis.metrics.HistogramMetricsCollector;
+import org.apache.ibatis.session.Configuration;
 import org.apache.ibatis.session.SqlSession;
 import org.apache.ibatis.session.SqlSessionFactory;
 import org.apache.ibatis.session.SqlSessionFactoryBuilder;
@@ -142,4 +144,21 @@ class NestedResultHandlerTest {
     }
   }
 
+  @Test
+  void shouldOnlyRetainObjectsOfCurrentParentWhenResultOrdered() {
+    Configuration configuration = sqlSessionFactory.getConfiguration();
+    HistogramMetricsCollector metrics = new HistogramMetricsCollector();
+    configuration.setMetricsCollector(metrics);
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      Mapper mapper = sqlSession.getMapper(Mapper.class);
+      Assertions.assertEquals(3, mapper.getPersons().size());
+      Assertions.assertEquals(3, mapper.getPersonsWithItemsOrdered().size());
+    } finally {
+      configuration.setMetricsCollector(null);
+    }
+    // 3 persons and 5 items, the largest person owns 2 items
+    Assertions.assertEquals(3, metrics.getPeakNestedResultObjects("org.apache.ibatis.submitted.nestedresulthandler.Mapper.getPersons"));
+    Assertions.assertEquals(8, metrics.getPeakNestedResultObjects("org.apache.ibatis.submitted.nestedresulthandler.Mapper.getPersonsWithItemsOrdered"));
+  }
+
 }
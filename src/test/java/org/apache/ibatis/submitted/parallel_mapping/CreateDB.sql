@@ -0,0 +1,31 @@
+--
+--    Copyright 2009-2019 the original author or authors.
+--
+--    Licensed under the Apache License, Version 2.0 (the "License");
+--    you may not use this file except in compliance with the License.
+--    You may obtain a copy of the License at
+--
+--       http://www.apache.org/licenses/LICENSE-2.0
+--
+--    Unless required by applicable law or agreed to in writing, software
+--    distributed under the License is distributed on an "AS IS" BASIS,
+--    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+--    See the License for the specific language governing permissions and
+--    limitations under the License.
+--
+
+drop table items if exists;
+
+create table items (
+  id int primary key,
+  name varchar(20),
+  price decimal(10, 2),
+  quantity int,
+  created timestamp,
+  active boolean
+);
+
+insert into items (id, name, price, quantity, created, active)
+  select x, 'Item' || x, x * 1.25, case when mod(x, 10) = 0 then null else mod(x, 7) end,
+    timestamp '2019-01-01 00:00:00' + x second, case when mod(x, 2) = 0 then true else false end
+  from unnest(sequence_array(1, 3000, 1)) as t(x);
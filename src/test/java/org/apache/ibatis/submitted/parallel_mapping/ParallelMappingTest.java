@@ -0,0 +1,94 @@
+/**
+ *    Copyright 2009-2019 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.submitted.parallel_mapping;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.ibatis.BaseDataTest;
+import org.apache.ibatis.io.Resources;
+import org.apache.ibatis.session.RowBounds;
+import org.apache.ibatis.session.SqlSession;
+import org.apache.ibatis.session.SqlSessionFactory;
+import org.apache.ibatis.session.SqlSessionFactoryBuilder;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+class ParallelMappingTest {
+
+  private static final int ROWS = 3000;
+
+  private static SqlSessionFactory sqlSessionFactory;
+
+  @BeforeAll
+  static void setUp() throws Exception {
+    try (Reader reader = Resources.getResourceAsReader("org/apache/ibatis/submitted/parallel_mapping/mybatis-config.xml")) {
+      sqlSessionFactory = new SqlSessionFactoryBuilder().build(reader);
+    }
+    BaseDataTest.runScript(sqlSessionFactory.getConfiguration().getEnvironment().getDataSource(),
+        "org/apache/ibatis/submitted/parallel_mapping/CreateDB.sql");
+  }
+
+  @Test
+  void shouldMapRowsInOrderOnTheForkJoinPool() {
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      Mapper mapper = sqlSession.getMapper(Mapper.class);
+      List<Item> items = mapper.getItems();
+      List<Item> parallelItems = mapper.getItemsInParallel();
+      assertEquals(ROWS, parallelItems.size());
+      assertEquals(items.toString(), parallelItems.toString());
+      assertNull(parallelItems.get(9).getQuantity());
+      assertFalse(items.stream().anyMatch(Item::isMappedInPool));
+      assertTrue(parallelItems.stream().anyMatch(Item::isMappedInPool));
+    }
+  }
+
+  @Test
+  void shouldApplyRowBounds() {
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      List<Item> items = sqlSession.getMapper(Mapper.class).selectItemsInParallel(new RowBounds(10, 1000));
+      assertEquals(1000, items.size());
+      for (int i = 0; i < items.size(); i++) {
+        Item item = items.get(i);
+        assertEquals(Integer.valueOf(i + 11), item.getId());
+        assertEquals("Item" + (i + 11), item.getName());
+        // not in the result map, mapped automatically
+        assertNotNull(item.getCreated());
+      }
+    }
+  }
+
+  @Test
+  void shouldStopWhenResultHandlerStops() {
+    List<Integer> ids = new ArrayList<>();
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      sqlSession.getMapper(Mapper.class).scanItemsInParallel(context -> {
+        ids.add(context.getResultObject().getId());
+        if (ids.size() == 700) {
+          context.stop();
+        }
+      });
+    }
+    assertEquals(700, ids.size());
+    for (int i = 0; i < ids.size(); i++) {
+      assertEquals(Integer.valueOf(i + 1), ids.get(i));
+    }
+  }
+
+}
@@ -0,0 +1,37 @@
+--
+--    Copyright 2009-2019 the original author or authors.
+--
+--    Licensed under the Apache License, Version 2.0 (the "License");
+--    you may not use this file except in compliance with the License.
+--    You may obtain a copy of the License at
+--
+--       http://www.apache.org/licenses/LICENSE-2.0
+--
+--    Unless required by applicable law or agreed to in writing, software
+--    distributed under the License is distributed on an "AS IS" BASIS,
+--    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+--    See the License for the specific language governing permissions and
+--    limitations under the License.
+--
+
+drop table posts if exists;
+drop table authors if exists;
+
+create table authors (
+  id int,
+  name varchar(20)
+);
+
+create table posts (
+  id int,
+  author_id int,
+  title varchar(20)
+);
+
+insert into authors (id, name) values (1, 'Author1');
+insert into authors (id, name) values (2, 'Author2');
+
+insert into posts (id, author_id, title) values (1, 1, 'Post1');
+insert into posts (id, author_id, title) values (2, 2, 'Post2');
+insert into posts (id, author_id, title) values (3, 1, 'Post3');
+insert into posts (id, author_id, title) values (4, 2, 'Post4');
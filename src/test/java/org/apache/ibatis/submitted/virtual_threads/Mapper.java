@@ -0,0 +1,41 @@
+/**
+ *    Copyright 2009-2019 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.submitted.virtual_threads;
+
+import org.apache.ibatis.annotations.CacheNamespace;
+import org.apache.ibatis.annotations.One;
+import org.apache.ibatis.annotations.Options;
+import org.apache.ibatis.annotations.Result;
+import org.apache.ibatis.annotations.Results;
+import org.apache.ibatis.annotations.Select;
+import org.apache.ibatis.cache.decorators.SoftCache;
+import org.apache.ibatis.mapping.FetchType;
+
+@CacheNamespace(eviction = SoftCache.class)
+public interface Mapper {
+
+  @Select("select * from posts where id = #{id}")
+  @Results({
+      @Result(property = "id", column = "id", id = true),
+      @Result(property = "author", column = "author_id", one = @One(select = "getAuthor", fetchType = FetchType.LAZY))
+  })
+  @Options(useCache = false)
+  Post getPost(int id);
+
+  @Select("select * from authors where id = #{id}")
+  Author getAuthor(int id);
+
+}
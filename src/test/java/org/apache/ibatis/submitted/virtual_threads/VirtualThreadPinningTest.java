@@ -0,0 +1,188 @@
+/**
+ *    Copyright 2009-2019 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.submitted.virtual_threads;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+import java.lang.reflect.Method;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+import org.apache.ibatis.BaseDataTest;
+import org.apache.ibatis.datasource.pooled.ConcurrentPooledDataSource;
+import org.apache.ibatis.datasource.pooled.PooledDataSource;
+import org.apache.ibatis.mapping.Environment;
+import org.apache.ibatis.session.Configuration;
+import org.apache.ibatis.session.SqlSession;
+import org.apache.ibatis.session.SqlSessionFactory;
+import org.apache.ibatis.session.SqlSessionFactoryBuilder;
+import org.apache.ibatis.transaction.jdbc.JdbcTransactionFactory;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Runs many virtual threads through sessions sharing a small pool, a second level cache and lazy loading, and fails
+ * when one of them blocks on a monitor of MyBatis, pinning its carrier thread. Requires JDK 21 or later.
+ */
+class VirtualThreadPinningTest {
+
+  private static final int THREADS = 2000;
+
+  @Test
+  void shouldNotPinCarrierThreads() throws Exception {
+    assumeTrue(newVirtualThreadExecutor() != null, "Virtual threads are not available");
+    for (boolean concurrent : new boolean[] { false, true }) {
+      SqlSessionFactory sqlSessionFactory = createSqlSessionFactory(concurrent);
+      PinnedEventRecorder recorder = PinnedEventRecorder.start();
+      ExecutorService executor = newVirtualThreadExecutor();
+      List<Future<?>> futures = new ArrayList<>();
+      long start = System.nanoTime();
+      try {
+        for (int i = 0; i < THREADS; i++) {
+          int id = i % 4 + 1;
+          futures.add(executor.submit(() -> {
+            try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+              Post post = sqlSession.getMapper(Mapper.class).getPost(id);
+              assertEquals(id % 2 == 1 ? "Author1" : "Author2", post.getAuthor().getName());
+              sqlSession.commit();
+            }
+          }));
+        }
+        for (Future<?> future : futures) {
+          future.get();
+        }
+      } finally {
+        executor.shutdown();
+        recorder.stop();
+        ((PooledDataSource) sqlSessionFactory.getConfiguration().getEnvironment().getDataSource()).forceCloseAll();
+      }
+      // pinned carriers would make the threads waiting for a connection time out one after another
+      assertTrue(TimeUnit.NANOSECONDS.toSeconds(System.nanoTime() - start) < 30);
+      assertEquals(Collections.emptyList(), recorder.getPinnedStackTraces());
+    }
+  }
+
+  private static SqlSessionFactory createSqlSessionFactory(boolean concurrent) throws Exception {
+    PooledDataSource dataSource = concurrent ? new ConcurrentPooledDataSource() : new PooledDataSource();
+    dataSource.setDriver("org.hsqldb.jdbcDriver");
+    dataSource.setUrl("jdbc:hsqldb:mem:virtual_threads");
+    dataSource.setUsername("sa");
+    dataSource.setPoolMaximumActiveConnections(4);
+    dataSource.setPoolMaximumIdleConnections(4);
+    BaseDataTest.runScript(dataSource, "org/apache/ibatis/submitted/virtual_threads/CreateDB.sql");
+    Configuration configuration = new Configuration(new Environment("test", new JdbcTransactionFactory(), dataSource));
+    configuration.setLazyLoadingEnabled(true);
+    configuration.addMapper(Mapper.class);
+    return new SqlSessionFactoryBuilder().build(configuration);
+  }
+
+  private static ExecutorService newVirtualThreadExecutor() {
+    try {
+      return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+    } catch (ReflectiveOperationException e) {
+      return null;
+    }
+  }
+
+  /**
+   * Collects, through a JFR recording stream, the events of virtual threads blocking while pinned to their carrier:
+   * parking while holding a monitor, waiting on a monitor or blocking to enter one. Reflection keeps the test
+   * compiling on JDKs without the JFR consumer API.
+   */
+  private static final class PinnedEventRecorder {
+
+    private static final String[] EVENT_NAMES = { "jdk.VirtualThreadPinned", "jdk.JavaMonitorWait", "jdk.JavaMonitorEnter" };
+
+    private final Object stream;
+    private final List<String> pinnedStackTraces = Collections.synchronizedList(new ArrayList<>());
+
+    private PinnedEventRecorder() throws ReflectiveOperationException {
+      Class<?> streamType = Class.forName("jdk.jfr.consumer.RecordingStream");
+      stream = streamType.getConstructor().newInstance();
+      Consumer<Object> action = this::record;
+      for (String eventName : EVENT_NAMES) {
+        Object settings = streamType.getMethod("enable", String.class).invoke(stream, eventName);
+        Class.forName("jdk.jfr.EventSettings").getMethod("withThreshold", Duration.class).invoke(settings, Duration.ZERO);
+        streamType.getMethod("onEvent", String.class, Consumer.class).invoke(stream, eventName, action);
+      }
+      streamType.getMethod("startAsync").invoke(stream);
+    }
+
+    static PinnedEventRecorder start() throws ReflectiveOperationException {
+      return new PinnedEventRecorder();
+    }
+
+    void stop() throws ReflectiveOperationException {
+      // stop() waits until the recorded events are consumed
+      stream.getClass().getMethod("stop").invoke(stream);
+      stream.getClass().getMethod("close").invoke(stream);
+    }
+
+    List<String> getPinnedStackTraces() {
+      return pinnedStackTraces;
+    }
+
+    private void record(Object event) {
+      try {
+        Object thread = invoke(event, "jdk.jfr.consumer.RecordedEvent", "getThread");
+        if (thread == null || !(Boolean) invoke(thread, "jdk.jfr.consumer.RecordedThread", "isVirtual")) {
+          return;
+        }
+        String eventName = (String) invoke(invoke(event, "jdk.jfr.consumer.RecordedEvent", "getEventType"),
+            "jdk.jfr.EventType", "getName");
+        boolean parked = "jdk.VirtualThreadPinned".equals(eventName);
+        Object stackTrace = invoke(event, "jdk.jfr.consumer.RecordedEvent", "getStackTrace");
+        StringBuilder trace = new StringBuilder();
+        String blockingClass = null;
+        for (Object frame : (List<?>) invoke(stackTrace, "jdk.jfr.consumer.RecordedStackTrace", "getFrames")) {
+          Object method = invoke(frame, "jdk.jfr.consumer.RecordedFrame", "getMethod");
+          String className = (String) invoke(invoke(method, "jdk.jfr.consumer.RecordedMethod", "getType"),
+              "jdk.jfr.consumer.RecordedClass", "getName");
+          // a monitor is entered or waited on by the top frame (below Object.wait), a park blames the first caller
+          // outside the JDK as the monitor is held further down the stack
+          boolean skipped = parked ? isJdkClass(className) : "java.lang.Object".equals(className);
+          if (blockingClass == null && !skipped) {
+            blockingClass = className;
+          }
+          trace.append(className).append('.').append(invoke(method, "jdk.jfr.consumer.RecordedMethod", "getName")).append('\n');
+        }
+        // the monitors of the JDK (e.g. class loading) and of the driver are not under test here
+        if (blockingClass != null && blockingClass.startsWith("org.apache.ibatis.")) {
+          pinnedStackTraces.add(eventName + "\n" + trace);
+        }
+      } catch (ReflectiveOperationException e) {
+        pinnedStackTraces.add(e.toString());
+      }
+    }
+
+    private static boolean isJdkClass(String className) {
+      return className.startsWith("java.") || className.startsWith("jdk.") || className.startsWith("sun.");
+    }
+
+    private static Object invoke(Object target, String typeName, String methodName) throws ReflectiveOperationException {
+      Method method = Class.forName(typeName).getMethod(methodName);
+      return method.invoke(target);
+    }
+  }
+
+}
@@ -207,6 +207,19 @@ class TypeHandlerRegistryTest {
     assertSame(SomeInterfaceTypeHandler.class, typeHandlerRegistry.getTypeHandler(ImplementingMultiInterfaceSomeEnum.class).getClass());
   }
 
+  @Test
+  void shouldResolveAgainAfterRegisteringAHandler() {
+    class Address {
+    }
+    assertNull(typeHandlerRegistry.getTypeHandler(Address.class, JdbcType.VARCHAR));
+    typeHandlerRegistry.register(Address.class, JdbcType.VARCHAR, StringTypeHandler.class);
+    assertSame(StringTypeHandler.class, typeHandlerRegistry.getTypeHandler(Address.class, JdbcType.VARCHAR).getClass());
+    assertSame(typeHandlerRegistry.getTypeHandler(Address.class, JdbcType.VARCHAR), typeHandlerRegistry.getTypeHandler(Address.class));
+    typeHandlerRegistry.register(Address.class, JdbcType.CLOB, ClobTypeHandler.class);
+    assertSame(ClobTypeHandler.class, typeHandlerRegistry.getTypeHandler(Address.class, JdbcType.CLOB).getClass());
+    assertNull(typeHandlerRegistry.getTypeHandler(Address.class), "No sole handler anymore.");
+  }
+
   @Test
   void shouldRegisterReplaceNullMap() {
     class Address {
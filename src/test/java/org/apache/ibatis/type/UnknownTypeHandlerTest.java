@@ -100,6 +100,14 @@ class UnknownTypeHandlerTest extends BaseTypeHandlerTest {
     }
   }
 
+  @Test
+  void shouldResolveTheTypeHandlerOfAParameterClass() {
+    UnknownTypeHandler typeHandler = new UnknownTypeHandler(new TypeHandlerRegistry());
+    assertEquals(StringTypeHandler.class, typeHandler.resolveTypeHandler(String.class, null).getClass());
+    assertEquals(IntegerTypeHandler.class, typeHandler.resolveTypeHandler(Integer.class, JdbcType.INTEGER).getClass());
+    assertEquals(ObjectTypeHandler.class, typeHandler.resolveTypeHandler(Thread.class, null).getClass());
+  }
+
   @Test
   void setParameterWithNonNullParameterThrowsException() throws SQLException {
     doThrow(new SQLException("invalid column")).when((UnknownTypeHandler)TYPE_HANDLER).setNonNullParameter(ps, 1, 99, JdbcType.INTEGER);